@@ -1,10 +1,20 @@
 package com.petguardian.booking.controller;
 
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.List;
-import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -12,11 +22,12 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.petguardian.booking.model.BookingOrderRepository;
 import com.petguardian.booking.model.BookingOrderVO;
+import com.petguardian.booking.service.AdminBookingQueryService;
 import com.petguardian.booking.service.BookingService;
-import com.petguardian.sitter.model.SitterRepository;
 
 @Controller
 @RequestMapping("/admin/bookings") // 設定後台管理路徑
@@ -29,61 +40,55 @@ public class AdminBookingController {
     private BookingService bookingService;
     
     @Autowired
-    private SitterRepository sitterRepository;
+    private AdminBookingQueryService adminBookingQueryService;
 
+    /**
+     * 後台預約列表（分頁）
+     * 可選參數：status（可多個，只顯示這些狀態）、page（從 0 開始）
+     */
     @GetMapping("/all")
-    public String listAllBookings(Model model) {
-        // 1. 抓取所有預約訂單
-        List<BookingOrderVO> allBookingsRaw = orderRepository.findAll();
+    public String listAllBookings(
+            @RequestParam(required = false) List<Integer> status,
+            @RequestParam(defaultValue = "0") int page,
+            Model model) {
+        // 1. 該頁預約（排序與留存條件在資料庫完成，只補齊這一頁的保母狀態）
+        Page<BookingOrderVO> bookingPage = adminBookingQueryService.getBookingPage(status, page);
 
-        // 新增：一個月留存過濾邏輯
-        LocalDateTime oneMonthAgo = LocalDateTime.now().minusMonths(1);
-        
-        List<BookingOrderVO> allBookings = allBookingsRaw.stream()
-            .filter(order -> {
-                // 如果是 0:待確認 或 1:進行中，不論多久都顯示 (管理員必須看到未結案的)
-                if (order.getOrderStatus() == 0 || order.getOrderStatus() == 1) return true;
-                
-                // 其他已結束或特殊狀態 (2:服務完成, 3:取消中, 4:已退款, 5:已結案, 6:保母停權)
-                // 檢查最後更新時間（或開始時間）是否在一個月內
-                LocalDateTime compareDate = (order.getUpdatedAt() != null) ? order.getUpdatedAt() : order.getStartTime();
-                return compareDate.isAfter(oneMonthAgo);
-            })
-            .collect(Collectors.toList());
-        
-        // 2. 抓取所有「退款中」或「有取消原因」的訂單
-        List<BookingOrderVO> refundRequests = allBookings.stream()
-                .filter(o -> o.getOrderStatus() == 3)
-                .collect(Collectors.toList());
-        
-        // 批次抓取保姆狀態
-        java.util.Set<Integer> sitterIds = allBookings.stream()
-        		.map(BookingOrderVO::getSitterId).collect(java.util.stream.Collectors.toSet());
+        // 2. 退款申請待處理佇列
+        List<BookingOrderVO> refundRequests = adminBookingQueryService.getRefundRequests();
 
-        // 一次性查出所有保姆
-        java.util.Map<Integer, Byte> sitterStatusMap = sitterRepository.findAllById(sitterIds).stream()
-                .collect(java.util.stream.Collectors.toMap(
-                    com.petguardian.sitter.model.SitterVO::getSitterId, 
-                    com.petguardian.sitter.model.SitterVO::getSitterStatus
-                ));
-        // 補齊資料
-        allBookings.forEach(o -> o.setSitterStatus(sitterStatusMap.get(o.getSitterId())));
-        refundRequests.forEach(o -> o.setSitterStatus(sitterStatusMap.get(o.getSitterId())));
-        
-        allBookings.sort((o1, o2) -> {
-            int p1 = getAdminSortPriority(o1);
-            int p2 = getAdminSortPriority(o2);
-            if (p1 != p2) return p1 - p2;
-            // 若優先權相同，則按預約開始時間排序 (即將開始的在前)
-            return o1.getStartTime().compareTo(o2.getStartTime());
-        });
         // 3. 將資料存入 model 傳給 Thymeleaf
-        model.addAttribute("allBookings", allBookings);
+        model.addAttribute("allBookings", bookingPage.getContent());
+        model.addAttribute("bookingPage", bookingPage);
+        model.addAttribute("selectedStatuses", status != null ? status : List.of());
+        model.addAttribute("statusCounts", adminBookingQueryService.getStatusCounts());
         model.addAttribute("refundRequests", refundRequests);
         model.addAttribute("bookingService", bookingService);
 
         return "backend/bookings"; // 對應 HTML 檔案位置
     }
+
+    /**
+     * 稽核匯出 (CSV)
+     * 可選參數：status（可多個）、from、to（服務開始日期 yyyy-MM-dd）
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportBookings(
+            @RequestParam(required = false) List<Integer> status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        String filename = "bookings-" + LocalDate.now().format(DateTimeFormatter.BASIC_ISO_DATE) + ".csv";
+        StreamingResponseBody body = out -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            adminBookingQueryService.exportCsv(status, from, to, writer);
+            writer.flush();
+        };
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                .body(body);
+    }
+
     @PostMapping("/approveRefund")
     @ResponseBody // 代表回傳的是純文字或 JSON，而不是跳轉頁面
     public String approveRefund(@RequestParam Integer orderId) {
@@ -100,6 +105,7 @@ public class AdminBookingController {
             
             // 3. 呼叫 Service 執行 (使用計算後的比例)
             bookingService.approveRefund(orderId, calculatedRatio);
+            adminBookingQueryService.invalidateStatusCounts();
             
             return "success";
         } catch (Exception e) {
@@ -111,6 +117,7 @@ public class AdminBookingController {
     public String payout(@RequestParam Integer orderId) {
         try {
             bookingService.completePayout(orderId);
+            adminBookingQueryService.invalidateStatusCounts();
             return "success";
         } catch (RuntimeException e) {
             return e.getMessage();
@@ -126,6 +133,7 @@ public class AdminBookingController {
             BookingOrderVO order = orderRepository.findById(orderId).orElseThrow();
             order.setOrderStatus(1);
             orderRepository.save(order);
+            adminBookingQueryService.invalidateStatusCounts();
             return "success";
         } catch (Exception e) { return "error"; }
     }
@@ -139,6 +147,7 @@ public class AdminBookingController {
             // 清除取消原因，避免混淆（選配）
             order.setCancelReason(order.getCancelReason() + " (逾期退款，管理員強制完成)");
             orderRepository.save(order);
+            adminBookingQueryService.invalidateStatusCounts();
             return "success";
         } catch (Exception e) {
             return "error: " + e.getMessage();
@@ -157,6 +166,7 @@ public class AdminBookingController {
             // 狀態改為 5 (已結案)，使其從狀態 3 的列表中消失
             order.setOrderStatus(5);
             orderRepository.save(order);
+            adminBookingQueryService.invalidateStatusCounts();
             return "success";
         } catch (Exception e) {
             return "error: " + e.getMessage();
@@ -167,7 +177,7 @@ public class AdminBookingController {
     @ResponseBody
     public Long getRefundRequestCount() {
         //計算待處理退款的訂單總數 後台dashboard
-        return (long) orderRepository.findByOrderStatus(3).size();
+        return adminBookingQueryService.countRefundRequests();
     }
     
     @PostMapping("/suspendRefund")
@@ -175,35 +185,10 @@ public class AdminBookingController {
     public String suspendRefund(@RequestParam Integer orderId) {
         try {
             bookingService.suspendSitterRefund(orderId);
+            adminBookingQueryService.invalidateStatusCounts();
             return "success";
         } catch (Exception e) {
             return "error: " + e.getMessage();
         }
     }
-    
-    // 排序優先權輔助方法 
-    private int getAdminSortPriority(BookingOrderVO order) {
-        // 服務完成 (最高優先，因為後台可能要趕快撥款)
-        if (order.getOrderStatus() == 2) return 1;
-        // 保母已停權且訂單尚未處置 (待處置)
-        if (order.getSitterStatus() != null && order.getSitterStatus() == 1 
-            && (order.getOrderStatus() == 0 || order.getOrderStatus() == 1)) {
-            return 2;
-        }
-        // 進行中
-        if (order.getOrderStatus() == 1) return 3;
-        
-        // 待確認
-        if (order.getOrderStatus() == 0) return 4;
-        
-        // 已結案
-        if (order.getOrderStatus() == 5) return 5;
-        
-        // 已退款
-        if (order.getOrderStatus() == 4) return 6;
-        
-        // 其他
-        return 7;
-    }
-
-}
\ No newline at end of file
+}
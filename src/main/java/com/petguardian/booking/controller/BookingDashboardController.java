@@ -2,6 +2,8 @@ package com.petguardian.booking.controller;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
@@ -39,15 +41,8 @@ public class BookingDashboardController {
         // 2. 取得收藏清單 (建議在 Service 處理好「補完保母資料」的邏輯)
         List<BookingFavoriteVO> favorites = bookingService.getSitterFavoritesWithDetail(memId);
 
-        // 🔥 3. 注入平均星數
-        if (favorites != null) {
-            for (BookingFavoriteVO fav : favorites) {
-                Double avgRating = evaluateService.getAverageRatingBySitterId(fav.getSitterId());
-                if (avgRating != null) {
-                    fav.setAvgRating(avgRating);
-                }
-            }
-        }
+        // 🔥 3. 注入平均星數 (整份收藏一次查詢)
+        injectAvgRatings(favorites);
         int pageSize = 6;
         int totalRecords = favorites.size();
         int totalPages = (int) Math.ceil((double) totalRecords / pageSize);
@@ -122,18 +117,25 @@ public class BookingDashboardController {
         List<BookingFavoriteVO> detailFavs = bookingService.getSitterFavoritesWithDetail(memId);
 
         // 🔥 注入平均星數
-        if (detailFavs != null) {
-            for (BookingFavoriteVO fav : detailFavs) {
-                Double avgRating = evaluateService.getAverageRatingBySitterId(fav.getSitterId());
-                if (avgRating != null) {
-                    fav.setAvgRating(avgRating);
-                }
-            }
-        }
+        injectAvgRatings(detailFavs);
 
         // 傳遞給前端
         model.addAttribute("sitterFavorites", detailFavs);
 
         return "frontend/member-favorites";
     }
+
+    private void injectAvgRatings(List<BookingFavoriteVO> favorites) {
+        if (favorites == null || favorites.isEmpty()) {
+            return;
+        }
+        Map<Integer, Double> avgRatings = evaluateService.getAverageRatingsBySitterIds(
+                favorites.stream().map(BookingFavoriteVO::getSitterId).collect(Collectors.toList()));
+        for (BookingFavoriteVO fav : favorites) {
+            Double avgRating = avgRatings.get(fav.getSitterId());
+            if (avgRating != null) {
+                fav.setAvgRating(avgRating);
+            }
+        }
+    }
 }
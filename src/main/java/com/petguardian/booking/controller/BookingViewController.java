@@ -5,6 +5,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -22,7 +23,9 @@ import com.petguardian.area.service.AreaService;
 import com.petguardian.booking.model.BookingDisplayDTO;
 import com.petguardian.booking.model.BookingFavoriteVO;
 import com.petguardian.booking.model.BookingOrderVO;
+import com.petguardian.booking.service.BookingFavoriteService;
 import com.petguardian.booking.service.BookingService;
+import com.petguardian.booking.service.SitterCardIndex;
 import com.petguardian.common.service.AuthStrategyService;
 import com.petguardian.evaluate.service.EvaluateService;
 import com.petguardian.member.model.Member;
@@ -76,6 +79,14 @@ public class BookingViewController {
     @Autowired
     private WalletRepository walletRepository;
 
+    @Autowired
+    private SitterCardIndex sitterCardIndex;
+
+    @Autowired
+    private BookingFavoriteService favoriteService;
+
+    private static final int SEARCH_PAGE_SIZE = 6;
+
     /**
      * 【顯示保姆服務列表頁面】
      * 1. 從資料庫撈取所有保姆資料
@@ -113,18 +124,13 @@ public class BookingViewController {
             memberImageMap.put(m.getMemId(), img);
         });
 
-        // 4. 建立收藏保姆 ID 的集合 (修正變數名稱與類型)
-        java.util.Set<Integer> favSitterIds = new java.util.HashSet<>();
+        // 4~5. 如果使用者已登入，取得他收藏了哪些保姆 (快取的收藏 ID 集合)
+        Set<Integer> favSitterIds = favoriteService.getFavoriteSitterIds(currentMemId);
 
-        // 5. 如果使用者已登入，查詢他收藏了哪些保姆
-        if (currentMemId != null) {
-            favSitterIds = bookingService.getSitterFavoritesByMember(currentMemId)
-                    .stream()
-                    .map(BookingFavoriteVO::getSitterId)
-                    .collect(Collectors.toSet());
-        }
+        // 6. 這一頁保母的平均星數一次查詢
+        Map<Integer, Double> avgRatings = evaluateService.getAverageRatingsBySitterIds(sitterIds);
 
-        final java.util.Set<Integer> finalFavIds = favSitterIds;
+        final Set<Integer> finalFavIds = favSitterIds;
         final Integer finalCurrentMemId = currentMemId;
         List<BookingDisplayDTO> displayList = fullSitters.stream()
                 .filter(s -> currentMemId == null || !s.getMemId().equals(finalCurrentMemId))
@@ -144,8 +150,7 @@ public class BookingViewController {
                     dto.setServicesJson(city);
 
                     // 注入平均星數
-                    Double avgRating = evaluateService.getAverageRatingBySitterId(s.getSitterId());
-                    dto.setAvgRating(avgRating);
+                    dto.setAvgRating(avgRatings.get(s.getSitterId()));
 
                     return dto;
                 }).collect(Collectors.toList());
@@ -163,7 +168,7 @@ public class BookingViewController {
         int totalPages = (int) Math.ceil((double) totalSitters / 6);
 
 
-        // 6. 將資料傳給前端頁面
+        // 7. 將資料傳給前端頁面
         model.addAttribute("sitters", displayList);
         model.addAttribute("currentPage", page);
         model.addAttribute("totalPages", totalPages);
@@ -189,72 +194,42 @@ public class BookingViewController {
 
     /**
      * 【顯示保姆搜尋頁面】
-     * 1. 根據地區關鍵字搜尋保姆
-     * 2. 過濾啟用中的保姆
-     * 3. 排除登入者本人
+     * 1. 由保母卡片索引依行政區找出啟用中的保姆（行政區反向索引，備案比對地址）
+     * 2. 排除登入者本人
+     * 3. 只將當頁的卡片套上收藏狀態後包裝成 DTO
      */
     @GetMapping("/search")
     public String searchSitters(
             @RequestParam(required = false) String area,
+            @RequestParam(defaultValue = "0") int page,
             HttpServletRequest request,
             Model model) {
 
-        // 1. 從資料庫撈出所有保姆
-        List<SitterVO> allSitters = sitterRepository.findAll();
-
-        // 2. 取得目前登入者 ID
+        // 1. 取得目前登入者 ID
         Integer currentMemId = authStrategyService.getCurrentUserId(request);
 
-        // 3. 執行過濾條件：
-        // - 必須是啟用中 (sitterStatus == 0)
-        // - 排除登入者本人
-        // - 如果有地區參數，地址必須包含該關鍵字
-        List<SitterVO> filteredSitters = allSitters.stream()
-                .filter(s -> s.getSitterStatus() == 0) // 只顯示啟用中的保姆
-                .filter(s -> currentMemId == null || !s.getMemId().equals(currentMemId)) // 不顯示自己
-                .filter(s -> {
-                    if (area == null || area.trim().isEmpty() || "請選擇行政區".equals(area)) {
-                        return true;
-                    }
-                    // 優先檢查服務地區列表
-                            
-                    if (s.getServiceAreas() != null) {
-                        boolean matchArea = s.getServiceAreas().stream()
-                                .anyMatch(sa -> sa.getArea() != null && sa.getArea().getDistrict().equals(area));
-                        if (matchArea) return true;
-                    }
-                    // 備案：檢查地址字串
-                    return s.getSitterAdd() != null && s.getSitterAdd().contains(area);
-                })
-                .collect(Collectors.toList());
+        // 2. 未選擇行政區時不限地區
+        String keyword = (area == null || area.isBlank() || "請選擇行政區".equals(area)) ? null : area.trim();
 
-        // 4. 取得收藏狀態與頭像 (統一封裝為 DTO)
-        java.util.Set<Integer> favSitterIds = new java.util.HashSet<>();
-        if (currentMemId != null) {
-            favSitterIds = bookingService.getSitterFavoritesByMember(currentMemId)
-                    .stream()
-                    .map(BookingFavoriteVO::getSitterId)
-                    .collect(Collectors.toSet());
-        }
+        // 3. 從索引取出當頁卡片
+        SitterCardIndex.CardPage cardPage = sitterCardIndex.search(keyword, currentMemId, page, SEARCH_PAGE_SIZE);
 
-        List<Integer> memIds = filteredSitters.stream().map(SitterVO::getMemId).collect(Collectors.toList());
-        Map<Integer, String> memberImageMap = new HashMap<>();
-        sitterMemberRepository.findAllById(memIds).forEach(m -> {
-            memberImageMap.put(m.getMemId(), m.getMemImage() != null ? m.getMemImage() : "/images/default-avatar.png");
-        });
+        // 4. 套用收藏狀態 (快取的收藏 ID 集合)
+        Set<Integer> favSitterIds = favoriteService.getFavoriteSitterIds(currentMemId);
+        List<BookingDisplayDTO> displayList = cardPage.getCards().stream()
+                .map(card -> new BookingDisplayDTO(card, favSitterIds.contains(card.getSitterId())))
+                .collect(Collectors.toList());
 
-        final java.util.Set<Integer> finalFavIds = favSitterIds;
-        List<BookingDisplayDTO> displayList = filteredSitters.stream().map(s -> {
-            BookingDisplayDTO dto = new BookingDisplayDTO(s, finalFavIds.contains(s.getSitterId()));
-            dto.setMemImage(memberImageMap.getOrDefault(s.getMemId(), "/images/default-avatar.png"));
-            String city = (s.getServiceAreas() != null && !s.getServiceAreas().isEmpty()) 
-                    ? s.getServiceAreas().get(0).getArea().getCityName() : "全區服務";
-            dto.setServicesJson(city);
-            return dto;
-        }).collect(Collectors.toList());
+        int totalPages = (int) Math.ceil((double) cardPage.getTotal() / SEARCH_PAGE_SIZE);
 
         // 5. 傳遞資料給前端
         model.addAttribute("sitters", displayList);
+        model.addAttribute("totalSitters", cardPage.getTotal());
+        model.addAttribute("currentPage", page);
+        model.addAttribute("totalPages", totalPages);
+        model.addAttribute("pageUrl", "/booking/search");
+        model.addAttribute("searchArea", keyword);
+        model.addAttribute("currentMemId", currentMemId);
         model.addAttribute("order", new BookingOrderVO());
         model.addAttribute("availableCities", areaService.getAllCities());
         addCommonAttributes(request, model); // 加入共用資料（如寵物清單）
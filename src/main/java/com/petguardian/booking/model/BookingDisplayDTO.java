@@ -1,9 +1,16 @@
 package com.petguardian.booking.model;
 
+import java.util.List;
+import java.util.stream.Collectors;
+
 import com.petguardian.sitter.model.SitterVO;
 
 public class BookingDisplayDTO {
-	private SitterVO sitter; // 包裝別人的保母資料
+	private SitterVO sitter; // 包裝別人的保母資料 (由 SitterCard 建立時為 null)
+	private Integer sitterId;
+	private Integer memId;
+	private String sitterName;
+	private List<String> districts; // 服務地區的行政區
 	private boolean isFavorited; // 收藏狀態邏輯
 	private String servicesJson; // 服務列表
 	private String memImage;// 會員頭像路徑
@@ -13,6 +20,26 @@ public class BookingDisplayDTO {
 	public BookingDisplayDTO(SitterVO sitter, boolean isFavorited) {
 		this.sitter = sitter;
 		this.isFavorited = isFavorited;
+		this.sitterId = sitter.getSitterId();
+		this.memId = sitter.getMemId();
+		this.sitterName = sitter.getSitterName();
+		this.districts = (sitter.getServiceAreas() == null) ? List.of()
+				: sitter.getServiceAreas().stream()
+						.filter(sa -> sa.getArea() != null)
+						.map(sa -> sa.getArea().getDistrict())
+						.collect(Collectors.toList());
+	}
+
+	// 由預先組好的保母卡片建立 (不需再查詢保母、頭像與評價)
+	public BookingDisplayDTO(SitterCard card, boolean isFavorited) {
+		this.isFavorited = isFavorited;
+		this.sitterId = card.getSitterId();
+		this.memId = card.getMemId();
+		this.sitterName = card.getSitterName();
+		this.districts = card.getDistricts();
+		this.memImage = card.getMemImage();
+		this.avgRating = card.getAvgRating();
+		this.servicesJson = (card.getCity() != null) ? card.getCity() : "全區服務";
 	}
 
 	// Getter & Setter
@@ -24,6 +51,22 @@ public class BookingDisplayDTO {
 		this.sitter = sitter;
 	}
 
+	public Integer getSitterId() {
+		return sitterId;
+	}
+
+	public Integer getMemId() {
+		return memId;
+	}
+
+	public String getSitterName() {
+		return sitterName;
+	}
+
+	public List<String> getDistricts() {
+		return districts;
+	}
+
 	// 注意：Thymeleaf 會根據 isIsFavorited 或是 getFavorited 來抓值
 	public boolean isIsFavorited() {
 		return isFavorited;
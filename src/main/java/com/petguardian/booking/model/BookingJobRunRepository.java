@@ -0,0 +1,11 @@
+package com.petguardian.booking.model;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface BookingJobRunRepository extends JpaRepository<BookingJobRunVO, Long> {
+
+    // 作業最近一次的執行紀錄（判斷是否需要從檢查點續跑）
+    Optional<BookingJobRunVO> findFirstByJobNameOrderByRunIdDesc(String jobName);
+}
@@ -0,0 +1,65 @@
+package com.petguardian.booking.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+/**
+ * 訂單批次作業執行紀錄
+ * 每次執行一筆，同時作為分批處理的檢查點：中斷後重新執行會從 lastOrderId 之後繼續
+ */
+@Entity
+@Table(name = "booking_job_run")
+@Data
+public class BookingJobRunVO {
+
+    public static final String STATUS_RUNNING = "RUNNING";
+    public static final String STATUS_COMPLETED = "COMPLETED";
+    public static final String STATUS_FAILED = "FAILED";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "run_id")
+    private Long runId;
+
+    @Column(name = "job_name", nullable = false, length = 50)
+    private String jobName;
+
+    @Column(name = "status", nullable = false, length = 20)
+    private String status;
+
+    // 本次執行的時間基準（重新執行時沿用，確保處理範圍一致）
+    @Column(name = "cutoff_time", nullable = false)
+    private LocalDateTime cutoffTime;
+
+    // 檢查點：已處理到的最後一筆訂單編號
+    @Column(name = "last_order_id", nullable = false)
+    private Integer lastOrderId = 0;
+
+    @Column(name = "processed_count", nullable = false)
+    private Integer processedCount = 0;
+
+    @Column(name = "failed_count", nullable = false)
+    private Integer failedCount = 0;
+
+    @Column(name = "chunk_count", nullable = false)
+    private Integer chunkCount = 0;
+
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    @Column(name = "duration_ms")
+    private Long durationMs;
+
+    @Column(name = "error_message", length = 500)
+    private String errorMessage;
+}
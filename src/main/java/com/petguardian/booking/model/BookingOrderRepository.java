@@ -1,9 +1,18 @@
 package com.petguardian.booking.model;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import jakarta.persistence.LockModeType;
 
 public interface BookingOrderRepository extends JpaRepository<BookingOrderVO, Integer> {
 
@@ -29,4 +38,128 @@ public interface BookingOrderRepository extends JpaRepository<BookingOrderVO, In
 
     // [New] 查詢某保姆的所有歷史評價 (有文字評論的), 排序: 依結束時間由新到舊
     List<BookingOrderVO> findBySitterIdAndSitterReviewIsNotNullOrderByEndTimeDesc(Integer sitterId);
+
+    // ========== 批次作業 (BookingLifecycleJobs) 使用 ==========
+    // 以 (order_status, 時間欄位) 索引做範圍查詢，依訂單編號遞增分批 (afterId 為上一批最後一筆)
+
+    // 取消時間早於 cutoff 的訂單編號
+    @Query("SELECT o.bookingOrderId FROM BookingOrderVO o WHERE o.orderStatus = :status "
+            + "AND o.cancelTime < :cutoff AND o.bookingOrderId > :afterId ORDER BY o.bookingOrderId")
+    List<Integer> findIdsByStatusAndCancelTimeBefore(@Param("status") Integer status,
+            @Param("cutoff") LocalDateTime cutoff, @Param("afterId") Integer afterId, Pageable pageable);
+
+    // 建立時間早於 cutoff 的訂單編號
+    @Query("SELECT o.bookingOrderId FROM BookingOrderVO o WHERE o.orderStatus = :status "
+            + "AND o.createdAt < :cutoff AND o.bookingOrderId > :afterId ORDER BY o.bookingOrderId")
+    List<Integer> findIdsByStatusAndCreatedAtBefore(@Param("status") Integer status,
+            @Param("cutoff") LocalDateTime cutoff, @Param("afterId") Integer afterId, Pageable pageable);
+
+    // 服務結束時間早於 cutoff 的訂單編號
+    @Query("SELECT o.bookingOrderId FROM BookingOrderVO o WHERE o.orderStatus = :status "
+            + "AND o.endTime < :cutoff AND o.bookingOrderId > :afterId ORDER BY o.bookingOrderId")
+    List<Integer> findIdsByStatusAndEndTimeBefore(@Param("status") Integer status,
+            @Param("cutoff") LocalDateTime cutoff, @Param("afterId") Integer afterId, Pageable pageable);
+
+    // 鎖定一批仍為指定狀態的訂單（其他交易已改變狀態的會被排除）
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM BookingOrderVO o WHERE o.bookingOrderId IN :ids AND o.orderStatus = :status")
+    List<BookingOrderVO> findForUpdateByIdInAndStatus(@Param("ids") Collection<Integer> ids,
+            @Param("status") Integer status);
+
+    // 批次變更狀態並在原因欄位後附加說明（僅限仍為 fromStatus 的訂單）
+    @Modifying
+    @Query("UPDATE BookingOrderVO o SET o.orderStatus = :toStatus, "
+            + "o.cancelReason = CONCAT(COALESCE(o.cancelReason, ''), :note) "
+            + "WHERE o.bookingOrderId IN :ids AND o.orderStatus = :fromStatus")
+    int bulkTransition(@Param("ids") Collection<Integer> ids, @Param("fromStatus") Integer fromStatus,
+            @Param("toStatus") Integer toStatus, @Param("note") String note);
+
+    // 批次變更狀態（僅限仍為 fromStatus 的訂單）
+    @Modifying
+    @Query("UPDATE BookingOrderVO o SET o.orderStatus = :toStatus "
+            + "WHERE o.bookingOrderId IN :ids AND o.orderStatus = :fromStatus")
+    int bulkUpdateStatus(@Param("ids") Collection<Integer> ids, @Param("fromStatus") Integer fromStatus,
+            @Param("toStatus") Integer toStatus);
+
+    // ========== 服務結束自動完成 (BookingExpiryScheduler) 使用 ==========
+
+    // 即將結束的進行中訂單 (待確認 / 進行中)，回傳順序: bookingOrderId, endTime
+    @Query("SELECT o.bookingOrderId, o.endTime FROM BookingOrderVO o "
+            + "WHERE o.orderStatus IN (0, 1) AND o.endTime > :from AND o.endTime <= :to")
+    List<Object[]> findActiveEndingBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    // 將已過結束時間的指定訂單改為已完成 (狀態已改變或時間未到的不動)
+    @Modifying
+    @Query("UPDATE BookingOrderVO o SET o.orderStatus = 2 "
+            + "WHERE o.bookingOrderId IN :ids AND o.orderStatus IN (0, 1) AND o.endTime <= :now")
+    int completeEndedOrders(@Param("ids") Collection<Integer> ids, @Param("now") LocalDateTime now);
+
+    // 補漏：所有已過結束時間的進行中訂單改為已完成
+    @Modifying
+    @Query("UPDATE BookingOrderVO o SET o.orderStatus = 2 WHERE o.orderStatus IN (0, 1) AND o.endTime <= :now")
+    int completeAllEndedOrders(@Param("now") LocalDateTime now);
+
+    // ========== 排程重建 (ScheduleProjectionRebuilder) 使用 ==========
+
+    /**
+     * 依訂單編號分批讀取排程重建需要的欄位（可依保母、服務開始時間區間縮小範圍，參數為 null 代表不限）
+     * 回傳順序: bookingOrderId, sitterId, startTime, endTime, orderStatus
+     */
+    @Query("SELECT o.bookingOrderId, o.sitterId, o.startTime, o.endTime, o.orderStatus FROM BookingOrderVO o "
+            + "WHERE o.bookingOrderId > :afterId "
+            + "AND (:sitterId IS NULL OR o.sitterId = :sitterId) "
+            + "AND (:fromTime IS NULL OR o.startTime >= :fromTime) "
+            + "AND (:toTime IS NULL OR o.startTime < :toTime) "
+            + "ORDER BY o.bookingOrderId")
+    List<Object[]> findScheduleRowsAfter(@Param("afterId") Integer afterId, @Param("sitterId") Integer sitterId,
+            @Param("fromTime") LocalDateTime fromTime, @Param("toTime") LocalDateTime toTime, Pageable pageable);
+
+    // ========== 後台預約管理 (AdminBookingQueryService) 使用 ==========
+
+    // 後台列表的留存條件：待確認、進行中一律顯示，其餘狀態只顯示最後更新（無則開始時間）在 since 之後的訂單
+    String ADMIN_WINDOW = "(o.orderStatus IN (0, 1) OR o.updatedAt > :since OR (o.updatedAt IS NULL AND o.startTime > :since))";
+
+    /**
+     * 後台預約列表（分頁，排序與 AdminBookingController 的處理優先權相同）
+     * 1:服務完成(待撥款) 2:保母已停權且未結案 3:進行中 4:待確認 5:已撥款 6:已退款 7:其他，同優先權依開始時間
+     * Pageable 不可帶排序
+     */
+    @Query(value = "SELECT o FROM BookingOrderVO o LEFT JOIN SitterVO s ON s.sitterId = o.sitterId "
+            + "WHERE o.orderStatus IN :statuses AND " + ADMIN_WINDOW + " "
+            + "ORDER BY CASE WHEN o.orderStatus = 2 THEN 1 "
+            + "WHEN s.sitterStatus = 1 AND o.orderStatus IN (0, 1) THEN 2 "
+            + "WHEN o.orderStatus = 1 THEN 3 WHEN o.orderStatus = 0 THEN 4 "
+            + "WHEN o.orderStatus = 5 THEN 5 WHEN o.orderStatus = 4 THEN 6 ELSE 7 END, "
+            + "o.startTime, o.bookingOrderId",
+            countQuery = "SELECT COUNT(o) FROM BookingOrderVO o WHERE o.orderStatus IN :statuses AND " + ADMIN_WINDOW)
+    Page<BookingOrderVO> findAdminPage(@Param("statuses") Collection<Integer> statuses,
+            @Param("since") LocalDateTime since, Pageable pageable);
+
+    /**
+     * 後台列表各狀態筆數（與 findAdminPage 相同的留存條件）
+     * 回傳順序: orderStatus, count
+     */
+    @Query("SELECT o.orderStatus, COUNT(o) FROM BookingOrderVO o WHERE " + ADMIN_WINDOW + " GROUP BY o.orderStatus")
+    List<Object[]> countAdminByStatus(@Param("since") LocalDateTime since);
+
+    /**
+     * 退款申請待處理佇列（依服務開始時間，即將開始的在前）
+     */
+    List<BookingOrderVO> findByOrderStatusOrderByStartTimeAsc(Integer orderStatus);
+
+    /**
+     * 稽核匯出：依訂單編號分批讀取（服務開始時間區間參數為 null 代表不限）
+     * 回傳順序: bookingOrderId, memId, sitterId, petId, serviceItemId, reservationFee, startTime, endTime,
+     * orderStatus, cancelReason, cancelTime, createdAt, updatedAt
+     */
+    @Query("SELECT o.bookingOrderId, o.memId, o.sitterId, o.petId, o.serviceItemId, o.reservationFee, "
+            + "o.startTime, o.endTime, o.orderStatus, o.cancelReason, o.cancelTime, o.createdAt, o.updatedAt "
+            + "FROM BookingOrderVO o "
+            + "WHERE o.bookingOrderId > :afterId AND o.orderStatus IN :statuses "
+            + "AND (:fromTime IS NULL OR o.startTime >= :fromTime) "
+            + "AND (:toTime IS NULL OR o.startTime < :toTime) "
+            + "ORDER BY o.bookingOrderId")
+    List<Object[]> findExportRowsAfter(@Param("afterId") Integer afterId,
+            @Param("statuses") Collection<Integer> statuses, @Param("fromTime") LocalDateTime fromTime,
+            @Param("toTime") LocalDateTime toTime, Pageable pageable);
 }
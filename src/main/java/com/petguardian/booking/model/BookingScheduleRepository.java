@@ -2,38 +2,109 @@ package com.petguardian.booking.model;
 
 import java.time.LocalDate;
 import java.util.List;
-import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import jakarta.persistence.LockModeType;
-
+/**
+ * 保母排程
+ *
+ * 每位保母每天一筆 (sitter_id, schedule_date 唯一)，時段以 booked_bits / blocked_bits 兩個位元欄位表示。
+ * 寫入一律以單一 SQL 在資料庫端做位元運算，不先讀出實體再存回，避免並行寫入互相覆蓋。
+ */
 @Repository
 public interface BookingScheduleRepository extends JpaRepository<BookingScheduleVO, Integer> {
-    // 使用 PESSIMISTIC_WRITE 確保在讀取排程準備更新時，其他執行緒不能修改它
-    @Lock(LockModeType.PESSIMISTIC_WRITE)
-    @Query("SELECT s FROM BookingScheduleVO s WHERE s.sitterId = :sitterId AND s.scheduleDate = :date")
+
+    /**
+     * 查詢保母某一天的時段位元
+     * 回傳順序: bookedBits, blockedBits（當天沒有資料則為空列表）
+     */
+    @Query("SELECT s.bookedBits, s.blockedBits FROM BookingScheduleVO s "
+            + "WHERE s.sitterId = :sitterId AND s.scheduleDate = :date")
+    List<Object[]> findBitsBySitterIdAndDate(@Param("sitterId") Integer sitterId, @Param("date") LocalDate date);
+
     /**
-     * 核心功能：找尋該保姆在特定日期的排程
-     * Optional 處理「如果當天還沒有排程紀錄」的情況
+     * 依據保姆ID與日期區間查詢排程位元 (月曆顯示用，只取需要的欄位)
+     * 回傳順序: scheduleDate, bookedBits, blockedBits
      */
+    @Query("SELECT s.scheduleDate, s.bookedBits, s.blockedBits FROM BookingScheduleVO s "
+            + "WHERE s.sitterId = :sitterId AND s.scheduleDate BETWEEN :startDate AND :endDate")
+    List<Object[]> findBitsRowsBySitterIdAndDateBetween(@Param("sitterId") Integer sitterId,
+            @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    /**
+     * 查詢某一天所有保母的排程位元 (只取需要的欄位，供時段佔用索引使用)
+     * 回傳順序: sitterId, bookedBits, blockedBits
+     */
+    @Query("SELECT s.sitterId, s.bookedBits, s.blockedBits FROM BookingScheduleVO s WHERE s.scheduleDate = :date")
+    List<Object[]> findBitsRowsByDate(@Param("date") LocalDate date);
+
+    // 當天尚無排程時建立空白排程（已存在則不動）
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO booking_schedule (sitter_id, schedule_date, booked_bits, blocked_bits) "
+            + "VALUES (:sitterId, :date, 0, 0)", nativeQuery = true)
+    int insertEmptyIfAbsent(@Param("sitterId") Integer sitterId, @Param("date") LocalDate date);
 
-    Optional<BookingScheduleVO> findBySitterIdAndScheduleDate(@Param("sitterId") Integer sitterId,
-            @Param("date") LocalDate Date);
+    /**
+     * 條件式佔用時段：只有在 checkMask 時段目前全部空閒時，才將 claimMask 時段標記為已預約
+     * （claimMask 可大於 checkMask，例如多包含不需檢查的緩衝時段）
+     *
+     * @return 1 = 佔用成功，0 = 時段已被佔用（或當天排程不存在）
+     */
+    @Modifying
+    @Query(value = "UPDATE booking_schedule SET booked_bits = booked_bits | :claimMask, booking_order_id = :orderId "
+            + "WHERE sitter_id = :sitterId AND schedule_date = :date "
+            + "AND ((booked_bits | blocked_bits) & :checkMask) = 0",
+            nativeQuery = true)
+    int claimHours(@Param("sitterId") Integer sitterId,
+                   @Param("date") LocalDate date,
+                   @Param("checkMask") int checkMask,
+                   @Param("claimMask") int claimMask,
+                   @Param("orderId") Integer orderId);
+
+    /**
+     * 覆寫指定時段的狀態：mask 範圍內先清空，再依 booked / blocked 重新設定（不存在則新增）
+     * booked、blocked 須為 mask 的子集合
+     */
+    @Modifying
+    @Query(value = "INSERT INTO booking_schedule (sitter_id, schedule_date, booking_order_id, booked_bits, blocked_bits) "
+            + "VALUES (:sitterId, :date, :orderId, :booked, :blocked) "
+            + "ON DUPLICATE KEY UPDATE booked_bits = (booked_bits & ~:mask) | :booked, "
+            + "blocked_bits = (blocked_bits & ~:mask) | :blocked, booking_order_id = :orderId",
+            nativeQuery = true)
+    int overwriteHours(@Param("sitterId") Integer sitterId,
+                       @Param("date") LocalDate date,
+                       @Param("mask") int mask,
+                       @Param("booked") int booked,
+                       @Param("blocked") int blocked,
+                       @Param("orderId") Integer orderId);
+
+    /**
+     * 設定保母當天的不開放時段（保母自行設定休息），已預約時段不受影響
+     */
+    @Modifying
+    @Query(value = "INSERT INTO booking_schedule (sitter_id, schedule_date, booked_bits, blocked_bits) "
+            + "VALUES (:sitterId, :date, 0, :blocked) "
+            + "ON DUPLICATE KEY UPDATE blocked_bits = :blocked & ~booked_bits",
+            nativeQuery = true)
+    int updateBlockedBits(@Param("sitterId") Integer sitterId,
+                          @Param("date") LocalDate date,
+                          @Param("blocked") int blocked);
 
     /**
-     * [NEW] 依據保姆ID與日期區間查詢排程
-     * 用於優化月曆顯示效能，直接撈取特定月份的資料，避免全表掃描
-     * 
-     * @param sitterId  保姆編號
-     * @param startDate 開始日期 (通常是當月1號)
-     * @param endDate   結束日期 (通常是當月最後一天)
-     * @return 該區間內的排程列表
+     * 依排程編號分批讀取現有排程（排程重建比對差異用，參數為 null 代表不限）
+     * 回傳順序: scheduleId, sitterId, scheduleDate, bookedBits, blockedBits
      */
-    List<BookingScheduleVO> findBySitterIdAndScheduleDateBetween(Integer sitterId, LocalDate startDate,
-            LocalDate endDate);
+    @Query("SELECT s.scheduleId, s.sitterId, s.scheduleDate, s.bookedBits, s.blockedBits FROM BookingScheduleVO s "
+            + "WHERE s.scheduleId > :afterId "
+            + "AND (:sitterId IS NULL OR s.sitterId = :sitterId) "
+            + "AND (:fromDate IS NULL OR s.scheduleDate >= :fromDate) "
+            + "AND (:toDate IS NULL OR s.scheduleDate <= :toDate) "
+            + "ORDER BY s.scheduleId")
+    List<Object[]> findBitsRowsAfter(@Param("afterId") Integer afterId, @Param("sitterId") Integer sitterId,
+            @Param("fromDate") LocalDate fromDate, @Param("toDate") LocalDate toDate, Pageable pageable);
 }
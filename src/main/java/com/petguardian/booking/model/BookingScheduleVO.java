@@ -16,12 +16,12 @@ import lombok.Data;
 @Table(name = "booking_schedule")
 @Data
 public class BookingScheduleVO {
-	
+
 	@Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "schedule_id")
     private Integer scheduleId;
-	
+
 	@Column(name = "sitter_id", nullable = false)
     private Integer sitterId;
 
@@ -32,8 +32,18 @@ public class BookingScheduleVO {
     @JsonFormat(pattern = "yyyy-MM-dd")
     private LocalDate scheduleDate;
 
-    // 24個1小時狀態字串
-    @Column(name = "booking_status", nullable = false, length = 24)
-    private String bookingStatus = "000000000000000000000000";
-    
+    // 已預約時段位元 (第 n 位代表第 n 點鐘：預約中 / 緩衝時段)
+    @Column(name = "booked_bits", nullable = false)
+    private int bookedBits;
+
+    // 不開放時段位元 (第 n 位代表第 n 點鐘：保母休息 / 已確認鎖定)
+    @Column(name = "blocked_bits", nullable = false)
+    private int blockedBits;
+
+    /**
+     * 舊版 24 字元狀態字串 (0=空閒, 1=不開放, 2=已預約)，由位元推導，不存資料庫
+     */
+    public String getBookingStatus() {
+        return ScheduleBits.toStatusString(bookedBits, blockedBits);
+    }
 }
@@ -0,0 +1,46 @@
+package com.petguardian.booking.model;
+
+/**
+ * 排程位元與舊版 24 字元狀態字串的互換 (0=空閒, 1=不開放, 2=已預約)
+ *
+ * 屬於資料表示方式本身，放在 model，讓 BookingScheduleVO 推導狀態字串時不需依賴 service 層。
+ */
+public final class ScheduleBits {
+
+    private ScheduleBits() {
+    }
+
+    /**
+     * 24 字元字串中等於指定狀態字元的時段位元
+     */
+    public static int bitsOf(String status, char target) {
+        int bits = 0;
+        if (status == null) {
+            return bits;
+        }
+        for (int i = 0; i < 24 && i < status.length(); i++) {
+            if (status.charAt(i) == target) {
+                bits |= (1 << i);
+            }
+        }
+        return bits;
+    }
+
+    /**
+     * 由位元組回 24 字元狀態字串（同一小時兩者皆有時以已預約為準）
+     */
+    public static String toStatusString(int bookedBits, int blockedBits) {
+        char[] status = new char[24];
+        for (int i = 0; i < 24; i++) {
+            int bit = 1 << i;
+            if ((bookedBits & bit) != 0) {
+                status[i] = '2';
+            } else if ((blockedBits & bit) != 0) {
+                status[i] = '1';
+            } else {
+                status[i] = '0';
+            }
+        }
+        return new String(status);
+    }
+}
@@ -0,0 +1,38 @@
+package com.petguardian.booking.model;
+
+/**
+ * 保母單月排程（壓縮格式）
+ *
+ * bookedBits[d] / blockedBits[d] 為當月第 d+1 天的時段位元（第 n 位代表第 n 點鐘），
+ * 沒有排程的日期為 0。前端以位元判斷：已預約 → 不開放 → 空閒。
+ */
+public class ScheduleMonthDTO {
+
+    private final int year;
+    private final int month;
+    private final int[] bookedBits;
+    private final int[] blockedBits;
+
+    public ScheduleMonthDTO(int year, int month, int[] bookedBits, int[] blockedBits) {
+        this.year = year;
+        this.month = month;
+        this.bookedBits = bookedBits;
+        this.blockedBits = blockedBits;
+    }
+
+    public int getYear() {
+        return year;
+    }
+
+    public int getMonth() {
+        return month;
+    }
+
+    public int[] getBookedBits() {
+        return bookedBits;
+    }
+
+    public int[] getBlockedBits() {
+        return blockedBits;
+    }
+}
@@ -0,0 +1,178 @@
+package com.petguardian.booking.model;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 排程重建進度與差異摘要
+ *
+ * 重建進行中由 ScheduleProjectionRebuilder 持續更新，可隨時讀取目前進度；完成後保留為最近一次的結果。
+ */
+public class ScheduleRebuildReport {
+
+    public static final String PHASE_SCANNING = "SCANNING";
+    public static final String PHASE_WRITING = "WRITING";
+    public static final String PHASE_DONE = "DONE";
+    public static final String PHASE_FAILED = "FAILED";
+
+    // 重建範圍（null 代表不限）
+    private final Integer sitterId;
+    private final LocalDate fromDate;
+    private final LocalDate toDate;
+    private final int partitions;
+    private final LocalDateTime startedAt = LocalDateTime.now();
+
+    private volatile String phase = PHASE_SCANNING;
+    private volatile long scannedOrders;
+    private volatile long activeOrders;     // 佔用時段的訂單 (0, 1, 2, 5)
+    private volatile long releasedOrders;   // 釋放時段的訂單 (3, 4)
+    private volatile long scannedRows;      // 讀取的現有排程筆數
+    private volatile long changedRows;      // 需要寫入的保母日
+    private volatile long insertedRows;
+    private volatile long updatedRows;
+    private volatile long conflictRows;     // 重建期間已被其他交易修改而略過的保母日
+    private volatile long bookedHoursAdded;
+    private volatile long bookedHoursRemoved;
+    private volatile long blockedHoursRemoved;
+    private volatile long durationMs;
+    private volatile String errorMessage;
+
+    public ScheduleRebuildReport(Integer sitterId, LocalDate fromDate, LocalDate toDate, int partitions) {
+        this.sitterId = sitterId;
+        this.fromDate = fromDate;
+        this.toDate = toDate;
+        this.partitions = partitions;
+    }
+
+    public Integer getSitterId() {
+        return sitterId;
+    }
+
+    public LocalDate getFromDate() {
+        return fromDate;
+    }
+
+    public LocalDate getToDate() {
+        return toDate;
+    }
+
+    public int getPartitions() {
+        return partitions;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public String getPhase() {
+        return phase;
+    }
+
+    public void setPhase(String phase) {
+        this.phase = phase;
+    }
+
+    public long getScannedOrders() {
+        return scannedOrders;
+    }
+
+    public void setScannedOrders(long scannedOrders) {
+        this.scannedOrders = scannedOrders;
+    }
+
+    public long getActiveOrders() {
+        return activeOrders;
+    }
+
+    public void setActiveOrders(long activeOrders) {
+        this.activeOrders = activeOrders;
+    }
+
+    public long getReleasedOrders() {
+        return releasedOrders;
+    }
+
+    public void setReleasedOrders(long releasedOrders) {
+        this.releasedOrders = releasedOrders;
+    }
+
+    public long getScannedRows() {
+        return scannedRows;
+    }
+
+    public void setScannedRows(long scannedRows) {
+        this.scannedRows = scannedRows;
+    }
+
+    public long getChangedRows() {
+        return changedRows;
+    }
+
+    public void setChangedRows(long changedRows) {
+        this.changedRows = changedRows;
+    }
+
+    public long getInsertedRows() {
+        return insertedRows;
+    }
+
+    public void setInsertedRows(long insertedRows) {
+        this.insertedRows = insertedRows;
+    }
+
+    public long getUpdatedRows() {
+        return updatedRows;
+    }
+
+    public void setUpdatedRows(long updatedRows) {
+        this.updatedRows = updatedRows;
+    }
+
+    public long getConflictRows() {
+        return conflictRows;
+    }
+
+    public void setConflictRows(long conflictRows) {
+        this.conflictRows = conflictRows;
+    }
+
+    public long getBookedHoursAdded() {
+        return bookedHoursAdded;
+    }
+
+    public void setBookedHoursAdded(long bookedHoursAdded) {
+        this.bookedHoursAdded = bookedHoursAdded;
+    }
+
+    public long getBookedHoursRemoved() {
+        return bookedHoursRemoved;
+    }
+
+    public void setBookedHoursRemoved(long bookedHoursRemoved) {
+        this.bookedHoursRemoved = bookedHoursRemoved;
+    }
+
+    public long getBlockedHoursRemoved() {
+        return blockedHoursRemoved;
+    }
+
+    public void setBlockedHoursRemoved(long blockedHoursRemoved) {
+        this.blockedHoursRemoved = blockedHoursRemoved;
+    }
+
+    public long getDurationMs() {
+        return durationMs;
+    }
+
+    public void setDurationMs(long durationMs) {
+        this.durationMs = durationMs;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    public void setErrorMessage(String errorMessage) {
+        this.errorMessage = errorMessage;
+    }
+}
@@ -0,0 +1,66 @@
+package com.petguardian.booking.model;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 保母卡片（預約搜尋頁列表用）
+ *
+ * 由 SitterCardIndex 建立索引時一次組好：姓名、頭像、服務地區與評價。
+ * 建立後不再修改，收藏狀態於每次請求時另外套用。
+ */
+public class SitterCard {
+
+    private final Integer sitterId;
+    private final Integer memId;
+    private final String sitterName;
+    private final String sitterAdd;
+    private final String memImage;
+    private final String city;             // 第一個服務地區的縣市（無服務地區為 null）
+    private final List<String> districts;  // 服務地區的行政區
+    private final Double avgRating;        // 平均星數（無評價為 null）
+
+    public SitterCard(Integer sitterId, Integer memId, String sitterName, String sitterAdd, String memImage,
+            String city, List<String> districts, Double avgRating) {
+        this.sitterId = sitterId;
+        this.memId = memId;
+        this.sitterName = sitterName;
+        this.sitterAdd = sitterAdd;
+        this.memImage = memImage;
+        this.city = city;
+        this.districts = Collections.unmodifiableList(districts);
+        this.avgRating = avgRating;
+    }
+
+    public Integer getSitterId() {
+        return sitterId;
+    }
+
+    public Integer getMemId() {
+        return memId;
+    }
+
+    public String getSitterName() {
+        return sitterName;
+    }
+
+    public String getSitterAdd() {
+        return sitterAdd;
+    }
+
+    public String getMemImage() {
+        return memImage;
+    }
+
+    public String getCity() {
+        return city;
+    }
+
+    public List<String> getDistricts() {
+        return districts;
+    }
+
+    public Double getAvgRating() {
+        return avgRating;
+    }
+}
@@ -0,0 +1,226 @@
+package com.petguardian.booking.service;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.petguardian.booking.model.BookingOrderRepository;
+import com.petguardian.booking.model.BookingOrderVO;
+import com.petguardian.common.util.CsvUtils;
+import com.petguardian.sitter.model.SitterRepository;
+import com.petguardian.sitter.model.SitterVO;
+
+/**
+ * 後台預約管理查詢服務
+ *
+ * - 預約列表：以「狀態 + 最後更新時間」條件分頁查詢，排序在資料庫完成（與原本的處理優先權相同），只補齊該頁的保母狀態
+ * - 各狀態筆數：快取 COUNT_TTL_MS，後台操作後立即失效
+ * - 退款申請：獨立查詢狀態 3 的訂單
+ * - 稽核匯出：依訂單編號分批讀取並直接寫出 CSV，不將整張表載入記憶體
+ */
+@Service
+@Transactional(readOnly = true)
+public class AdminBookingQueryService {
+
+    public static final int PAGE_SIZE = 20;
+    static final int EXPORT_BATCH = 1000;
+    static final long COUNT_TTL_MS = 60_000;
+
+    // 未結案 (0, 1) 以外的訂單在後台保留的期間
+    static final int RETENTION_MONTHS = 1;
+
+    public static final List<Integer> ALL_STATUSES = List.of(0, 1, 2, 3, 4, 5, 6);
+    private static final int STATUS_REFUNDING = 3;
+
+    private static final DateTimeFormatter CSV_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    @Autowired
+    private BookingOrderRepository orderRepository;
+
+    @Autowired
+    private SitterRepository sitterRepository;
+
+    private volatile CountSnapshot countSnapshot;
+
+    /**
+     * 後台預約列表（一頁）
+     *
+     * @param statuses 只顯示這些狀態（null 或空白為全部）
+     */
+    public Page<BookingOrderVO> getBookingPage(Collection<Integer> statuses, int page) {
+        Page<BookingOrderVO> result = orderRepository.findAdminPage(normalize(statuses), retentionSince(),
+                PageRequest.of(Math.max(page, 0), PAGE_SIZE));
+        fillSitterStatus(result.getContent());
+        return result;
+    }
+
+    /**
+     * 退款申請待處理佇列
+     */
+    public List<BookingOrderVO> getRefundRequests() {
+        List<BookingOrderVO> refundRequests = orderRepository.findByOrderStatusOrderByStartTimeAsc(STATUS_REFUNDING);
+        fillSitterStatus(refundRequests);
+        return refundRequests;
+    }
+
+    /**
+     * 待處理退款筆數（後台 dashboard）
+     */
+    public long countRefundRequests() {
+        return orderRepository.countByOrderStatus(STATUS_REFUNDING);
+    }
+
+    /**
+     * 後台列表各狀態筆數 (orderStatus -> count)
+     */
+    public Map<Integer, Long> getStatusCounts() {
+        CountSnapshot snapshot = this.countSnapshot;
+        long now = System.currentTimeMillis();
+        if (snapshot == null || now - snapshot.loadedAt > COUNT_TTL_MS) {
+            Map<Integer, Long> counts = new TreeMap<>();
+            for (Object[] row : orderRepository.countAdminByStatus(retentionSince())) {
+                counts.put((Integer) row[0], ((Number) row[1]).longValue());
+            }
+            snapshot = new CountSnapshot(Collections.unmodifiableMap(counts), now);
+            this.countSnapshot = snapshot;
+        }
+        return snapshot.counts;
+    }
+
+    /**
+     * 訂單狀態被後台操作改變後呼叫，下次讀取時重新計算筆數
+     */
+    public void invalidateStatusCounts() {
+        this.countSnapshot = null;
+    }
+
+    /**
+     * 稽核匯出：以 CSV 寫出符合條件的訂單（依訂單編號排序）
+     *
+     * @param statuses 狀態（null 或空白為全部）
+     * @param fromDate 服務開始日期起（含，null 為不限）
+     * @param toDate   服務開始日期迄（含，null 為不限）
+     * @return 匯出筆數
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public long exportCsv(Collection<Integer> statuses, LocalDate fromDate, LocalDate toDate, Writer writer)
+            throws IOException {
+        List<Integer> statusList = normalize(statuses);
+        LocalDateTime fromTime = fromDate != null ? fromDate.atStartOfDay() : null;
+        LocalDateTime toTime = toDate != null ? toDate.plusDays(1).atStartOfDay() : null;
+
+        writer.write('\uFEFF'); // BOM，讓 Excel 正確辨識 UTF-8
+        writer.write("訂單編號,會員ID,保母ID,寵物ID,服務項目ID,預約金額,開始時間,結束時間,訂單狀態,取消原因,取消時間,建立時間,最後更新\n");
+
+        long exported = 0;
+        int afterId = 0;
+        while (true) {
+            // 每批各自查詢，匯出期間不持有交易與連線
+            List<Object[]> rows = orderRepository.findExportRowsAfter(afterId, statusList, fromTime, toTime,
+                    PageRequest.of(0, EXPORT_BATCH));
+            if (rows.isEmpty()) {
+                break;
+            }
+            for (Object[] row : rows) {
+                StringBuilder line = new StringBuilder();
+                for (int i = 0; i < row.length; i++) {
+                    if (i > 0) {
+                        line.append(',');
+                    }
+                    Object value = (i == 8) ? statusLabel((Integer) row[i]) : row[i];
+                    line.append(csv(value));
+                }
+                writer.write(line.append('\n').toString());
+            }
+            writer.flush();
+            exported += rows.size();
+            afterId = (Integer) rows.get(rows.size() - 1)[0];
+        }
+        return exported;
+    }
+
+    // ========== 私有輔助方法 ==========
+
+    private LocalDateTime retentionSince() {
+        return LocalDateTime.now().minusMonths(RETENTION_MONTHS);
+    }
+
+    private static List<Integer> normalize(Collection<Integer> statuses) {
+        if (statuses == null) {
+            return ALL_STATUSES;
+        }
+        List<Integer> list = statuses.stream().filter(Objects::nonNull).distinct().collect(Collectors.toList());
+        return list.isEmpty() ? ALL_STATUSES : list;
+    }
+
+    // 一次查出該頁所有保母的狀態
+    private void fillSitterStatus(List<BookingOrderVO> orders) {
+        if (orders.isEmpty()) {
+            return;
+        }
+        Set<Integer> sitterIds = orders.stream().map(BookingOrderVO::getSitterId).collect(Collectors.toSet());
+        Map<Integer, Byte> sitterStatusMap = new HashMap<>();
+        for (SitterVO sitter : sitterRepository.findAllById(sitterIds)) {
+            sitterStatusMap.put(sitter.getSitterId(), sitter.getSitterStatus());
+        }
+        orders.forEach(o -> o.setSitterStatus(sitterStatusMap.get(o.getSitterId())));
+    }
+
+    private static String statusLabel(Integer status) {
+        if (status == null) {
+            return "";
+        }
+        switch (status) {
+            case 0: return "待確認";
+            case 1: return "進行中";
+            case 2: return "服務完成";
+            case 3: return "申請退款中";
+            case 4: return "已退款";
+            case 5: return "已撥款";
+            case 6: return "保母停權";
+            default: return String.valueOf(status);
+        }
+    }
+
+    private static String csv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        if (value instanceof LocalDateTime time) {
+            return time.format(CSV_TIME);
+        }
+        if (value instanceof Number) {
+            return value.toString();
+        }
+        // 取消原因等文字欄位為使用者輸入，統一跳脫（含公式字元）
+        return CsvUtils.escape(value.toString());
+    }
+
+    private static final class CountSnapshot {
+        private final Map<Integer, Long> counts;
+        private final long loadedAt;
+
+        CountSnapshot(Map<Integer, Long> counts, long loadedAt) {
+            this.counts = counts;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.petguardian.booking.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 訂單批次作業定義（由 BookingBatchJobRunner 執行）
+ *
+ * 作業以訂單編號遞增分批：每批先取出符合條件的訂單編號，再於單一交易內整批處理。
+ */
+public interface BookingBatchJob {
+
+    /**
+     * 作業名稱（執行紀錄與檢查點以此區分）
+     */
+    String getName();
+
+    /**
+     * 依執行時間計算處理範圍的時間基準
+     */
+    LocalDateTime cutoff(LocalDateTime now);
+
+    /**
+     * 取得下一批待處理的訂單編號
+     *
+     * @param cutoff  時間基準
+     * @param afterId 上一批最後一筆訂單編號（第一批為 0）
+     * @param limit   每批筆數
+     * @return 依編號遞增排序的訂單編號，空列表代表已處理完畢
+     */
+    List<Integer> nextChunk(LocalDateTime cutoff, Integer afterId, int limit);
+
+    /**
+     * 處理一批訂單（呼叫端已開啟交易，拋出例外則整批回滾）
+     *
+     * @return 實際完成狀態轉換的筆數（已被其他流程處理的訂單不計）
+     */
+    int processChunk(List<Integer> orderIds);
+}
@@ -0,0 +1,154 @@
+package com.petguardian.booking.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.petguardian.booking.model.BookingJobRunRepository;
+import com.petguardian.booking.model.BookingJobRunVO;
+import com.petguardian.common.tx.TransactionTemplates;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 訂單批次作業執行器
+ *
+ * - 每批一個獨立交易，一批失敗時改為逐筆重試，單筆失敗只記錄不影響其他訂單
+ * - 每批完成後更新執行紀錄的檢查點 (lastOrderId)，程序中斷後下次執行會沿用原本的時間基準從檢查點繼續
+ * - 執行紀錄保存處理筆數、失敗筆數、批數與耗時
+ */
+@Slf4j
+@Component
+public class BookingBatchJobRunner {
+
+    static final int CHUNK_SIZE = 200;
+
+    @Autowired
+    private BookingJobRunRepository jobRunRepository;
+
+    private final TransactionTemplate requiresNewTemplate;
+
+    // 同一作業在本程序內不重複執行
+    private final Map<String, Boolean> running = new ConcurrentHashMap<>();
+
+    public BookingBatchJobRunner(PlatformTransactionManager transactionManager) {
+        this.requiresNewTemplate = TransactionTemplates.requiresNew(transactionManager);
+    }
+
+    /**
+     * 執行作業，回傳本次的執行紀錄（作業已在執行中則回傳 null）
+     */
+    public BookingJobRunVO run(BookingBatchJob job) {
+        if (running.putIfAbsent(job.getName(), Boolean.TRUE) != null) {
+            log.warn("[BookingJob] {} is already running, skipped", job.getName());
+            return null;
+        }
+        try {
+            return execute(job);
+        } finally {
+            running.remove(job.getName());
+        }
+    }
+
+    private BookingJobRunVO execute(BookingBatchJob job) {
+        BookingJobRunVO run = startOrResume(job);
+        LocalDateTime started = LocalDateTime.now();
+
+        try {
+            while (true) {
+                List<Integer> ids = job.nextChunk(run.getCutoffTime(), run.getLastOrderId(), CHUNK_SIZE);
+                if (ids.isEmpty()) {
+                    break;
+                }
+                processChunk(job, ids, run);
+                run.setLastOrderId(ids.get(ids.size() - 1));
+                run.setChunkCount(run.getChunkCount() + 1);
+                run = save(run);
+            }
+            run.setStatus(BookingJobRunVO.STATUS_COMPLETED);
+        } catch (RuntimeException e) {
+            // 讀取失敗等無法繼續的錯誤：保留檢查點，下次執行從中斷處繼續
+            run.setStatus(BookingJobRunVO.STATUS_FAILED);
+            run.setErrorMessage(truncate(e.getMessage()));
+            log.error("[BookingJob] {} aborted at order {}", job.getName(), run.getLastOrderId(), e);
+        }
+
+        run.setFinishedAt(LocalDateTime.now());
+        run.setDurationMs(addDuration(run.getDurationMs(), Duration.between(started, run.getFinishedAt())));
+        run = save(run);
+        log.info("[BookingJob] {} {}: processed={}, failed={}, chunks={}, duration={}ms",
+                job.getName(), run.getStatus(), run.getProcessedCount(), run.getFailedCount(),
+                run.getChunkCount(), run.getDurationMs());
+        return run;
+    }
+
+    /**
+     * 上一次執行未完成（程序中斷或中途失敗）則沿用該紀錄續跑，否則建立新的執行紀錄
+     */
+    private BookingJobRunVO startOrResume(BookingBatchJob job) {
+        Optional<BookingJobRunVO> last = jobRunRepository.findFirstByJobNameOrderByRunIdDesc(job.getName());
+        if (last.isPresent() && !BookingJobRunVO.STATUS_COMPLETED.equals(last.get().getStatus())) {
+            BookingJobRunVO resumed = last.get();
+            log.info("[BookingJob] {} resuming run {} after order {}", job.getName(), resumed.getRunId(),
+                    resumed.getLastOrderId());
+            resumed.setStatus(BookingJobRunVO.STATUS_RUNNING);
+            resumed.setErrorMessage(null);
+            return save(resumed);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        BookingJobRunVO run = new BookingJobRunVO();
+        run.setJobName(job.getName());
+        run.setStatus(BookingJobRunVO.STATUS_RUNNING);
+        run.setCutoffTime(job.cutoff(now));
+        run.setStartedAt(now);
+        return save(run);
+    }
+
+    /**
+     * 整批處理；失敗時逐筆重試，把壞資料隔離出來
+     */
+    private void processChunk(BookingBatchJob job, List<Integer> ids, BookingJobRunVO run) {
+        try {
+            Integer done = requiresNewTemplate.execute(status -> job.processChunk(ids));
+            run.setProcessedCount(run.getProcessedCount() + (done != null ? done : 0));
+            return;
+        } catch (RuntimeException e) {
+            log.warn("[BookingJob] {} chunk {}..{} failed, retrying one by one: {}", job.getName(),
+                    ids.get(0), ids.get(ids.size() - 1), e.getMessage());
+        }
+
+        for (Integer id : ids) {
+            try {
+                Integer done = requiresNewTemplate.execute(status -> job.processChunk(List.of(id)));
+                run.setProcessedCount(run.getProcessedCount() + (done != null ? done : 0));
+            } catch (RuntimeException e) {
+                run.setFailedCount(run.getFailedCount() + 1);
+                log.warn("[BookingJob] {} order {} failed: {}", job.getName(), id, e.getMessage());
+            }
+        }
+    }
+
+    private BookingJobRunVO save(BookingJobRunVO run) {
+        return requiresNewTemplate.execute(status -> jobRunRepository.save(run));
+    }
+
+    private static Long addDuration(Long previous, Duration elapsed) {
+        return (previous != null ? previous : 0L) + elapsed.toMillis();
+    }
+
+    private static String truncate(String message) {
+        if (message == null || message.length() <= 500) {
+            return message;
+        }
+        return message.substring(0, 500);
+    }
+}
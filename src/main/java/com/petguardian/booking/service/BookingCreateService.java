@@ -27,6 +27,12 @@ public class BookingCreateService {
     @Autowired
     private BookingScheduleInternalService scheduleInternalService;
 
+    @Autowired
+    private SlotClaimEngine slotClaimEngine;
+
+    @Autowired
+    private BookingExpiryScheduler expiryScheduler;
+
     @Autowired
     private BookingDataIntegrationService dataService;
     
@@ -70,7 +76,7 @@ public class BookingCreateService {
                 order.getStartTime().toLocalDate()
         );
 
-        // 檢查時段是否有重疊（使用位元運算）
+        // 檢查時段是否有重疊（使用位元運算，先快速排除明顯衝突，最終以步驟 6 的佔用結果為準）
         if ((currentSchedule & requestedBits) != 0) {
             throw new IllegalArgumentException("該時段保母已有其他預約。");
         }
@@ -96,16 +102,26 @@ public class BookingCreateService {
         // 步驟 5：存檔並更新排程
         BookingOrderVO savedOrder = orderRepository.save(order);
 
-        // 步驟 6：建立緩衝時間訂單（服務結束後多鎖1小時）
-        BookingOrderVO bufferOrder = new BookingOrderVO();
-        bufferOrder.setSitterId(savedOrder.getSitterId());
-        bufferOrder.setBookingOrderId(savedOrder.getBookingOrderId());
-        bufferOrder.setStartTime(savedOrder.getStartTime());
-        bufferOrder.setEndTime(savedOrder.getEndTime().plusHours(1)); // 結束時間延長1小時
+        // 步驟 6：佔用保母排程：正式時段 + 緩衝時段（服務結束後多鎖1小時）標記為預約中
+        // 由 SlotClaimEngine 以分段鎖 + 條件式更新一次佔用 (正式時段必須空閒)，
+        // 若期間已被其他預約搶先則拋出例外，整筆交易 (含扣款) 回滾
+        int bufferBits = scheduleInternalService.calculateBits(
+                savedOrder.getStartTime(),
+                savedOrder.getEndTime().plusHours(1)
+        );
+        boolean claimed = slotClaimEngine.claim(
+                savedOrder.getSitterId(),
+                savedOrder.getStartTime().toLocalDate(),
+                requestedBits,
+                requestedBits | bufferBits,
+                savedOrder.getBookingOrderId()
+        );
+        if (!claimed) {
+            throw new IllegalArgumentException("該時段保母已有其他預約。");
+        }
 
-        // 更新保母排程：標記為預約中（包含正式時段和緩衝時段）
-        scheduleInternalService.updateSitterSchedule(savedOrder, '2');  // '2' 表示預約中
-        scheduleInternalService.updateSitterSchedule(bufferOrder, '2'); // 緩衝時段也標記為預約中
+        // 步驟 7：登記服務結束時間，到期自動改為已完成
+        expiryScheduler.scheduleAfterCommit(savedOrder.getBookingOrderId(), savedOrder.getEndTime());
 
         return savedOrder;
     }
@@ -0,0 +1,186 @@
+package com.petguardian.booking.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.petguardian.booking.model.BookingOrderRepository;
+import com.petguardian.common.tx.AfterCommit;
+import com.petguardian.common.tx.TransactionTemplates;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 訂單服務結束自動完成排程
+ *
+ * 進行中的訂單 (0:待確認 / 1:進行中) 在結束時間一到就改為 2:已完成，不再由查詢訂單列表時順便修正：
+ * - 結束時間在未來 LOAD_HORIZON 內的訂單放入 DelayQueue，由單一背景執行緒在到期時批次更新
+ * - 每 30 分鐘載入下一段時間內即將結束的訂單；新訂單若落在此範圍內於交易提交後直接加入
+ * - 啟動時先補漏一次，之後每小時再補漏一次，處理停機期間或狀態被改回進行中的訂單
+ *
+ * 更新條件含「狀態仍為 0/1 且已過結束時間」，訂單期間被取消或多台伺服器同時觸發都不會誤改。
+ */
+@Slf4j
+@Component
+public class BookingExpiryScheduler {
+
+    static final Duration LOAD_HORIZON = Duration.ofHours(2);
+
+    @Autowired
+    private BookingOrderRepository orderRepository;
+
+    private final TransactionTemplate requiresNewTemplate;
+
+    private final DelayQueue<ExpiryTask> queue = new DelayQueue<>();
+    private final Map<Integer, ExpiryTask> queued = new ConcurrentHashMap<>();
+
+    private volatile Thread worker;
+
+    public BookingExpiryScheduler(PlatformTransactionManager transactionManager) {
+        this.requiresNewTemplate = TransactionTemplates.requiresNew(transactionManager);
+    }
+
+    /**
+     * 啟動：補漏已過期的訂單，載入即將結束的訂單並啟動背景執行緒
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        catchUp();
+        loadUpcoming();
+
+        Thread thread = new Thread(this::runLoop, "booking-expiry");
+        thread.setDaemon(true);
+        this.worker = thread;
+        thread.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        Thread thread = this.worker;
+        this.worker = null;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    /**
+     * 交易提交後登記訂單的結束時間（超出載入範圍的由定期載入處理）
+     */
+    public void scheduleAfterCommit(Integer orderId, LocalDateTime endTime) {
+        Runnable action = () -> schedule(orderId, endTime);
+        AfterCommit.run(action);
+    }
+
+    /**
+     * 載入下一段時間內即將結束的訂單
+     */
+    @Scheduled(fixedDelay = 1800000, initialDelay = 1800000) // 每 30 分鐘
+    public void loadUpcoming() {
+        LocalDateTime now = LocalDateTime.now();
+        // 載入範圍 (2 小時) 大於執行間隔 (30 分鐘)，前後兩次有重疊，不會漏掉邊界上的訂單
+        List<Object[]> rows = orderRepository.findActiveEndingBetween(now, now.plus(LOAD_HORIZON));
+        for (Object[] row : rows) {
+            schedule((Integer) row[0], (LocalDateTime) row[1]);
+        }
+        log.debug("[BookingExpiry] {} orders queued", queued.size());
+    }
+
+    /**
+     * 補漏：直接更新所有已過結束時間的進行中訂單
+     */
+    @Scheduled(fixedDelay = 3600000, initialDelay = 3600000) // 每小時
+    public void catchUp() {
+        LocalDateTime now = LocalDateTime.now();
+        Integer updated = requiresNewTemplate.execute(status -> orderRepository.completeAllEndedOrders(now));
+        if (updated != null && updated > 0) {
+            log.info("[BookingExpiry] Catch-up completed {} ended orders", updated);
+        }
+    }
+
+    void schedule(Integer orderId, LocalDateTime endTime) {
+        if (orderId == null || endTime == null
+                || endTime.isAfter(LocalDateTime.now().plus(LOAD_HORIZON))) {
+            return;
+        }
+        ExpiryTask task = new ExpiryTask(orderId, endTime);
+        ExpiryTask previous = queued.put(orderId, task);
+        if (previous != null) {
+            queue.remove(previous);
+        }
+        queue.offer(task);
+    }
+
+    private void runLoop() {
+        while (worker == Thread.currentThread()) {
+            try {
+                List<ExpiryTask> due = new ArrayList<>();
+                due.add(queue.take());
+                queue.drainTo(due); // 同一時間到期的訂單一起處理
+                fire(due);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.warn("[BookingExpiry] Failed to complete ended orders: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void fire(List<ExpiryTask> due) {
+        List<Integer> ids = new ArrayList<>(due.size());
+        for (ExpiryTask task : due) {
+            if (queued.remove(task.orderId, task)) {
+                ids.add(task.orderId);
+            }
+        }
+        if (ids.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Integer updated = requiresNewTemplate.execute(status -> orderRepository.completeEndedOrders(ids, now));
+        log.debug("[BookingExpiry] {} of {} due orders completed", updated, ids.size());
+    }
+
+    /**
+     * 到期工作：訂單編號 + 結束時間
+     */
+    private static final class ExpiryTask implements Delayed {
+
+        private final Integer orderId;
+        private final LocalDateTime endTime;
+
+        ExpiryTask(Integer orderId, LocalDateTime endTime) {
+            this.orderId = orderId;
+            this.endTime = endTime;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            long millis = Duration.between(LocalDateTime.now(), endTime).toMillis();
+            return unit.convert(millis, TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            if (other instanceof ExpiryTask task) {
+                return endTime.compareTo(task.endTime);
+            }
+            return Long.compare(getDelay(TimeUnit.MILLISECONDS), other.getDelay(TimeUnit.MILLISECONDS));
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.petguardian.booking.service;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,6 +12,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import com.petguardian.booking.model.BookingFavoriteRepository;
 import com.petguardian.booking.model.BookingFavoriteVO;
+import com.petguardian.common.tx.AfterCommit;
 import com.petguardian.petsitter.model.PetSitterServiceRepository;
 import com.petguardian.sitter.model.SitterMemberRepository;
 import com.petguardian.sitter.model.SitterMemberVO;
@@ -37,6 +39,10 @@ public class BookingFavoriteService {
     @Autowired
     private SitterMemberRepository sitterMemberRepository;
 
+    // 會員收藏的保母 ID 快取：memId -> 收藏集合 (10 分鐘過期，切換收藏時於交易提交後清除)
+    private static final long FAVORITE_IDS_TTL_MS = 10 * 60 * 1000L;
+    private final Map<Integer, CachedFavoriteIds> favoriteIdsCache = new ConcurrentHashMap<>();
+
     /**
      * 取得會員的所有收藏保母列表
      * 處理流程：
@@ -49,6 +55,26 @@ public class BookingFavoriteService {
     	return sitterFavoriteRepository.findByMemId(memId);
     }
 
+    /**
+     * 取得會員收藏的保母 ID 集合（保母列表 / 搜尋頁標示收藏狀態用，走快取）
+     */
+    @Transactional(readOnly = true)
+    public Set<Integer> getFavoriteSitterIds(Integer memId) {
+        if (memId == null) {
+            return Set.of();
+        }
+        long now = System.currentTimeMillis();
+        CachedFavoriteIds cached = favoriteIdsCache.get(memId);
+        if (cached != null && cached.expiresAt > now) {
+            return cached.sitterIds;
+        }
+        Set<Integer> sitterIds = sitterFavoriteRepository.findByMemId(memId).stream()
+                .map(BookingFavoriteVO::getSitterId)
+                .collect(Collectors.toUnmodifiableSet());
+        favoriteIdsCache.put(memId, new CachedFavoriteIds(sitterIds, now + FAVORITE_IDS_TTL_MS));
+        return sitterIds;
+    }
+
     /**
      * 取得收藏清單並補齊保母資訊 (給會員中心收藏頁面用)
      */
@@ -114,6 +140,9 @@ public class BookingFavoriteService {
      * 3. 若未收藏 → 新增收藏紀錄，返回 true
      */
     public boolean toggleSitterFavorite(Integer memId, Integer sitterId) {
+        // 交易提交後清除該會員的收藏 ID 快取
+        evictFavoriteIdsAfterCommit(memId);
+
         // 步驟 1：查詢是否已經收藏
         var existingFav = sitterFavoriteRepository.findByMemIdAndSitterId(memId, sitterId);
 
@@ -131,4 +160,18 @@ public class BookingFavoriteService {
             return true; // 返回 true 表示已新增收藏
         }
     }
-}
\ No newline at end of file
+
+    private void evictFavoriteIdsAfterCommit(Integer memId) {
+        AfterCommit.run(() -> favoriteIdsCache.remove(memId));
+    }
+
+    private static final class CachedFavoriteIds {
+        final Set<Integer> sitterIds;
+        final long expiresAt;
+
+        CachedFavoriteIds(Set<Integer> sitterIds, long expiresAt) {
+            this.sitterIds = sitterIds;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.petguardian.booking.service;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import com.petguardian.booking.model.BookingOrderRepository;
+import com.petguardian.booking.model.BookingOrderVO;
+import com.petguardian.sitter.model.SitterRepository;
+import com.petguardian.sitter.model.SitterVO;
+import com.petguardian.wallet.model.WalletRepository;
+
+/**
+ * 訂單生命週期批次作業
+ *
+ * 每批訂單的處理方式：
+ * 1. 鎖定仍為原狀態的訂單（期間已被其他流程改變狀態的直接略過）
+ * 2. 依會員加總金額，每位會員只更新一次錢包
+ * 3. 以單一 UPDATE 變更整批訂單狀態
+ * 4. 依保母、日期合併時段，批次更新排程
+ */
+@Component
+public class BookingLifecycleJobs {
+
+    private static final int STATUS_PENDING = 0;     // 待確認
+    private static final int STATUS_ACCEPTED = 1;    // 進行中
+    private static final int STATUS_COMPLETED = 2;   // 已完成
+    private static final int STATUS_REFUNDING = 3;   // 申請退款中
+    private static final int STATUS_REFUNDED = 4;    // 已退款
+    private static final int STATUS_PAID_OUT = 5;    // 已撥款
+
+    @Autowired
+    private BookingOrderRepository orderRepository;
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Autowired
+    private SitterRepository sitterRepository;
+
+    @Autowired
+    private BookingScheduleInternalService scheduleInternalService;
+
+    @Autowired
+    private BookingRefundService refundService;
+
+    private final BookingBatchJob refundJob = new RefundExpiredJob();
+    private final BookingBatchJob acceptJob = new AcceptPendingJob();
+    private final BookingBatchJob payoutJob = new PayoutCompletedJob();
+
+    public BookingBatchJob refundJob() {
+        return refundJob;
+    }
+
+    public BookingBatchJob acceptJob() {
+        return acceptJob;
+    }
+
+    public BookingBatchJob payoutJob() {
+        return payoutJob;
+    }
+
+    /**
+     * 自動退款：「申請退款中(3)」且取消時間超過 7 天
+     */
+    private class RefundExpiredJob implements BookingBatchJob {
+
+        @Override
+        public String getName() {
+            return "auto-refund";
+        }
+
+        @Override
+        public LocalDateTime cutoff(LocalDateTime now) {
+            return now.minusDays(7);
+        }
+
+        @Override
+        public List<Integer> nextChunk(LocalDateTime cutoff, Integer afterId, int limit) {
+            return orderRepository.findIdsByStatusAndCancelTimeBefore(STATUS_REFUNDING, cutoff, afterId,
+                    PageRequest.of(0, limit));
+        }
+
+        @Override
+        public int processChunk(List<Integer> orderIds) {
+            List<BookingOrderVO> orders = orderRepository.findForUpdateByIdInAndStatus(orderIds, STATUS_REFUNDING);
+            if (orders.isEmpty()) {
+                return 0;
+            }
+
+            Map<Integer, Integer> refundByMember = new HashMap<>();
+            for (BookingOrderVO order : orders) {
+                Double ratio = refundService.calculateRefundRatio(order.getStartTime(), order.getCancelTime());
+                int refundAmount = (int) (fee(order) * ratio);
+                if (refundAmount > 0) {
+                    refundByMember.merge(order.getMemId(), refundAmount, Integer::sum);
+                }
+            }
+            credit(refundByMember, "找不到錢包，無法退款");
+
+            orderRepository.bulkTransition(idsOf(orders), STATUS_REFUNDING, STATUS_REFUNDED,
+                    " [系統自動退款(申請逾期7天)]");
+            scheduleInternalService.updateSitterSchedules(orders, '0'); // 釋放保母時段
+            return orders.size();
+        }
+    }
+
+    /**
+     * 自動接單：「待確認(0)」且建立超過 3 天，保母逾期未回覆
+     */
+    private class AcceptPendingJob implements BookingBatchJob {
+
+        @Override
+        public String getName() {
+            return "auto-accept";
+        }
+
+        @Override
+        public LocalDateTime cutoff(LocalDateTime now) {
+            return now.minusDays(3);
+        }
+
+        @Override
+        public List<Integer> nextChunk(LocalDateTime cutoff, Integer afterId, int limit) {
+            return orderRepository.findIdsByStatusAndCreatedAtBefore(STATUS_PENDING, cutoff, afterId,
+                    PageRequest.of(0, limit));
+        }
+
+        @Override
+        public int processChunk(List<Integer> orderIds) {
+            List<BookingOrderVO> orders = orderRepository.findForUpdateByIdInAndStatus(orderIds, STATUS_PENDING);
+            if (orders.isEmpty()) {
+                return 0;
+            }
+
+            orderRepository.bulkTransition(idsOf(orders), STATUS_PENDING, STATUS_ACCEPTED,
+                    " [逾期3天未回覆，系統自動接單]");
+            scheduleInternalService.updateSitterSchedules(orders, '1'); // 鎖定保母時段
+            return orders.size();
+        }
+    }
+
+    /**
+     * 自動撥款：「已完成(2)」且服務結束超過 3 天，撥款至保母的會員錢包
+     */
+    private class PayoutCompletedJob implements BookingBatchJob {
+
+        @Override
+        public String getName() {
+            return "auto-payout";
+        }
+
+        @Override
+        public LocalDateTime cutoff(LocalDateTime now) {
+            return now.minusDays(3);
+        }
+
+        @Override
+        public List<Integer> nextChunk(LocalDateTime cutoff, Integer afterId, int limit) {
+            return orderRepository.findIdsByStatusAndEndTimeBefore(STATUS_COMPLETED, cutoff, afterId,
+                    PageRequest.of(0, limit));
+        }
+
+        @Override
+        public int processChunk(List<Integer> orderIds) {
+            List<BookingOrderVO> orders = orderRepository.findForUpdateByIdInAndStatus(orderIds, STATUS_COMPLETED);
+            if (orders.isEmpty()) {
+                return 0;
+            }
+
+            Set<Integer> sitterIds = orders.stream().map(BookingOrderVO::getSitterId).collect(Collectors.toSet());
+            Map<Integer, Integer> memIdBySitter = sitterRepository.findAllById(sitterIds).stream()
+                    .collect(Collectors.toMap(SitterVO::getSitterId, SitterVO::getMemId));
+
+            Map<Integer, Integer> payoutByMember = new HashMap<>();
+            for (BookingOrderVO order : orders) {
+                Integer sitterMemId = memIdBySitter.get(order.getSitterId());
+                if (sitterMemId == null) {
+                    throw new IllegalStateException("找不到保姆資料: " + order.getSitterId());
+                }
+                payoutByMember.merge(sitterMemId, fee(order), Integer::sum);
+            }
+            credit(payoutByMember, "找不到保母錢包，無法撥款");
+
+            orderRepository.bulkUpdateStatus(idsOf(orders), STATUS_COMPLETED, STATUS_PAID_OUT);
+            return orders.size();
+        }
+    }
+
+    private void credit(Map<Integer, Integer> amountByMember, String missingWalletMessage) {
+        amountByMember.forEach((memId, amount) -> {
+            if (amount != 0 && walletRepository.addBalance(memId, amount) == 0) {
+                throw new IllegalStateException(missingWalletMessage + ": " + memId);
+            }
+        });
+    }
+
+    private static List<Integer> idsOf(List<BookingOrderVO> orders) {
+        return orders.stream().map(BookingOrderVO::getBookingOrderId).collect(Collectors.toList());
+    }
+
+    private static int fee(BookingOrderVO order) {
+        return order.getReservationFee() != null ? order.getReservationFee() : 0;
+    }
+}
@@ -23,9 +23,6 @@ public class BookingOrderQueryService {
     @Autowired
     private BookingOrderRepository orderRepository;
 
-    @Autowired
-    private BookingScheduleInternalService scheduleInternalService;
-
     @Autowired
     private BookingDataIntegrationService dataService;
 
@@ -49,8 +46,6 @@ public class BookingOrderQueryService {
      */
     public List<BookingOrderVO> getOrdersByMemberId(Integer memId) {
         List<BookingOrderVO> list = orderRepository.findByMemId(memId);
-        // 借用排程服務的修正邏輯，自動更新已過期但狀態未更新的訂單
-        scheduleInternalService.autoUpdateExpiredOrders(list);
         // 訂單相關資訊（會員名稱、寵物名稱等）
         if (!list.isEmpty()) {
             batchEnrichOrderInfo(list);
@@ -79,20 +74,16 @@ public class BookingOrderQueryService {
     public List<BookingOrderVO> findByMemberAndStatus(Integer memId, Integer status) {
         // 先取得會員的所有訂單
         List<BookingOrderVO> allOrders = orderRepository.findByMemId(memId);
-        // 自動更新過期訂單的狀態
-        scheduleInternalService.autoUpdateExpiredOrders(allOrders);
         // 篩選出指定狀態的訂單
         return allOrders.stream()
                 .filter(order -> order.getOrderStatus() != null && order.getOrderStatus().equals(status)).toList();
     }
 
     /**
-     * 查詢保母的所有訂單 訂單列表（自動更新過期狀態並補充完整資訊）
+     * 查詢保母的所有訂單 訂單列表（補充完整資訊；服務結束的狀態由 BookingExpiryScheduler 更新）
      */
     public List<BookingOrderVO> getOrdersBySitterId(Integer sitterId) {
         List<BookingOrderVO> list = orderRepository.findBySitterId(sitterId);
-        // 狀態修正：更新已過期的訂單
-        scheduleInternalService.autoUpdateExpiredOrders(list);
         // 訂單相關資訊（會員名稱、寵物名稱等）
         if (!list.isEmpty()) {
             batchEnrichOrderInfo(list);
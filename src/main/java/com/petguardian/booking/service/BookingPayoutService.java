@@ -1,5 +1,7 @@
 package com.petguardian.booking.service;
 
+import java.util.List;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -29,22 +31,25 @@ public class BookingPayoutService {
     /**
      * 完成撥款（後台管理員操作）
      * 處理流程：
-     * 1. 查詢訂單是否存在
-     * 2. 驗證訂單狀態必須為「已完成服務」
+     * 1. 鎖定仍為「已完成服務」的訂單（與自動撥款批次相同的鎖定讀取，同一筆訂單不會被撥款兩次）
+     * 2. 不存在或狀態不符時拒絕
      * 3. 查詢保母資料並取得對應的會員ID
      * 4. 執行撥款（將預約金額撥給保母的會員帳戶）
      * 5. 更新訂單狀態為「已撥款」
      */
     public void completePayout(Integer orderId) {
-        // 步驟 1：查詢訂單 
-        BookingOrderVO order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new IllegalArgumentException("找不到訂單"));
+        // 步驟 1：鎖定訂單
+        // 只鎖定狀態仍為 2（已完成服務）的訂單，自動撥款批次已處理過的訂單不會再被讀到
+        List<BookingOrderVO> locked = orderRepository.findForUpdateByIdInAndStatus(List.of(orderId), 2);
 
         // 步驟 2：驗證訂單狀態
-        // 只有狀態為 2（已完成服務）的訂單才能進行撥款
-        if (order.getOrderStatus() != 2) {
+        if (locked.isEmpty()) {
+            if (!orderRepository.existsById(orderId)) {
+                throw new IllegalArgumentException("找不到訂單");
+            }
             throw new IllegalStateException("只有已完成的訂單才能撥款");
         }
+        BookingOrderVO order = locked.get(0);
 
         //  步驟 3：查詢保母資料 
         // 透過保母ID查詢保母資料
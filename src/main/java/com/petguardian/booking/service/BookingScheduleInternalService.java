@@ -2,8 +2,10 @@ package com.petguardian.booking.service;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.HashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -12,7 +14,7 @@ import org.springframework.transaction.annotation.Transactional;
 import com.petguardian.booking.model.BookingOrderRepository;
 import com.petguardian.booking.model.BookingOrderVO;
 import com.petguardian.booking.model.BookingScheduleRepository;
-import com.petguardian.booking.model.BookingScheduleVO;
+import com.petguardian.booking.model.ScheduleMonthDTO;
 
 @Service
 public class BookingScheduleInternalService {
@@ -24,22 +26,16 @@ public class BookingScheduleInternalService {
     private BookingScheduleRepository scheduleRepository;
 
     @Autowired
-    private ScheduleService scheduleService;
+    private SitterOccupancyIndex occupancyIndex;
 
     // === 1. 保母訂單查詢邏輯 ===
 
     public List<BookingOrderVO> getOrdersBySitterId(Integer sitterId) {
-        List<BookingOrderVO> list = orderRepository.findBySitterId(sitterId);
-        autoUpdateExpiredOrders(list); // 修正過期狀態
-        return list;
+        return orderRepository.findBySitterId(sitterId);
     }
 
     public List<BookingOrderVO> findBySitterAndStatus(Integer sitterId, Integer status) {
-        List<BookingOrderVO> allOrders = orderRepository.findBySitterId(sitterId);
-        autoUpdateExpiredOrders(allOrders);
-        return allOrders.stream()
-                .filter(o -> o.getOrderStatus() != null && o.getOrderStatus().equals(status))
-                .collect(Collectors.toList());
+        return orderRepository.findBySitterIdAndOrderStatus(sitterId, status);
     }
 
     // === 2. 狀態更新與排程連動邏輯 ===
@@ -64,78 +60,116 @@ public class BookingScheduleInternalService {
     // === 3. 核心排程運算 (由原本的 Impl 搬移過來) ===
 
     /**
-     * 更新保母排程字串 (將對應時段設為指定狀態)
+     * 更新保母排程 (將訂單時段設為指定狀態：'0' 釋放、'1' 鎖定、'2' 預約中)
      */
+    @Transactional
     public void updateSitterSchedule(BookingOrderVO order, char targetStatus) {
         LocalDate date = order.getStartTime().toLocalDate();
-        int startH = order.getStartTime().getHour();
-        int endH = order.getEndTime().getHour();
-
-        BookingScheduleVO schedule = scheduleRepository.findBySitterIdAndScheduleDate(order.getSitterId(), date)
-                .orElseGet(() -> {
-                    BookingScheduleVO n = new BookingScheduleVO();
-                    n.setSitterId(order.getSitterId());
-                    n.setScheduleDate(date);
-                    n.setBookingStatus("000000000000000000000000");
-                    return n;
-                });
-
-        String newStatus = scheduleService.updateStatusString(schedule.getBookingStatus(), startH, endH, targetStatus);
-        schedule.setBookingStatus(newStatus);
-
-        if (targetStatus != '0') {
-            schedule.setBookingOrderId(order.getBookingOrderId());
-        } else {
-            schedule.setBookingOrderId(null); // 釋放訂單關聯
+        int mask = calculateBits(order.getStartTime(), order.getEndTime());
+        if (mask == 0) {
+            return;
         }
 
-        scheduleRepository.save(schedule);
+        int booked = targetStatus == '2' ? mask : 0;
+        int blocked = targetStatus == '1' ? mask : 0;
+        Integer orderId = targetStatus != '0' ? order.getBookingOrderId() : null; // '0' 釋放訂單關聯
+
+        scheduleRepository.overwriteHours(order.getSitterId(), date, mask, booked, blocked, orderId);
+        syncOccupancyIndex(order.getSitterId(), date);
     }
 
     /**
-     * 獲取保母當天已佔用的位元整數
+     * 批次更新保母排程：同一保母同一天的訂單時段先合併，每個保母日只寫入一次
      */
-    public int getSitterScheduleBits(Integer sitterId, LocalDate date) {
-        return scheduleRepository.findBySitterIdAndScheduleDate(sitterId, date)
-                .map(schedule -> convertStatusStringToBits(schedule.getBookingStatus()))
-                .orElse(0);
+    @Transactional
+    public void updateSitterSchedules(List<BookingOrderVO> orders, char targetStatus) {
+        Map<Integer, Map<LocalDate, Integer>> masks = new HashMap<>();
+        Map<Integer, Map<LocalDate, Integer>> orderIds = new HashMap<>();
+        for (BookingOrderVO order : orders) {
+            int mask = calculateBits(order.getStartTime(), order.getEndTime());
+            if (mask == 0) {
+                continue;
+            }
+            LocalDate date = order.getStartTime().toLocalDate();
+            masks.computeIfAbsent(order.getSitterId(), k -> new HashMap<>()).merge(date, mask, (a, b) -> a | b);
+            orderIds.computeIfAbsent(order.getSitterId(), k -> new HashMap<>()).put(date, order.getBookingOrderId());
+        }
+
+        masks.forEach((sitterId, byDate) -> byDate.forEach((date, mask) -> {
+            int booked = targetStatus == '2' ? mask : 0;
+            int blocked = targetStatus == '1' ? mask : 0;
+            Integer orderId = targetStatus != '0' ? orderIds.get(sitterId).get(date) : null;
+            scheduleRepository.overwriteHours(sitterId, date, mask, booked, blocked, orderId);
+            syncOccupancyIndex(sitterId, date);
+        }));
     }
 
     /**
-     * 計算特定時間範圍對應的位元
+     * 條件式佔用保母時段：checkMask 時段全部空閒才會將 claimMask 時段標記為預約中，判斷與寫入在同一個 SQL 完成
+     *
+     * @param checkMask 必須空閒的時段位元
+     * @param claimMask 要標記為預約中的時段位元 (包含 checkMask)
+     * @return true = 佔用成功；false = 時段已被其他預約或休息時間佔用
      */
-    public int calculateBits(LocalDateTime start, LocalDateTime end) {
-        int bits = 0;
-        int startHour = start.getHour();
-        int endHour = end.getHour();
-        for (int i = startHour; i < endHour; i++) {
-            bits |= (1 << i);
+    @Transactional
+    public boolean claimSlots(Integer sitterId, LocalDate date, int checkMask, int claimMask, Integer orderId) {
+        if (claimMask == 0) {
+            return true;
         }
-        return bits;
+        scheduleRepository.insertEmptyIfAbsent(sitterId, date);
+        boolean claimed = scheduleRepository.claimHours(sitterId, date, checkMask, claimMask, orderId) == 1;
+        if (claimed) {
+            syncOccupancyIndex(sitterId, date);
+        }
+        return claimed;
     }
 
-    private int convertStatusStringToBits(String status) {
+    /**
+     * 設定保母當天的休息時段（保母自行設定），已預約的時段維持不變
+     */
+    @Transactional
+    public void updateBlockedHours(Integer sitterId, LocalDate date, int blockedBits) {
+        scheduleRepository.updateBlockedBits(sitterId, date, blockedBits & ScheduleService.FULL_DAY_MASK);
+        syncOccupancyIndex(sitterId, date);
+    }
+
+    /**
+     * 獲取保母當天已佔用的位元整數 (已預約 + 不開放)
+     */
+    public int getSitterScheduleBits(Integer sitterId, LocalDate date) {
         int bits = 0;
-        for (int i = 0; i < 24; i++) {
-            if (status.charAt(i) != '0') { // 只要不是 0 (空閒)，就視為佔用
-                bits |= (1 << i);
-            }
+        for (Object[] row : scheduleRepository.findBitsBySitterIdAndDate(sitterId, date)) {
+            bits |= (Integer) row[0] | (Integer) row[1];
         }
         return bits;
     }
 
-    public void autoUpdateExpiredOrders(List<BookingOrderVO> orders) {
-        LocalDateTime now = LocalDateTime.now();
-        boolean changed = false;
-        for (BookingOrderVO order : orders) {
-            if ((order.getOrderStatus() == 0 || order.getOrderStatus() == 1)
-                    && order.getEndTime().isBefore(now)) {
-                order.setOrderStatus(2);
-                changed = true;
-            }
-        }
-        if (changed) {
-            orderRepository.saveAll(orders); // 一次性更新
+    /**
+     * 取得保母單月排程（每天一組位元）
+     */
+    public ScheduleMonthDTO getMonthSchedule(Integer sitterId, int year, int month) {
+        YearMonth yearMonth = YearMonth.of(year, month);
+        int[] booked = new int[yearMonth.lengthOfMonth()];
+        int[] blocked = new int[yearMonth.lengthOfMonth()];
+
+        for (Object[] row : scheduleRepository.findBitsRowsBySitterIdAndDateBetween(sitterId,
+                yearMonth.atDay(1), yearMonth.atEndOfMonth())) {
+            int day = ((LocalDate) row[0]).getDayOfMonth() - 1;
+            booked[day] |= (Integer) row[1];
+            blocked[day] |= (Integer) row[2];
         }
+        return new ScheduleMonthDTO(year, month, booked, blocked);
+    }
+
+    /**
+     * 計算特定時間範圍對應的位元
+     */
+    public int calculateBits(LocalDateTime start, LocalDateTime end) {
+        return ScheduleService.hourMask(start.getHour(), end.getHour());
+    }
+
+    // 交易提交後同步時段佔用索引 (保母搜尋的可預約篩選)
+    private void syncOccupancyIndex(Integer sitterId, LocalDate date) {
+        occupancyIndex.updateAfterCommit(sitterId, date, getSitterScheduleBits(sitterId, date));
     }
-}
\ No newline at end of file
+}
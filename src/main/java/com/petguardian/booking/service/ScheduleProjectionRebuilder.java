@@ -0,0 +1,419 @@
+package com.petguardian.booking.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.petguardian.booking.model.BookingOrderRepository;
+import com.petguardian.booking.model.BookingScheduleRepository;
+import com.petguardian.booking.model.ScheduleRebuildReport;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 保母排程重建（由訂單重新推導 booking_schedule）
+ *
+ * 1. 依訂單編號分頁讀取訂單，依 sitterId 分配到各 CPU 核心的分區，在記憶體中合併成每位保母每天的時段位元
+ *    （讀取下一頁與合併上一頁同時進行）
+ * 2. 同樣分頁讀取範圍內現有的排程，放入對應分區
+ * 3. 各分區平行比對，只寫入有差異的保母日；更新時帶上讀取時的舊值，重建期間已被新預約改過的保母日會略過並記為衝突
+ *
+ * 推導規則（與訂單順序無關）：
+ * - 佔用 = 狀態 0, 1, 2, 5 訂單的服務時段 + 結束後 1 小時緩衝
+ * - 釋放 = 狀態 3, 4 訂單的同一段時間
+ * - booked_bits = 佔用；blocked_bits = 原本的休息時段扣除佔用與釋放的時段
+ *
+ * 可指定保母或日期區間只重建部分資料，範圍外的排程不受影響。
+ */
+@Slf4j
+@Component
+public class ScheduleProjectionRebuilder {
+
+    static final int PAGE_SIZE = 2000;
+    static final int WRITE_BATCH = 500;
+    private static final int LOG_EVERY_PAGES = 20;
+
+    private static final String UPDATE_SQL = "UPDATE booking_schedule SET booked_bits = ?, blocked_bits = ? "
+            + "WHERE sitter_id = ? AND schedule_date = ? AND booked_bits = ? AND blocked_bits = ?";
+    private static final String INSERT_SQL = "INSERT IGNORE INTO booking_schedule "
+            + "(sitter_id, schedule_date, booked_bits, blocked_bits) VALUES (?, ?, ?, 0)";
+
+    // 分區內每個保母日的累計值
+    private static final int ACTIVE = 0;
+    private static final int RELEASED = 1;
+    private static final int CUR_BOOKED = 2;
+    private static final int CUR_BLOCKED = 3;
+    private static final int HAS_ROW = 4;
+
+    @Autowired
+    private BookingOrderRepository orderRepository;
+
+    @Autowired
+    private BookingScheduleRepository scheduleRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SitterOccupancyIndex occupancyIndex;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile ScheduleRebuildReport lastReport;
+
+    /**
+     * 目前（或最近一次）重建的進度
+     */
+    public ScheduleRebuildReport getLastReport() {
+        return lastReport;
+    }
+
+    /**
+     * 重建排程
+     *
+     * @param sitterId 只重建指定保母（null 為全部）
+     * @param fromDate 起始日期（含，null 為不限）
+     * @param toDate   結束日期（含，null 為不限）
+     * @throws IllegalStateException 已有重建正在進行
+     */
+    public ScheduleRebuildReport rebuild(Integer sitterId, LocalDate fromDate, LocalDate toDate) {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("排程重建進行中，請稍後再試");
+        }
+
+        int partitionCount = Math.max(1, Runtime.getRuntime().availableProcessors());
+        ScheduleRebuildReport report = new ScheduleRebuildReport(sitterId, fromDate, toDate, partitionCount);
+        this.lastReport = report;
+        long started = System.currentTimeMillis();
+
+        List<Map<Long, int[]>> partitions = new ArrayList<>(partitionCount);
+        ExecutorService[] workers = new ExecutorService[partitionCount];
+        for (int i = 0; i < partitionCount; i++) {
+            partitions.add(new HashMap<>());
+            String name = "schedule-rebuild-" + i;
+            workers[i] = Executors.newSingleThreadExecutor(r -> {
+                Thread thread = new Thread(r, name);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        try {
+            scanOrders(sitterId, fromDate, toDate, partitions, workers, report);
+            scanExistingRows(sitterId, fromDate, toDate, partitions, workers, report);
+
+            report.setPhase(ScheduleRebuildReport.PHASE_WRITING);
+            List<Change> changes = diff(partitions, workers, report);
+            write(changes, report);
+            occupancyIndex.clear(); // 時段佔用索引下次查詢時重新載入
+
+            report.setPhase(ScheduleRebuildReport.PHASE_DONE);
+            return report;
+        } catch (RuntimeException e) {
+            report.setPhase(ScheduleRebuildReport.PHASE_FAILED);
+            report.setErrorMessage(e.getMessage());
+            throw e;
+        } finally {
+            for (ExecutorService worker : workers) {
+                worker.shutdownNow();
+            }
+            report.setDurationMs(System.currentTimeMillis() - started);
+            running.set(false);
+            log.info("[ScheduleRebuild] {} sitter={} {}~{}: orders={}, rows={}, changed={} (inserted={}, updated={}, "
+                    + "conflicts={}), bookedHours +{}/-{}, {}ms", report.getPhase(), sitterId, fromDate, toDate,
+                    report.getScannedOrders(), report.getScannedRows(), report.getChangedRows(),
+                    report.getInsertedRows(), report.getUpdatedRows(), report.getConflictRows(),
+                    report.getBookedHoursAdded(), report.getBookedHoursRemoved(), report.getDurationMs());
+        }
+    }
+
+    // ========== 1. 讀取訂單並分區合併 ==========
+
+    private void scanOrders(Integer sitterId, LocalDate fromDate, LocalDate toDate,
+            List<Map<Long, int[]>> partitions, ExecutorService[] workers, ScheduleRebuildReport report) {
+        LocalDateTime fromTime = fromDate != null ? fromDate.atStartOfDay() : null;
+        LocalDateTime toTime = toDate != null ? toDate.plusDays(1).atStartOfDay() : null;
+
+        List<Future<?>> pending = new ArrayList<>();
+        int afterId = 0;
+        int pages = 0;
+        long active = 0;
+        long released = 0;
+
+        while (true) {
+            List<Object[]> rows = orderRepository.findScheduleRowsAfter(afterId, sitterId, fromTime, toTime,
+                    PageRequest.of(0, PAGE_SIZE));
+            if (rows.isEmpty()) {
+                break;
+            }
+            afterId = (Integer) rows.get(rows.size() - 1)[0];
+
+            List<List<Object[]>> slices = slices(workers.length);
+            for (Object[] row : rows) {
+                Integer status = (Integer) row[4];
+                if (isActive(status)) {
+                    active++;
+                } else if (isReleased(status)) {
+                    released++;
+                } else {
+                    continue;
+                }
+                slices.get(partitionOf((Integer) row[1], workers.length)).add(row);
+            }
+
+            awaitAll(pending); // 上一頁合併完成後再送出這一頁，讀取與合併重疊進行
+            for (int p = 0; p < workers.length; p++) {
+                Map<Long, int[]> cells = partitions.get(p);
+                List<Object[]> slice = slices.get(p);
+                if (!slice.isEmpty()) {
+                    pending.add(workers[p].submit(() -> foldOrders(cells, slice)));
+                }
+            }
+
+            report.setScannedOrders(report.getScannedOrders() + rows.size());
+            report.setActiveOrders(active);
+            report.setReleasedOrders(released);
+            if (++pages % LOG_EVERY_PAGES == 0) {
+                log.info("[ScheduleRebuild] scanned {} orders", report.getScannedOrders());
+            }
+        }
+        awaitAll(pending);
+    }
+
+    private static void foldOrders(Map<Long, int[]> cells, List<Object[]> rows) {
+        for (Object[] row : rows) {
+            LocalDateTime start = (LocalDateTime) row[2];
+            LocalDateTime end = (LocalDateTime) row[3];
+            if (start == null || end == null) {
+                continue;
+            }
+            int mask = ScheduleService.hourMask(start.getHour(), end.getHour())
+                    | ScheduleService.hourMask(end.getHour(), end.plusHours(1).getHour()); // 結束後 1 小時緩衝
+            if (mask == 0) {
+                continue;
+            }
+            int[] cell = cells.computeIfAbsent(key((Integer) row[1], start.toLocalDate()), k -> new int[5]);
+            cell[isActive((Integer) row[4]) ? ACTIVE : RELEASED] |= mask;
+        }
+    }
+
+    // ========== 2. 讀取範圍內現有的排程 ==========
+
+    private void scanExistingRows(Integer sitterId, LocalDate fromDate, LocalDate toDate,
+            List<Map<Long, int[]>> partitions, ExecutorService[] workers, ScheduleRebuildReport report) {
+        List<Future<?>> pending = new ArrayList<>();
+        int afterId = 0;
+
+        while (true) {
+            List<Object[]> rows = scheduleRepository.findBitsRowsAfter(afterId, sitterId, fromDate, toDate,
+                    PageRequest.of(0, PAGE_SIZE));
+            if (rows.isEmpty()) {
+                break;
+            }
+            afterId = (Integer) rows.get(rows.size() - 1)[0];
+
+            List<List<Object[]>> slices = slices(workers.length);
+            for (Object[] row : rows) {
+                slices.get(partitionOf((Integer) row[1], workers.length)).add(row);
+            }
+
+            awaitAll(pending);
+            for (int p = 0; p < workers.length; p++) {
+                Map<Long, int[]> cells = partitions.get(p);
+                List<Object[]> slice = slices.get(p);
+                if (!slice.isEmpty()) {
+                    pending.add(workers[p].submit(() -> foldExistingRows(cells, slice)));
+                }
+            }
+            report.setScannedRows(report.getScannedRows() + rows.size());
+        }
+        awaitAll(pending);
+    }
+
+    private static void foldExistingRows(Map<Long, int[]> cells, List<Object[]> rows) {
+        for (Object[] row : rows) {
+            int[] cell = cells.computeIfAbsent(key((Integer) row[1], (LocalDate) row[2]), k -> new int[5]);
+            cell[CUR_BOOKED] = (Integer) row[3];
+            cell[CUR_BLOCKED] = (Integer) row[4];
+            cell[HAS_ROW] = 1;
+        }
+    }
+
+    // ========== 3. 平行比對並寫入差異 ==========
+
+    private List<Change> diff(List<Map<Long, int[]>> partitions, ExecutorService[] workers,
+            ScheduleRebuildReport report) {
+        List<Future<List<Change>>> futures = new ArrayList<>();
+        for (int p = 0; p < workers.length; p++) {
+            Map<Long, int[]> cells = partitions.get(p);
+            futures.add(workers[p].submit(() -> diffPartition(cells)));
+        }
+
+        List<Change> changes = new ArrayList<>();
+        for (Future<List<Change>> future : futures) {
+            changes.addAll(await(future));
+        }
+
+        long added = 0;
+        long removed = 0;
+        long blockedRemoved = 0;
+        for (Change change : changes) {
+            added += Integer.bitCount(change.newBooked & ~change.oldBooked);
+            removed += Integer.bitCount(change.oldBooked & ~change.newBooked);
+            blockedRemoved += Integer.bitCount(change.oldBlocked & ~change.newBlocked);
+        }
+        report.setChangedRows(changes.size());
+        report.setBookedHoursAdded(added);
+        report.setBookedHoursRemoved(removed);
+        report.setBlockedHoursRemoved(blockedRemoved);
+        return changes;
+    }
+
+    private static List<Change> diffPartition(Map<Long, int[]> cells) {
+        List<Change> changes = new ArrayList<>();
+        for (Map.Entry<Long, int[]> entry : cells.entrySet()) {
+            int[] cell = entry.getValue();
+            int newBooked = cell[ACTIVE];
+            if (cell[HAS_ROW] == 0) {
+                if (newBooked != 0) {
+                    changes.add(new Change(entry.getKey(), false, 0, 0, newBooked, 0));
+                }
+                continue;
+            }
+            int newBlocked = cell[CUR_BLOCKED] & ~cell[RELEASED] & ~cell[ACTIVE];
+            if (newBooked != cell[CUR_BOOKED] || newBlocked != cell[CUR_BLOCKED]) {
+                changes.add(new Change(entry.getKey(), true, cell[CUR_BOOKED], cell[CUR_BLOCKED], newBooked,
+                        newBlocked));
+            }
+        }
+        return changes;
+    }
+
+    private void write(List<Change> changes, ScheduleRebuildReport report) {
+        List<Object[]> updates = new ArrayList<>();
+        List<Object[]> inserts = new ArrayList<>();
+        for (Change change : changes) {
+            if (change.existing) {
+                updates.add(new Object[] { change.newBooked, change.newBlocked, change.sitterId(), change.date(),
+                        change.oldBooked, change.oldBlocked });
+            } else {
+                inserts.add(new Object[] { change.sitterId(), change.date(), change.newBooked });
+            }
+        }
+
+        for (int i = 0; i < updates.size(); i += WRITE_BATCH) {
+            int[] counts = jdbcTemplate.batchUpdate(UPDATE_SQL,
+                    updates.subList(i, Math.min(i + WRITE_BATCH, updates.size())));
+            tally(counts, report, false);
+        }
+        for (int i = 0; i < inserts.size(); i += WRITE_BATCH) {
+            int[] counts = jdbcTemplate.batchUpdate(INSERT_SQL,
+                    inserts.subList(i, Math.min(i + WRITE_BATCH, inserts.size())));
+            tally(counts, report, true);
+        }
+    }
+
+    // 0 筆 = 讀取後已被其他交易修改 (或新增)，保留對方的結果
+    private static void tally(int[] counts, ScheduleRebuildReport report, boolean insert) {
+        long applied = 0;
+        long conflicts = 0;
+        for (int count : counts) {
+            if (count == 0) {
+                conflicts++;
+            } else {
+                applied++;
+            }
+        }
+        if (insert) {
+            report.setInsertedRows(report.getInsertedRows() + applied);
+        } else {
+            report.setUpdatedRows(report.getUpdatedRows() + applied);
+        }
+        report.setConflictRows(report.getConflictRows() + conflicts);
+    }
+
+    // ========== 工具 ==========
+
+    private static boolean isActive(Integer status) {
+        return status != null && (status == 0 || status == 1 || status == 2 || status == 5);
+    }
+
+    private static boolean isReleased(Integer status) {
+        return status != null && (status == 3 || status == 4);
+    }
+
+    private static int partitionOf(Integer sitterId, int partitionCount) {
+        return Math.floorMod(sitterId, partitionCount);
+    }
+
+    private static long key(Integer sitterId, LocalDate date) {
+        return ((long) sitterId << 32) | (date.toEpochDay() & 0xFFFFFFFFL);
+    }
+
+    private static List<List<Object[]>> slices(int count) {
+        List<List<Object[]>> slices = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            slices.add(new ArrayList<>());
+        }
+        return slices;
+    }
+
+    private static void awaitAll(List<Future<?>> futures) {
+        for (Future<?> future : futures) {
+            await(future);
+        }
+        futures.clear();
+    }
+
+    private static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("排程重建被中斷", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("排程重建失敗: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * 需要寫入的保母日
+     */
+    private static final class Change {
+        private final long key;
+        private final boolean existing;
+        private final int oldBooked;
+        private final int oldBlocked;
+        private final int newBooked;
+        private final int newBlocked;
+
+        Change(long key, boolean existing, int oldBooked, int oldBlocked, int newBooked, int newBlocked) {
+            this.key = key;
+            this.existing = existing;
+            this.oldBooked = oldBooked;
+            this.oldBlocked = oldBlocked;
+            this.newBooked = newBooked;
+            this.newBlocked = newBlocked;
+        }
+
+        int sitterId() {
+            return (int) (key >>> 32);
+        }
+
+        LocalDate date() {
+            return LocalDate.ofEpochDay((int) key);
+        }
+    }
+}
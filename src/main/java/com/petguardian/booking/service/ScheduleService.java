@@ -2,19 +2,42 @@ package com.petguardian.booking.service;
 
 import org.springframework.stereotype.Service;
 
+import com.petguardian.booking.model.ScheduleBits;
+
+/**
+ * 排程時段運算
+ *
+ * 排程以兩個 int 位元表示一天 24 小時（第 n 位代表第 n 點鐘）：
+ * bookedBits = 已預約 (舊字串的 '2')，blockedBits = 不開放 (舊字串的 '1')，兩者皆為 0 代表空閒。
+ */
 @Service
 public class ScheduleService {
-	public String updateStatusString(String currentStatus, int start, int end, char target) {
-        // 先將 24 位元的字串轉為字元陣列，方便修改特定位置
-        char[] statusArray = currentStatus.toCharArray();
-        // 使用方法參數中定義的 start 和 end
-        for (int i = start; i < end; i++) {
-            // 確保 index 在 0-23 之間，避免陣列越界
-            if (i >= 0 && i < 24) {
-                statusArray[i] = target; // 使用參數 target
-            }
+
+    public static final int FULL_DAY_MASK = (1 << 24) - 1;
+
+    /**
+     * 計算 [startHour, endHour) 的時段位元
+     */
+    public static int hourMask(int startHour, int endHour) {
+        int start = Math.max(0, startHour);
+        int end = Math.min(24, endHour);
+        if (start >= end) {
+            return 0;
         }
-        // 將修改後的陣列轉回字串
-        return new String(statusArray);
+        return ((1 << (end - start)) - 1) << start;
+    }
+
+    /**
+     * 24 字元字串中等於指定狀態字元的時段位元
+     */
+    public static int bitsOf(String status, char target) {
+        return ScheduleBits.bitsOf(status, target);
+    }
+
+    /**
+     * 由位元組回 24 字元狀態字串（同一小時兩者皆有時以已預約為準）
+     */
+    public static String toStatusString(int bookedBits, int blockedBits) {
+        return ScheduleBits.toStatusString(bookedBits, blockedBits);
     }
 }
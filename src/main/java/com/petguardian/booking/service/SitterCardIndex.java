@@ -0,0 +1,308 @@
+package com.petguardian.booking.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.petguardian.booking.model.SitterCard;
+import com.petguardian.evaluate.model.SitterRatingDTO;
+import com.petguardian.evaluate.service.SitterRatingService;
+import com.petguardian.service.model.ServiceAreaRepository;
+import com.petguardian.sitter.model.SitterMemberRepository;
+import com.petguardian.sitter.model.SitterRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 保母卡片索引（記憶體，預約搜尋頁用）
+ *
+ * 以幾個批次查詢組出所有啟用保母（保母啟用且會員帳號正常）的卡片，並建立「行政區 -> 保母」反向索引：
+ * - 依行政區搜尋直接取出索引中的保母，不再逐一走訪每位保母的服務地區 (lazy 關聯)
+ * - 服務地區沒有命中時，以地址包含關鍵字作為備案（同原本的搜尋邏輯）
+ * - 只有當頁的卡片會被包裝成 DTO，收藏狀態於每次請求時另外套用
+ *
+ * 整份索引建好後一次替換 (volatile)，啟動時建立一次，之後每 5 分鐘重建。
+ * 保母狀態、資料、服務地區、評價或會員狀態異動時，由 SitterSearchService 於交易提交後呼叫 refresh()
+ * 只重新查詢該保母的卡片並替換 (不需等下次重建)；重建期間異動的保母於替換後重新套用。
+ */
+@Slf4j
+@Component
+public class SitterCardIndex {
+
+    static final String DEFAULT_AVATAR = "/images/default-avatar.png";
+
+    private static final int[] EMPTY_SLOTS = new int[0];
+
+    // 評價分批查詢，避免全部保母 ID 塞進同一個 IN 條件
+    private static final int RATING_BATCH_SIZE = 500;
+
+    @Autowired
+    private SitterRepository sitterRepository;
+
+    @Autowired
+    private ServiceAreaRepository serviceAreaRepository;
+
+    @Autowired
+    private SitterMemberRepository sitterMemberRepository;
+
+    @Autowired
+    private SitterRatingService sitterRatingService;
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    // 重建期間異動的保母，替換索引後重新套用
+    private final Set<Integer> touchedDuringRebuild = ConcurrentHashMap.newKeySet();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void init() {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelay = 300000, initialDelay = 300000) // 每 5 分鐘
+    public void rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        try {
+            touchedDuringRebuild.clear();
+            Snapshot built = build();
+            synchronized (this) {
+                this.snapshot = built;
+            }
+
+            List<Integer> touched = new ArrayList<>(touchedDuringRebuild);
+            touchedDuringRebuild.clear();
+            touched.forEach(this::refresh);
+            log.debug("[SitterCardIndex] {} cards indexed in {} ms ({} replayed)",
+                    built.cards.size(), System.currentTimeMillis() - start, touched.size());
+        } catch (RuntimeException e) {
+            // 保留舊的索引，下次排程再試
+            log.warn("[SitterCardIndex] Rebuild failed: {}", e.getMessage());
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    /**
+     * 重新載入單一保母的卡片；保母已停用、會員已停權或已刪除時自索引移除
+     */
+    public void refresh(Integer sitterId) {
+        if (sitterId == null) {
+            return;
+        }
+        if (rebuilding.get()) {
+            touchedDuringRebuild.add(sitterId);
+        }
+        SitterCard card = null;
+        List<Object[]> basics = sitterRepository.findSitterBasicInfoById(sitterId);
+        if (!basics.isEmpty()) {
+            Object[] row = basics.get(0);
+            Integer memId = (Integer) row[5];
+
+            List<Object[]> areaRows = new ArrayList<>(serviceAreaRepository.findAreaRowsBySitterId(sitterId));
+            areaRows.sort((a, b) -> Integer.compare((Integer) a[1], (Integer) b[1]));
+            List<String> districts = new ArrayList<>(areaRows.size());
+            for (Object[] area : areaRows) {
+                districts.add((String) area[3]);
+            }
+            String image = sitterMemberRepository.findById(memId)
+                    .map(m -> m.getMemImage() != null ? m.getMemImage() : DEFAULT_AVATAR)
+                    .orElse(DEFAULT_AVATAR);
+
+            card = new SitterCard(sitterId, memId, (String) row[1], (String) row[2], image,
+                    areaRows.isEmpty() ? null : (String) areaRows.get(0)[2], districts,
+                    sitterRatingService.getRating(sitterId).getAverageRating());
+        }
+        synchronized (this) {
+            this.snapshot = snapshot.with(sitterId, card);
+        }
+    }
+
+    /**
+     * 搜尋保母卡片並分頁
+     *
+     * @param area         行政區（null / 空白代表不限）
+     * @param excludeMemId 要排除的會員（登入者本人），可為 null
+     * @param page         頁碼（從 0 開始）
+     * @param size         每頁筆數
+     */
+    public CardPage search(String area, Integer excludeMemId, int page, int size) {
+        Snapshot current = this.snapshot;
+        List<SitterCard> matched = match(current, area);
+
+        // 排除登入者本人（最多一位）
+        if (excludeMemId != null) {
+            List<SitterCard> filtered = new ArrayList<>(matched.size());
+            for (SitterCard card : matched) {
+                if (!excludeMemId.equals(card.getMemId())) {
+                    filtered.add(card);
+                }
+            }
+            matched = filtered;
+        }
+
+        int total = matched.size();
+        int from = Math.min(Math.max(page, 0) * size, total);
+        int to = Math.min(from + size, total);
+        return new CardPage(matched.subList(from, to), total);
+    }
+
+    private List<SitterCard> match(Snapshot current, String area) {
+        if (area == null || area.isBlank()) {
+            return current.cards;
+        }
+        String keyword = area.trim();
+        boolean[] hit = new boolean[current.cards.size()];
+        for (int slot : current.slotsByDistrict.getOrDefault(keyword, EMPTY_SLOTS)) {
+            hit[slot] = true;
+        }
+
+        // 備案：服務地區沒有命中的保母，檢查地址字串
+        List<SitterCard> result = new ArrayList<>();
+        for (int i = 0; i < hit.length; i++) {
+            SitterCard card = current.cards.get(i);
+            if (hit[i] || (card.getSitterAdd() != null && card.getSitterAdd().contains(keyword))) {
+                result.add(card);
+            }
+        }
+        return result;
+    }
+
+    private Snapshot build() {
+        // 1. 啟用保母基本資料 (回傳順序: id, name, add, star, count, memId)
+        List<Object[]> basics = sitterRepository.findSitterBasicInfo();
+        basics.sort((a, b) -> Integer.compare((Integer) a[0], (Integer) b[0]));
+
+        List<Integer> sitterIds = new ArrayList<>(basics.size());
+        List<Integer> memIds = new ArrayList<>(basics.size());
+        for (Object[] row : basics) {
+            sitterIds.add((Integer) row[0]);
+            memIds.add((Integer) row[5]);
+        }
+
+        // 2. 服務地區 (回傳順序: sitterId, areaId, cityName, district)
+        Map<Integer, String> cityBySitter = new HashMap<>();
+        Map<Integer, List<String>> districtsBySitter = new HashMap<>();
+        List<Object[]> areaRows = serviceAreaRepository.findAllSitterAreaRows();
+        areaRows.sort((a, b) -> Integer.compare((Integer) a[1], (Integer) b[1]));
+        for (Object[] row : areaRows) {
+            Integer sitterId = (Integer) row[0];
+            cityBySitter.putIfAbsent(sitterId, (String) row[2]);
+            districtsBySitter.computeIfAbsent(sitterId, k -> new ArrayList<>()).add((String) row[3]);
+        }
+
+        // 3. 頭像
+        Map<Integer, String> imageByMem = new HashMap<>();
+        sitterMemberRepository.findAllById(memIds).forEach(m -> {
+            imageByMem.put(m.getMemId(), m.getMemImage() != null ? m.getMemImage() : DEFAULT_AVATAR);
+        });
+
+        // 4. 評價（唯讀，尚未建立統計的保母直接彙總，不會在重建時寫入統計列）
+        Map<Integer, SitterRatingDTO> ratings = new HashMap<>(sitterIds.size() * 2);
+        for (int from = 0; from < sitterIds.size(); from += RATING_BATCH_SIZE) {
+            int to = Math.min(from + RATING_BATCH_SIZE, sitterIds.size());
+            ratings.putAll(sitterRatingService.getRatings(sitterIds.subList(from, to)));
+        }
+
+        // 5. 組卡片 (行政區反向索引由 Snapshot 建立)
+        List<SitterCard> cards = new ArrayList<>(basics.size());
+        for (Object[] row : basics) {
+            Integer sitterId = (Integer) row[0];
+            Integer memId = (Integer) row[5];
+            List<String> districts = districtsBySitter.getOrDefault(sitterId, Collections.emptyList());
+            SitterRatingDTO rating = ratings.get(sitterId);
+
+            cards.add(new SitterCard(sitterId, memId, (String) row[1], (String) row[2],
+                    imageByMem.getOrDefault(memId, DEFAULT_AVATAR), cityBySitter.get(sitterId),
+                    districts, rating != null ? rating.getAverageRating() : null));
+        }
+        return Snapshot.of(cards);
+    }
+
+    /**
+     * 索引內容：卡片依保母 ID 排序，反向索引存卡片在清單中的位置
+     */
+    private static final class Snapshot {
+
+        static final Snapshot EMPTY = new Snapshot(Collections.emptyList(), Collections.emptyMap());
+
+        final List<SitterCard> cards;
+        final Map<String, int[]> slotsByDistrict;
+
+        Snapshot(List<SitterCard> cards, Map<String, int[]> slotsByDistrict) {
+            this.cards = cards;
+            this.slotsByDistrict = slotsByDistrict;
+        }
+
+        // cards 須已依保母 ID 排序
+        static Snapshot of(List<SitterCard> cards) {
+            Map<String, List<Integer>> slotLists = new HashMap<>();
+            for (int slot = 0; slot < cards.size(); slot++) {
+                for (String district : cards.get(slot).getDistricts()) {
+                    slotLists.computeIfAbsent(district, k -> new ArrayList<>()).add(slot);
+                }
+            }
+            Map<String, int[]> slotsByDistrict = new HashMap<>(slotLists.size() * 2);
+            slotLists.forEach((district, slots) -> {
+                slotsByDistrict.put(district, slots.stream().mapToInt(Integer::intValue).distinct().toArray());
+            });
+            return new Snapshot(Collections.unmodifiableList(cards), slotsByDistrict);
+        }
+
+        // 替換 (card 為 null 時移除) 單一保母的卡片，只在記憶體中重組，不查詢資料庫
+        Snapshot with(Integer sitterId, SitterCard card) {
+            List<SitterCard> next = new ArrayList<>(cards.size() + 1);
+            boolean placed = (card == null);
+            for (SitterCard existing : cards) {
+                int order = existing.getSitterId().compareTo(sitterId);
+                if (order == 0) {
+                    continue;
+                }
+                if (order > 0 && !placed) {
+                    next.add(card);
+                    placed = true;
+                }
+                next.add(existing);
+            }
+            if (!placed) {
+                next.add(card);
+            }
+            return of(next);
+        }
+    }
+
+    /**
+     * 搜尋結果：當頁卡片 + 符合條件的總數
+     */
+    public static final class CardPage {
+
+        private final List<SitterCard> cards;
+        private final int total;
+
+        CardPage(List<SitterCard> cards, int total) {
+            this.cards = cards;
+            this.total = total;
+        }
+
+        public List<SitterCard> getCards() {
+            return cards;
+        }
+
+        public int getTotal() {
+            return total;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.petguardian.booking.service;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.petguardian.booking.model.BookingScheduleRepository;
+import com.petguardian.common.tx.AfterCommit;
+
+/**
+ * 保母時段佔用索引（記憶體）
+ *
+ * 日期 -> (保母 ID -> 當天 24 小時佔用位元)，第 n 位為 1 代表第 n 點鐘已被佔用 (預約中 / 已預約 / 不開放)。
+ * 只保存有佔用的保母，沒有資料代表整天空閒。
+ *
+ * - 查詢到某一天時才以單一查詢載入當天所有保母的排程，之後由排程寫入 (BookingScheduleInternalService) 於交易提交後同步更新
+ * - 多日查詢將各日的佔用位元 OR 起來（等同將各日的空閒位元 AND 起來）再與查詢時段比對，不需逐保母查 booking_schedule
+ * - 每個日期有一個版本號（依日期分段共用），排程寫入提交時遞增；載入期間版本號改變時載入結果不放入快取，
+ *   避免把提交前的舊位元放回快取
+ * - 每 10 分鐘清空一次快取（下次查詢重新載入），過去的日期不再保留
+ *
+ * 此索引僅用於搜尋篩選，實際建立訂單時仍以 BookingCreateService 在資料庫的條件式佔用為準。
+ */
+@Component
+public class SitterOccupancyIndex {
+
+    @Autowired
+    private BookingScheduleRepository scheduleRepository;
+
+    private final Map<LocalDate, Map<Integer, Integer>> occupancyByDate = new ConcurrentHashMap<>();
+
+    // 日期版本號（依日期分段），與快取寫入都在 occupancyByDate.compute 內進行，同一天互斥
+    private static final int VERSION_STRIPES = 64;
+    private final AtomicLongArray dayVersions = new AtomicLongArray(VERSION_STRIPES);
+
+    /**
+     * 取得保母當天的佔用位元
+     */
+    public int getDayBits(Integer sitterId, LocalDate date) {
+        return dayBits(date).getOrDefault(sitterId, 0);
+    }
+
+    /**
+     * 找出在任一指定日期的指定時段內已有佔用的保母
+     *
+     * @param dates    查詢日期
+     * @param hourMask 查詢時段位元（第 n 位代表第 n 點鐘）
+     * @return 有衝突的保母 ID 集合
+     */
+    public Set<Integer> findBusySitters(List<LocalDate> dates, int hourMask) {
+        Set<Integer> busy = new HashSet<>();
+        for (LocalDate date : dates) {
+            for (Map.Entry<Integer, Integer> entry : dayBits(date).entrySet()) {
+                if ((entry.getValue() & hourMask) != 0) {
+                    busy.add(entry.getKey());
+                }
+            }
+        }
+        return busy;
+    }
+
+    /**
+     * 交易提交後寫入保母當天的最新佔用位元
+     * （當天尚未載入時只遞增版本號，讓進行中的載入不寫入快取，之後查詢時會直接讀到最新資料）
+     */
+    public void updateAfterCommit(Integer sitterId, LocalDate date, int bits) {
+        Runnable action = () -> occupancyByDate.compute(date, (d, day) -> {
+            dayVersions.incrementAndGet(stripeOf(d));
+            if (day != null) {
+                if (bits == 0) {
+                    day.remove(sitterId);
+                } else {
+                    day.put(sitterId, bits);
+                }
+            }
+            return day;
+        });
+
+        AfterCommit.run(action);
+    }
+
+    /**
+     * 定期清空快取，過去的日期不再保留
+     */
+    @Scheduled(fixedDelay = 600000, initialDelay = 600000) // 每 10 分鐘
+    public void clear() {
+        occupancyByDate.clear();
+    }
+
+    private Map<Integer, Integer> dayBits(LocalDate date) {
+        Map<Integer, Integer> cached = occupancyByDate.get(date);
+        if (cached != null) {
+            return cached;
+        }
+
+        int stripe = stripeOf(date);
+        long loadedVersion = dayVersions.get(stripe);
+        Map<Integer, Integer> loaded = new ConcurrentHashMap<>();
+        for (Object[] row : scheduleRepository.findBitsRowsByDate(date)) {
+            int bits = (Integer) row[1] | (Integer) row[2];
+            if (bits != 0) {
+                loaded.merge((Integer) row[0], bits, (a, b) -> a | b);
+            }
+        }
+        // 載入期間有排程寫入提交時不放入快取
+        Map<Integer, Integer> current = occupancyByDate.compute(date, (d, day) -> {
+            if (day != null) {
+                return day;
+            }
+            return dayVersions.get(stripe) == loadedVersion ? loaded : null;
+        });
+        return current != null ? current : loaded;
+    }
+
+    private static int stripeOf(LocalDate date) {
+        return (int) Math.floorMod(date.toEpochDay(), (long) VERSION_STRIPES);
+    }
+}
@@ -0,0 +1,103 @@
+package com.petguardian.booking.service;
+
+import java.time.LocalDate;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 保母時段佔用引擎
+ *
+ * 兩層保護，確保同一時段只會有一筆預約成功：
+ * 1. 程序內：依 (保母, 日期) 雜湊到固定數量的分段鎖，同一保母同一天的佔用請求排隊執行，
+ *    鎖一直持有到交易結束 (提交或回滾)，後到的請求一定看得到前一筆的結果
+ * 2. 資料庫：實際寫入使用條件式更新 (時段空閒才寫入)，多台伺服器同時佔用時仍只有一筆成功
+ *
+ * 不同保母或不同日期大多落在不同分段，彼此不互相等待。
+ */
+@Component
+public class SlotClaimEngine {
+
+    /**
+     * 實際執行條件式佔用的儲存層
+     */
+    @FunctionalInterface
+    public interface SlotStore {
+        boolean claim(Integer sitterId, LocalDate date, int checkMask, int claimMask, Integer orderId);
+    }
+
+    private static final int DEFAULT_STRIPES = 256;
+    private static final long LOCK_TIMEOUT_SECONDS = 5;
+
+    private final SlotStore store;
+    private final ReentrantLock[] stripes;
+
+    @Autowired
+    public SlotClaimEngine(BookingScheduleInternalService scheduleInternalService) {
+        this(scheduleInternalService::claimSlots, DEFAULT_STRIPES);
+    }
+
+    SlotClaimEngine(SlotStore store, int stripeCount) {
+        this.store = store;
+        this.stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * 佔用保母時段（正式時段 + 緩衝時段一次完成）
+     *
+     * @param checkMask 必須空閒的時段位元 (正式時段)
+     * @param claimMask 要標記為預約中的時段位元 (正式時段 + 緩衝時段)
+     * @return true = 佔用成功；false = 時段已被其他預約或休息時間佔用
+     * @throws IllegalStateException 等待分段鎖逾時
+     */
+    public boolean claim(Integer sitterId, LocalDate date, int checkMask, int claimMask, Integer orderId) {
+        ReentrantLock lock = stripeFor(sitterId, date);
+        acquire(lock);
+
+        boolean claimed = false;
+        boolean releaseOnCompletion = false;
+        try {
+            claimed = store.claim(sitterId, date, checkMask, claimMask, orderId);
+            // 佔用成功時鎖持有到交易結束，避免同一程序的下一筆請求在提交前就讀到舊資料
+            if (claimed && TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        lock.unlock();
+                    }
+                });
+                releaseOnCompletion = true;
+            }
+            return claimed;
+        } finally {
+            if (!releaseOnCompletion) {
+                lock.unlock();
+            }
+        }
+    }
+
+    ReentrantLock stripeFor(Integer sitterId, LocalDate date) {
+        int hash = Objects.hash(sitterId, date);
+        hash ^= (hash >>> 16);
+        return stripes[Math.floorMod(hash, stripes.length)];
+    }
+
+    private void acquire(ReentrantLock lock) {
+        try {
+            if (!lock.tryLock(LOCK_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("預約人數眾多，請稍後再試。");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("預約處理中斷，請稍後再試。", e);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.petguardian.common.blob;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+
+/**
+ * 內容定址的二進位檔案儲存
+ *
+ * 以內容的 SHA-256 (64 碼小寫十六進位) 作為 blob id，相同內容只存一份。
+ * 預設實作為本機磁碟 (LocalDiskBlobStore)，可另外提供其他實作 (例如物件儲存) 取代。
+ */
+public interface BlobStore {
+
+    /**
+     * 以串流方式寫入內容（不會整份讀進記憶體）
+     *
+     * @return 寫入結果（blob id 與位元組數）
+     */
+    StoredBlob put(InputStream in) throws IOException;
+
+    /**
+     * 開啟內容串流，呼叫端負責關閉
+     *
+     * @throws java.nio.file.NoSuchFileException 找不到該 blob
+     */
+    InputStream open(String blobId) throws IOException;
+
+    boolean exists(String blobId);
+
+    /**
+     * 本機檔案路徑（可直接由檔案系統零拷貝輸出）；非本機儲存回傳 null，改用 open() 串流
+     */
+    default Path localPath(String blobId) {
+        return null;
+    }
+}
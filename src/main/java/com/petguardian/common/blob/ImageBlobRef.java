@@ -0,0 +1,83 @@
+package com.petguardian.common.blob;
+
+import java.io.Serializable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+/**
+ * 圖片參照（嵌入在實體中，取代原本的 longblob 欄位）
+ *
+ * 實體只保存 blob id 與圖片資訊，圖片內容由 BlobStore 讀取；
+ * 各實體以 @AttributeOverrides 指定自己的欄位名稱。全部欄位為 NULL 時 Hibernate 會回傳 null (代表沒有圖片)。
+ */
+@Embeddable
+public class ImageBlobRef implements Serializable {
+
+    @Column(name = "blob_id", length = 64)
+    private String blobId;
+
+    @Column(name = "width")
+    private Integer width;          // 像素寬（無法解析時為 null）
+
+    @Column(name = "height")
+    private Integer height;         // 像素高（無法解析時為 null）
+
+    @Column(name = "size")
+    private Long size;              // 位元組數
+
+    @Column(name = "content_type", length = 50)
+    private String contentType;     // 例如 image/png（無法解析時為 null）
+
+    public ImageBlobRef() {
+        super();
+    }
+
+    public ImageBlobRef(String blobId, Integer width, Integer height, Long size, String contentType) {
+        this.blobId = blobId;
+        this.width = width;
+        this.height = height;
+        this.size = size;
+        this.contentType = contentType;
+    }
+
+    public String getBlobId() {
+        return blobId;
+    }
+
+    public void setBlobId(String blobId) {
+        this.blobId = blobId;
+    }
+
+    public Integer getWidth() {
+        return width;
+    }
+
+    public void setWidth(Integer width) {
+        this.width = width;
+    }
+
+    public Integer getHeight() {
+        return height;
+    }
+
+    public void setHeight(Integer height) {
+        this.height = height;
+    }
+
+    public Long getSize() {
+        return size;
+    }
+
+    public void setSize(Long size) {
+        this.size = size;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+}
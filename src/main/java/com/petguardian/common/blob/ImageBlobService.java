@@ -0,0 +1,124 @@
+package com.petguardian.common.blob;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MultipartFile;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 圖片儲存服務
+ *
+ * 將上傳的圖片串流寫入 BlobStore，並只讀取圖檔標頭取得寬高與格式（不解碼整張圖），組成 ImageBlobRef 交給實體保存。
+ * 上傳檔案一律經過 ImageUploadStream：邊寫入邊以檔頭判斷格式、累計大小，不合格時中斷寫入並丟出 InvalidImageException。
+ * 可辨識的圖檔會交給 ImageVariantService 在背景產生縮圖版本。
+ */
+@Slf4j
+@Service
+public class ImageBlobService {
+
+    @Autowired
+    private BlobStore blobStore;
+
+    @Autowired
+    private ImageVariantService imageVariantService;
+
+    // 單張上傳圖片的預設大小上限 (各功能可另外指定更小的上限)
+    @Value("${blob.upload.max-image-size:10MB}")
+    private DataSize maxImageSize;
+
+    /**
+     * 儲存上傳的圖片（沒有檔案時回傳 null），大小上限為 blob.upload.max-image-size
+     *
+     * @throws InvalidImageException 不是支援的圖片格式或超過大小上限
+     */
+    public ImageBlobRef store(MultipartFile file) throws IOException {
+        return store(file, maxImageSize.toBytes());
+    }
+
+    /**
+     * 儲存上傳的圖片並指定大小上限（沒有檔案時回傳 null）
+     *
+     * @throws InvalidImageException 不是支援的圖片格式或超過大小上限
+     */
+    public ImageBlobRef store(MultipartFile file, long maxBytes) throws IOException {
+        if (file == null || file.isEmpty()) {
+            return null;
+        }
+        // 先以宣告的大小擋掉明顯過大的檔案，實際大小由串流累計為準
+        if (file.getSize() > maxBytes) {
+            throw new InvalidImageException("圖片過大，單張圖片不得超過 " + ImageUploadStream.formatSize(maxBytes));
+        }
+        try (ImageUploadStream in = new ImageUploadStream(file.getInputStream(), maxBytes)) {
+            ImageBlobRef ref = store(in);
+            if (ref.getContentType() == null) {
+                ref.setContentType(in.getContentType()); // 標頭讀不到時 (例如 webp) 以檔頭判斷的格式為準
+            }
+            return ref;
+        }
+    }
+
+    /**
+     * 儲存圖片串流，呼叫端負責關閉 in（不檢查格式與大小，供既有資料搬移使用）
+     */
+    public ImageBlobRef store(InputStream in) throws IOException {
+        StoredBlob blob = blobStore.put(in);
+        ImageBlobRef ref = new ImageBlobRef(blob.getBlobId(), null, null, blob.getSize(), null);
+        readImageInfo(ref);
+        if (ref.getWidth() != null) {
+            // 可辨識的圖檔：背景產生縮圖版本
+            imageVariantService.submit(ref.getBlobId());
+        }
+        return ref;
+    }
+
+    /**
+     * 儲存上傳的圖片並回傳本系統的圖片網址（商品、退貨圖片等以網址字串保存者使用）
+     */
+    public String storeAsUrl(MultipartFile file) throws IOException {
+        ImageBlobRef ref = store(file);
+        return (ref != null) ? ImageVariant.MEDIA_URL_PREFIX + ref.getBlobId() : null;
+    }
+
+    /**
+     * 開啟圖片內容串流，呼叫端負責關閉
+     */
+    public InputStream open(ImageBlobRef ref) throws IOException {
+        return blobStore.open(ref.getBlobId());
+    }
+
+    private void readImageInfo(ImageBlobRef ref) {
+        try (InputStream in = blobStore.open(ref.getBlobId());
+                ImageInputStream iis = ImageIO.createImageInputStream(in)) {
+            Iterator<ImageReader> readers = (iis != null) ? ImageIO.getImageReaders(iis) : null;
+            if (readers == null || !readers.hasNext()) {
+                return;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(iis, true, true);
+                ref.setWidth(reader.getWidth(0));
+                ref.setHeight(reader.getHeight(0));
+                String[] mimeTypes = reader.getOriginatingProvider().getMIMETypes();
+                if (mimeTypes != null && mimeTypes.length > 0) {
+                    ref.setContentType(mimeTypes[0]);
+                }
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException | RuntimeException e) {
+            // 不是可辨識的圖檔，只保留 blob id 與大小
+            log.debug("[ImageBlob] Cannot read image header of {}: {}", ref.getBlobId(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,398 @@
+package com.petguardian.common.blob;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 圖片 HTTP 輸出（討論區圖片共用）
+ *
+ * - 以內容雜湊 (blob id) 作為強 ETag，If-None-Match / If-Modified-Since 符合時回 304，不傳內容
+ * - 依呼叫端給的 Cache-Control：以 blob id 定址的網址內容永不改變，可長期快取 (CACHE_IMMUTABLE)；
+ *   以討論區 / 貼文編號定址的網址可能換圖，只能每次驗證 (CACHE_REVALIDATE)，但驗證成功只回 304
+ * - 支援單一範圍的 Range / If-Range (206 / 416)，多重範圍則回完整內容
+ * - 本機檔案優先交給 Tomcat sendfile；容器不支援時以 FileChannel.transferTo 輸出，不經過應用程式緩衝區
+ * - 預設圖 (找不到圖片時) 只從 classpath 讀一次，之後由記憶體輸出
+ * - writeImage 依網址的 v 參數改輸出縮圖版本 (ImageVariantService)
+ *
+ * 傳輸量、304 比例等統計由 getMetrics() 提供。
+ */
+@Slf4j
+@Component
+public class ImageResponseWriter {
+
+    public static final String CACHE_IMMUTABLE = "public, max-age=31536000, immutable";
+    public static final String CACHE_REVALIDATE = "no-cache";
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private static final long[] INVALID_RANGE = new long[0];
+
+    @Autowired
+    private BlobStore blobStore;
+
+    @Autowired
+    private ImageVariantService imageVariantService;
+
+    private final Map<String, FallbackImage> fallbackImages = new ConcurrentHashMap<>();
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder notModified = new LongAdder();
+    private final LongAdder partial = new LongAdder();
+    private final LongAdder fallbacks = new LongAdder();
+    private final LongAdder sendfile = new LongAdder();
+    private final LongAdder bytesServed = new LongAdder();
+
+    /**
+     * 輸出圖片的指定版本（縮圖尚未產生時先輸出原圖）
+     *
+     * @param immutableUrl 網址是否以 blob id 定址（內容永不改變）
+     * @return false 代表沒有圖片或檔案已遺失
+     */
+    public boolean writeImage(ImageBlobRef original, ImageVariant variant, boolean immutableUrl,
+            HttpServletRequest req, HttpServletResponse res) throws IOException {
+        ImageBlobRef target = imageVariantService.resolve(original, variant);
+        // 縮圖產生前先以原圖代替，這段期間不能讓瀏覽器長期快取
+        boolean substitute = (target == null);
+        if (substitute) {
+            target = original;
+        }
+        String cacheControl = (immutableUrl && !substitute) ? CACHE_IMMUTABLE : CACHE_REVALIDATE;
+        return writeBlob(target, cacheControl, req, res);
+    }
+
+    /**
+     * 輸出 blob 圖片
+     *
+     * @return false 代表沒有圖片或檔案已遺失，由呼叫端改輸出預設圖或 404
+     */
+    public boolean writeBlob(ImageBlobRef ref, String cacheControl, HttpServletRequest req, HttpServletResponse res)
+            throws IOException {
+        if (ref == null || ref.getBlobId() == null) {
+            return false;
+        }
+        String blobId = ref.getBlobId();
+        Path path = blobStore.localPath(blobId);
+        if (path == null) {
+            return writeStream(ref, cacheControl, req, res);
+        }
+        if (!Files.isRegularFile(path)) {
+            log.warn("[ImageResponse] Blob {} is missing from the store", blobId);
+            return false;
+        }
+
+        requests.increment();
+        long length = Files.size(path);
+        long lastModified = Files.getLastModifiedTime(path).toMillis();
+        String etag = "\"" + blobId + "\"";
+        String contentType = (ref.getContentType() != null) ? ref.getContentType() : sniffContentType(path);
+
+        writeValidators(res, etag, lastModified, cacheControl);
+        if (isNotModified(req, etag, lastModified)) {
+            notModified.increment();
+            res.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return true;
+        }
+
+        res.setContentType(contentType);
+        res.setHeader("Accept-Ranges", "bytes");
+        long[] range = parseRange(req, etag, lastModified, length);
+        if (range == INVALID_RANGE) {
+            res.setHeader("Content-Range", "bytes */" + length);
+            res.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+            return true;
+        }
+        long start = (range != null) ? range[0] : 0;
+        long end = (range != null) ? range[1] : length - 1; // 含 end
+        long count = end - start + 1;
+        if (range != null) {
+            partial.increment();
+            res.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            res.setHeader("Content-Range", "bytes " + start + "-" + end + "/" + length);
+        }
+        res.setContentLengthLong(count);
+        if ("HEAD".equals(req.getMethod()) || count <= 0) {
+            return true;
+        }
+
+        if (Boolean.TRUE.equals(req.getAttribute(SENDFILE_SUPPORT))) {
+            // 由 Tomcat 在回應結束時以 sendfile 輸出 (end 為不含)
+            req.setAttribute(SENDFILE_FILENAME, path.toAbsolutePath().toString());
+            req.setAttribute(SENDFILE_START, start);
+            req.setAttribute(SENDFILE_END, end + 1);
+            sendfile.increment();
+        } else {
+            transfer(path, start, count, res);
+        }
+        bytesServed.add(count);
+        return true;
+    }
+
+    /**
+     * 輸出 classpath 上的預設圖（第一次使用時載入記憶體）
+     */
+    public void writeFallback(String classpathLocation, String cacheControl, HttpServletRequest req,
+            HttpServletResponse res) throws IOException {
+        FallbackImage image = fallbackImages.get(classpathLocation);
+        if (image == null) {
+            image = FallbackImage.load(classpathLocation);
+            fallbackImages.put(classpathLocation, image);
+        }
+
+        requests.increment();
+        fallbacks.increment();
+        res.setHeader("ETag", image.etag);
+        res.setHeader("Cache-Control", cacheControl);
+        if (matchesEtag(req.getHeader("If-None-Match"), image.etag)) {
+            notModified.increment();
+            res.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        res.setContentType(image.contentType);
+        res.setContentLength(image.bytes.length);
+        if (!"HEAD".equals(req.getMethod())) {
+            res.getOutputStream().write(image.bytes);
+            bytesServed.add(image.bytes.length);
+        }
+    }
+
+    /**
+     * 圖片輸出統計
+     */
+    public Map<String, Object> getMetrics() {
+        long total = requests.sum();
+        long hits = notModified.sum();
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("requests", total);
+        metrics.put("notModified", hits);
+        metrics.put("notModifiedRatio", total == 0 ? 0.0 : Math.round(hits * 1000.0 / total) / 1000.0);
+        metrics.put("partialResponses", partial.sum());
+        metrics.put("fallbackResponses", fallbacks.sum());
+        metrics.put("sendfileResponses", sendfile.sum());
+        metrics.put("bytesServed", bytesServed.sum());
+        return metrics;
+    }
+
+    // 非本機儲存：無法零拷貝也不支援 Range，只處理 ETag 與完整輸出
+    private boolean writeStream(ImageBlobRef ref, String cacheControl, HttpServletRequest req,
+            HttpServletResponse res) throws IOException {
+        String etag = "\"" + ref.getBlobId() + "\"";
+        InputStream in;
+        try {
+            in = blobStore.open(ref.getBlobId());
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+        try (InputStream body = in) {
+            requests.increment();
+            res.setHeader("ETag", etag);
+            res.setHeader("Cache-Control", cacheControl);
+            if (matchesEtag(req.getHeader("If-None-Match"), etag)) {
+                notModified.increment();
+                res.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                return true;
+            }
+            res.setContentType(ref.getContentType() != null ? ref.getContentType() : "image/*");
+            if (ref.getSize() != null) {
+                res.setContentLengthLong(ref.getSize());
+            }
+            if (!"HEAD".equals(req.getMethod())) {
+                bytesServed.add(body.transferTo(res.getOutputStream()));
+            }
+            return true;
+        }
+    }
+
+    private void transfer(Path path, long start, long count, HttpServletResponse res) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(res.getOutputStream());
+            long position = start;
+            long remaining = count;
+            while (remaining > 0) {
+                long written = channel.transferTo(position, remaining, out);
+                if (written <= 0) {
+                    break;
+                }
+                position += written;
+                remaining -= written;
+            }
+        }
+    }
+
+    private void writeValidators(HttpServletResponse res, String etag, long lastModified, String cacheControl) {
+        res.setHeader("ETag", etag);
+        res.setDateHeader("Last-Modified", lastModified);
+        res.setHeader("Cache-Control", cacheControl);
+    }
+
+    private boolean isNotModified(HttpServletRequest req, String etag, long lastModified) {
+        String ifNoneMatch = req.getHeader("If-None-Match");
+        if (ifNoneMatch != null) {
+            return matchesEtag(ifNoneMatch, etag);
+        }
+        long since = dateHeader(req, "If-Modified-Since");
+        // HTTP 日期只精確到秒
+        return since >= 0 && lastModified / 1000 <= since / 1000;
+    }
+
+    private static boolean matchesEtag(String header, String etag) {
+        if (header == null) {
+            return false;
+        }
+        for (String candidate : header.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if ("*".equals(tag) || etag.equals(tag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 解析 Range 標頭
+     *
+     * @return null 代表回完整內容；INVALID_RANGE 代表 416；否則為 {start, end}（含 end）
+     */
+    private long[] parseRange(HttpServletRequest req, String etag, long lastModified, long length) {
+        String header = req.getHeader("Range");
+        if (header == null || !header.startsWith("bytes=")) {
+            return null;
+        }
+        // If-Range 不符代表內容已變，回完整內容
+        String ifRange = req.getHeader("If-Range");
+        if (ifRange != null) {
+            if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+                if (!etag.equals(ifRange.trim())) {
+                    return null;
+                }
+            } else {
+                long since = dateHeader(req, "If-Range");
+                if (since < 0 || lastModified / 1000 > since / 1000) {
+                    return null;
+                }
+            }
+        }
+
+        String spec = header.substring("bytes=".length()).trim();
+        if (spec.contains(",")) {
+            return null; // 多重範圍：回完整內容
+        }
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return INVALID_RANGE;
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            long start;
+            long end;
+            if (first.isEmpty()) {
+                // bytes=-N：最後 N 個位元組
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0) {
+                    return INVALID_RANGE;
+                }
+                start = Math.max(0, length - suffix);
+                end = length - 1;
+            } else {
+                start = Long.parseLong(first);
+                end = last.isEmpty() ? length - 1 : Math.min(Long.parseLong(last), length - 1);
+            }
+            if (start < 0 || start >= length || end < start) {
+                return INVALID_RANGE;
+            }
+            return new long[] { start, end };
+        } catch (NumberFormatException e) {
+            return INVALID_RANGE;
+        }
+    }
+
+    private static long dateHeader(HttpServletRequest req, String name) {
+        try {
+            return req.getDateHeader(name);
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+    }
+
+    // 依檔頭判斷常見圖檔格式 (舊資料沒有記錄格式時使用)
+    private static String sniffContentType(Path path) throws IOException {
+        byte[] head = new byte[12];
+        int read;
+        try (InputStream in = Files.newInputStream(path)) {
+            read = in.readNBytes(head, 0, head.length);
+        }
+        if (read >= 8 && (head[0] & 0xFF) == 0x89 && head[1] == 'P' && head[2] == 'N' && head[3] == 'G') {
+            return "image/png";
+        }
+        if (read >= 3 && (head[0] & 0xFF) == 0xFF && (head[1] & 0xFF) == 0xD8 && (head[2] & 0xFF) == 0xFF) {
+            return "image/jpeg";
+        }
+        if (read >= 6 && head[0] == 'G' && head[1] == 'I' && head[2] == 'F') {
+            return "image/gif";
+        }
+        if (read >= 12 && head[0] == 'R' && head[1] == 'I' && head[2] == 'F' && head[3] == 'F'
+                && head[8] == 'W' && head[9] == 'E' && head[10] == 'B' && head[11] == 'P') {
+            return "image/webp";
+        }
+        return "application/octet-stream";
+    }
+
+    /**
+     * 記憶體中的預設圖
+     */
+    private static final class FallbackImage {
+
+        final byte[] bytes;
+        final String etag;
+        final String contentType;
+
+        private FallbackImage(byte[] bytes, String etag, String contentType) {
+            this.bytes = bytes;
+            this.etag = etag;
+            this.contentType = contentType;
+        }
+
+        static FallbackImage load(String location) throws IOException {
+            byte[] bytes;
+            try (InputStream is = new ClassPathResource(location).getInputStream()) {
+                bytes = is.readAllBytes();
+            }
+            try {
+                byte[] hash = MessageDigest.getInstance("SHA-256").digest(bytes);
+                String contentType = location.endsWith(".png") ? "image/png"
+                        : (location.endsWith(".jpg") || location.endsWith(".jpeg")) ? "image/jpeg" : "image/*";
+                return new FallbackImage(bytes, "\"" + HexFormat.of().formatHex(hash) + "\"", contentType);
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
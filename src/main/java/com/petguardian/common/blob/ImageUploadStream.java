@@ -0,0 +1,148 @@
+package com.petguardian.common.blob;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * 上傳圖片的檢查串流
+ *
+ * 邊讀邊檢查，不會把檔案整份讀進記憶體：
+ * - 讀到的前 HEADER_LENGTH 位元組比對檔頭 (magic bytes)，不是 jpg / png / gif / webp 就丟出 InvalidImageException
+ *   (不採信瀏覽器送來的 Content-Type 與副檔名)
+ * - 累計讀取的位元組數，超過上限立即丟出 InvalidImageException，不再往下讀
+ *
+ * 例外會中斷 BlobStore 的寫入，已寫出的暫存檔由 BlobStore 清除。
+ */
+public class ImageUploadStream extends FilterInputStream {
+
+    static final int HEADER_LENGTH = 12;
+
+    private static final byte[] JPEG = { (byte) 0xFF, (byte) 0xD8, (byte) 0xFF };
+    private static final byte[] PNG = { (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n' };
+    private static final byte[] GIF87A = "GIF87a".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] GIF89A = "GIF89a".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] RIFF = "RIFF".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] WEBP = "WEBP".getBytes(StandardCharsets.US_ASCII);
+
+    private final long maxBytes;
+    private final byte[] header = new byte[HEADER_LENGTH];
+    private int headerLength = -1; // 尚未讀取檔頭
+    private int headerPos;
+    private long count;
+    private String contentType;
+
+    public ImageUploadStream(InputStream in, long maxBytes) {
+        super(in);
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * 由檔頭判斷的圖片格式（讀取開始後才有值）
+     */
+    public String getContentType() {
+        return contentType;
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] one = new byte[1];
+        int n = read(one, 0, 1);
+        return (n == -1) ? -1 : (one[0] & 0xFF);
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (headerLength < 0) {
+            readHeader();
+        }
+        int n;
+        if (headerPos < headerLength) {
+            // 先交出已讀取的檔頭
+            n = Math.min(len, headerLength - headerPos);
+            System.arraycopy(header, headerPos, b, off, n);
+            headerPos += n;
+        } else {
+            n = in.read(b, off, len);
+            if (n == -1) {
+                return -1;
+            }
+        }
+        count += n;
+        if (count > maxBytes) {
+            throw new InvalidImageException("圖片過大，單張圖片不得超過 " + formatSize(maxBytes));
+        }
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        // 跳過的內容也要計入大小，因此以讀取代替
+        byte[] buffer = new byte[(int) Math.min(n, 8192)];
+        long skipped = 0;
+        while (skipped < n) {
+            int read = read(buffer, 0, (int) Math.min(buffer.length, n - skipped));
+            if (read == -1) {
+                break;
+            }
+            skipped += read;
+        }
+        return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    @Override
+    public synchronized void mark(int readlimit) {
+    }
+
+    @Override
+    public synchronized void reset() throws IOException {
+        throw new IOException("mark/reset not supported");
+    }
+
+    private void readHeader() throws IOException {
+        int n = in.readNBytes(header, 0, HEADER_LENGTH);
+        headerLength = n;
+        contentType = detect(header, n);
+        if (contentType == null) {
+            throw new InvalidImageException("請上傳圖片檔（jpg, png, gif, webp）");
+        }
+    }
+
+    static String detect(byte[] header, int length) {
+        if (startsWith(header, length, JPEG)) {
+            return "image/jpeg";
+        }
+        if (startsWith(header, length, PNG)) {
+            return "image/png";
+        }
+        if (startsWith(header, length, GIF87A) || startsWith(header, length, GIF89A)) {
+            return "image/gif";
+        }
+        if (length >= 12 && startsWith(header, length, RIFF)
+                && Arrays.equals(header, 8, 12, WEBP, 0, WEBP.length)) {
+            return "image/webp";
+        }
+        return null;
+    }
+
+    private static boolean startsWith(byte[] header, int length, byte[] magic) {
+        return length >= magic.length && Arrays.equals(header, 0, magic.length, magic, 0, magic.length);
+    }
+
+    static String formatSize(long bytes) {
+        if (bytes >= 1024 * 1024 && bytes % (1024 * 1024) == 0) {
+            return (bytes / (1024 * 1024)) + "MB";
+        }
+        return (bytes / 1024) + "KB";
+    }
+}
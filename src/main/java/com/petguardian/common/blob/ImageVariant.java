@@ -0,0 +1,57 @@
+package com.petguardian.common.blob;
+
+/**
+ * 圖片尺寸版本
+ *
+ * 依長邊縮小（不放大），原圖本身已小於該尺寸時直接使用原圖。
+ * 網址參數 v=thumb / v=medium，沒有參數代表原圖。
+ */
+public enum ImageVariant {
+
+    THUMB("thumb", 320),     // 列表、頭像
+    MEDIUM("medium", 1024);  // 內文、詳情頁
+
+    /** 本系統 blob 圖片網址前綴（商品、退貨圖片等以網址字串保存者） */
+    public static final String MEDIA_URL_PREFIX = "/media/images/";
+
+    private final String param;
+    private final int maxEdge;
+
+    ImageVariant(String param, int maxEdge) {
+        this.param = param;
+        this.maxEdge = maxEdge;
+    }
+
+    public String getParam() {
+        return param;
+    }
+
+    public int getMaxEdge() {
+        return maxEdge;
+    }
+
+    /**
+     * 由網址參數取得版本（null / 空白 / 無法辨識都代表原圖）
+     */
+    public static ImageVariant fromParam(String param) {
+        if (param == null) {
+            return null;
+        }
+        for (ImageVariant variant : values()) {
+            if (variant.param.equalsIgnoreCase(param.trim())) {
+                return variant;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 在 blob 圖片網址後加上版本參數；其他網址 (舊的靜態檔案、預設圖) 原樣回傳
+     */
+    public String urlOf(String imageUrl) {
+        if (imageUrl == null || !imageUrl.startsWith(MEDIA_URL_PREFIX) || imageUrl.contains("?")) {
+            return imageUrl;
+        }
+        return imageUrl + "?v=" + param;
+    }
+}
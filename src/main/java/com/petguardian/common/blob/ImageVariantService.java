@@ -0,0 +1,364 @@
+package com.petguardian.common.blob;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.EnumMap;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.imageio.IIOException;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 圖片縮圖產生服務（背景處理）
+ *
+ * 上傳的原圖寫入 BlobStore 後交給這裡，由固定數量的背景執行緒產生各尺寸版本 (ImageVariant)：
+ * - 每張原圖只解碼一次（超大圖以 subsampling 解碼到足以產生最大版本的大小），再依序縮出各版本
+ * - 重新壓縮為 JPEG (有透明度者為 PNG)，重新編碼的同時去除 EXIF 等 metadata
+ * - 版本也存進 BlobStore，對應關係記錄在 image_variant 表 (來源 blob id + 版本 -> 版本 blob id)
+ *
+ * 工作佇列有上限 (QUEUE_CAPACITY)，滿了就先不處理；之後第一次有人要求該版本時會再排入。
+ * 版本尚未產生前，查詢回傳 null，呼叫端改用原圖。
+ * 無法解碼的原圖（不支援的格式、毀損或超過 MAX_SOURCE_PIXELS）也寫入指向原圖的版本列，
+ * 之後的查詢直接取得原圖，不會每次都重新排入、重新讀檔。
+ */
+@Slf4j
+@Service
+public class ImageVariantService {
+
+    static final int QUEUE_CAPACITY = 200;
+    static final float JPEG_QUALITY = 0.8f;
+    static final long MAX_SOURCE_PIXELS = 100_000_000L; // 超過的圖不處理（避免解碼耗盡記憶體）
+
+    private static final int MAX_CACHED = 10_000;
+
+    @Autowired
+    private BlobStore blobStore;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final ThreadPoolExecutor executor;
+
+    // 排隊或處理中的來源 blob id，避免重複排入
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+
+    // 已產生的版本：來源 blob id + ":" + 版本 -> 版本參照
+    private final Map<String, ImageBlobRef> resolved = new ConcurrentHashMap<>();
+
+    public ImageVariantService() {
+        int workers = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2));
+        AtomicInteger seq = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(QUEUE_CAPACITY), r -> {
+                    Thread thread = new Thread(r, "image-variant-" + seq.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 排入產生各版本（佇列已滿時略過，之後查詢時再補）
+     */
+    public void submit(String sourceBlobId) {
+        if (sourceBlobId == null || !pending.add(sourceBlobId)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    generate(sourceBlobId);
+                } catch (IOException | RuntimeException e) {
+                    log.warn("[ImageVariant] Failed to generate variants of {}: {}", sourceBlobId, e.getMessage());
+                } finally {
+                    pending.remove(sourceBlobId);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pending.remove(sourceBlobId);
+            log.debug("[ImageVariant] Queue full, {} deferred", sourceBlobId);
+        }
+    }
+
+    /**
+     * 取得圖片的指定版本
+     *
+     * @return 版本參照；variant 為 null 時回傳原圖；版本尚未產生時回傳 null 並排入產生
+     */
+    public ImageBlobRef resolve(ImageBlobRef source, ImageVariant variant) {
+        if (source == null || source.getBlobId() == null || variant == null) {
+            return source;
+        }
+        String key = source.getBlobId() + ":" + variant.name();
+        ImageBlobRef cached = resolved.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        List<ImageBlobRef> rows = jdbcTemplate.query(
+                "SELECT variant_blob_id, width, height, size, content_type FROM image_variant"
+                        + " WHERE source_blob_id = ? AND variant = ?",
+                (rs, i) -> new ImageBlobRef(rs.getString(1), (Integer) rs.getObject(2), (Integer) rs.getObject(3),
+                        rs.getLong(4), rs.getString(5)),
+                source.getBlobId(), variant.name());
+        if (rows.isEmpty()) {
+            submit(source.getBlobId());
+            return null;
+        }
+        remember(key, rows.get(0));
+        return rows.get(0);
+    }
+
+    /**
+     * 取得存在資料表 byte[] 欄位中的圖片 (例如寵物照片) 的指定版本
+     *
+     * 以內容雜湊對應，第一次時將原圖存入 BlobStore 並排入產生；版本尚未產生時回傳 null。
+     */
+    public ImageBlobRef resolve(byte[] original, ImageVariant variant) {
+        if (original == null || original.length == 0 || variant == null) {
+            return null;
+        }
+        String blobId = sha256(original);
+        ImageBlobRef ref = resolve(new ImageBlobRef(blobId, null, null, (long) original.length, null), variant);
+        if (ref == null && !blobStore.exists(blobId)) {
+            try {
+                blobStore.put(new ByteArrayInputStream(original));
+                submit(blobId);
+            } catch (IOException e) {
+                log.warn("[ImageVariant] Cannot store source image {}: {}", blobId, e.getMessage());
+            }
+        }
+        return ref;
+    }
+
+    /**
+     * 預先為 byte[] 圖片產生版本（上傳時呼叫）
+     */
+    public void submit(byte[] original) {
+        if (original != null && original.length > 0) {
+            resolve(original, ImageVariant.THUMB);
+        }
+    }
+
+    void generate(String sourceBlobId) throws IOException {
+        Integer existing = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM image_variant WHERE source_blob_id = ?", Integer.class, sourceBlobId);
+        if (existing != null && existing >= ImageVariant.values().length) {
+            return;
+        }
+
+        Decoded decoded = decode(sourceBlobId);
+        Map<ImageVariant, ImageBlobRef> variants = new EnumMap<>(ImageVariant.class);
+        if (decoded == null) {
+            // 無法產生版本：各版本都指向原圖（尺寸、格式未知，輸出時再判斷）
+            for (ImageVariant variant : ImageVariant.values()) {
+                variants.put(variant, new ImageBlobRef(sourceBlobId, null, null, null, null));
+            }
+            saveVariants(sourceBlobId, variants);
+            return;
+        }
+
+        for (ImageVariant variant : ImageVariant.values()) {
+            if (Math.max(decoded.sourceWidth, decoded.sourceHeight) <= variant.getMaxEdge()) {
+                // 原圖已經夠小，不放大，直接使用原圖
+                variants.put(variant, new ImageBlobRef(sourceBlobId, decoded.sourceWidth, decoded.sourceHeight,
+                        null, decoded.sourceType));
+                continue;
+            }
+            BufferedImage scaled = scale(decoded.image, variant.getMaxEdge());
+            variants.put(variant, encodeAndStore(scaled, decoded.hasAlpha));
+        }
+        saveVariants(sourceBlobId, variants);
+    }
+
+    private void saveVariants(String sourceBlobId, Map<ImageVariant, ImageBlobRef> variants) {
+        for (Map.Entry<ImageVariant, ImageBlobRef> entry : variants.entrySet()) {
+            ImageBlobRef ref = entry.getValue();
+            if (ref.getSize() == null) {
+                ref.setSize(sizeOf(sourceBlobId));
+            }
+            jdbcTemplate.update("INSERT IGNORE INTO image_variant"
+                    + " (source_blob_id, variant, variant_blob_id, width, height, size, content_type)"
+                    + " VALUES (?, ?, ?, ?, ?, ?, ?)",
+                    sourceBlobId, entry.getKey().name(), ref.getBlobId(), ref.getWidth(), ref.getHeight(),
+                    ref.getSize(), ref.getContentType());
+            remember(sourceBlobId + ":" + entry.getKey().name(), ref);
+        }
+    }
+
+    private Decoded decode(String sourceBlobId) throws IOException {
+        try (InputStream in = blobStore.open(sourceBlobId);
+                ImageInputStream iis = ImageIO.createImageInputStream(in)) {
+            Iterator<ImageReader> readers = (iis != null) ? ImageIO.getImageReaders(iis) : null;
+            if (readers == null || !readers.hasNext()) {
+                return null; // 不是可辨識的圖檔
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(iis, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > MAX_SOURCE_PIXELS) {
+                    log.info("[ImageVariant] {} is too large ({}x{}), skipped", sourceBlobId, width, height);
+                    return null;
+                }
+
+                // 超大圖以 subsampling 解碼，只保留最大版本兩倍的解析度
+                int largest = ImageVariant.MEDIUM.getMaxEdge() * 2;
+                int step = Math.max(1, Math.max(width, height) / largest);
+                ImageReadParam param = reader.getDefaultReadParam();
+                if (step > 1) {
+                    param.setSourceSubsampling(step, step, 0, 0);
+                }
+                BufferedImage image;
+                try {
+                    image = reader.read(0, param);
+                } catch (IIOException e) {
+                    log.info("[ImageVariant] {} cannot be decoded, skipped: {}", sourceBlobId, e.getMessage());
+                    return null; // 圖檔毀損
+                }
+                String[] mimeTypes = reader.getOriginatingProvider().getMIMETypes();
+                String type = (mimeTypes != null && mimeTypes.length > 0) ? mimeTypes[0] : null;
+                return new Decoded(image, width, height, image.getColorModel().hasAlpha(), type);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // 以多次減半再縮到目標尺寸，縮小倍率大時畫質比一次縮完好
+    private static BufferedImage scale(BufferedImage source, int maxEdge) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        double ratio = (double) maxEdge / Math.max(width, height);
+        int targetWidth = Math.max(1, (int) Math.round(width * ratio));
+        int targetHeight = Math.max(1, (int) Math.round(height * ratio));
+        int type = source.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+
+        BufferedImage current = source;
+        int w = width;
+        int h = height;
+        do {
+            w = Math.max(targetWidth, w / 2);
+            h = Math.max(targetHeight, h / 2);
+            BufferedImage next = new BufferedImage(w, h, type);
+            Graphics2D g = next.createGraphics();
+            try {
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                if (type == BufferedImage.TYPE_INT_RGB) {
+                    g.setColor(Color.WHITE);
+                    g.fillRect(0, 0, w, h);
+                }
+                g.drawImage(current, 0, 0, w, h, null);
+            } finally {
+                g.dispose();
+            }
+            current = next;
+        } while (w != targetWidth || h != targetHeight);
+        return current;
+    }
+
+    private ImageBlobRef encodeAndStore(BufferedImage image, boolean hasAlpha) throws IOException {
+        String format = hasAlpha ? "png" : "jpeg";
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageWriter writer = ImageIO.getImageWritersByFormatName(format).next();
+        try (ImageOutputStream ios = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(ios);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            if (!hasAlpha) {
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(JPEG_QUALITY);
+            }
+            // 不帶 metadata 寫出
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+
+        StoredBlob blob = blobStore.put(new ByteArrayInputStream(out.toByteArray()));
+        return new ImageBlobRef(blob.getBlobId(), image.getWidth(), image.getHeight(), blob.getSize(),
+                hasAlpha ? "image/png" : "image/jpeg");
+    }
+
+    private Long sizeOf(String blobId) {
+        try {
+            Path path = blobStore.localPath(blobId);
+            return (path != null) ? Files.size(path) : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private void remember(String key, ImageBlobRef ref) {
+        if (resolved.size() >= MAX_CACHED) {
+            resolved.clear();
+        }
+        resolved.put(key, ref);
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 解碼結果：(可能已 subsampling 的) 圖片 + 原圖資訊
+     */
+    private static final class Decoded {
+
+        final BufferedImage image;
+        final int sourceWidth;
+        final int sourceHeight;
+        final boolean hasAlpha;
+        final String sourceType;
+
+        Decoded(BufferedImage image, int sourceWidth, int sourceHeight, boolean hasAlpha, String sourceType) {
+            this.image = image;
+            this.sourceWidth = sourceWidth;
+            this.sourceHeight = sourceHeight;
+            this.hasAlpha = hasAlpha;
+            this.sourceType = sourceType;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.petguardian.common.blob;
+
+import java.io.IOException;
+
+/**
+ * 上傳的檔案不是支援的圖片格式，或超過大小上限（訊息可直接顯示給使用者）
+ */
+public class InvalidImageException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    public InvalidImageException(String message) {
+        super(message);
+    }
+}
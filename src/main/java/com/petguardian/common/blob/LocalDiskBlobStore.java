@@ -0,0 +1,115 @@
+package com.petguardian.common.blob;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 本機磁碟 BlobStore
+ *
+ * 檔案路徑為 {root}/{id 前 2 碼}/{id 第 3~4 碼}/{id}：
+ * - 寫入時先串流到 {root}/tmp 下的暫存檔並同時計算 SHA-256，完成後再搬到正式路徑 (同一檔案系統內為原子搬移)
+ * - 正式路徑已存在代表相同內容已存過，直接丟棄暫存檔
+ * - 檔案寫入後不再修改，讀取不需加鎖
+ */
+@Slf4j
+@Component
+public class LocalDiskBlobStore implements BlobStore {
+
+    static final Pattern BLOB_ID = Pattern.compile("[0-9a-f]{64}");
+
+    private final Path root;
+    private final Path tmpDir;
+
+    public LocalDiskBlobStore(@Value("${blob.store.root}") String root) throws IOException {
+        Path path = Paths.get(root);
+        if (!path.isAbsolute()) {
+            // 相對路徑會隨啟動時的工作目錄改變，換個目錄啟動就找不到既有的圖片
+            throw new IllegalStateException("blob.store.root must be an absolute path (set BLOB_STORE_ROOT): " + root);
+        }
+        this.root = path.normalize();
+        this.tmpDir = this.root.resolve("tmp");
+        Files.createDirectories(tmpDir);
+        log.info("[BlobStore] Local blob store at {}", this.root);
+    }
+
+    @Override
+    public StoredBlob put(InputStream in) throws IOException {
+        Path tmp = Files.createTempFile(tmpDir, "blob-", ".part");
+        try {
+            MessageDigest digest = newDigest();
+            long size;
+            try (DigestInputStream din = new DigestInputStream(in, digest)) {
+                size = Files.copy(din, tmp, StandardCopyOption.REPLACE_EXISTING);
+            }
+            String blobId = HexFormat.of().formatHex(digest.digest());
+
+            Path target = pathOf(blobId);
+            if (!Files.exists(target)) {
+                Files.createDirectories(target.getParent());
+                moveIntoPlace(tmp, target);
+            }
+            return new StoredBlob(blobId, size);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    @Override
+    public InputStream open(String blobId) throws IOException {
+        return Files.newInputStream(pathOf(blobId));
+    }
+
+    @Override
+    public boolean exists(String blobId) {
+        return blobId != null && BLOB_ID.matcher(blobId).matches() && Files.exists(pathOf(blobId));
+    }
+
+    @Override
+    public Path localPath(String blobId) {
+        return pathOf(blobId);
+    }
+
+    /**
+     * 取得 blob 在磁碟上的路徑（id 格式不符時丟出 IllegalArgumentException，避免路徑穿越）
+     */
+    public Path pathOf(String blobId) {
+        if (blobId == null || !BLOB_ID.matcher(blobId).matches()) {
+            throw new IllegalArgumentException("Invalid blob id: " + blobId);
+        }
+        return root.resolve(blobId.substring(0, 2)).resolve(blobId.substring(2, 4)).resolve(blobId);
+    }
+
+    private void moveIntoPlace(Path tmp, Path target) throws IOException {
+        try {
+            Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            // 同時有人寫入相同內容，保留先到的那份
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
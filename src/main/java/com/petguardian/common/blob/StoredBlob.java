@@ -0,0 +1,23 @@
+package com.petguardian.common.blob;
+
+/**
+ * BlobStore 寫入結果
+ */
+public class StoredBlob {
+
+    private final String blobId;
+    private final long size;
+
+    public StoredBlob(String blobId, long size) {
+        this.blobId = blobId;
+        this.size = size;
+    }
+
+    public String getBlobId() {
+        return blobId;
+    }
+
+    public long getSize() {
+        return size;
+    }
+}
@@ -0,0 +1,40 @@
+package com.petguardian.common.controller;
+
+import java.io.IOException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import com.petguardian.common.blob.ImageBlobRef;
+import com.petguardian.common.blob.ImageResponseWriter;
+import com.petguardian.common.blob.ImageVariant;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * 共用圖片網址 /media/images/{blobId}
+ *
+ * 商品、退貨等以網址字串保存的圖片上傳後存進 BlobStore，網址以內容雜湊定址，可長期快取。
+ * 加上 v=thumb / v=medium 取得縮圖版本（尚未產生時先回原圖）。
+ */
+@Controller
+public class MediaImageController {
+
+    @Autowired
+    private ImageResponseWriter imageResponseWriter;
+
+    @GetMapping(ImageVariant.MEDIA_URL_PREFIX + "{blobId:[0-9a-f]{64}}")
+    public void image(@PathVariable("blobId") String blobId,
+            @RequestParam(value = "v", required = false) String v,
+            HttpServletRequest req, HttpServletResponse res) throws IOException {
+
+        ImageBlobRef ref = new ImageBlobRef(blobId, null, null, null, null);
+        if (!imageResponseWriter.writeImage(ref, ImageVariant.fromParam(v), true, req, res)) {
+            res.sendError(HttpServletResponse.SC_NOT_FOUND);
+        }
+    }
+}
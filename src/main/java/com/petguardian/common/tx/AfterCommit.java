@@ -0,0 +1,30 @@
+package com.petguardian.common.tx;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 交易提交後執行
+ *
+ * 快取清除、索引更新等副作用都要等資料真正提交後才做，
+ * 否則其他請求可能在提交前重新載入舊資料；交易回滾時不執行。
+ * 呼叫時沒有進行中的交易則立即執行。
+ */
+public final class AfterCommit {
+
+    private AfterCommit() {
+    }
+
+    public static void run(Runnable action) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
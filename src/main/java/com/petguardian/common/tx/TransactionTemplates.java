@@ -0,0 +1,23 @@
+package com.petguardian.common.tx;
+
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 常用的 TransactionTemplate
+ */
+public final class TransactionTemplates {
+
+    private TransactionTemplates() {
+    }
+
+    /**
+     * 一律開新交易 (REQUIRES_NEW)：批次分段、對帳等需要獨立提交的工作使用
+     */
+    public static TransactionTemplate requiresNew(PlatformTransactionManager transactionManager) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return template;
+    }
+}
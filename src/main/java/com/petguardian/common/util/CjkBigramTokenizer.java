@@ -0,0 +1,107 @@
+package com.petguardian.common.util;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * 中日韓雙字切詞器 (CJK Bigram Tokenizer)
+ *
+ * 全文索引用的簡易切詞：
+ * - 英數字連續片段視為一個詞 (轉小寫)
+ * - 中日韓文字連續片段切成相鄰兩字的 bigram，例如「狗狗飼料」→「狗狗」「狗飼」「飼料」
+ * - 索引時可額外輸出單字 (unigram)，讓單一中文字的查詢也能命中
+ *
+ * 其餘符號與空白皆視為分隔字元。
+ */
+public final class CjkBigramTokenizer {
+
+    private CjkBigramTokenizer() {
+    }
+
+    /**
+     * 索引用切詞：bigram + 單字
+     */
+    public static List<String> tokenizeForIndex(String text) {
+        return tokenize(text, true);
+    }
+
+    /**
+     * 查詢用切詞：只輸出 bigram，片段只有單一中文字時才輸出單字
+     * 回傳去重後的詞集合（保留出現順序）
+     */
+    public static Set<String> tokenizeForQuery(String text) {
+        return new LinkedHashSet<>(tokenize(text, false));
+    }
+
+    private static List<String> tokenize(String text, boolean withUnigrams) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return tokens;
+        }
+
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        StringBuilder word = new StringBuilder();
+        List<Integer> cjkRun = new ArrayList<>();
+
+        int offset = 0;
+        while (offset < normalized.length()) {
+            int codePoint = normalized.codePointAt(offset);
+            offset += Character.charCount(codePoint);
+
+            if (isCjk(codePoint)) {
+                flushWord(word, tokens);
+                cjkRun.add(codePoint);
+            } else if (Character.isLetterOrDigit(codePoint)) {
+                flushCjkRun(cjkRun, tokens, withUnigrams);
+                word.appendCodePoint(codePoint);
+            } else {
+                flushWord(word, tokens);
+                flushCjkRun(cjkRun, tokens, withUnigrams);
+            }
+        }
+        flushWord(word, tokens);
+        flushCjkRun(cjkRun, tokens, withUnigrams);
+        return tokens;
+    }
+
+    private static void flushWord(StringBuilder word, List<String> tokens) {
+        if (word.length() > 0) {
+            tokens.add(word.toString());
+            word.setLength(0);
+        }
+    }
+
+    private static void flushCjkRun(List<Integer> run, List<String> tokens, boolean withUnigrams) {
+        if (run.isEmpty()) {
+            return;
+        }
+        if (run.size() == 1) {
+            tokens.add(new String(Character.toChars(run.get(0))));
+        } else {
+            for (int index = 0; index + 1 < run.size(); index++) {
+                tokens.add(new StringBuilder()
+                        .appendCodePoint(run.get(index))
+                        .appendCodePoint(run.get(index + 1))
+                        .toString());
+            }
+            if (withUnigrams) {
+                for (Integer codePoint : run) {
+                    tokens.add(new String(Character.toChars(codePoint)));
+                }
+            }
+        }
+        run.clear();
+    }
+
+    private static boolean isCjk(int codePoint) {
+        Character.UnicodeScript script = Character.UnicodeScript.of(codePoint);
+        return script == Character.UnicodeScript.HAN
+                || script == Character.UnicodeScript.HIRAGANA
+                || script == Character.UnicodeScript.KATAKANA
+                || script == Character.UnicodeScript.HANGUL;
+    }
+}
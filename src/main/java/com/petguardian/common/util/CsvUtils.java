@@ -0,0 +1,32 @@
+package com.petguardian.common.util;
+
+/**
+ * CSV 匯出輔助
+ *
+ * 後台匯出的檔案會直接以試算表開啟，欄位內容可能含有使用者輸入的文字（名稱、取消原因等），
+ * 以公式字元開頭時先加上單引號，避免被當成公式執行 (CSV injection)。
+ */
+public final class CsvUtils {
+
+    // 試算表會當成公式開頭的字元
+    private static final String FORMULA_PREFIXES = "=+-@\t\r";
+
+    private CsvUtils() {
+    }
+
+    /**
+     * 單一欄位的 CSV 字串：null 為空字串，含逗號、引號或換行時加上雙引號
+     */
+    public static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (!value.isEmpty() && FORMULA_PREFIXES.indexOf(value.charAt(0)) >= 0) {
+            value = "'" + value;
+        }
+        if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+        return value;
+    }
+}
@@ -0,0 +1,113 @@
+package com.petguardian.common.util;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * 不可變的整數集合（以排序後的 int[] 儲存）
+ *
+ * 用於快取大量的小型 ID 集合：
+ * - 每個元素只佔 4 bytes，不需 Integer 物件與雜湊表節點
+ * - contains 以二分搜尋查詢
+ * - with / without 會回傳新集合，原集合不變，可安全地在多執行緒間共用
+ */
+public final class SortedIntSet extends AbstractSet<Integer> {
+
+    private static final SortedIntSet EMPTY = new SortedIntSet(new int[0]);
+
+    private final int[] values;
+
+    private SortedIntSet(int[] sortedValues) {
+        this.values = sortedValues;
+    }
+
+    public static SortedIntSet empty() {
+        return EMPTY;
+    }
+
+    /**
+     * 由集合建立（忽略 null 與重複值）
+     */
+    public static SortedIntSet of(Collection<Integer> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return EMPTY;
+        }
+        int[] arr = ids.stream()
+                .filter(id -> id != null)
+                .mapToInt(Integer::intValue)
+                .sorted()
+                .distinct()
+                .toArray();
+        return arr.length == 0 ? EMPTY : new SortedIntSet(arr);
+    }
+
+    public boolean containsInt(int value) {
+        return Arrays.binarySearch(values, value) >= 0;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return o instanceof Integer && containsInt((Integer) o);
+    }
+
+    /**
+     * 回傳加入指定值後的新集合（已存在則回傳自己）
+     */
+    public SortedIntSet with(int value) {
+        int pos = Arrays.binarySearch(values, value);
+        if (pos >= 0) {
+            return this;
+        }
+        int insertAt = -pos - 1;
+        int[] next = new int[values.length + 1];
+        System.arraycopy(values, 0, next, 0, insertAt);
+        next[insertAt] = value;
+        System.arraycopy(values, insertAt, next, insertAt + 1, values.length - insertAt);
+        return new SortedIntSet(next);
+    }
+
+    /**
+     * 回傳移除指定值後的新集合（不存在則回傳自己）
+     */
+    public SortedIntSet without(int value) {
+        int pos = Arrays.binarySearch(values, value);
+        if (pos < 0) {
+            return this;
+        }
+        if (values.length == 1) {
+            return EMPTY;
+        }
+        int[] next = new int[values.length - 1];
+        System.arraycopy(values, 0, next, 0, pos);
+        System.arraycopy(values, pos + 1, next, pos, values.length - pos - 1);
+        return new SortedIntSet(next);
+    }
+
+    @Override
+    public int size() {
+        return values.length;
+    }
+
+    @Override
+    public Iterator<Integer> iterator() {
+        return new Iterator<>() {
+            private int index = 0;
+
+            @Override
+            public boolean hasNext() {
+                return index < values.length;
+            }
+
+            @Override
+            public Integer next() {
+                if (index >= values.length) {
+                    throw new NoSuchElementException();
+                }
+                return values[index++];
+            }
+        };
+    }
+}
@@ -16,6 +16,7 @@ import org.springframework.web.bind.annotation.ResponseBody;
 
 import com.petguardian.complaint.model.ComplaintVO;
 import com.petguardian.complaint.model.Complaintservice;
+import com.petguardian.evaluate.service.EvaluateService;
 
 @Controller
 @RequestMapping("/admin")
@@ -27,6 +28,9 @@ public class Complaintcontroller {
     @Autowired
     private com.petguardian.evaluate.model.EvaluateRepository evaluateRepository;
 
+    @Autowired
+    private EvaluateService evaluateService;
+
     // 🔹 後台管理頁面（管理員審核用）
     @GetMapping("/reviews1")
     public String adminReviews(HttpSession session, Model model) {
@@ -85,11 +89,10 @@ public class Complaintcontroller {
                 if (reviewOpt.isPresent()) {
                     com.petguardian.evaluate.model.EvaluateVO review = reviewOpt.get();
                     if ("delete".equals(action)) {
-                        review.setIsHidden(2); // 刪除/隱藏評論 (管理員確認檢舉屬實)
+                        evaluateService.updateVisibility(review, 2); // 刪除/隱藏評論 (管理員確認檢舉屬實)
                     } else if ("unhide".equals(action)) {
-                        review.setIsHidden(0); // 解除隱藏 (管理員判定檢舉不屬實)
+                        evaluateService.updateVisibility(review, 0); // 解除隱藏 (管理員判定檢舉不屬實)
                     }
-                    evaluateRepository.save(review);
                 }
             } else {
                 // 🔥 舊邏輯：處理該訂單的所有評論 (向後兼容)
@@ -99,11 +102,10 @@ public class Complaintcontroller {
                 if (reviews != null && !reviews.isEmpty()) {
                     for (com.petguardian.evaluate.model.EvaluateVO review : reviews) {
                         if ("delete".equals(action)) {
-                            review.setIsHidden(2);
+                            evaluateService.updateVisibility(review, 2);
                         } else if ("unhide".equals(action)) {
-                            review.setIsHidden(0);
+                            evaluateService.updateVisibility(review, 0);
                         }
-                        evaluateRepository.save(review);
                     }
                 }
             }
@@ -127,5 +129,4 @@ public class Complaintcontroller {
             return ResponseEntity.status(500).body("伺服器錯誤");
         }
     }
-
 }
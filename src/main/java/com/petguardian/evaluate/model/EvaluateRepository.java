@@ -39,14 +39,29 @@ public interface EvaluateRepository extends JpaRepository<EvaluateVO, Integer> {
     List<EvaluateVO> findByBookingOrderIdIn(Collection<Integer> bookingOrderIds);
 
     /**
-     * SQL 聚合優化：獲取保姆的平均星數
+     * SQL 聚合優化：一次取得所有保姆的平均星數 (保姆搜尋索引用)
+     * 回傳順序: sitterId, averageRating
      */
-    @Query("SELECT AVG(e.starRating) FROM EvaluateVO e WHERE e.receiverId = :sitterId AND e.roleType = 1 AND (e.isHidden IS NULL OR e.isHidden = 0)")
-    Double getAverageRatingBySitterId(@Param("sitterId") Integer sitterId);
+    @Query("SELECT e.receiverId, AVG(e.starRating) FROM EvaluateVO e WHERE e.roleType = 1 AND (e.isHidden IS NULL OR e.isHidden = 0) GROUP BY e.receiverId")
+    List<Object[]> getAverageRatingGroupBySitter();
 
     /**
-     * SQL 聚合優化：獲取保姆的評論總數
+     * 評價統計對帳：保母顯示中評價的各星等數量
+     * 回傳順序: starRating, count
      */
-    @Query("SELECT COUNT(e) FROM EvaluateVO e WHERE e.receiverId = :sitterId AND e.roleType = 1 AND (e.isHidden IS NULL OR e.isHidden = 0)")
-    Long getReviewCountBySitterId(@Param("sitterId") Integer sitterId);
+    @Query("SELECT e.starRating, COUNT(e) FROM EvaluateVO e WHERE e.receiverId = :sitterId AND e.roleType = 1 AND (e.isHidden IS NULL OR e.isHidden = 0) GROUP BY e.starRating")
+    List<Object[]> countVisibleRatingsByStar(@Param("sitterId") Integer sitterId);
+
+    /**
+     * 尚未建立統計的保母即時彙總（一次查詢多位保母）
+     * 回傳順序: receiverId, starRating, count
+     */
+    @Query("SELECT e.receiverId, e.starRating, COUNT(e) FROM EvaluateVO e WHERE e.receiverId IN :sitterIds AND e.roleType = 1 AND (e.isHidden IS NULL OR e.isHidden = 0) GROUP BY e.receiverId, e.starRating")
+    List<Object[]> countVisibleRatingsByStarForSitters(@Param("sitterIds") Collection<Integer> sitterIds);
+
+    /**
+     * 評價統計對帳：所有收過會員評價的保姆 ID
+     */
+    @Query("SELECT DISTINCT e.receiverId FROM EvaluateVO e WHERE e.roleType = 1 AND e.receiverId IS NOT NULL")
+    List<Integer> findDistinctRatedSitterIds();
 }
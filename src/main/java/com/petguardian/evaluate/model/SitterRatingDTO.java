@@ -0,0 +1,23 @@
+package com.petguardian.evaluate.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 保母評價統計 DTO
+ * 由 sitter_rating_stats 摘要表組成，保母列表、收藏、詳情頁直接讀取
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SitterRatingDTO {
+
+    private Integer sitterId;
+    private Long ratingSum;         // 總星星數
+    private Long ratingCount;       // 評價數量
+    private Double averageRating;   // 平均星數（四捨五入至小數一位，無評價為 null）
+    private long[] distribution;    // 各星等數量，索引 0 = 1 星 … 4 = 5 星
+}
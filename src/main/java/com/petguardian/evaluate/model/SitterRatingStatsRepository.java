@@ -0,0 +1,49 @@
+package com.petguardian.evaluate.model;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import jakarta.persistence.LockModeType;
+
+@Repository
+public interface SitterRatingStatsRepository extends JpaRepository<SitterRatingStatsVO, Integer> {
+
+    // 建立空白統計列（已存在則不動），讓同時對帳的交易不會因主鍵重複而失敗
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO sitter_rating_stats (sitter_id) VALUES (:sitterId)", nativeQuery = true)
+    int insertIfAbsent(@Param("sitterId") Integer sitterId);
+
+    // 對帳時鎖定保母統計列，與增量更新互斥
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM SitterRatingStatsVO s WHERE s.sitterId = :sitterId")
+    Optional<SitterRatingStatsVO> findByIdForUpdate(@Param("sitterId") Integer sitterId);
+
+    // 一頁搜尋結果一次查詢
+    List<SitterRatingStatsVO> findBySitterIdIn(Collection<Integer> sitterIds);
+
+    /**
+     * 評價增量更新（direction: 1 = 顯示, -1 = 隱藏）
+     * 回傳 0 表示該保母尚未建立統計
+     */
+    @Modifying
+    @Query("UPDATE SitterRatingStatsVO s SET s.ratingSum = s.ratingSum + :sumDelta, "
+            + "s.ratingCount = s.ratingCount + :direction, "
+            + "s.star1Count = s.star1Count + CASE WHEN :star = 1 THEN :direction ELSE 0 END, "
+            + "s.star2Count = s.star2Count + CASE WHEN :star = 2 THEN :direction ELSE 0 END, "
+            + "s.star3Count = s.star3Count + CASE WHEN :star = 3 THEN :direction ELSE 0 END, "
+            + "s.star4Count = s.star4Count + CASE WHEN :star = 4 THEN :direction ELSE 0 END, "
+            + "s.star5Count = s.star5Count + CASE WHEN :star = 5 THEN :direction ELSE 0 END, "
+            + "s.updatedAt = CURRENT_TIMESTAMP WHERE s.sitterId = :sitterId")
+    int applyRatingDelta(@Param("sitterId") Integer sitterId,
+                         @Param("star") int star,
+                         @Param("sumDelta") long sumDelta,
+                         @Param("direction") long direction);
+}
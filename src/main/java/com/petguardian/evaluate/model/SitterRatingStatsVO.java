@@ -0,0 +1,55 @@
+package com.petguardian.evaluate.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * 保母評價統計摘要（每位保母一列）
+ *
+ * 評價新增、隱藏、解除隱藏時增量維護，並由每日對帳重新計算。
+ * 資料表定義見 resources/sql/sitter_rating_stats.sql
+ */
+@Entity
+@Table(name = "sitter_rating_stats")
+@Getter
+@Setter
+public class SitterRatingStatsVO {
+
+    @Id
+    @Column(name = "sitter_id")
+    private Integer sitterId;
+
+    @Column(name = "rating_sum", nullable = false)
+    private Long ratingSum = 0L; // 顯示中評價的總星星數
+
+    @Column(name = "rating_count", nullable = false)
+    private Long ratingCount = 0L; // 顯示中評價的數量
+
+    // 各星等的評價數量
+    @Column(name = "star_1_count", nullable = false)
+    private Long star1Count = 0L;
+
+    @Column(name = "star_2_count", nullable = false)
+    private Long star2Count = 0L;
+
+    @Column(name = "star_3_count", nullable = false)
+    private Long star3Count = 0L;
+
+    @Column(name = "star_4_count", nullable = false)
+    private Long star4Count = 0L;
+
+    @Column(name = "star_5_count", nullable = false)
+    private Long star5Count = 0L;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Column(name = "reconciled_at")
+    private LocalDateTime reconciledAt; // 最後一次對帳時間
+}
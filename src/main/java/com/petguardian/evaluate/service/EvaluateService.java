@@ -1,6 +1,8 @@
 package com.petguardian.evaluate.service;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 import com.petguardian.evaluate.model.EvaluateDTO;
 
@@ -9,6 +11,14 @@ import com.petguardian.evaluate.model.EvaluateVO;
 public interface EvaluateService {
     void handleSubmission(EvaluateVO vo, String currentRole);
 
+    /**
+     * 變更評價的顯示狀態（檢舉隱藏、管理員刪除或解除隱藏），同步更新保姆評價統計
+     * 
+     * @param review   評價
+     * @param isHidden 0=正常, 1=已隱藏, 2=已刪除
+     */
+    void updateVisibility(EvaluateVO review, Integer isHidden);
+
     List<EvaluateDTO> getGroupedReviews();
 
     List<EvaluateDTO> getByBookingOrderId(Integer bookingOrderId);
@@ -37,6 +47,14 @@ public interface EvaluateService {
      */
     Double getAverageRatingBySitterId(Integer sitterId);
 
+    /**
+     * 批次取得多位保姆的平均評分（一頁列表一次查詢）
+     * 
+     * @param sitterIds 保姆 ID 集合
+     * @return sitterId -> 平均評分 (無評價為 null)
+     */
+    Map<Integer, Double> getAverageRatingsBySitterIds(Collection<Integer> sitterIds);
+
     /**
      * 根據 ID 獲取評價
      */
@@ -1,12 +1,15 @@
 package com.petguardian.evaluate.service;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.petguardian.evaluate.model.EvaluateDTO;
 import com.petguardian.evaluate.model.EvaluateRepository;
@@ -15,6 +18,7 @@ import com.petguardian.sitter.model.SitterMemberRepository;
 import com.petguardian.sitter.model.SitterMemberVO;
 import com.petguardian.sitter.model.SitterRepository;
 import com.petguardian.sitter.model.SitterVO;
+import com.petguardian.sitter.service.SitterSearchService;
 import com.petguardian.complaint.model.Complaintrepository;
 
 @Service
@@ -32,8 +36,17 @@ public class EvaluateServiceImpl implements EvaluateService {
     @Autowired
     private Complaintrepository complaintRepository;
 
+    @Autowired
+    private SitterSearchService sitterSearchService;
+
+    @Autowired
+    private SitterRatingService sitterRatingService;
+
     @Override
+    @Transactional
     public void handleSubmission(EvaluateVO vo, String currentRole) {
+        boolean isNew = vo.getEvaluateId() == null;
+
         if (vo.getRoleType() == null) {
             if ("SITTER".equals(currentRole)) {
                 vo.setRoleType(0); // 0 = 保姆
@@ -54,6 +67,40 @@ public class EvaluateServiceImpl implements EvaluateService {
         }
 
         repo.save(vo);
+
+        // 會員評保姆會影響保姆評價統計與搜尋索引
+        if (vo.getRoleType() != null && vo.getRoleType() == 1) {
+            if (isNew) {
+                if (isVisible(vo.getIsHidden())) {
+                    sitterRatingService.onReviewVisibilityChanged(vo.getReceiverId(), vo.getStarRating(), true);
+                }
+            } else {
+                // 修改既有評價：無法得知修改前的星數，提交後重新計算
+                sitterRatingService.reconcileSitterAfterCommit(vo.getReceiverId());
+            }
+            sitterSearchService.refreshSitterAfterCommit(vo.getReceiverId());
+        }
+    }
+
+    @Override
+    @Transactional
+    public void updateVisibility(EvaluateVO review, Integer isHidden) {
+        boolean wasVisible = isVisible(review.getIsHidden());
+        review.setIsHidden(isHidden);
+        repo.save(review);
+
+        if (review.getRoleType() != null && review.getRoleType() == 1) {
+            boolean visible = isVisible(isHidden);
+            if (wasVisible != visible) {
+                sitterRatingService.onReviewVisibilityChanged(review.getReceiverId(), review.getStarRating(), visible);
+            }
+            sitterSearchService.refreshSitterAfterCommit(review.getReceiverId());
+        }
+    }
+
+    // 0 或 null = 顯示中；1 = 已隱藏；2 = 已刪除
+    private static boolean isVisible(Integer isHidden) {
+        return isHidden == null || isHidden == 0;
     }
 
     @Override
@@ -228,15 +275,19 @@ public class EvaluateServiceImpl implements EvaluateService {
 
     @Override
     public Double getAverageRatingBySitterId(Integer sitterId) {
-        Double avg = repo.getAverageRatingBySitterId(sitterId);
-        if (avg == null) {
-            return null;
-        }
-        return Math.round(avg * 10.0) / 10.0;
+        return sitterRatingService.getRating(sitterId).getAverageRating();
+    }
+
+    @Override
+    public Map<Integer, Double> getAverageRatingsBySitterIds(Collection<Integer> sitterIds) {
+        Map<Integer, Double> result = new HashMap<>();
+        sitterRatingService.getRatings(sitterIds)
+                .forEach((sitterId, rating) -> result.put(sitterId, rating.getAverageRating()));
+        return result;
     }
 
     public Long getReviewCountBySitterId(Integer sitterId) {
-        return repo.getReviewCountBySitterId(sitterId);
+        return sitterRatingService.getRating(sitterId).getRatingCount();
     }
 
     @Override
@@ -0,0 +1,37 @@
+package com.petguardian.evaluate.service;
+
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 保母評價統計對帳排程
+ * 每日重新計算所有保母的評價統計，修正增量更新可能產生的漂移
+ * 每位保母各自一個交易，單一保母失敗不影響其他保母
+ */
+@Slf4j
+@Component
+public class SitterRatingReconcileTask {
+
+    @Autowired
+    private SitterRatingService sitterRatingService;
+
+    @Scheduled(cron = "0 30 4 * * ?") // 每天凌晨 4 點半執行
+    public void reconcileAllSitters() {
+        Set<Integer> sitterIds = sitterRatingService.findAllSitterIds();
+        int failed = 0;
+        for (Integer sitterId : sitterIds) {
+            try {
+                sitterRatingService.reconcileSitter(sitterId);
+            } catch (Exception e) {
+                failed++;
+                log.warn("[SitterRating] Reconcile failed for sitter {}: {}", sitterId, e.getMessage());
+            }
+        }
+        log.info("[SitterRating] Reconciled {} sitters ({} failed)", sitterIds.size() - failed, failed);
+    }
+}
@@ -0,0 +1,55 @@
+package com.petguardian.evaluate.service;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+
+import com.petguardian.evaluate.model.SitterRatingDTO;
+
+/**
+ * 保母評價統計 Service Interface
+ *
+ * 維護每位保母的評價總星數、評價數與各星等分布：
+ * - 寫入路徑（會員評價新增、隱藏、解除隱藏）增量更新
+ * - 每日對帳重新計算，修正任何漂移
+ */
+public interface SitterRatingService {
+
+    // ==================== 查詢 ====================
+
+    /**
+     * 取得保母評價統計（尚未建立時直接彙總評價表，不寫入）
+     */
+    SitterRatingDTO getRating(Integer sitterId);
+
+    /**
+     * 批次取得多位保母的評價統計（一頁列表一次查詢）
+     *
+     * @return sitterId -> 評價統計，每個傳入的 ID 都有對應的值
+     */
+    Map<Integer, SitterRatingDTO> getRatings(Collection<Integer> sitterIds);
+
+    // ==================== 增量更新（在呼叫端交易內執行） ====================
+
+    /**
+     * 會員評保母的評價顯示狀態變動（新增顯示中的評價也視為由隱藏變為顯示）
+     */
+    void onReviewVisibilityChanged(Integer sitterId, Integer rating, boolean visible);
+
+    /**
+     * 評價內容被修改時，於交易提交後重新計算該保母的統計
+     */
+    void reconcileSitterAfterCommit(Integer sitterId);
+
+    // ==================== 對帳 ====================
+
+    /**
+     * 以獨立交易重新計算單一保母的評價統計
+     */
+    SitterRatingDTO reconcileSitter(Integer sitterId);
+
+    /**
+     * 取得所有需要對帳的保母 ID（收過會員評價或既有統計者）
+     */
+    Set<Integer> findAllSitterIds();
+}
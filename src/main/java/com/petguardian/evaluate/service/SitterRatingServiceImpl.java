@@ -0,0 +1,246 @@
+package com.petguardian.evaluate.service;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.petguardian.common.tx.AfterCommit;
+import com.petguardian.common.tx.TransactionTemplates;
+import com.petguardian.evaluate.model.EvaluateRepository;
+import com.petguardian.evaluate.model.SitterRatingDTO;
+import com.petguardian.evaluate.model.SitterRatingStatsRepository;
+import com.petguardian.evaluate.model.SitterRatingStatsVO;
+import com.petguardian.sitter.model.SitterRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 保母評價統計 Service 實作
+ *
+ * 增量更新以單一 UPDATE 累加 sitter_rating_stats（同時取得列鎖），
+ * 與對帳時的 SELECT ... FOR UPDATE 互斥，避免對帳覆蓋掉同時進行的增量。
+ * 尚未建立統計的保母：讀取時直接彙總評價表（不寫入），
+ * 增量更新時改於交易提交後對帳建立，其餘由每日對帳補齊。
+ * sitter 表的 sitter_star_count / sitter_rating_count 在同一交易內一併更新。
+ */
+@Slf4j
+@Service
+public class SitterRatingServiceImpl implements SitterRatingService {
+
+    @Autowired
+    private SitterRatingStatsRepository ratingStatsRepository;
+
+    @Autowired
+    private EvaluateRepository evaluateRepository;
+
+    @Autowired
+    private SitterRepository sitterRepository;
+
+    private final TransactionTemplate requiresNewTemplate;
+
+    public SitterRatingServiceImpl(PlatformTransactionManager transactionManager) {
+        this.requiresNewTemplate = TransactionTemplates.requiresNew(transactionManager);
+    }
+
+    // ==================== 查詢 ====================
+
+    @Override
+    @Transactional(readOnly = true)
+    public SitterRatingDTO getRating(Integer sitterId) {
+        if (sitterId == null) {
+            return emptyRating(null);
+        }
+        return ratingStatsRepository.findById(sitterId)
+                .map(this::toDTO)
+                .orElseGet(() -> {
+                    Tally tally = new Tally();
+                    for (Object[] row : evaluateRepository.countVisibleRatingsByStar(sitterId)) {
+                        tally.add(row[0], row[1]);
+                    }
+                    return tally.toDTO(sitterId);
+                });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Integer, SitterRatingDTO> getRatings(Collection<Integer> sitterIds) {
+        Map<Integer, SitterRatingDTO> result = new HashMap<>();
+        if (sitterIds == null || sitterIds.isEmpty()) {
+            return result;
+        }
+        Set<Integer> ids = sitterIds.stream().filter(Objects::nonNull)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        if (ids.isEmpty()) {
+            return result;
+        }
+
+        for (SitterRatingStatsVO stats : ratingStatsRepository.findBySitterIdIn(ids)) {
+            result.put(stats.getSitterId(), toDTO(stats));
+        }
+        Set<Integer> missing = new LinkedHashSet<>(ids);
+        missing.removeAll(result.keySet());
+        if (missing.isEmpty()) {
+            return result;
+        }
+
+        // 尚未建立統計的保母一次彙總，讀取路徑不寫入
+        Map<Integer, Tally> tallies = new HashMap<>();
+        for (Object[] row : evaluateRepository.countVisibleRatingsByStarForSitters(missing)) {
+            tallies.computeIfAbsent(((Number) row[0]).intValue(), id -> new Tally()).add(row[1], row[2]);
+        }
+        for (Integer sitterId : missing) {
+            result.put(sitterId, tallies.getOrDefault(sitterId, new Tally()).toDTO(sitterId));
+        }
+        return result;
+    }
+
+    // ==================== 增量更新 ====================
+
+    @Override
+    @Transactional
+    public void onReviewVisibilityChanged(Integer sitterId, Integer rating, boolean visible) {
+        if (sitterId == null || rating == null) {
+            return;
+        }
+        int direction = visible ? 1 : -1;
+        if (ratingStatsRepository.applyRatingDelta(sitterId, rating, (long) rating * direction, direction) == 0) {
+            // 尚未建立統計，提交後對帳建立（對帳會包含本次變動）
+            reconcileSitterAfterCommit(sitterId);
+            return;
+        }
+        sitterRepository.applyRatingDelta(sitterId, rating * direction, direction);
+    }
+
+    @Override
+    public void reconcileSitterAfterCommit(Integer sitterId) {
+        if (sitterId == null) {
+            return;
+        }
+        AfterCommit.run(() -> safeReconcile(sitterId));
+    }
+
+    // ==================== 對帳 ====================
+
+    @Override
+    public SitterRatingDTO reconcileSitter(Integer sitterId) {
+        if (sitterId == null) {
+            return emptyRating(null);
+        }
+        return requiresNewTemplate.execute(status -> {
+            // 先建立（或保留）統計列再鎖定，之後的彙總查詢才會看到所有已提交的增量
+            ratingStatsRepository.insertIfAbsent(sitterId);
+            SitterRatingStatsVO stats = ratingStatsRepository.findByIdForUpdate(sitterId).orElseThrow();
+
+            Tally tally = new Tally();
+            for (Object[] row : evaluateRepository.countVisibleRatingsByStar(sitterId)) {
+                tally.add(row[0], row[1]);
+            }
+
+            stats.setRatingSum(tally.sum);
+            stats.setRatingCount(tally.count);
+            stats.setStar1Count(tally.distribution[0]);
+            stats.setStar2Count(tally.distribution[1]);
+            stats.setStar3Count(tally.distribution[2]);
+            stats.setStar4Count(tally.distribution[3]);
+            stats.setStar5Count(tally.distribution[4]);
+
+            LocalDateTime now = LocalDateTime.now();
+            stats.setUpdatedAt(now);
+            stats.setReconciledAt(now);
+            ratingStatsRepository.save(stats);
+            sitterRepository.updateRatingTotals(sitterId, (int) tally.sum, (int) tally.count);
+
+            return toDTO(stats);
+        });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Set<Integer> findAllSitterIds() {
+        Set<Integer> sitterIds = new TreeSet<>(evaluateRepository.findDistinctRatedSitterIds());
+        ratingStatsRepository.findAll().forEach(stats -> sitterIds.add(stats.getSitterId()));
+        return sitterIds;
+    }
+
+    // ==================== 輔助方法 ====================
+
+    private void safeReconcile(Integer sitterId) {
+        try {
+            reconcileSitter(sitterId);
+        } catch (Exception e) {
+            // 統計更新失敗不影響評價本身，每日對帳時會校正
+            log.warn("[SitterRating] Reconcile failed for sitter {}: {}", sitterId, e.getMessage());
+        }
+    }
+
+    private SitterRatingDTO toDTO(SitterRatingStatsVO stats) {
+        return toDTO(stats.getSitterId(), valueOf(stats.getRatingSum()), valueOf(stats.getRatingCount()),
+                new long[] {
+                        valueOf(stats.getStar1Count()), valueOf(stats.getStar2Count()), valueOf(stats.getStar3Count()),
+                        valueOf(stats.getStar4Count()), valueOf(stats.getStar5Count()) });
+    }
+
+    private static SitterRatingDTO toDTO(Integer sitterId, long ratingSum, long ratingCount, long[] distribution) {
+        Double averageRating = ratingCount > 0 ? Math.round(ratingSum * 10.0 / ratingCount) / 10.0 : null;
+
+        return SitterRatingDTO.builder()
+                .sitterId(sitterId)
+                .ratingSum(ratingSum)
+                .ratingCount(ratingCount)
+                .averageRating(averageRating)
+                .distribution(distribution)
+                .build();
+    }
+
+    private SitterRatingDTO emptyRating(Integer sitterId) {
+        return SitterRatingDTO.builder()
+                .sitterId(sitterId)
+                .ratingSum(0L)
+                .ratingCount(0L)
+                .averageRating(null)
+                .distribution(new long[5])
+                .build();
+    }
+
+    private static long valueOf(Long value) {
+        return value != null ? value : 0L;
+    }
+
+    /**
+     * 由「星等, 數量」彙總列累計總星數、評價數與各星等分布
+     */
+    private static final class Tally {
+        private long sum;
+        private long count;
+        private final long[] distribution = new long[5];
+
+        void add(Object starValue, Object countValue) {
+            if (starValue == null) {
+                return;
+            }
+            int star = ((Number) starValue).intValue();
+            long starCount = ((Number) countValue).longValue();
+            sum += (long) star * starCount;
+            count += starCount;
+            if (star >= 1 && star <= 5) {
+                distribution[star - 1] = starCount;
+            }
+        }
+
+        SitterRatingDTO toDTO(Integer sitterId) {
+            return SitterRatingServiceImpl.toDTO(sitterId, sum, count, distribution.clone());
+        }
+    }
+}
@@ -2,7 +2,9 @@ package com.petguardian.forum.controller;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 
+import org.springframework.data.domain.Page;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.ui.ModelMap;
@@ -11,17 +13,20 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import com.petguardian.common.blob.ImageBlobService;
+import com.petguardian.common.blob.ImageResponseWriter;
+import com.petguardian.common.blob.InvalidImageException;
 import com.petguardian.forum.service.ForumCommentReportService;
 import com.petguardian.forum.service.ForumCommentService;
 import com.petguardian.forum.service.ForumPostPicsService;
 import com.petguardian.forum.service.ForumPostReportService;
 import com.petguardian.forum.service.ForumPostService;
 import com.petguardian.forum.service.ForumService;
-import com.petguardian.forum.model.CommentHandledResultDetailDTO;
-import com.petguardian.forum.model.CommentReviewDetailDTO;
+import com.petguardian.forum.model.CommentModerationDetailDTO;
 import com.petguardian.forum.model.DeletedCommentDTO;
 import com.petguardian.forum.model.DeletedPostDTO;
 import com.petguardian.forum.model.ForumCommentReportVO;
@@ -33,8 +38,7 @@ import com.petguardian.forum.model.HandledCommentDTO;
 import com.petguardian.forum.model.HandledPostDTO;
 import com.petguardian.forum.model.PendingCommentDTO;
 import com.petguardian.forum.model.PendingPostDTO;
-import com.petguardian.forum.model.PostHandledResultDetailDTO;
-import com.petguardian.forum.model.PostReviewDetailDTO;
+import com.petguardian.forum.model.PostModerationDetailDTO;
 import com.petguardian.forum.model.RejectedCommentDTO;
 import com.petguardian.forum.model.RejectedPostDTO;
 
@@ -50,10 +54,13 @@ public class AdminForumController {
 	private final ForumPostPicsService forumPostPicsService;
 	private final ForumPostReportService forumPostReportService;
 	private final ForumCommentReportService forumCommentReportService;
+	private final ImageBlobService imageBlobService;
+	private final ImageResponseWriter imageResponseWriter;
 
 	public AdminForumController(ForumService forumService, ForumPostService forumPostService,
 			ForumCommentService forumCommentService, ForumPostPicsService forumPostPicsService,
-			ForumPostReportService forumPostReportService, ForumCommentReportService forumCommentReportService) {
+			ForumPostReportService forumPostReportService, ForumCommentReportService forumCommentReportService,
+			ImageBlobService imageBlobService, ImageResponseWriter imageResponseWriter) {
 		super();
 		this.forumService = forumService;
 		this.forumPostService = forumPostService;
@@ -61,6 +68,15 @@ public class AdminForumController {
 		this.forumPostPicsService = forumPostPicsService;
 		this.forumPostReportService = forumPostReportService;
 		this.forumCommentReportService = forumCommentReportService;
+		this.imageBlobService = imageBlobService;
+		this.imageResponseWriter = imageResponseWriter;
+	}
+
+	//	討論區圖片輸出統計 (傳輸量、304 比例)
+	@GetMapping("image-metrics")
+	@ResponseBody
+	public Map<String, Object> imageMetrics() {
+		return imageResponseWriter.getMetrics();
 	}
 
 	@GetMapping("list-all-forum")
@@ -116,14 +132,18 @@ public class AdminForumController {
 			return "backend/forum/update-forum";
 		}
 
-		// MultipartFile convert byte[]
+		// MultipartFile 串流寫入 BlobStore，討論區只存圖片參照 (沒換圖時沿用原本的參照)
 		MultipartFile upFile = forumVO.getUpFile();
-		if (upFile != null && !upFile.isEmpty()) {
-			byte[] forumPic = upFile.getBytes();
-			forumVO.setForumPic(forumPic);
-		} else {
-			byte[] forumPic = forumService.getForumPic(forumVO.getForumId());
-			forumVO.setForumPic(forumPic);
+		try {
+			if (upFile != null && !upFile.isEmpty()) {
+				forumVO.setForumPicBlob(imageBlobService.store(upFile, ForumService.MAX_PIC_BYTES));
+			} else {
+				forumVO.setForumPicBlob(forumService.getForumPicBlob(forumVO.getForumId()));
+			}
+		} catch (InvalidImageException e) {
+			// 檔案內容不是圖片或超過大小
+			result.rejectValue("upFile", null, e.getMessage());
+			return "backend/forum/update-forum";
 		}
 
 		// 開始更新資料
@@ -149,14 +169,16 @@ public class AdminForumController {
 			return "backend/forum/add-forum";
 		}
 
-		// MultipartFile convert byte[]
+		// MultipartFile 串流寫入 BlobStore，討論區只存圖片參照
 		MultipartFile upFile = forumVO.getUpFile();
-		if (upFile != null && !upFile.isEmpty()) {
-			byte[] forumPic = upFile.getBytes();
-			forumVO.setForumPic(forumPic);
-			// } else {
-			// byte[] forumPic = forumService.getForumPic(forumVO.getForumId());
-			// forumVO.setForumPic(forumPic);
+		try {
+			if (upFile != null && !upFile.isEmpty()) {
+				forumVO.setForumPicBlob(imageBlobService.store(upFile, ForumService.MAX_PIC_BYTES));
+			}
+		} catch (InvalidImageException e) {
+			// 檔案內容不是圖片或超過大小
+			result.rejectValue("upFile", null, e.getMessage());
+			return "backend/forum/add-forum";
 		}
 
 		// 開始新增資料
@@ -168,30 +190,30 @@ public class AdminForumController {
 	}
 
 	@GetMapping("get-all-handled-posts")
-	public String getAllHandledPosts(ModelMap model) {
+	public String getAllHandledPosts(@RequestParam(defaultValue = "0") int page, ModelMap model) {
 
 		// 開始查詢資料
-		List<HandledPostDTO> postList = forumPostReportService.getAllHandledPosts();
+		Page<HandledPostDTO> postPage = forumPostReportService.getHandledPostPage(page);
 
 		// 查詢完成forward到顯示頁面
-		model.addAttribute("postList", postList);
+		model.addAttribute("postList", postPage.getContent());
+		model.addAttribute("queuePage", postPage);
+		model.addAttribute("queueCounts", forumPostReportService.getQueueCounts());
 
 		return "backend/forum/forum-post";
 
 	}
 	
 	@PostMapping("get-one-handled-post-to-display")
-	public String getOneHandledPostToDisplay(@RequestParam("reportId") Integer reportId, @RequestParam("postId") Integer postId, ModelMap model) {
+	public String getOneHandledPostToDisplay(@RequestParam("reportId") Integer reportId, ModelMap model) {
 		
-		// 開始查詢資料
-		PostReviewDetailDTO reviewDto = forumPostReportService.getPostReviewDetailToHandle(reportId);
-		PostHandledResultDetailDTO handledResultDto = forumPostReportService.getPostHandledResultDetailToDisplay(reportId);
-		List<Integer> picsId = forumPostPicsService.getPicsIdByPostId(postId);
+		// 開始查詢資料 (審核頁資料一次組好)
+		PostModerationDetailDTO detail = forumPostReportService.getModerationDetail(reportId, true);
 		
 		// 查詢完成forward到顯示頁面
-		model.addAttribute("handledResultDto", handledResultDto);
-		model.addAttribute("reviewDto", reviewDto);
-		model.addAttribute("picsId", picsId);
+		model.addAttribute("handledResultDto", detail.getHandledResult());
+		model.addAttribute("reviewDto", detail.getReview());
+		model.addAttribute("picsId", detail.getPicsId());
 		
 		return "backend/forum/display-handled-post";
 	}
@@ -206,28 +228,29 @@ public class AdminForumController {
 	}
 	
 	@GetMapping("get-all-pending-posts")
-	public String getAllPendingPosts(ModelMap model) {
+	public String getAllPendingPosts(@RequestParam(defaultValue = "0") int page, ModelMap model) {
 		
 		// 開始查詢資料
-		List<PendingPostDTO> postList = forumPostReportService.getAllPendingPosts();
+		Page<PendingPostDTO> postPage = forumPostReportService.getPendingPostPage(page);
 		
 		// 查詢完成forward到顯示頁面
-		model.addAttribute("postList", postList);
+		model.addAttribute("postList", postPage.getContent());
+		model.addAttribute("queuePage", postPage);
+		model.addAttribute("queueCounts", forumPostReportService.getQueueCounts());
 		
 		return "backend/forum/forum-pending-post";
 	
 	}
 	
 	@PostMapping("get-one-pending-post-to-handle")
-	public String getOnePendingPostToHandle(@RequestParam("reportId") Integer reportId, @RequestParam("postId") Integer postId, ModelMap model) {
+	public String getOnePendingPostToHandle(@RequestParam("reportId") Integer reportId, ModelMap model) {
 		
-		// 開始查詢資料
-		PostReviewDetailDTO dto = forumPostReportService.getPostReviewDetailToHandle(reportId);
-		List<Integer> picsId = forumPostPicsService.getPicsIdByPostId(postId);
+		// 開始查詢資料 (審核頁資料一次組好)
+		PostModerationDetailDTO detail = forumPostReportService.getModerationDetail(reportId, false);
 		
 		// 查詢完成forward到顯示頁面
-		model.addAttribute("dto", dto);
-		model.addAttribute("picsId", picsId);
+		model.addAttribute("dto", detail.getReview());
+		model.addAttribute("picsId", detail.getPicsId());
 		model.addAttribute("forumPostReportVO", new ForumPostReportVO());
 		
 		return "backend/forum/handle-pending-post";
@@ -240,10 +263,9 @@ public class AdminForumController {
 			                       RedirectAttributes ra, ModelMap model) {
 		
 		if(result.hasErrors()) {
-			PostReviewDetailDTO dto = forumPostReportService.getPostReviewDetailToHandle(reportId);
-			List<Integer> picsId = forumPostPicsService.getPicsIdByPostId(postId);
-			model.addAttribute("dto", dto);
-			model.addAttribute("picsId", picsId);
+			PostModerationDetailDTO detail = forumPostReportService.getModerationDetail(reportId, false);
+			model.addAttribute("dto", detail.getReview());
+			model.addAttribute("picsId", detail.getPicsId());
 			return "backend/forum/handle-pending-post";
 		}
 		
@@ -259,31 +281,49 @@ public class AdminForumController {
 	}
 	
 	
+	//	批次審核：勾選的待處理檢舉一次下架 (delete) 或駁回 (reject)，同一個交易完成
+	@PostMapping("bulk-handle-post-reports")
+	public String bulkHandlePostReports(@RequestParam(value = "reportIds", required = false) List<Integer> reportIds,
+			@RequestParam("handleResult") String handleResult, @RequestParam("action") String action,
+			RedirectAttributes ra) {
+		
+		String errorMsgs = validateBulkHandle(reportIds, handleResult, action);
+		if(errorMsgs != null) {
+			ra.addFlashAttribute("errorMsgs", errorMsgs);
+			return "redirect:/admin/forum/get-all-pending-posts";
+		}
+		
+		boolean takeDown = "delete".equals(action);
+		int handled = forumPostReportService.bulkHandle(reportIds, takeDown, handleResult);
+		ra.addFlashAttribute("successMsgs", (takeDown ? "已下架貼文，處理 " : "已駁回檢舉，處理 ") + handled + " 筆");
+		return "redirect:/admin/forum/get-all-pending-posts";
+	}
+	
 	@GetMapping("get-all-rejected-posts")
-	public String getAllRejectedPosts(ModelMap model) {
+	public String getAllRejectedPosts(@RequestParam(defaultValue = "0") int page, ModelMap model) {
 		
 		// 開始查詢資料
-		List<RejectedPostDTO> postList = forumPostReportService.getAllRejectedPosts();
+		Page<RejectedPostDTO> postPage = forumPostReportService.getRejectedPostPage(page);
 		
 		// 查詢完成forward到顯示頁面
-		model.addAttribute("postList", postList);
+		model.addAttribute("postList", postPage.getContent());
+		model.addAttribute("queuePage", postPage);
+		model.addAttribute("queueCounts", forumPostReportService.getQueueCounts());
 		
 		return "backend/forum/forum-rejected-post";
 	
 	}
 	
 	@PostMapping("get-one-rejected-post-to-display")
-	public String getOneRejectedPostToDisplay(@RequestParam("reportId") Integer reportId, @RequestParam("postId") Integer postId, ModelMap model) {
+	public String getOneRejectedPostToDisplay(@RequestParam("reportId") Integer reportId, ModelMap model) {
 		
-		// 開始查詢資料
-		PostReviewDetailDTO reviewDto = forumPostReportService.getPostReviewDetailToHandle(reportId);
-		PostHandledResultDetailDTO handledResultDto = forumPostReportService.getPostHandledResultDetailToDisplay(reportId);
-		List<Integer> picsId = forumPostPicsService.getPicsIdByPostId(postId);
+		// 開始查詢資料 (審核頁資料一次組好)
+		PostModerationDetailDTO detail = forumPostReportService.getModerationDetail(reportId, true);
 		
 		// 查詢完成forward到顯示頁面
-		model.addAttribute("handledResultDto", handledResultDto);
-		model.addAttribute("reviewDto", reviewDto);
-		model.addAttribute("picsId", picsId);
+		model.addAttribute("handledResultDto", detail.getHandledResult());
+		model.addAttribute("reviewDto", detail.getReview());
+		model.addAttribute("picsId", detail.getPicsId());
 		
 		return "backend/forum/display-rejected-post";
 	}
@@ -323,32 +363,31 @@ public class AdminForumController {
 	}
 	
 	@GetMapping("get-all-handled-comments")
-	public String getAllHandledComments(ModelMap model) {
+	public String getAllHandledComments(@RequestParam(defaultValue = "0") int page, ModelMap model) {
 
 		// 開始查詢資料
-		List<HandledCommentDTO> commentList = forumCommentReportService.getAllHandledComments();
+		Page<HandledCommentDTO> commentPage = forumCommentReportService.getHandledCommentPage(page);
 
 		// 查詢完成forward到顯示頁面
-		model.addAttribute("commentList", commentList);
+		model.addAttribute("commentList", commentPage.getContent());
+		model.addAttribute("queuePage", commentPage);
+		model.addAttribute("queueCounts", forumCommentReportService.getQueueCounts());
 
 		return "backend/forum/forum-comment";
 
 	}
 	
 	@PostMapping("get-one-handled-comment-to-display")
-	public String getOneHandledCommentToDisplay(@RequestParam("reportId") Integer reportId, @RequestParam("postId") Integer postId, ModelMap model) {
+	public String getOneHandledCommentToDisplay(@RequestParam("reportId") Integer reportId, ModelMap model) {
 		
-		// 開始查詢資料
-		CommentReviewDetailDTO reviewDto = forumCommentReportService.getCommentReviewDetailToHandle(reportId);
-		CommentHandledResultDetailDTO handledResultDto = forumCommentReportService.getCommentHandledResultDetailToDisplay(reportId);
-		List<Integer> picsId = forumPostPicsService.getPicsIdByPostId(postId);
-		List<ForumCommentVO> commentList = forumCommentService.getAllCommentsByPostId(postId);
+		// 開始查詢資料 (審核頁資料一次組好，含已隱藏的留言)
+		CommentModerationDetailDTO detail = forumCommentReportService.getModerationDetail(reportId, true, true);
 		
 		// 查詢完成forward到顯示頁面
-		model.addAttribute("handledResultDto", handledResultDto);
-		model.addAttribute("reviewDto", reviewDto);
-		model.addAttribute("picsId", picsId);
-		model.addAttribute("commentList", commentList);
+		model.addAttribute("handledResultDto", detail.getHandledResult());
+		model.addAttribute("reviewDto", detail.getReview());
+		model.addAttribute("picsId", detail.getPicsId());
+		model.addAttribute("commentList", detail.getCommentList());
 		
 		return "backend/forum/display-handled-comment";
 	}
@@ -363,30 +402,30 @@ public class AdminForumController {
 	}
 	
 	@GetMapping("get-all-pending-comments")
-	public String getAllPendingComments(ModelMap model) {
+	public String getAllPendingComments(@RequestParam(defaultValue = "0") int page, ModelMap model) {
 		
 		// 開始查詢資料
-		List<PendingCommentDTO> commentList = forumCommentReportService.getAllPendingComments();
+		Page<PendingCommentDTO> commentPage = forumCommentReportService.getPendingCommentPage(page);
 		
 		// 查詢完成forward到顯示頁面
-		model.addAttribute("commentList", commentList);
+		model.addAttribute("commentList", commentPage.getContent());
+		model.addAttribute("queuePage", commentPage);
+		model.addAttribute("queueCounts", forumCommentReportService.getQueueCounts());
 		
 		return "backend/forum/forum-pending-comment";
 		
 	}
 	
 	@PostMapping("get-one-pending-comment-to-handle")
-	public String getOnePendingCommentToHandle(@RequestParam("reportId") Integer reportId, @RequestParam("postId") Integer postId, ModelMap model) {
+	public String getOnePendingCommentToHandle(@RequestParam("reportId") Integer reportId, ModelMap model) {
 		
-		// 開始查詢資料
-		CommentReviewDetailDTO dto = forumCommentReportService.getCommentReviewDetailToHandle(reportId);
-		List<Integer> picsId = forumPostPicsService.getPicsIdByPostId(postId);
-		List<ForumCommentVO> commentList = forumCommentService.getCommentsByPostId(postId);
+		// 開始查詢資料 (審核頁資料一次組好)
+		CommentModerationDetailDTO detail = forumCommentReportService.getModerationDetail(reportId, false, false);
 		
 		// 查詢完成forward到顯示頁面
-		model.addAttribute("dto", dto);
-		model.addAttribute("picsId", picsId);
-		model.addAttribute("commentList", commentList);
+		model.addAttribute("dto", detail.getReview());
+		model.addAttribute("picsId", detail.getPicsId());
+		model.addAttribute("commentList", detail.getCommentList());
 		model.addAttribute("forumCommentReportVO", new ForumCommentReportVO());
 		
 		return "backend/forum/handle-pending-comment";
@@ -400,12 +439,10 @@ public class AdminForumController {
                @RequestParam("postId") Integer postId, RedirectAttributes ra, ModelMap model) {
 		
 		if(result.hasErrors()) {
-			CommentReviewDetailDTO dto = forumCommentReportService.getCommentReviewDetailToHandle(reportId);
-			List<Integer> picsId = forumPostPicsService.getPicsIdByPostId(postId);
-			List<ForumCommentVO> commentList = forumCommentService.getCommentsByPostId(postId);
-			model.addAttribute("dto", dto);
-			model.addAttribute("commentList", commentList);
-			model.addAttribute("picsId", picsId);
+			CommentModerationDetailDTO detail = forumCommentReportService.getModerationDetail(reportId, false, false);
+			model.addAttribute("dto", detail.getReview());
+			model.addAttribute("commentList", detail.getCommentList());
+			model.addAttribute("picsId", detail.getPicsId());
 			return "backend/forum/handle-pending-comment";
 		}
 		
@@ -420,33 +457,50 @@ public class AdminForumController {
 		return "redirect:/admin/forum/get-all-pending-comments";
 	}
 	
+	//	批次審核：勾選的待處理檢舉一次隱藏留言 (delete) 或駁回 (reject)，同一個交易完成
+	@PostMapping("bulk-handle-comment-reports")
+	public String bulkHandleCommentReports(@RequestParam(value = "reportIds", required = false) List<Integer> reportIds,
+			@RequestParam("handleResult") String handleResult, @RequestParam("action") String action,
+			RedirectAttributes ra) {
+		
+		String errorMsgs = validateBulkHandle(reportIds, handleResult, action);
+		if(errorMsgs != null) {
+			ra.addFlashAttribute("errorMsgs", errorMsgs);
+			return "redirect:/admin/forum/get-all-pending-comments";
+		}
+		
+		boolean takeDown = "delete".equals(action);
+		int handled = forumCommentReportService.bulkHandle(reportIds, takeDown, handleResult);
+		ra.addFlashAttribute("successMsgs", (takeDown ? "已隱藏留言，處理 " : "已駁回檢舉，處理 ") + handled + " 筆");
+		return "redirect:/admin/forum/get-all-pending-comments";
+	}
+	
 	@GetMapping("get-all-rejected-comments")
-	public String getAllRejectedComments(ModelMap model) {
+	public String getAllRejectedComments(@RequestParam(defaultValue = "0") int page, ModelMap model) {
 		
 		// 開始查詢資料
-		List<RejectedCommentDTO> commentList = forumCommentReportService.getAllRejectedComments();
+		Page<RejectedCommentDTO> commentPage = forumCommentReportService.getRejectedCommentPage(page);
 		
 		// 查詢完成forward到顯示頁面
-		model.addAttribute("commentList", commentList);
+		model.addAttribute("commentList", commentPage.getContent());
+		model.addAttribute("queuePage", commentPage);
+		model.addAttribute("queueCounts", forumCommentReportService.getQueueCounts());
 		
 		return "backend/forum/forum-rejected-comment";
 		
 	}
 	
 	@PostMapping("get-one-rejected-comment-to-display")
-	public String getOneRejectedCommentToDisplay(@RequestParam("reportId") Integer reportId, @RequestParam("postId") Integer postId, ModelMap model) {
+	public String getOneRejectedCommentToDisplay(@RequestParam("reportId") Integer reportId, ModelMap model) {
 		
-		// 開始查詢資料
-		CommentReviewDetailDTO reviewDto = forumCommentReportService.getCommentReviewDetailToHandle(reportId);
-		CommentHandledResultDetailDTO handledResultDto = forumCommentReportService.getCommentHandledResultDetailToDisplay(reportId);
-		List<Integer> picsId = forumPostPicsService.getPicsIdByPostId(postId);
-		List<ForumCommentVO> commentList = forumCommentService.getCommentsByPostId(postId);
+		// 開始查詢資料 (審核頁資料一次組好)
+		CommentModerationDetailDTO detail = forumCommentReportService.getModerationDetail(reportId, true, false);
 		
 		// 查詢完成forward到顯示頁面
-		model.addAttribute("handledResultDto", handledResultDto);
-		model.addAttribute("reviewDto", reviewDto);
-		model.addAttribute("picsId", picsId);
-		model.addAttribute("commentList", commentList);
+		model.addAttribute("handledResultDto", detail.getHandledResult());
+		model.addAttribute("reviewDto", detail.getReview());
+		model.addAttribute("picsId", detail.getPicsId());
+		model.addAttribute("commentList", detail.getCommentList());
 		
 		return "backend/forum/display-rejected-comment";
 		
@@ -484,4 +538,22 @@ public class AdminForumController {
 		return "redirect:/admin/forum/get-all-deleted-comments";
 	}
 	
+	//	批次審核的輸入檢查 (與單筆審核的 handleResult 限制相同)；通過時回傳 null
+	private static String validateBulkHandle(List<Integer> reportIds, String handleResult, String action) {
+		// 只接受下架 (delete) 與駁回 (reject)，其他值不可當成駁回處理
+		if(!"delete".equals(action) && !"reject".equals(action)) {
+			return "處理動作不正確";
+		}
+		if(reportIds == null || reportIds.isEmpty()) {
+			return "請先勾選要處理的檢舉";
+		}
+		if(handleResult == null || handleResult.isBlank()) {
+			return "請填寫處理結果";
+		}
+		if(handleResult.length() > 800) {
+			return "處理結果最多不可超過800個字";
+		}
+		return null;
+	}
+	
 }
@@ -32,12 +32,7 @@ public class ForumController {
 		List<Integer> forumIds = redisService.getTopHotForumIds(5);
 		List<ForumVO> topHotForumList = forumService.getTopHotForumsByForumIds(forumIds);
 		
-		for(ForumVO forum : forumList) {
-			Integer forumViewCount = redisService.getForumViewCount(forum.getForumId());
-			if(forumViewCount != null) {
-				forum.setForumViews(forumViewCount);
-			}
-		}
+		redisService.applyPendingForumViews(forumList);
 		
 		model.addAttribute("topHotForumList", topHotForumList);
 		model.addAttribute("forumList", forumList);
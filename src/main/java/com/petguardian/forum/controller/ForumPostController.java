@@ -19,6 +19,7 @@ import com.petguardian.forum.service.ForumCommentReportService;
 import com.petguardian.forum.service.ForumCommentService;
 import com.petguardian.forum.service.ForumPostPicsService;
 import com.petguardian.forum.service.ForumPostReportService;
+import com.petguardian.forum.service.ForumPostSearchService;
 import com.petguardian.forum.service.ForumPostService;
 import com.petguardian.forum.service.ForumService;
 import com.petguardian.forum.service.RedisService;
@@ -27,13 +28,17 @@ import com.petguardian.member.model.Member;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 
+import com.petguardian.forum.model.CommentThreadDTO;
 import com.petguardian.forum.model.ForumCommentReportVO;
 import com.petguardian.forum.model.ForumCommentVO;
 import com.petguardian.forum.model.ForumPostPicsVO;
 import com.petguardian.forum.model.ForumPostReportVO;
 import com.petguardian.forum.model.ForumPostVO;
 import com.petguardian.forum.model.ForumVO;
+import com.petguardian.forum.model.PostListItemDTO;
 
+import com.petguardian.common.blob.ImageBlobService;
+import com.petguardian.common.blob.InvalidImageException;
 import com.petguardian.common.service.AuthStrategyService;
 
 @Controller
@@ -48,11 +53,14 @@ public class ForumPostController {
 	private final ForumPostPicsService forumPostPicsService;
 	private final ForumPostReportService forumPostReportService;
 	private final ForumCommentReportService forumCommentReportService;
+	private final ImageBlobService imageBlobService;
+	private final ForumPostSearchService forumPostSearchService;
 
 	public ForumPostController(AuthStrategyService authStrategyService, RedisService redisService,
 			ForumService forumService, ForumPostService forumPostService, ForumCommentService forumCommentService,
 			ForumPostPicsService forumPostPicsService, ForumPostReportService forumPostReportService,
-			ForumCommentReportService forumCommentReportService) {
+			ForumCommentReportService forumCommentReportService, ImageBlobService imageBlobService,
+			ForumPostSearchService forumPostSearchService) {
 		super();
 		this.authStrategyService = authStrategyService;
 		this.redisService = redisService;
@@ -62,29 +70,24 @@ public class ForumPostController {
 		this.forumPostPicsService = forumPostPicsService;
 		this.forumPostReportService = forumPostReportService;
 		this.forumCommentReportService = forumCommentReportService;
+		this.imageBlobService = imageBlobService;
+		this.forumPostSearchService = forumPostSearchService;
 	}
 
 	@GetMapping("get-forum-id-for-posts")
 	public String getForumIdForPosts(@RequestParam("forumId") Integer forumId,
 			@RequestParam(defaultValue = "0") int page, ModelMap model) {
 
-		List<ForumPostVO> postList = forumPostService.getAllActiveByForumId(forumId);
-		Page<ForumPostVO> postPage = forumPostService.getAllActivePostWithPageableByForumId(forumId, page, 3);
+		// 列表只查這一頁需要的欄位 (第一頁有短暫快取)
+		Page<PostListItemDTO> postPage = forumPostService.getActivePostListPage(forumId, page, 3);
 
 		redisService.incrementForumViewCount(forumId);
 		// redis處理熱門貼文邏輯
-		List<Integer> postIds = redisService.getTopHotPostIds(5);
+		List<Integer> postIds = redisService.getTopHotPostIds(forumId, 5);
 		List<ForumPostVO> topHotPostList = forumPostService.getTopHotPostsByPostIds(postIds);
 
-		// redis拿取瀏覽次數邏輯
-		for (ForumPostVO post : postList) {
-			Integer postViewCount = redisService.getPostViewCount(post.getPostId());
-			if (postViewCount != null) {
-				post.setPostViews(postViewCount);
-			}
-		}
-
-		model.addAttribute("postList", postPage.getContent());
+		// redis拿取瀏覽次數邏輯 (一次查出整頁尚未寫回的增量)
+		model.addAttribute("postList", redisService.withPendingPostViews(postPage.getContent()));
 		model.addAttribute("currentPage", page);
 		model.addAttribute("totalPages", postPage.getTotalPages());
 		model.addAttribute("topHotPostList", topHotPostList);
@@ -94,7 +97,9 @@ public class ForumPostController {
 	}
 
 	@GetMapping("get-post-id-for-one-post")
-	public String getPostIdForOnePost(@RequestParam("postId") Integer postId, ModelMap model,
+	public String getPostIdForOnePost(@RequestParam("postId") Integer postId,
+			@RequestParam(defaultValue = "0") int commentPage,
+			@RequestParam(value = "expand", required = false) Integer expand, ModelMap model,
 			HttpServletRequest request) {
 
 		Integer userId = authStrategyService.getCurrentUserId(request);
@@ -103,11 +108,13 @@ public class ForumPostController {
 		redisService.incrementPostViewCount(postId);
 
 		// 開始查詢資料
-		ForumPostVO forumPostVO = forumPostService.getOnePostWithCommentAndMember(postId);
+		ForumPostVO forumPostVO = forumPostService.getOnePostWithMember(postId);
 		List<Integer> picsId = forumPostPicsService.getPicsIdByPostId(postId);
+		Page<CommentThreadDTO> commentThreadPage = forumCommentService.getCommentThreadPage(postId, commentPage, expand);
 
 		// 查詢完成，交給負責的html顯示
 		model.addAttribute("forumPostVO", forumPostVO);
+		model.addAttribute("commentThreadPage", commentThreadPage);
 		model.addAttribute("picsId", picsId);
 		model.addAttribute("userId", userId);
 		model.addAttribute("forumCommentVO", new ForumCommentVO());
@@ -162,13 +169,6 @@ public class ForumPostController {
 			return "frontend/forum/add-post";
 		}
 
-		// MultipartFile convert byte[]
-		MultipartFile upFile = forumPostVO.getUpFile();
-		if (upFile != null && !upFile.isEmpty()) {
-			byte[] mainPic = upFile.getBytes();
-			forumPostVO.setPostPic(mainPic);
-		}
-
 		if (postPics != null && postPics.length > 0) {
 
 			for (int i = 0; i < postPics.length; i++) {
@@ -188,7 +188,7 @@ public class ForumPostController {
 				return "frontend/forum/add-post";
 			}
 
-			long maxSize = 1 * 1024 * 1024;
+			long maxSize = ForumPostService.MAX_PIC_BYTES;
 			long totalMaxSize = 5 * 1024 * 1024;
 			long upFilesTotalSize = 0;
 
@@ -214,12 +214,24 @@ public class ForumPostController {
 		member.setMemId(userId);
 		forumPostVO.setMember(member);
 
-		// 沒圖片時 -> 新增資料
-		if (postPics == null || postPics.length == 0 || postPics[0].isEmpty()) {
-			forumPostService.addPost(forumPostVO);
-		} else {
-			// 有圖片時 -> 新增資料
-			forumPostService.addPostWithPics(forumPostVO, postPics);
+		try {
+			// 檢查都通過後才寫入：MultipartFile 串流寫入 BlobStore (邊寫邊檢查檔頭與大小)，貼文只存圖片參照
+			MultipartFile upFile = forumPostVO.getUpFile();
+			if (upFile != null && !upFile.isEmpty()) {
+				forumPostVO.setPostPicBlob(imageBlobService.store(upFile, ForumPostService.MAX_PIC_BYTES));
+			}
+
+			// 沒圖片時 -> 新增資料
+			if (postPics == null || postPics.length == 0 || postPics[0].isEmpty()) {
+				forumPostService.addPost(forumPostVO);
+			} else {
+				// 有圖片時 -> 新增資料
+				forumPostService.addPostWithPics(forumPostVO, postPics);
+			}
+		} catch (InvalidImageException e) {
+			// 檔案內容不是圖片或超過大小 (新增已整筆 rollback)
+			model.addAttribute("errorMsgs", e.getMessage());
+			return "frontend/forum/add-post";
 		}
 
 		ra.addFlashAttribute("successMsgs", "🎉 貼文發表成功！");
@@ -282,16 +294,6 @@ public class ForumPostController {
 			return "frontend/forum/update-post";
 		}
 
-		// MultipartFile convert byte[]
-		MultipartFile upFile = forumPostVO.getUpFile();
-		if (upFile != null && !upFile.isEmpty()) {
-			byte[] mainPic = upFile.getBytes();
-			forumPostVO.setPostPic(mainPic);
-		} else {
-			byte[] mainPic = forumPostService.getPostPic(postId);
-			forumPostVO.setPostPic(mainPic);
-		}
-
 		if (postPics != null && postPics.length > 0) {
 
 			for (int i = 0; i < postPics.length; i++) {
@@ -313,7 +315,7 @@ public class ForumPostController {
 				return "frontend/forum/update-post";
 			}
 
-			long maxSize = 1 * 1024 * 1024;
+			long maxSize = ForumPostService.MAX_PIC_BYTES;
 			long totalMaxSize = 5 * 1024 * 1024;
 			long upFilesTotalSize = 0;
 
@@ -357,10 +359,25 @@ public class ForumPostController {
 		boolean hasNewPics = (postPics != null && postPics.length > 0 && !postPics[0].isEmpty());
 		boolean hasDeletedPics = (deletedPicIds != null && !deletedPicIds.isEmpty());
 		
-		if(hasNewPics || hasDeletedPics) {
-			forumPostService.updatePostWithDeletedPicsId(forumPostVO, postPics, deletedPicIds);
-		} else {
-			forumPostService.updatePost(forumPostVO);
+		try {
+			// 檢查都通過後才寫入：MultipartFile 串流寫入 BlobStore，貼文只存圖片參照 (沒換圖時沿用原本的參照)
+			MultipartFile upFile = forumPostVO.getUpFile();
+			if (upFile != null && !upFile.isEmpty()) {
+				forumPostVO.setPostPicBlob(imageBlobService.store(upFile, ForumPostService.MAX_PIC_BYTES));
+			} else {
+				forumPostVO.setPostPicBlob(forumPostService.getPostPicBlob(postId));
+			}
+
+			if(hasNewPics || hasDeletedPics) {
+				forumPostService.updatePostWithDeletedPicsId(forumPostVO, postPics, deletedPicIds);
+			} else {
+				forumPostService.updatePost(forumPostVO);
+			}
+		} catch (InvalidImageException e) {
+			// 檔案內容不是圖片或超過大小 (修改已整筆 rollback)
+			model.addAttribute("errorMsgs", e.getMessage());
+			model.addAttribute("picsId", picsId);
+			return "frontend/forum/update-post";
 		}
 		
 		// 設定閃退訊息 (Flash Attribute)，重導向後會消失，不會重複出現
@@ -390,8 +407,9 @@ public class ForumPostController {
 		// Java Bean Validation 錯誤處理
 		if (result.hasErrors()) {
 
-			ForumPostVO forumPostVO = forumPostService.getOnePostWithCommentAndMember(postId);
+			ForumPostVO forumPostVO = forumPostService.getOnePostWithMember(postId);
 			List<Integer> picsId = forumPostPicsService.getPicsIdByPostId(postId);
+			model.addAttribute("commentThreadPage", forumCommentService.getCommentThreadPage(postId, 0, null));
 			
 			model.addAttribute("forumPostVO", forumPostVO);
 			model.addAttribute("errorMsgs", result.getFieldError().getDefaultMessage());
@@ -430,8 +448,9 @@ public class ForumPostController {
 
 		if (result.hasErrors()) {
 
-			ForumPostVO forumPostVO = forumPostService.getOnePostWithCommentAndMember(postId);
+			ForumPostVO forumPostVO = forumPostService.getOnePostWithMember(postId);
 			List<Integer> picsId = forumPostPicsService.getPicsIdByPostId(postId);
+			model.addAttribute("commentThreadPage", forumCommentService.getCommentThreadPage(postId, 0, null));
 			String errorMsgs = result.getFieldError().getDefaultMessage();
 			
 			model.addAttribute("forumPostVO", forumPostVO);
@@ -457,16 +476,15 @@ public class ForumPostController {
 	public String getKeywordForPosts(@RequestParam("keyword") String keyword,
 			@RequestParam(defaultValue = "0") int page, @RequestParam("forumId") Integer forumId, ModelMap model) {
 
-		List<Integer> postIds = redisService.getTopHotPostIds(5);
-		Page<ForumPostVO> postPage = forumPostService.getAllActivePostWithPageableByForumId(forumId, page, 3);
-		Page<ForumPostVO> postPageByKeyword = forumPostService.getPostBykeyword(keyword, forumId, page, 3);
+		List<Integer> postIds = redisService.getTopHotPostIds(forumId, 5);
 
 		// 空字串驗證，沒輸入資料forward回原頁面
 		if (keyword == null || keyword.trim().isEmpty()) {
+			Page<PostListItemDTO> postPage = forumPostService.getActivePostListPage(forumId, page, 3);
 			// 重要】搜尋完後，要記得再把 forumId 塞回去 model，否則下次搜尋時會報錯
 			// model.addAttribute("forumId", forumId);
 			model.addAttribute("errorMsgs", "請輸入欲查詢的內容");
-			model.addAttribute("postList", postPage.getContent());
+			model.addAttribute("postList", redisService.withPendingPostViews(postPage.getContent()));
 			model.addAttribute("currentPage", page);
 			model.addAttribute("totalPages", postPage.getTotalPages());
 			model.addAttribute("topHotPostList", forumPostService.getTopHotPostsByPostIds(postIds));
@@ -474,12 +492,16 @@ public class ForumPostController {
 			return "frontend/forum/list-all-active-posts";
 		}
 		
+		// 全文索引搜尋 (依相關度排序，摘要含命中標示)
+		Page<PostListItemDTO> postPageByKeyword = forumPostSearchService.search(keyword, forumId, page, 3);
+		
 		// 查無資料，forward回原頁面
 		if (postPageByKeyword == null || postPageByKeyword.isEmpty()) {
+			Page<PostListItemDTO> postPage = forumPostService.getActivePostListPage(forumId, page, 3);
 			// 【重要】搜尋完後，要記得再把 forumId 塞回去 model，否則下次搜尋時會報錯
 			// model.addAttribute("forumId", forumId);
 			model.addAttribute("errorMsgs", "查無相關貼文");
-			model.addAttribute("postList", postPage.getContent());
+			model.addAttribute("postList", redisService.withPendingPostViews(postPage.getContent()));
 			model.addAttribute("currentPage", page);
 			model.addAttribute("totalPages", postPage.getTotalPages());
 			model.addAttribute("topHotPostList", forumPostService.getTopHotPostsByPostIds(postIds));
@@ -491,7 +513,7 @@ public class ForumPostController {
 		// 【重要】搜尋完後，要記得再把 forumId 塞回去 model，否則下次搜尋時會報錯
 		// model.addAttribute("forumId", forumId);
 		model.addAttribute("keyword", keyword);
-		model.addAttribute("postList", postPageByKeyword.getContent());
+		model.addAttribute("postList", redisService.withPendingPostViews(postPageByKeyword.getContent()));
 		model.addAttribute("currentPage", page);
 		model.addAttribute("totalPages", postPageByKeyword.getTotalPages());
 		model.addAttribute("topHotPostList", forumPostService.getTopHotPostsByPostIds(postIds));
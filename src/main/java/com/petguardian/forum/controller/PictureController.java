@@ -1,14 +1,17 @@
 package com.petguardian.forum.controller;
 
 import java.io.IOException;
-import java.io.InputStream;
 
-import org.springframework.core.io.ClassPathResource;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 
+import com.petguardian.common.blob.ImageBlobRef;
+import com.petguardian.common.blob.ImageResponseWriter;
+import com.petguardian.common.blob.ImageVariant;
+import com.petguardian.forum.service.ForumCommentService;
 import com.petguardian.forum.service.ForumService;
 import com.petguardian.forum.service.ForumPostPicsService;
 import com.petguardian.forum.service.ForumPostService;
@@ -16,89 +19,100 @@ import com.petguardian.forum.service.ForumPostService;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
+/**
+ * 討論區圖片輸出
+ *
+ * 所有圖片都由 ImageResponseWriter 輸出 (ETag / 304 / Range / sendfile)：
+ * - images/{blobId}：以內容雜湊定址，內容永不改變，瀏覽器可長期快取
+ * - 其他以討論區 / 貼文 / 附圖 / 留言編號定址的網址可能換圖，每次向伺服器驗證，未變更時只回 304
+ * - 加上 v=thumb / v=medium 取得縮圖版本，列表頁只需要縮圖，原圖只在需要時才下載
+ */
 @Controller
 @RequestMapping("/forum")
 public class PictureController {
 
+	private static final String DEFAULT_LOGO = "/static/images/backend/logo.png";
+
 	private final ForumService forumService;
 	private final ForumPostService forumPostService;
 	private final ForumPostPicsService forumPostPicsService;
+	private final ForumCommentService forumCommentService;
+	private final ImageResponseWriter imageResponseWriter;
 
 	public PictureController(ForumService forumService, ForumPostService forumPostService,
-			ForumPostPicsService forumPostPicsService) {
+			ForumPostPicsService forumPostPicsService, ForumCommentService forumCommentService,
+			ImageResponseWriter imageResponseWriter) {
 		super();
 		this.forumService = forumService;
 		this.forumPostService = forumPostService;
 		this.forumPostPicsService = forumPostPicsService;
+		this.forumCommentService = forumCommentService;
+		this.imageResponseWriter = imageResponseWriter;
 	}
 
-	@GetMapping("picture")
-	public void picture(@RequestParam("forumId") Integer forumId, HttpServletRequest req, HttpServletResponse res)
-			throws IOException {
-
-		res.setContentType("image/*");
-		// ForumService forumSvc = new ForumService();
-		byte[] forumPic = forumService.getForumPic(forumId);
-
-		if (forumPic != null && forumPic.length > 0) {
+	@GetMapping("images/{blobId:[0-9a-f]{64}}")
+	public void image(@PathVariable("blobId") String blobId, @RequestParam(value = "v", required = false) String v,
+			HttpServletRequest req, HttpServletResponse res) throws IOException {
 
-			res.getOutputStream().write(forumPic);
+		ImageBlobRef ref = new ImageBlobRef(blobId, null, null, null, null);
 
-		} else {
-
-			ClassPathResource resource = new ClassPathResource("/static/images/backend/logo.png");
+		if (!imageResponseWriter.writeImage(ref, ImageVariant.fromParam(v), true, req, res)) {
+			res.sendError(HttpServletResponse.SC_NOT_FOUND);
+		}
 
-			try (InputStream is = resource.getInputStream();) {
+	}
 
-				byte[] logoPic = is.readAllBytes();
-				res.getOutputStream().write(logoPic);
+	@GetMapping("picture")
+	public void picture(@RequestParam("forumId") Integer forumId,
+			@RequestParam(value = "v", required = false) String v, HttpServletRequest req, HttpServletResponse res)
+			throws IOException {
 
-			}
+		// 只查圖片參照，內容直接從 BlobStore 輸出
+		ImageBlobRef forumPic = forumService.getForumPicBlob(forumId);
 
+		if (!imageResponseWriter.writeImage(forumPic, ImageVariant.fromParam(v), false, req, res)) {
+			imageResponseWriter.writeFallback(DEFAULT_LOGO, ImageResponseWriter.CACHE_REVALIDATE, req, res);
 		}
 
 	}
 
 	@GetMapping("post-picture")
-	public void postPicture(@RequestParam("postId") Integer postId, HttpServletRequest req, HttpServletResponse res)
+	public void postPicture(@RequestParam("postId") Integer postId,
+			@RequestParam(value = "v", required = false) String v, HttpServletRequest req, HttpServletResponse res)
 			throws IOException {
 
-		res.setContentType("image/*");
-		// ForumPostService forumPostSvc = new ForumPostService();
-		byte[] postPic = forumPostService.getPostPic(postId);
-
-		if (postPic != null && postPic.length > 0) {
-
-			res.getOutputStream().write(postPic);
+		ImageBlobRef postPic = forumPostService.getPostPicBlob(postId);
 
-		} else {
-
-			ClassPathResource resource = new ClassPathResource("/static/images/backend/logo.png");
+		if (!imageResponseWriter.writeImage(postPic, ImageVariant.fromParam(v), false, req, res)) {
+			imageResponseWriter.writeFallback(DEFAULT_LOGO, ImageResponseWriter.CACHE_REVALIDATE, req, res);
+		}
 
-			try (InputStream is = resource.getInputStream();) {
+	}
 
-				byte[] logoPic = is.readAllBytes();
-				res.getOutputStream().write(logoPic);
+	@GetMapping("get-pic-id-for-pic")
+	public void getPicIdForPic(@RequestParam("picId") Integer picId,
+			@RequestParam(value = "v", required = false) String v, HttpServletRequest req, HttpServletResponse res)
+			throws IOException {
 
-			}
+		ImageBlobRef pic = forumPostPicsService.getPicByPicId(picId);
 
+		if (!imageResponseWriter.writeImage(pic, ImageVariant.fromParam(v), false, req, res)) {
+			res.setStatus(HttpServletResponse.SC_NOT_FOUND);
 		}
 
 	}
 
-	@GetMapping("get-pic-id-for-pic")
-	public void getPicIdForPic(@RequestParam("picId") Integer picId, HttpServletResponse res) throws IOException {
+	@GetMapping("comment-picture")
+	public void commentPicture(@RequestParam("commentId") Integer commentId,
+			@RequestParam(value = "v", required = false) String v, HttpServletRequest req,
+			HttpServletResponse res) throws IOException {
 
-		res.setContentType("image/*");
-		byte[] pic = forumPostPicsService.getPicByPicId(picId);
+		ImageBlobRef commentPic = forumCommentService.getCommentPicBlob(commentId);
 
-		if (pic != null && pic.length > 0) {
-			// 將二進位資料寫入輸出流
-			res.getOutputStream().write(pic);
-			// 確保資料傳輸完畢
-			res.getOutputStream().flush();
+		if (!imageResponseWriter.writeImage(commentPic, ImageVariant.fromParam(v), false, req, res)) {
+			res.setStatus(HttpServletResponse.SC_NOT_FOUND);
 		}
 
 	}
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,38 @@
+package com.petguardian.forum.model;
+
+import java.util.List;
+
+// 留言檢舉審核頁需要的所有資料 (含所屬貼文的圖片與留言)，每個請求只組一次
+public class CommentModerationDetailDTO {
+
+	private final CommentReviewDetailDTO review;
+	private final CommentHandledResultDetailDTO handledResult; // 待處理的檢舉為 null
+	private final List<Integer> picsId;
+	private final List<ForumCommentVO> commentList;
+
+	public CommentModerationDetailDTO(CommentReviewDetailDTO review, CommentHandledResultDetailDTO handledResult,
+			List<Integer> picsId, List<ForumCommentVO> commentList) {
+		super();
+		this.review = review;
+		this.handledResult = handledResult;
+		this.picsId = picsId;
+		this.commentList = commentList;
+	}
+
+	public CommentReviewDetailDTO getReview() {
+		return review;
+	}
+
+	public CommentHandledResultDetailDTO getHandledResult() {
+		return handledResult;
+	}
+
+	public List<Integer> getPicsId() {
+		return picsId;
+	}
+
+	public List<ForumCommentVO> getCommentList() {
+		return commentList;
+	}
+
+}
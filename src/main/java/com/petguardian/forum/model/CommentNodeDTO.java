@@ -0,0 +1,69 @@
+package com.petguardian.forum.model;
+
+import java.sql.Timestamp;
+
+// 貼文頁的一則留言：只帶顯示需要的欄位 (不含圖片內容)，由一次查詢平鋪取出後在記憶體組成留言串
+// 會放進快取共用，因此只提供 getter
+public class CommentNodeDTO {
+
+	private final Integer commentId;
+	private final Integer parentCommentId; // 最上層留言為 null
+	private final Integer memId;
+	private final String memName;
+	private final String memImage;
+	private final String commentContent;
+	private final boolean hasPic;
+	private final Timestamp createdAt;
+	private final Timestamp lastEditedAt;
+
+	public CommentNodeDTO(Integer commentId, Integer parentCommentId, Integer memId, String memName,
+			String memImage, String commentContent, Boolean hasPic, Timestamp createdAt, Timestamp lastEditedAt) {
+		super();
+		this.commentId = commentId;
+		this.parentCommentId = parentCommentId;
+		this.memId = memId;
+		this.memName = memName;
+		this.memImage = memImage;
+		this.commentContent = commentContent;
+		this.hasPic = Boolean.TRUE.equals(hasPic);
+		this.createdAt = createdAt;
+		this.lastEditedAt = lastEditedAt;
+	}
+
+	public Integer getCommentId() {
+		return commentId;
+	}
+
+	public Integer getParentCommentId() {
+		return parentCommentId;
+	}
+
+	public Integer getMemId() {
+		return memId;
+	}
+
+	public String getMemName() {
+		return memName;
+	}
+
+	public String getMemImage() {
+		return memImage;
+	}
+
+	public String getCommentContent() {
+		return commentContent;
+	}
+
+	public boolean isHasPic() {
+		return hasPic;
+	}
+
+	public Timestamp getCreatedAt() {
+		return createdAt;
+	}
+
+	public Timestamp getLastEditedAt() {
+		return lastEditedAt;
+	}
+
+}
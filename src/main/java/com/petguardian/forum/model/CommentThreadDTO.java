@@ -0,0 +1,44 @@
+package com.petguardian.forum.model;
+
+import java.util.List;
+
+// 一串留言：最上層留言 + 其下所有回覆 (依留言編號排序，多層回覆攤平成一層顯示)
+public class CommentThreadDTO {
+
+	private final CommentNodeDTO comment;
+	private final List<CommentNodeDTO> replies;
+	private final int replyCount;
+
+	public CommentThreadDTO(CommentNodeDTO comment, List<CommentNodeDTO> replies, int replyCount) {
+		super();
+		this.comment = comment;
+		this.replies = replies;
+		this.replyCount = replyCount;
+	}
+
+	// 只保留前 limit 則回覆 (回覆總數不變)，供分頁顯示預覽
+	public CommentThreadDTO withReplyPreview(int limit) {
+		if (replies.size() <= limit) {
+			return this;
+		}
+		return new CommentThreadDTO(comment, replies.subList(0, limit), replyCount);
+	}
+
+	public CommentNodeDTO getComment() {
+		return comment;
+	}
+
+	public List<CommentNodeDTO> getReplies() {
+		return replies;
+	}
+
+	public int getReplyCount() {
+		return replyCount;
+	}
+
+	// 是否還有未顯示的回覆
+	public boolean isTruncated() {
+		return replies.size() < replyCount;
+	}
+
+}
@@ -1,5 +1,6 @@
 package com.petguardian.forum.model;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -16,9 +17,9 @@ public interface ForumCommentReportRepository extends JpaRepository<ForumComment
 			join r.forumComment c
 			join c.forumPost p
 			where c.commentStatus = 0 and r.reportStatus = 1
-			order by r.handleTime desc
+			order by r.handleTime desc, r.reportId desc
 	""")
-	public List<HandledCommentDTO> findAllHandledComments();
+	public List<HandledCommentDTO> findHandledCommentQueue(Pageable pageable);
 	
 	@Query("""
 			select new com.petguardian.forum.model.PendingCommentDTO(
@@ -28,9 +29,9 @@ public interface ForumCommentReportRepository extends JpaRepository<ForumComment
 			join r.forumComment c
 			join c.forumPost p
 			where c.commentStatus = 1 and r.reportStatus = 0
-			order by r.reportTime asc
+			order by r.reportTime asc, r.reportId asc
 	""")
-	public List<PendingCommentDTO> findAllPendingComments();
+	public List<PendingCommentDTO> findPendingCommentQueue(Pageable pageable);
 	
 	@Query("""
 			select new com.petguardian.forum.model.RejectedCommentDTO(
@@ -40,9 +41,9 @@ public interface ForumCommentReportRepository extends JpaRepository<ForumComment
 			join r.forumComment c
 			join c.forumPost p
 			where r.reportStatus = 2
-			order by r.handleTime desc
+			order by r.handleTime desc, r.reportId desc
 	""")
-	public List<RejectedCommentDTO> findAllRejectedComments();
+	public List<RejectedCommentDTO> findRejectedCommentQueue(Pageable pageable);
 	
 	@Query("""
 			select new com.petguardian.forum.model.CommentReviewDetailDTO(
@@ -66,6 +67,18 @@ public interface ForumCommentReportRepository extends JpaRepository<ForumComment
 	""")
 	public CommentHandledResultDetailDTO commentHandledResultDetailToDisplay(@Param("reportId") Integer reportId);
 
+	//	審核佇列各狀態筆數 (條件與上面三個佇列相同)，結果由 ForumModerationCounter 快取
+	@Query("""
+			select new com.petguardian.forum.model.ModerationQueueCounts(
+				sum(case when r.reportStatus = 0 and c.commentStatus = 1 then 1L else 0L end),
+				sum(case when r.reportStatus = 1 and c.commentStatus = 0 then 1L else 0L end),
+				sum(case when r.reportStatus = 2 then 1L else 0L end)
+			)
+			from ForumCommentReportVO r
+			join r.forumComment c
+	""")
+	public ModerationQueueCounts countQueues();
+
 	// 後台dashboard統計用：計算指定檢舉狀態的檢舉單數量
 	long countByReportStatus(Integer returnStatus);
 }
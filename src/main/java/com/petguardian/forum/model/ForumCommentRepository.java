@@ -6,11 +6,28 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import com.petguardian.common.blob.ImageBlobRef;
+
 public interface ForumCommentRepository extends JpaRepository<ForumCommentVO, Integer> {
 	
 	@Query(value = "select c from ForumCommentVO c where commentStatus = 1 and c.forumPost.postId = :postId order by c.createdAt asc")
 	public List<ForumCommentVO> findCommentsByPostId(@Param("postId") Integer postId);
 	
+	//	貼文頁留言串：一次取出上架中的留言 (平鋪、含會員名稱頭像，不含圖片)，由 service 組成樹狀
+	@Query("""
+			select new com.petguardian.forum.model.CommentNodeDTO(
+				c.commentId, pc.commentId, m.memId, m.memName, m.memImage, c.commentContent,
+				case when c.commentPicBlob.blobId is not null then true else false end,
+				c.createdAt, c.lastEditedAt
+			)
+			from ForumCommentVO c
+			join c.member m
+			left join c.parentComment pc
+			where c.forumPost.postId = :postId and c.commentStatus = 1
+			order by c.commentId asc
+	""")
+	public List<CommentNodeDTO> findCommentNodesByPostId(@Param("postId") Integer postId);
+
 	//	管理員用
 	@Query(value = "select c from ForumCommentVO c where c.forumPost.postId = :postId order by c.createdAt asc")
 	public List<ForumCommentVO> findAllCommentsByPostId(@Param("postId") Integer postId);
@@ -27,4 +44,8 @@ public interface ForumCommentRepository extends JpaRepository<ForumCommentVO, In
 	""")
 	public List<DeletedCommentDTO> findAllDeletedComments();
 	
+	//	只拿留言圖片參照 (圖片內容由 BlobStore 讀取)
+	@Query(value = "select c.commentPicBlob from ForumCommentVO c where c.commentId = :commentId")
+	public ImageBlobRef getPicture(@Param("commentId") Integer commentId);
+	
 }
@@ -7,15 +7,18 @@ import java.util.Set;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.petguardian.common.blob.ImageBlobRef;
 import com.petguardian.member.model.Member;
 
+import jakarta.persistence.AttributeOverride;
+import jakarta.persistence.AttributeOverrides;
 import jakarta.persistence.Column;
+import jakarta.persistence.Embedded;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
-import jakarta.persistence.Lob;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.OrderBy;
@@ -49,9 +52,16 @@ public class ForumCommentVO implements Serializable{
 	@NotBlank(message = "留言內容請勿空白")
 	private String commentContent;
 	
-	@Lob
-	@Column(name = "comment_pic", nullable = true, columnDefinition = "longblob")
-	private byte[] commentPic;
+	// 圖片內容存在 BlobStore，這裡只保存 blob id 與圖片資訊
+	@Embedded
+	@AttributeOverrides({
+		@AttributeOverride(name = "blobId", column = @Column(name = "comment_pic_blob_id")),
+		@AttributeOverride(name = "width", column = @Column(name = "comment_pic_width")),
+		@AttributeOverride(name = "height", column = @Column(name = "comment_pic_height")),
+		@AttributeOverride(name = "size", column = @Column(name = "comment_pic_size")),
+		@AttributeOverride(name = "contentType", column = @Column(name = "comment_pic_content_type"))
+	})
+	private ImageBlobRef commentPicBlob;
 	
 	@Column(name = "created_at", insertable = false, updatable = false)
 	private Timestamp createdAt;
@@ -126,12 +136,12 @@ public class ForumCommentVO implements Serializable{
 		this.commentContent = commentContent;
 	}
 
-	public byte[] getCommentPic() {
-		return commentPic;
+	public ImageBlobRef getCommentPicBlob() {
+		return commentPicBlob;
 	}
-
-	public void setCommentPic(byte[] commentPic) {
-		this.commentPic = commentPic;
+	
+	public void setCommentPicBlob(ImageBlobRef commentPicBlob) {
+		this.commentPicBlob = commentPicBlob;
 	}
 
 	public Timestamp getCreatedAt() {
@@ -8,15 +8,17 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.petguardian.common.blob.ImageBlobRef;
+
 public interface ForumPostPicsRepository extends JpaRepository<ForumPostPicsVO, Integer> {
 
 	//	找到該篇貼文的所有picId
 	@Query(value = "select p.picId from ForumPostPicsVO p where p.forumPost.postId = :postId")
 	public List<Integer> findPicsIdByPostId(@Param("postId") Integer postId);
 	
-	//	再從前端跑回圈傳回picId，拿到所有照片(一次只能傳回一張)
-	@Query(value = "select p.pic from ForumPostPicsVO p where p.picId = :picId")
-	public byte[] findPicByPicId(@Param("picId") Integer picId);
+	//	再從前端跑回圈傳回picId，拿到所有照片的參照(一次只能傳回一張，內容由 BlobStore 讀取)
+	@Query(value = "select p.picBlob from ForumPostPicsVO p where p.picId = :picId")
+	public ImageBlobRef findPicByPicId(@Param("picId") Integer picId);
 	
 	//	更新貼文時先刪除所有照片
 	@Modifying
@@ -4,13 +4,17 @@ import java.io.Serializable;
 
 import org.springframework.web.multipart.MultipartFile;
 
+import com.petguardian.common.blob.ImageBlobRef;
+
+import jakarta.persistence.AttributeOverride;
+import jakarta.persistence.AttributeOverrides;
 import jakarta.persistence.Column;
+import jakarta.persistence.Embedded;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
-import jakarta.persistence.Lob;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
 import jakarta.persistence.Transient;
@@ -28,9 +32,16 @@ public class ForumPostPicsVO implements Serializable{
 	@JoinColumn(name = "post_id", referencedColumnName = "post_id")
 	private ForumPostVO forumPost;
 	
-	@Lob
-	@Column(name = "pic", nullable = true, columnDefinition = "longblob")
-	private byte[] pic;
+	// 圖片內容存在 BlobStore，這裡只保存 blob id 與圖片資訊
+	@Embedded
+	@AttributeOverrides({
+		@AttributeOverride(name = "blobId", column = @Column(name = "pic_blob_id")),
+		@AttributeOverride(name = "width", column = @Column(name = "pic_width")),
+		@AttributeOverride(name = "height", column = @Column(name = "pic_height")),
+		@AttributeOverride(name = "size", column = @Column(name = "pic_size")),
+		@AttributeOverride(name = "contentType", column = @Column(name = "pic_content_type"))
+	})
+	private ImageBlobRef picBlob;
 	
 	@Transient
 	private MultipartFile[] upFiles;
@@ -63,12 +74,12 @@ public class ForumPostPicsVO implements Serializable{
 		this.picId = picId;
 	}
 
-	public byte[] getPic() {
-		return pic;
+	public ImageBlobRef getPicBlob() {
+		return picBlob;
 	}
-
-	public void setPic(byte[] pic) {
-		this.pic = pic;
+	
+	public void setPicBlob(ImageBlobRef picBlob) {
+		this.picBlob = picBlob;
 	}
 	
 //	驗證上傳檔案是否為圖片檔
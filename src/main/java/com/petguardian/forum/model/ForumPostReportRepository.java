@@ -1,5 +1,6 @@
 package com.petguardian.forum.model;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -16,9 +17,9 @@ public interface ForumPostReportRepository extends JpaRepository<ForumPostReport
 			join r.forumPost p
 			join p.forum f
 			where p.postStatus = 0 and r.reportStatus = 1
-			order by r.handleTime desc
+			order by r.handleTime desc, r.reportId desc
 	""")
-	public List<HandledPostDTO> findAllHandledPosts();
+	public List<HandledPostDTO> findHandledPostQueue(Pageable pageable);
 
 	@Query("""
 			select new com.petguardian.forum.model.PendingPostDTO(
@@ -27,9 +28,9 @@ public interface ForumPostReportRepository extends JpaRepository<ForumPostReport
 			from ForumPostReportVO r
 			join r.forumPost p
 			where p.postStatus = 1 and r.reportStatus = 0
-			order by r.reportTime asc
+			order by r.reportTime asc, r.reportId asc
 	""")
-	public List<PendingPostDTO> findAllPendingPosts();
+	public List<PendingPostDTO> findPendingPostQueue(Pageable pageable);
 
 	
 	@Query("""
@@ -40,9 +41,9 @@ public interface ForumPostReportRepository extends JpaRepository<ForumPostReport
 			join r.forumPost p
 			join p.forum f
 			where r.reportStatus = 2
-			order by r.handleTime desc
+			order by r.handleTime desc, r.reportId desc
 	""")
-	public List<RejectedPostDTO> findAllRejectedPosts();
+	public List<RejectedPostDTO> findRejectedPostQueue(Pageable pageable);
 	
 	@Query("""
 			select new com.petguardian.forum.model.PostReviewDetailDTO(
@@ -64,6 +65,18 @@ public interface ForumPostReportRepository extends JpaRepository<ForumPostReport
 	""")
 	public PostHandledResultDetailDTO postHandledResultDetailToDisplay(@Param("reportId") Integer reportId);
 
+	//	審核佇列各狀態筆數 (條件與上面三個佇列相同)，結果由 ForumModerationCounter 快取
+	@Query("""
+			select new com.petguardian.forum.model.ModerationQueueCounts(
+				sum(case when r.reportStatus = 0 and p.postStatus = 1 then 1L else 0L end),
+				sum(case when r.reportStatus = 1 and p.postStatus = 0 then 1L else 0L end),
+				sum(case when r.reportStatus = 2 then 1L else 0L end)
+			)
+			from ForumPostReportVO r
+			join r.forumPost p
+	""")
+	public ModerationQueueCounts countQueues();
+
 	// 後台dashboard統計用：計算指定檢舉狀態的檢舉單數量
 	long countByReportStatus(Integer returnStatus);
 }
@@ -10,23 +10,42 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.petguardian.common.blob.ImageBlobRef;
+
 public interface ForumPostRepository extends JpaRepository<ForumPostVO, Integer> {
 	
-	//	優化讀取貼文時的N+1問題
+	//	貼文頁：貼文 + 作者 (留言由 ForumCommentRepository.findCommentNodesByPostId 另外取出)
 	@Query("""
-			select distinct p 
+			select p
 			from ForumPostVO p
 			join fetch p.member m
-			left join fetch p.forumPostComments c
-			left join fetch c.member cm
 			where p.postId = :postId
 	""")
-	public ForumPostVO findOnePostWithCommentAndMember(@Param("postId") Integer postId);
+	public ForumPostVO findOnePostWithMember(@Param("postId") Integer postId);
 	
 	//	關鍵字查詢
 	@Query(value = "select p from ForumPostVO p where p.postStatus = 1 and p.forum.forumId = :forumId and (p.postTitle like concat('%', :keyword, '%') or p.postContent like concat('%', :keyword, '%'))")
 	public Page<ForumPostVO> findByKeyword(@Param("keyword") String keyword, @Param("forumId") Integer forumId, Pageable pageable);
 	
+	//	列表頁用：只查列表欄位 (不載入整篇內文與關聯)，內文截取前段作為預覽
+	@Query(value = "select new com.petguardian.forum.model.PostListItemDTO("
+			+ "p.postId, p.postTitle, substring(p.postContent, 1, " + PostListItemDTO.PREVIEW_LENGTH + "), p.postViews, p.createdAt) "
+			+ "from ForumPostVO p where p.forum.forumId = :forumId and p.postStatus = 1",
+			countQuery = "select count(p) from ForumPostVO p where p.forum.forumId = :forumId and p.postStatus = 1")
+	public Page<PostListItemDTO> findPostListItemsByForumId(@Param("forumId") Integer forumId, Pageable pageable);
+	
+	@Query(value = "select new com.petguardian.forum.model.PostListItemDTO("
+			+ "p.postId, p.postTitle, substring(p.postContent, 1, " + PostListItemDTO.PREVIEW_LENGTH + "), p.postViews, p.createdAt) "
+			+ "from ForumPostVO p where p.postStatus = 1 and p.forum.forumId = :forumId "
+			+ "and (p.postTitle like concat('%', :keyword, '%') or p.postContent like concat('%', :keyword, '%'))",
+			countQuery = "select count(p) from ForumPostVO p where p.postStatus = 1 and p.forum.forumId = :forumId "
+			+ "and (p.postTitle like concat('%', :keyword, '%') or p.postContent like concat('%', :keyword, '%'))")
+	public Page<PostListItemDTO> findPostListItemsByKeyword(@Param("keyword") String keyword, @Param("forumId") Integer forumId, Pageable pageable);
+	
+	//	搜尋結果當頁：[貼文id, 標題, 內文, 瀏覽次數, 建立時間]，摘要由內文產生
+	@Query(value = "select p.postId, p.postTitle, p.postContent, p.postViews, p.createdAt from ForumPostVO p where p.postId in :postIds")
+	public List<Object[]> findSearchRowsByPostIds(@Param("postIds") List<Integer> postIds);
+	
 	// 	Spring 會自動解析為：postStatus = 1 AND postTitle LIKE %...% ORDER BY postId DESC
 	//	List<ForumPostVO> findByPostStatusAndPostTitleContainingOrderByPostIdDesc(Integer postStatus, String postTitle);	
 	
@@ -38,11 +57,9 @@ public interface ForumPostRepository extends JpaRepository<ForumPostVO, Integer>
 	@Query(value = "select p from ForumPostVO p where p.forum.forumId = :forumId and p.postStatus = 1")
 	public Page<ForumPostVO> findPostsWithPageableByForumId(@Param("forumId") Integer forumId, Pageable pageable);
 	
-	//	將Redis裡存的文章瀏覽次數寫回MySQL
-	@Modifying
-	@Transactional
-	@Query(value = "update forumpost set post_views = :postViewCount where post_id = :postId", nativeQuery = true)
-	public void savePostViewCountToDatabase(@Param("postId") Integer postId, @Param("postViewCount") Integer postViewCount);
+	//	熱門排行用：只拿上架中貼文的 [貼文id, 討論區id]
+	@Query(value = "select p.postId, p.forum.forumId from ForumPostVO p where p.postStatus = 1 and p.postId in :postIds")
+	public List<Object[]> findActivePostForumIds(@Param("postIds") List<Integer> postIds);
 	
 	@Query("""
 			select new com.petguardian.forum.model.DeletedPostDTO(
@@ -63,8 +80,8 @@ public interface ForumPostRepository extends JpaRepository<ForumPostVO, Integer>
 	       "where m.memId = :memId and p.postStatus = 1 order by p.createdAt desc")
     public List<ForumPostVO> findAllPostCollectionsByMemId(@Param("memId") Integer memId);
 	
-	//	只拿主頁圖片方法
-	@Query(value = "select p.postPic from ForumPostVO p where p.postId = :postId")
-	public byte[] getPicture(@Param("postId") Integer postId);
+	//	只拿主頁圖片參照 (圖片內容由 BlobStore 讀取)
+	@Query(value = "select p.postPicBlob from ForumPostVO p where p.postId = :postId")
+	public ImageBlobRef getPicture(@Param("postId") Integer postId);
 	
 }
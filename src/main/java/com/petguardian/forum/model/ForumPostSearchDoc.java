@@ -0,0 +1,64 @@
+package com.petguardian.forum.model;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+import com.petguardian.common.util.CjkBigramTokenizer;
+
+/**
+ * 貼文搜尋索引文件
+ *
+ * 只保存切詞結果與篩選用的討論區編號，不保存內文；
+ * 搜尋結果的標題、摘要由查詢當頁時再向資料庫讀取。
+ */
+public class ForumPostSearchDoc {
+
+	// 欄位編號 (對應 ForumPostSearchIndex 的各欄位倒排表)
+	public static final int FIELD_TITLE = 0;
+	public static final int FIELD_CONTENT = 1;
+	public static final int FIELD_COMMENT = 2;
+	public static final int FIELD_COUNT = 3;
+
+	private final int postId;
+	private final int forumId;
+	private final Set<String>[] fieldTokens;
+
+	@SuppressWarnings("unchecked")
+	public ForumPostSearchDoc(int postId, int forumId, String title, String content, Collection<String> comments) {
+		this.postId = postId;
+		this.forumId = forumId;
+		this.fieldTokens = new Set[FIELD_COUNT];
+		this.fieldTokens[FIELD_TITLE] = new HashSet<>(CjkBigramTokenizer.tokenizeForIndex(title));
+		this.fieldTokens[FIELD_CONTENT] = new HashSet<>(CjkBigramTokenizer.tokenizeForIndex(content));
+		Set<String> commentTokens = new HashSet<>();
+		if (comments != null) {
+			for (String comment : comments) {
+				commentTokens.addAll(CjkBigramTokenizer.tokenizeForIndex(comment));
+			}
+		}
+		this.fieldTokens[FIELD_COMMENT] = commentTokens;
+	}
+
+	public int getPostId() {
+		return postId;
+	}
+
+	public int getForumId() {
+		return forumId;
+	}
+
+	public Set<String> getTokens(int field) {
+		return fieldTokens[field];
+	}
+
+	public boolean contains(String token) {
+		for (Set<String> tokens : fieldTokens) {
+			if (tokens.contains(token)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+}
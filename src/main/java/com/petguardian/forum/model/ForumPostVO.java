@@ -8,16 +8,19 @@ import org.hibernate.annotations.Where;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.petguardian.common.blob.ImageBlobRef;
 import com.petguardian.member.model.Member;
 
+import jakarta.persistence.AttributeOverride;
+import jakarta.persistence.AttributeOverrides;
 import jakarta.persistence.Column;
+import jakarta.persistence.Embedded;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
-import jakarta.persistence.Lob;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
@@ -56,9 +59,16 @@ public class ForumPostVO implements Serializable{
 	@Size(min = 10, max = 3000, message = "文章內容必需在{min}到{max}字之間")
 	private String postContent;
 	
-	@Lob
-	@Column(name = "post_pic", nullable = true, columnDefinition = "longblob")
-	private byte[] postPic;
+	// 圖片內容存在 BlobStore，這裡只保存 blob id 與圖片資訊
+	@Embedded
+	@AttributeOverrides({
+		@AttributeOverride(name = "blobId", column = @Column(name = "post_pic_blob_id")),
+		@AttributeOverride(name = "width", column = @Column(name = "post_pic_width")),
+		@AttributeOverride(name = "height", column = @Column(name = "post_pic_height")),
+		@AttributeOverride(name = "size", column = @Column(name = "post_pic_size")),
+		@AttributeOverride(name = "contentType", column = @Column(name = "post_pic_content_type"))
+	})
+	private ImageBlobRef postPicBlob;
 	
 	@Column(name = "created_at", insertable = false, updatable = false)
 	private Timestamp createdAt;
@@ -70,7 +80,8 @@ public class ForumPostVO implements Serializable{
 	@Column(name = "post_status", insertable = false)
 	private Integer postStatus;
 	
-	@Column(name = "post_views", nullable = true, insertable = false)
+	// 瀏覽次數只由 ForumViewCounter 以增量寫回，實體存檔不覆蓋 (列表顯示時會加上尚未寫回的增量)
+	@Column(name = "post_views", nullable = true, insertable = false, updatable = false)
 	private Integer postViews;
 	
 	@Transient
@@ -181,12 +192,12 @@ public class ForumPostVO implements Serializable{
 		this.postContent = postContent;
 	}
 	
-	public byte[] getPostPic() {
-		return postPic;
+	public ImageBlobRef getPostPicBlob() {
+		return postPicBlob;
 	}
 	
-	public void setPostPic(byte[] postPic) {
-		this.postPic = postPic;
+	public void setPostPicBlob(ImageBlobRef postPicBlob) {
+		this.postPicBlob = postPicBlob;
 	}
 	
 	public Timestamp getCreatedAt() {
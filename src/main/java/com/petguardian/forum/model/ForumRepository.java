@@ -8,6 +8,8 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.petguardian.common.blob.ImageBlobRef;
+
 public interface ForumRepository extends JpaRepository<ForumVO, Integer>{
 	
 	// 	關鍵字查詢
@@ -27,14 +29,8 @@ public interface ForumRepository extends JpaRepository<ForumVO, Integer>{
 	@Query(value = "update ForumVO f set f.forumStatus = :forumStatus where f.forumId = :forumId")
 	public void updateStatus(@Param("forumStatus") Integer forumStatus, @Param("forumId") Integer forumId);
 	
-	//	將Redis裡存的討論區瀏覽次數寫回MySQL
-	@Modifying
-	@Transactional
-	@Query(value = "update forum set forum_views = :forumViewCount where forum_id = :forumId", nativeQuery = true)
-	public void saveForumViewCountToDatabase(@Param("forumId") Integer forumId, @Param("forumViewCount") Integer forumViewCount);
-	
-	//	只拿圖片方法
-	@Query(value = "select f.forumPic from ForumVO f where f.forumId = :forumId")
-	public byte[] getPicture(@Param("forumId") Integer forumId);
+	//	只拿圖片參照 (圖片內容由 BlobStore 讀取)
+	@Query(value = "select f.forumPicBlob from ForumVO f where f.forumId = :forumId")
+	public ImageBlobRef getPicture(@Param("forumId") Integer forumId);
 	
 }
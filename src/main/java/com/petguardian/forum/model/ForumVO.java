@@ -6,12 +6,16 @@ import java.util.Set;
 
 import org.springframework.web.multipart.MultipartFile;
 
+import com.petguardian.common.blob.ImageBlobRef;
+
+import jakarta.persistence.AttributeOverride;
+import jakarta.persistence.AttributeOverrides;
 import jakarta.persistence.Column;
+import jakarta.persistence.Embedded;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
-import jakarta.persistence.Lob;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.OrderBy;
 import jakarta.persistence.Table;
@@ -37,14 +41,22 @@ public class ForumVO implements Serializable{
 	@Column(name = "created_at", insertable = false, updatable = false)
 	private Date createdAt;
 	
-	@Lob
-	@Column(name = "forum_pic", nullable = true, columnDefinition = "longblob")
-	private byte[] forumPic;
+	// 圖片內容存在 BlobStore，這裡只保存 blob id 與圖片資訊
+	@Embedded
+	@AttributeOverrides({
+		@AttributeOverride(name = "blobId", column = @Column(name = "forum_pic_blob_id")),
+		@AttributeOverride(name = "width", column = @Column(name = "forum_pic_width")),
+		@AttributeOverride(name = "height", column = @Column(name = "forum_pic_height")),
+		@AttributeOverride(name = "size", column = @Column(name = "forum_pic_size")),
+		@AttributeOverride(name = "contentType", column = @Column(name = "forum_pic_content_type"))
+	})
+	private ImageBlobRef forumPicBlob;
 	
 	@Column(name = "forum_status", insertable = false)
 	private Integer forumStatus;
 	
-	@Column(name = "forum_views", nullable = true, insertable = false)
+	// 瀏覽次數只由 ForumViewCounter 以增量寫回，實體存檔不覆蓋 (列表顯示時會加上尚未寫回的增量)
+	@Column(name = "forum_views", nullable = true, insertable = false, updatable = false)
 	private Integer forumViews;
 	
 	@Transient
@@ -114,12 +126,12 @@ public class ForumVO implements Serializable{
 		this.forumViews = forumViews;
 	}
 
-	public byte[] getForumPic() {
-		return forumPic;
+	public ImageBlobRef getForumPicBlob() {
+		return forumPicBlob;
 	}
-
-	public void setForumPic(byte[] forumPic) {
-		this.forumPic = forumPic;
+	
+	public void setForumPicBlob(ImageBlobRef forumPicBlob) {
+		this.forumPicBlob = forumPicBlob;
 	}
 	
     //	驗證上傳檔案是否為圖片檔 || 驗證圖片大小不得超過1MB
@@ -0,0 +1,32 @@
+package com.petguardian.forum.model;
+
+// 檢舉審核佇列各狀態的筆數 (待處理 / 已處理 / 已駁回)，條件與各佇列列表相同
+public class ModerationQueueCounts {
+
+	public static final ModerationQueueCounts EMPTY = new ModerationQueueCounts(0L, 0L, 0L);
+
+	private final long pending;
+	private final long handled;
+	private final long rejected;
+
+	// 沒有任何檢舉時 sum() 為 null
+	public ModerationQueueCounts(Long pending, Long handled, Long rejected) {
+		super();
+		this.pending = (pending != null) ? pending : 0L;
+		this.handled = (handled != null) ? handled : 0L;
+		this.rejected = (rejected != null) ? rejected : 0L;
+	}
+
+	public long getPending() {
+		return pending;
+	}
+
+	public long getHandled() {
+		return handled;
+	}
+
+	public long getRejected() {
+		return rejected;
+	}
+
+}
@@ -0,0 +1,86 @@
+package com.petguardian.forum.model;
+
+import java.sql.Timestamp;
+
+// 貼文列表一列：只帶列表需要的欄位，內文只取開頭作為預覽
+public class PostListItemDTO {
+
+	public static final int PREVIEW_LENGTH = 120;
+
+	private Integer postId;
+	private String postTitle;
+	private String postPreview;
+	private Integer postViews;
+	private Timestamp createdAt;
+	private String postSnippet; // 搜尋結果摘要 (已 HTML 跳脫，命中處以 <mark> 標示)；一般列表為 null
+	
+	public PostListItemDTO() {
+		super();
+	}
+
+	public PostListItemDTO(Integer postId, String postTitle, String postPreview, Integer postViews,
+			Timestamp createdAt) {
+		super();
+		this.postId = postId;
+		this.postTitle = postTitle;
+		this.postPreview = postPreview;
+		this.postViews = postViews;
+		this.createdAt = createdAt;
+	}
+
+	// 複製一份並換上瀏覽次數 (快取中的原物件不修改)
+	public PostListItemDTO withPostViews(Integer postViews) {
+		PostListItemDTO copy = new PostListItemDTO(postId, postTitle, postPreview, postViews, createdAt);
+		copy.setPostSnippet(postSnippet);
+		return copy;
+	}
+
+	public Integer getPostId() {
+		return postId;
+	}
+
+	public void setPostId(Integer postId) {
+		this.postId = postId;
+	}
+
+	public String getPostTitle() {
+		return postTitle;
+	}
+
+	public void setPostTitle(String postTitle) {
+		this.postTitle = postTitle;
+	}
+
+	public String getPostPreview() {
+		return postPreview;
+	}
+
+	public void setPostPreview(String postPreview) {
+		this.postPreview = postPreview;
+	}
+
+	public Integer getPostViews() {
+		return postViews;
+	}
+
+	public void setPostViews(Integer postViews) {
+		this.postViews = postViews;
+	}
+
+	public Timestamp getCreatedAt() {
+		return createdAt;
+	}
+
+	public void setCreatedAt(Timestamp createdAt) {
+		this.createdAt = createdAt;
+	}
+	
+	public String getPostSnippet() {
+		return postSnippet;
+	}
+
+	public void setPostSnippet(String postSnippet) {
+		this.postSnippet = postSnippet;
+	}
+	
+}
@@ -0,0 +1,32 @@
+package com.petguardian.forum.model;
+
+import java.util.List;
+
+// 貼文檢舉審核頁需要的所有資料，每個請求只組一次
+public class PostModerationDetailDTO {
+
+	private final PostReviewDetailDTO review;
+	private final PostHandledResultDetailDTO handledResult; // 待處理的檢舉為 null
+	private final List<Integer> picsId;
+
+	public PostModerationDetailDTO(PostReviewDetailDTO review, PostHandledResultDetailDTO handledResult,
+			List<Integer> picsId) {
+		super();
+		this.review = review;
+		this.handledResult = handledResult;
+		this.picsId = picsId;
+	}
+
+	public PostReviewDetailDTO getReview() {
+		return review;
+	}
+
+	public PostHandledResultDetailDTO getHandledResult() {
+		return handledResult;
+	}
+
+	public List<Integer> getPicsId() {
+		return picsId;
+	}
+
+}
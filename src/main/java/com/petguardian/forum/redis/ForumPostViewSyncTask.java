@@ -1,80 +1,39 @@
 package com.petguardian.forum.redis;
 
-import java.util.Map;
-import java.util.Set;
-
-import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
-import com.petguardian.forum.model.ForumPostRepository;
-import com.petguardian.forum.model.ForumRepository;
-import com.petguardian.forum.service.RedisService;
+import lombok.extern.slf4j.Slf4j;
 
+/**
+ * 每分鐘把 Redis 上累計的瀏覽次數增量寫回資料庫
+ *
+ * 不再以 KEYS 掃描每篇貼文的計數，改由 ForumViewCounter 一次取出整批增量並以 JDBC batch 寫回。
+ */
+@Slf4j
 @Component
 @EnableScheduling
 public class ForumPostViewSyncTask {
 
-	private final RedisService redisService;
-	private final StringRedisTemplate redisTemplate;
-	private final ForumPostRepository postRepo;
-	private final ForumRepository forumRepo;
+	private final ForumViewCounter viewCounter;
 
-	public ForumPostViewSyncTask(RedisService redisService, StringRedisTemplate redisTemplate, ForumPostRepository postRepo,
-			ForumRepository forumRepo) {
+	public ForumPostViewSyncTask(ForumViewCounter viewCounter) {
 		super();
-		this.redisService = redisService;
-		this.redisTemplate = redisTemplate;
-		this.postRepo = postRepo;
-		this.forumRepo = forumRepo;
+		this.viewCounter = viewCounter;
 	}
 
-	// 每小時執行一次 (cron 表示式)
-//	@Scheduled(cron = "0 0 * * * *")
 	@Scheduled(fixedRate = 60000)
-	public void syncPostViewCountToDatabase() {
+	public void syncViewCountToDatabase() {
 		try {
-			Set<String> keys = redisTemplate.keys("post:views:*");
-			if(keys == null || keys.isEmpty()) {
-				return;
+			int rows = viewCounter.syncToDatabase();
+			if (rows > 0) {
+				log.debug("[ForumViewSync] {} view counters written back", rows);
 			}
-			keys.stream()
-				.map(key -> {
-					Integer postId = Integer.valueOf(key.split(":")[2]);
-					Integer postViewCount = redisService.getPostViewCount(postId);
-					return (postViewCount != null) ? Map.entry(postId, postViewCount) : null;
-				})
-				.filter(entry -> entry != null && entry.getValue() != 0)
-				.forEach(entry -> {
-					postRepo.savePostViewCountToDatabase(entry.getKey(), entry.getValue());
-				});
-		}catch(Exception e) {
-			System.err.println("Redis 連線失敗，請檢查 Redis 是否已啟動。");
+		} catch (Exception e) {
+			// Redis 或資料庫暫時無法使用：待寫入的批次留在 Redis，下次再試
+			log.warn("[ForumViewSync] Sync failed, will retry: {}", e.getMessage());
 		}
 	}
-    
-    @Scheduled(fixedRate = 60000)
-    public void syncForumViewCountToDatabase() {
-    	try {
-	    	Set<String> keys = redisTemplate.keys("forum:views:*");
-	    	
-	    	if(keys == null || keys.isEmpty()) return;
-	    	
-	    	keys.stream()
-	    		.map(key -> {
-	    			Integer forumId = Integer.valueOf(key.split(":")[2]);
-	    			Integer forumViewCount = redisService.getForumViewCount(forumId);
-	    			return (forumViewCount != null) ? Map.entry(forumId, forumViewCount) : null;
-	    		})
-	    		.filter(entry -> entry != null && entry.getValue() != 0)
-	    		.forEach(entry -> {
-	    			forumRepo.saveForumViewCountToDatabase(entry.getKey(), entry.getValue());
-	    		});
-    	}catch(Exception e) {
-    		System.err.println("Redis 連線失敗，請檢查 Redis 是否已啟動。");
-    	}
-    	
-    }
-    	
+
 }
@@ -0,0 +1,284 @@
+package com.petguardian.forum.redis;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.petguardian.common.tx.TransactionTemplates;
+import com.petguardian.forum.service.ForumTrendingService;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 討論區 / 貼文瀏覽次數計數器
+ *
+ * 瀏覽次數以「增量」累計，不再為每篇貼文保存一個 Redis key：
+ * - 每次瀏覽只加到本機緩衝 (ConcurrentHashMap)，每秒以一次 pipeline 把增量 HINCRBY 到 Redis 的增量 hash，
+ *   同時計入 ForumTrendingService 當下小時的熱門 bucket
+ * - 同步時以 Lua 將增量 hash RENAME 為待寫入 hash 並取出 (原子操作，之後的瀏覽寫進新的增量 hash)，
+ *   多台伺服器的增量在 Redis 已合併，由一次 JDBC batch 以 post_views = post_views + ? 寫回資料庫
+ * - 每批有編號 (UUID，不依賴 Redis 上的序號，序號遺失也不會與已寫回的批次撞號)，寫回時在同一交易登記到 forum_view_sync_batch；重試或多台同時處理同一批時只會套用一次，
+ *   寫回後才刪除待寫入 hash，中途失敗或重新啟動都會從同一批繼續
+ */
+@Slf4j
+@Component
+public class ForumViewCounter {
+
+    static final String POST_DELTA_KEY = "forum:views:delta:post";
+    static final String FORUM_DELTA_KEY = "forum:views:delta:forum";
+    static final String POST_DRAINING_KEY = "forum:views:draining:post";
+    static final String FORUM_DRAINING_KEY = "forum:views:draining:forum";
+    static final String BATCH_KEY = "forum:views:draining:batch";
+
+    // 已有待寫入批次時原樣回傳 (上次未完成)；否則把增量 hash 改名為待寫入 hash 並以 ARGV[1] 作為批次編號
+    private static final String DRAIN_LUA = """
+            local batch = redis.call('GET', KEYS[5])
+            if not batch then
+                local hasPost = redis.call('EXISTS', KEYS[1])
+                local hasForum = redis.call('EXISTS', KEYS[2])
+                if hasPost == 0 and hasForum == 0 then
+                    return {}
+                end
+                batch = ARGV[1]
+                if hasPost == 1 then redis.call('RENAME', KEYS[1], KEYS[3]) end
+                if hasForum == 1 then redis.call('RENAME', KEYS[2], KEYS[4]) end
+                redis.call('SET', KEYS[5], batch)
+            end
+            return {batch, redis.call('HGETALL', KEYS[3]), redis.call('HGETALL', KEYS[4])}
+            """;
+
+    // 只刪除自己處理的那一批
+    private static final String ACK_LUA = """
+            if redis.call('GET', KEYS[3]) == ARGV[1] then
+                redis.call('DEL', KEYS[1], KEYS[2], KEYS[3])
+                return 1
+            end
+            return 0
+            """;
+
+    @SuppressWarnings("rawtypes")
+    private final RedisScript<List> drainScript = new DefaultRedisScript<>(DRAIN_LUA, List.class);
+    private final RedisScript<Long> ackScript = new DefaultRedisScript<>(ACK_LUA, Long.class);
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate requiresNewTemplate;
+
+    // 本機緩衝：id -> 尚未送到 Redis 的瀏覽次數 (merge / remove 皆為單一 key 的原子操作)
+    private final ConcurrentHashMap<Integer, Long> localPostViews = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Integer, Long> localForumViews = new ConcurrentHashMap<>();
+
+    public ForumViewCounter(PlatformTransactionManager transactionManager) {
+        this.requiresNewTemplate = TransactionTemplates.requiresNew(transactionManager);
+    }
+
+    public void recordPostView(Integer postId) {
+        if (postId != null) {
+            localPostViews.merge(postId, 1L, Long::sum);
+        }
+    }
+
+    public void recordForumView(Integer forumId) {
+        if (forumId != null) {
+            localForumViews.merge(forumId, 1L, Long::sum);
+        }
+    }
+
+    /**
+     * 本機緩衝 -> Redis 增量 hash（每秒一次，一個 pipeline）
+     */
+    @Scheduled(fixedDelay = 1000)
+    public void flushLocal() {
+        Map<Integer, Long> posts = drainLocal(localPostViews);
+        Map<Integer, Long> forums = drainLocal(localForumViews);
+        if (posts.isEmpty() && forums.isEmpty()) {
+            return;
+        }
+        try {
+            String postBucket = ForumTrendingService.currentPostBucket();
+            String forumBucket = ForumTrendingService.currentForumBucket();
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                writeDeltas(connection, POST_DELTA_KEY, postBucket, posts);
+                writeDeltas(connection, FORUM_DELTA_KEY, forumBucket, forums);
+                return null;
+            });
+        } catch (RuntimeException e) {
+            // Redis 無法連線：放回緩衝，下次再送
+            posts.forEach((id, count) -> localPostViews.merge(id, count, Long::sum));
+            forums.forEach((id, count) -> localForumViews.merge(id, count, Long::sum));
+            log.warn("[ForumViewCounter] Redis unavailable, {} post / {} forum deltas kept locally: {}",
+                    posts.size(), forums.size(), e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flushLocal();
+    }
+
+    /**
+     * Redis 增量 -> 資料庫（一批一個交易，JDBC batch 寫回）
+     *
+     * @return 寫回的貼文 + 討論區筆數
+     */
+    @SuppressWarnings("unchecked")
+    public int syncToDatabase() {
+        List<Object> drained = redisTemplate.execute(drainScript, List.of(POST_DELTA_KEY, FORUM_DELTA_KEY,
+                POST_DRAINING_KEY, FORUM_DRAINING_KEY, BATCH_KEY), UUID.randomUUID().toString());
+        if (drained == null || drained.isEmpty()) {
+            return 0;
+        }
+        String batchId = String.valueOf(drained.get(0));
+        List<Object[]> postArgs = toBatchArgs((List<Object>) drained.get(1));
+        List<Object[]> forumArgs = toBatchArgs((List<Object>) drained.get(2));
+
+        Boolean applied = requiresNewTemplate.execute(status -> {
+            try {
+                jdbcTemplate.update("INSERT INTO forum_view_sync_batch (batch_id) VALUES (?)", batchId);
+            } catch (DuplicateKeyException e) {
+                return false; // 這一批先前已寫回，只差刪除 Redis 上的待寫入 hash
+            }
+            if (!postArgs.isEmpty()) {
+                jdbcTemplate.batchUpdate(
+                        "UPDATE forumpost SET post_views = COALESCE(post_views, 0) + ? WHERE post_id = ?", postArgs);
+            }
+            if (!forumArgs.isEmpty()) {
+                jdbcTemplate.batchUpdate(
+                        "UPDATE forum SET forum_views = COALESCE(forum_views, 0) + ? WHERE forum_id = ?", forumArgs);
+            }
+            return true;
+        });
+
+        redisTemplate.execute(ackScript, List.of(POST_DRAINING_KEY, FORUM_DRAINING_KEY, BATCH_KEY), batchId);
+        if (!Boolean.TRUE.equals(applied)) {
+            return 0;
+        }
+        log.debug("[ForumViewCounter] Batch {} applied: {} posts, {} forums", batchId, postArgs.size(),
+                forumArgs.size());
+        return postArgs.size() + forumArgs.size();
+    }
+
+    /**
+     * 清除一週前的批次紀錄
+     */
+    @Scheduled(cron = "0 30 4 * * ?")
+    public void purgeSyncBatches() {
+        jdbcTemplate.update("DELETE FROM forum_view_sync_batch WHERE applied_at < NOW() - INTERVAL 7 DAY");
+    }
+
+    /**
+     * 尚未寫回資料庫的貼文瀏覽次數 (本機緩衝 + Redis 增量 + 待寫入)，一次 pipeline 查詢
+     */
+    public Map<Integer, Long> getPendingPostViews(Collection<Integer> postIds) {
+        return pending(postIds, localPostViews, POST_DELTA_KEY, POST_DRAINING_KEY);
+    }
+
+    public Map<Integer, Long> getPendingForumViews(Collection<Integer> forumIds) {
+        return pending(forumIds, localForumViews, FORUM_DELTA_KEY, FORUM_DRAINING_KEY);
+    }
+
+    private Map<Integer, Long> pending(Collection<Integer> ids, Map<Integer, Long> local, String deltaKey,
+            String drainingKey) {
+        Map<Integer, Long> result = new HashMap<>();
+        if (ids == null || ids.isEmpty()) {
+            return result;
+        }
+        List<Integer> idList = new ArrayList<>(ids);
+        for (Integer id : idList) {
+            Long count = local.get(id);
+            if (count != null) {
+                result.put(id, count);
+            }
+        }
+        try {
+            byte[][] fields = idList.stream().map(id -> bytes(String.valueOf(id))).toArray(byte[][]::new);
+            List<Object> replies = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                connection.hashCommands().hMGet(bytes(deltaKey), fields);
+                connection.hashCommands().hMGet(bytes(drainingKey), fields);
+                return null;
+            });
+            for (Object reply : replies) {
+                if (!(reply instanceof List<?> values)) {
+                    continue;
+                }
+                for (int i = 0; i < idList.size() && i < values.size(); i++) {
+                    Object value = values.get(i);
+                    if (value != null) {
+                        result.merge(idList.get(i), Long.valueOf(value.toString()), Long::sum);
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            log.debug("[ForumViewCounter] Pending views unavailable: {}", e.getMessage());
+        }
+        return result;
+    }
+
+    private static Map<Integer, Long> drainLocal(ConcurrentHashMap<Integer, Long> buffer) {
+        Map<Integer, Long> drained = new HashMap<>();
+        for (Integer id : buffer.keySet()) {
+            Long count = buffer.remove(id);
+            if (count != null) {
+                drained.put(id, count);
+            }
+        }
+        return drained;
+    }
+
+    private static void writeDeltas(RedisConnection connection, String deltaKey, String trendBucket,
+            Map<Integer, Long> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        byte[] rawDeltaKey = bytes(deltaKey);
+        byte[] rawBucket = bytes(trendBucket);
+        deltas.forEach((id, count) -> {
+            byte[] member = bytes(String.valueOf(id));
+            connection.hashCommands().hIncrBy(rawDeltaKey, member, count);
+            connection.zSetCommands().zIncrBy(rawBucket, count * ForumTrendingService.VIEW_WEIGHT, member);
+        });
+        connection.keyCommands().expire(rawBucket, ForumTrendingService.bucketTtlSeconds());
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    // HGETALL 結果為 field, value 交錯的清單 -> (增量, id)
+    private static List<Object[]> toBatchArgs(List<Object> flat) {
+        List<Object[]> args = new ArrayList<>();
+        if (flat == null) {
+            return args;
+        }
+        for (int i = 0; i + 1 < flat.size(); i += 2) {
+            long delta = Long.parseLong(flat.get(i + 1).toString());
+            if (delta != 0) {
+                args.add(new Object[] { delta, Integer.valueOf(flat.get(i).toString()) });
+            }
+        }
+        return args;
+    }
+}
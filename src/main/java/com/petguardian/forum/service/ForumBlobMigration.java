@@ -0,0 +1,231 @@
+package com.petguardian.forum.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.petguardian.common.blob.BlobStore;
+import com.petguardian.common.blob.ImageBlobRef;
+import com.petguardian.common.blob.ImageBlobService;
+import com.petguardian.common.tx.TransactionTemplates;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 討論區圖片搬移：舊的 longblob 欄位 -> BlobStore
+ *
+ * 分成兩個步驟，都預設關閉，啟動後於背景執行緒逐表處理 (討論區、貼文主圖、貼文附圖、留言圖片)：
+ *
+ * 1. 搬移 (forum.blob.migration.enabled=true)
+ * - 依主鍵分批 (CHUNK_SIZE 筆) 讀出尚未搬移的圖片，逐筆以串流寫入 BlobStore，一次只有一批的圖片在記憶體中
+ * - 每批一個交易寫回 blob 參照，並在 forum_blob_migrated 登記搬移結果；舊欄位保留不動，搬錯時仍可重新搬移
+ * - 寫回條件含「blob id 仍為 NULL」，與同時間的編輯不會互相覆蓋
+ * - 已登記的資料不會再被選到 (之後被使用者移除的圖片也不會被搬回來)，中斷後重新啟動會從剩下的繼續
+ *
+ * 2. 清除舊欄位 (forum.blob.migration.clear-legacy=true，確認搬移結果後另外執行)
+ * - 只清除已登記、且 BlobStore 中的檔案內容雜湊與長度都和舊欄位相符的資料，檔案遺失或不符者保留並記錄警告
+ */
+@Slf4j
+@Component
+public class ForumBlobMigration {
+
+    static final int CHUNK_SIZE = 20;
+
+    // 搬移對象：資料表、主鍵、舊 longblob 欄位、新欄位前綴 (皆為固定字串，非使用者輸入)
+    private static final String[][] TARGETS = {
+            { "forum", "forum_id", "forum_pic", "forum_pic" },
+            { "forumpost", "post_id", "post_pic", "post_pic" },
+            { "forumpostpicture", "pic_id", "pic", "pic" },
+            { "forumpostcomment", "comment_id", "comment_pic", "comment_pic" },
+    };
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ImageBlobService imageBlobService;
+
+    @Autowired
+    private BlobStore blobStore;
+
+    @Value("${forum.blob.migration.enabled:false}")
+    private boolean enabled;
+
+    @Value("${forum.blob.migration.clear-legacy:false}")
+    private boolean clearLegacy;
+
+    private final TransactionTemplate requiresNewTemplate;
+
+    public ForumBlobMigration(PlatformTransactionManager transactionManager) {
+        this.requiresNewTemplate = TransactionTemplates.requiresNew(transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled && !clearLegacy) {
+            return;
+        }
+        Thread thread = new Thread(() -> {
+            if (enabled) {
+                migrateAll();
+            }
+            if (clearLegacy) {
+                clearLegacyAll();
+            }
+        }, "forum-blob-migration");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public void migrateAll() {
+        for (String[] target : TARGETS) {
+            try {
+                long migrated = migrateTable(target[0], target[1], target[2], target[3]);
+                if (migrated > 0) {
+                    log.info("[ForumBlobMigration] {}.{}: {} images moved to blob store", target[0], target[2], migrated);
+                }
+            } catch (RuntimeException e) {
+                // 例如尚未執行 forum_blob.sql，略過此表，其他表照常處理
+                log.warn("[ForumBlobMigration] {}.{} skipped: {}", target[0], target[2], e.getMessage());
+            }
+        }
+    }
+
+    public void clearLegacyAll() {
+        for (String[] target : TARGETS) {
+            try {
+                long cleared = clearLegacyTable(target[0], target[1], target[2]);
+                if (cleared > 0) {
+                    log.info("[ForumBlobMigration] {}.{}: {} legacy images cleared", target[0], target[2], cleared);
+                }
+            } catch (RuntimeException e) {
+                log.warn("[ForumBlobMigration] {}.{} not cleared: {}", target[0], target[2], e.getMessage());
+            }
+        }
+    }
+
+    private long migrateTable(String table, String idColumn, String blobColumn, String prefix) {
+        String selectSql = "SELECT t." + idColumn + ", t." + blobColumn + " FROM " + table + " t"
+                + " WHERE t." + idColumn + " > ? AND t." + blobColumn + " IS NOT NULL"
+                + " AND NOT EXISTS (SELECT 1 FROM forum_blob_migrated m"
+                + " WHERE m.table_name = '" + table + "' AND m.row_id = t." + idColumn + ")"
+                + " ORDER BY t." + idColumn + " LIMIT " + CHUNK_SIZE;
+        String updateSql = "UPDATE " + table + " SET "
+                + prefix + "_blob_id = ?, " + prefix + "_width = ?, " + prefix + "_height = ?, "
+                + prefix + "_size = ?, " + prefix + "_content_type = ?"
+                + " WHERE " + idColumn + " = ? AND " + prefix + "_blob_id IS NULL";
+        String recordSql = "INSERT IGNORE INTO forum_blob_migrated (table_name, row_id, blob_id) VALUES ('"
+                + table + "', ?, ?)";
+
+        long migrated = 0;
+        int lastId = 0;
+        List<Object[]> records = new ArrayList<>(CHUNK_SIZE);
+        while (true) {
+            List<Object[]> updates = new ArrayList<>(CHUNK_SIZE);
+            int[] maxId = { lastId };
+            jdbcTemplate.query(selectSql, (ResultSet rs) -> {
+                int id = rs.getInt(1);
+                maxId[0] = Math.max(maxId[0], id);
+                try (InputStream in = rs.getBinaryStream(2)) {
+                    if (in == null) {
+                        return;
+                    }
+                    ImageBlobRef ref = imageBlobService.store(in);
+                    updates.add(new Object[] { ref.getBlobId(), ref.getWidth(), ref.getHeight(),
+                            ref.getSize(), ref.getContentType(), id });
+                    records.add(new Object[] { id, ref.getBlobId() });
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, lastId);
+
+            if (maxId[0] == lastId) {
+                return migrated;
+            }
+            lastId = maxId[0];
+            if (!updates.isEmpty()) {
+                requiresNewTemplate.executeWithoutResult(status -> {
+                    jdbcTemplate.batchUpdate(updateSql, updates);
+                    jdbcTemplate.batchUpdate(recordSql, records);
+                });
+                migrated += updates.size();
+            }
+            records.clear();
+        }
+    }
+
+    private long clearLegacyTable(String table, String idColumn, String blobColumn) {
+        String selectSql = "SELECT m.row_id, m.blob_id, LENGTH(t." + blobColumn + ") FROM forum_blob_migrated m"
+                + " JOIN " + table + " t ON t." + idColumn + " = m.row_id"
+                + " WHERE m.table_name = '" + table + "' AND m.row_id > ? AND t." + blobColumn + " IS NOT NULL"
+                + " ORDER BY m.row_id LIMIT " + CHUNK_SIZE;
+        String clearSql = "UPDATE " + table + " SET " + blobColumn + " = NULL WHERE " + idColumn + " = ?";
+
+        long cleared = 0;
+        int lastId = 0;
+        while (true) {
+            List<Object[]> rows = jdbcTemplate.query(selectSql,
+                    (rs, i) -> new Object[] { rs.getInt(1), rs.getString(2), rs.getLong(3) }, lastId);
+            if (rows.isEmpty()) {
+                return cleared;
+            }
+            List<Object[]> verified = new ArrayList<>(rows.size());
+            for (Object[] row : rows) {
+                lastId = (Integer) row[0];
+                if (verify((String) row[1], (Long) row[2])) {
+                    verified.add(new Object[] { row[0] });
+                } else {
+                    log.warn("[ForumBlobMigration] {} #{}: blob {} is missing or does not match, legacy image kept",
+                            table, row[0], row[1]);
+                }
+            }
+            if (!verified.isEmpty()) {
+                requiresNewTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(clearSql, verified));
+                cleared += verified.size();
+            }
+        }
+    }
+
+    // 重新讀取 BlobStore 中的檔案：內容雜湊須等於 blob id、長度須等於舊欄位
+    private boolean verify(String blobId, long legacyLength) {
+        if (!blobStore.exists(blobId)) {
+            return false;
+        }
+        MessageDigest digest = newDigest();
+        long length = 0;
+        byte[] buffer = new byte[8192];
+        try (InputStream in = blobStore.open(blobId)) {
+            int n;
+            while ((n = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, n);
+                length += n;
+            }
+        } catch (IOException e) {
+            return false;
+        }
+        return length == legacyLength && HexFormat.of().formatHex(digest.digest()).equals(blobId);
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -2,16 +2,22 @@ package com.petguardian.forum.service;
 
 import java.util.List;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.petguardian.forum.model.CommentHandledResultDetailDTO;
+import com.petguardian.forum.model.CommentModerationDetailDTO;
 import com.petguardian.forum.model.CommentReviewDetailDTO;
 import com.petguardian.forum.model.ForumCommentReportRepository;
 import com.petguardian.forum.model.ForumCommentReportVO;
 import com.petguardian.forum.model.ForumCommentRepository;
 import com.petguardian.forum.model.ForumCommentVO;
+import com.petguardian.forum.model.ForumPostPicsRepository;
 import com.petguardian.forum.model.HandledCommentDTO;
+import com.petguardian.forum.model.ModerationQueueCounts;
 import com.petguardian.forum.model.PendingCommentDTO;
 import com.petguardian.forum.model.RejectedCommentDTO;
 
@@ -20,11 +26,21 @@ public class ForumCommentReportService {
 	
 	private final ForumCommentReportRepository repo;
 	private final ForumCommentRepository commentRepo;
+	private final ForumPostSearchService searchService;
+	private final ForumCommentTreeCache commentTreeCache;
+	private final ForumPostPicsRepository picRepo;
+	private final ForumModerationCounter moderationCounter;
 	
-	public ForumCommentReportService(ForumCommentReportRepository repo, ForumCommentRepository commentRepo) {
+	public ForumCommentReportService(ForumCommentReportRepository repo, ForumCommentRepository commentRepo,
+			ForumPostSearchService searchService, ForumCommentTreeCache commentTreeCache,
+			ForumPostPicsRepository picRepo, ForumModerationCounter moderationCounter) {
 		super();
 		this.repo = repo;
 		this.commentRepo = commentRepo;
+		this.searchService = searchService;
+		this.commentTreeCache = commentTreeCache;
+		this.picRepo = picRepo;
+		this.moderationCounter = moderationCounter;
 	}
 
 	@Transactional
@@ -34,10 +50,27 @@ public class ForumCommentReportService {
 		
 		forumCommentReportVO.setForumComment(forumCommentVO);
 		repo.save(forumCommentReportVO);	
+		moderationCounter.evictAfterCommit();
 	}
 	
-	public List<HandledCommentDTO> getAllHandledComments() {
-		return repo.findAllHandledComments();
+	//	審核佇列 (分頁)：總筆數取自 ForumModerationCounter，不另外 count
+	public Page<HandledCommentDTO> getHandledCommentPage(int page) {
+		PageRequest pageable = PageRequest.of(Math.max(page, 0), ForumPostReportService.QUEUE_PAGE_SIZE);
+		return new PageImpl<>(repo.findHandledCommentQueue(pageable), pageable, getQueueCounts().getHandled());
+	}
+	
+	public Page<PendingCommentDTO> getPendingCommentPage(int page) {
+		PageRequest pageable = PageRequest.of(Math.max(page, 0), ForumPostReportService.QUEUE_PAGE_SIZE);
+		return new PageImpl<>(repo.findPendingCommentQueue(pageable), pageable, getQueueCounts().getPending());
+	}
+	
+	public Page<RejectedCommentDTO> getRejectedCommentPage(int page) {
+		PageRequest pageable = PageRequest.of(Math.max(page, 0), ForumPostReportService.QUEUE_PAGE_SIZE);
+		return new PageImpl<>(repo.findRejectedCommentQueue(pageable), pageable, getQueueCounts().getRejected());
+	}
+	
+	public ModerationQueueCounts getQueueCounts() {
+		return moderationCounter.getCommentCounts();
 	}
 	
 	@Transactional
@@ -78,14 +111,9 @@ public class ForumCommentReportService {
 			}
 		}
 		commentRepo.save(forumCommentVO);	
-	}
-	
-	public List<PendingCommentDTO> getAllPendingComments() {
-		return repo.findAllPendingComments();
-	}
-	
-	public List<RejectedCommentDTO> getAllRejectedComments() {
-		return repo.findAllRejectedComments();
+		searchService.refreshPostAfterCommit(forumCommentVO.getForumPost().getPostId());
+		commentTreeCache.evictAfterCommit(forumCommentVO.getForumPost().getPostId());
+		moderationCounter.evictAfterCommit();
 	}
 	
 	public CommentReviewDetailDTO getCommentReviewDetailToHandle(Integer reportId) {
@@ -96,6 +124,26 @@ public class ForumCommentReportService {
 		return repo.commentHandledResultDetailToDisplay(reportId);
 	}
 	
+	/**
+	 * 審核頁資料：檢舉內容、所屬貼文的圖片編號與留言 (以及已處理的結果) 一次組好
+	 *
+	 * @param withResult 是否帶處理結果 (待處理的檢舉沒有)
+	 * @param allComments 是否包含已隱藏的留言 (已處理的檢舉要看得到被隱藏的那則)
+	 */
+	@Transactional(readOnly = true)
+	public CommentModerationDetailDTO getModerationDetail(Integer reportId, boolean withResult, boolean allComments) {
+		CommentReviewDetailDTO review = repo.commentReviewDetailToHandle(reportId);
+		if (review == null) {
+			throw new RuntimeException("找不到該檢舉，編號：" + reportId);
+		}
+		CommentHandledResultDetailDTO handledResult = withResult ? repo.commentHandledResultDetailToDisplay(reportId) : null;
+		Integer postId = review.getPostId();
+		List<Integer> picsId = picRepo.findPicsIdByPostId(postId);
+		List<ForumCommentVO> commentList = allComments ? commentRepo.findAllCommentsByPostId(postId)
+				: commentRepo.findCommentsByPostId(postId);
+		return new CommentModerationDetailDTO(review, handledResult, picsId, commentList);
+	}
+	
 	@Transactional
 	public void updateHandleResult(Integer reportId, Integer commentId, String handleResult) {	
 		ForumCommentVO forumCommentVO = commentRepo.findById(commentId)
@@ -104,6 +152,43 @@ public class ForumCommentReportService {
 		ForumCommentReportVO forumCommentReportVO = repo.findById(reportId)
 				.orElseThrow(() -> new RuntimeException("找不到該檢舉，編號：" + reportId));
 	
+		takeDown(forumCommentVO, forumCommentReportVO, handleResult);
+	}
+	
+	@Transactional
+	public void dismissCommentReport(Integer reportId, String handleResult) {
+		
+		ForumCommentReportVO forumCommentReportVO = repo.findById(reportId)
+				.orElseThrow(() -> new RuntimeException("找不到該檢舉，編號：" + reportId));
+	
+		dismiss(forumCommentReportVO, handleResult);
+	}
+	
+	/**
+	 * 批次審核：勾選的待處理檢舉全部隱藏留言或全部駁回，在同一個交易內完成
+	 *
+	 * 已不是待處理的檢舉 (例如別的管理員剛處理過) 會略過
+	 *
+	 * @return 實際處理的檢舉數
+	 */
+	@Transactional
+	public int bulkHandle(List<Integer> reportIds, boolean takeDown, String handleResult) {
+		int handled = 0;
+		for (ForumCommentReportVO forumCommentReportVO : repo.findAllById(reportIds)) {
+			if (forumCommentReportVO.getReportStatus() == null || forumCommentReportVO.getReportStatus() != 0) {
+				continue;
+			}
+			if (takeDown) {
+				takeDown(forumCommentReportVO.getForumComment(), forumCommentReportVO, handleResult);
+			} else {
+				dismiss(forumCommentReportVO, handleResult);
+			}
+			handled++;
+		}
+		return handled;
+	}
+	
+	private void takeDown(ForumCommentVO forumCommentVO, ForumCommentReportVO forumCommentReportVO, String handleResult) {
 		forumCommentVO.setCommentStatus(0);
 		forumCommentReportVO.setReportStatus(1);
 		forumCommentReportVO.setHandleResult(handleResult);
@@ -119,18 +204,18 @@ public class ForumCommentReportService {
 		}
 		commentRepo.save(forumCommentVO);
 		repo.save(forumCommentReportVO);
+		// 下架的留言不再出現在貼文搜尋
+		searchService.refreshPostAfterCommit(forumCommentVO.getForumPost().getPostId());
+		commentTreeCache.evictAfterCommit(forumCommentVO.getForumPost().getPostId());
+		moderationCounter.evictAfterCommit();
 	}
 	
-	@Transactional
-	public void dismissCommentReport(Integer reportId, String handleResult) {
-		
-		ForumCommentReportVO forumCommentReportVO = repo.findById(reportId)
-				.orElseThrow(() -> new RuntimeException("找不到該檢舉，編號：" + reportId));
-	
+	private void dismiss(ForumCommentReportVO forumCommentReportVO, String handleResult) {
 		forumCommentReportVO.setReportStatus(2);
 		forumCommentReportVO.setHandleResult(handleResult);
 		
 		repo.save(forumCommentReportVO);	
+		moderationCounter.evictAfterCommit();
 	}
 	
 }
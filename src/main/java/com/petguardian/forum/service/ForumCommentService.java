@@ -1,10 +1,21 @@
 package com.petguardian.forum.service;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.petguardian.common.blob.ImageBlobRef;
+import com.petguardian.forum.model.CommentNodeDTO;
+import com.petguardian.forum.model.CommentThreadDTO;
 import com.petguardian.forum.model.DeletedCommentDTO;
 import com.petguardian.forum.model.ForumCommentRepository;
 import com.petguardian.forum.model.ForumCommentVO;
@@ -15,13 +26,26 @@ import com.petguardian.member.model.Member;
 @Service
 public class ForumCommentService {
 
+	public static final int THREAD_PAGE_SIZE = 10;	// 每頁最上層留言數
+	public static final int REPLY_PREVIEW = 3;		// 每串預設顯示的回覆數
+
 	private final ForumCommentRepository repo;
 	private final ForumPostRepository postRepo;
+	private final ForumTrendingService trendingService;
+	private final ForumPostSearchService searchService;
+	private final ForumCommentTreeCache commentTreeCache;
+	private final ForumModerationCounter moderationCounter;
 	
-	public ForumCommentService(ForumCommentRepository repo, ForumPostRepository postRepo) {
+	public ForumCommentService(ForumCommentRepository repo, ForumPostRepository postRepo,
+			ForumTrendingService trendingService, ForumPostSearchService searchService,
+			ForumCommentTreeCache commentTreeCache, ForumModerationCounter moderationCounter) {
 		super();
 		this.repo = repo;
 		this.postRepo = postRepo;
+		this.trendingService = trendingService;
+		this.searchService = searchService;
+		this.commentTreeCache = commentTreeCache;
+		this.moderationCounter = moderationCounter;
 	}
 
 	@Transactional
@@ -39,6 +63,10 @@ public class ForumCommentService {
 			}
 		}
 		repo.save(forumCommentVO);	
+		searchService.refreshPostAfterCommit(forumCommentVO.getForumPost().getPostId());
+		commentTreeCache.evictAfterCommit(forumCommentVO.getForumPost().getPostId());
+		// 被檢舉的留言刪除後不再列在待處理佇列
+		moderationCounter.evictAfterCommit();
 	}
 	
 	public ForumCommentVO getOneComment(Integer commentId) {
@@ -51,6 +79,64 @@ public class ForumCommentService {
 		return repo.findCommentsByPostId(postId);
 	}
 
+	/**
+	 * 貼文頁留言串 (依最上層留言分頁)
+	 * 
+	 * 一次查詢取出整篇貼文的留言後在記憶體組成留言串，熱門貼文的組合結果會快取；
+	 * 每串只帶前 REPLY_PREVIEW 則回覆，expandCommentId 指定的那一串則帶出全部回覆。
+	 */
+	public Page<CommentThreadDTO> getCommentThreadPage(Integer postId, int page, Integer expandCommentId) {
+		List<CommentThreadDTO> threads = commentTreeCache.getThreads(postId,
+				() -> assembleThreads(repo.findCommentNodesByPostId(postId)));
+		
+		PageRequest pageable = PageRequest.of(Math.max(page, 0), THREAD_PAGE_SIZE);
+		int from = (int) Math.min(pageable.getOffset(), threads.size());
+		int to = Math.min(from + THREAD_PAGE_SIZE, threads.size());
+		List<CommentThreadDTO> content = new ArrayList<>(to - from);
+		for (CommentThreadDTO thread : threads.subList(from, to)) {
+			boolean expanded = thread.getComment().getCommentId().equals(expandCommentId);
+			content.add(expanded ? thread : thread.withReplyPreview(REPLY_PREVIEW));
+		}
+		return new PageImpl<>(content, pageable, threads.size());
+	}
+	
+	// 平鋪留言 (依編號排序) 組成留言串：最上層留言各自一串，其下各層回覆依深度優先攤平；
+	// 上層已不顯示 (刪除、下架) 的回覆不會被收進任何一串
+	static List<CommentThreadDTO> assembleThreads(List<CommentNodeDTO> nodes) {
+		Map<Integer, List<CommentNodeDTO>> children = new HashMap<>();
+		List<CommentNodeDTO> roots = new ArrayList<>();
+		for (CommentNodeDTO node : nodes) {
+			if (node.getParentCommentId() == null) {
+				roots.add(node);
+			} else {
+				children.computeIfAbsent(node.getParentCommentId(), id -> new ArrayList<>()).add(node);
+			}
+		}
+		
+		List<CommentThreadDTO> threads = new ArrayList<>(roots.size());
+		for (CommentNodeDTO root : roots) {
+			List<CommentNodeDTO> replies = new ArrayList<>();
+			Deque<CommentNodeDTO> stack = new ArrayDeque<>();
+			pushChildren(stack, children.get(root.getCommentId()));
+			while (!stack.isEmpty()) {
+				CommentNodeDTO reply = stack.pop();
+				replies.add(reply);
+				pushChildren(stack, children.get(reply.getCommentId()));
+			}
+			threads.add(new CommentThreadDTO(root, List.copyOf(replies), replies.size()));
+		}
+		return List.copyOf(threads);
+	}
+	
+	// 反向放入，讓編號小的回覆先取出
+	private static void pushChildren(Deque<CommentNodeDTO> stack, List<CommentNodeDTO> nodes) {
+		if (nodes != null) {
+			for (int i = nodes.size() - 1; i >= 0; i--) {
+				stack.push(nodes.get(i));
+			}
+		}
+	}
+
 	public List<ForumCommentVO> getAllCommentsByPostId(Integer postId) {
 		return repo.findAllCommentsByPostId(postId);
 	}
@@ -59,6 +145,10 @@ public class ForumCommentService {
 		return repo.findAllDeletedComments();
 	}
 	
+	public ImageBlobRef getCommentPicBlob(Integer commentId) {
+		return repo.getPicture(commentId);
+	}
+	
 	@Transactional
 	public void addCommentByPostId(String commentContent, Integer postId, Integer memId, Integer parentCommentId) {
 
@@ -80,6 +170,13 @@ public class ForumCommentService {
 		forumCommentVO.setMember(member);
 
 		repo.save(forumCommentVO);
+		
+		// 熱門排行：留言計入貼文與所屬討論區 (交易提交後)
+		Integer forumId = (forumPostVO.getForum() != null) ? forumPostVO.getForum().getForumId() : null;
+		trendingService.recordPostActivity(postId, forumId, ForumTrendingService.COMMENT_WEIGHT);
+		// 留言內容也納入貼文搜尋
+		searchService.refreshPostAfterCommit(postId);
+		commentTreeCache.evictAfterCommit(postId);
 
 	}
 	
@@ -97,6 +194,8 @@ public class ForumCommentService {
 		forumCommentVO.setMember(member);
 
 		repo.save(forumCommentVO);
+		searchService.refreshPostAfterCommit(forumCommentVO.getForumPost().getPostId());
+		commentTreeCache.evictAfterCommit(forumCommentVO.getForumPost().getPostId());
 		
 	}
 	
@@ -0,0 +1,79 @@
+package com.petguardian.forum.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+
+import com.petguardian.common.tx.AfterCommit;
+import com.petguardian.forum.model.CommentThreadDTO;
+
+/**
+ * 熱門貼文的留言串快取
+ *
+ * 只快取熱門排行中的貼文 (數量有上限)，快取整份組好的留言串 TTL_MILLIS；
+ * 留言新增、編輯、刪除或審核 (下架 / 恢復) 時於交易提交後清除該貼文。
+ * 載入期間若發生清除 (世代號改變)，載入結果不放入快取，避免把舊資料放回去。
+ * 會員名稱、頭像變更不主動清除，最多延遲 TTL_MILLIS 生效。
+ */
+@Component
+public class ForumCommentTreeCache {
+
+    static final long TTL_MILLIS = 60_000L;
+
+    private final Map<Integer, Entry> trees = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final ForumTrendingService trendingService;
+
+    public ForumCommentTreeCache(ForumTrendingService trendingService) {
+        super();
+        this.trendingService = trendingService;
+    }
+
+    public List<CommentThreadDTO> getThreads(Integer postId, Supplier<List<CommentThreadDTO>> loader) {
+        long now = System.currentTimeMillis();
+        Entry entry = trees.get(postId);
+        if (entry != null && entry.expiresAt > now) {
+            return entry.threads;
+        }
+        if (!trendingService.isTrendingPost(postId)) {
+            trees.remove(postId); // 已掉出熱門排行
+            return loader.get();
+        }
+        long loadedGeneration = generation.get();
+        List<CommentThreadDTO> threads = loader.get();
+        if (generation.get() == loadedGeneration) {
+            trees.put(postId, new Entry(threads, now + TTL_MILLIS));
+        }
+        return threads;
+    }
+
+    /**
+     * 交易提交後清除貼文的留言串
+     */
+    public void evictAfterCommit(Integer postId) {
+        Runnable action = () -> evict(postId);
+        AfterCommit.run(action);
+    }
+
+    void evict(Integer postId) {
+        generation.incrementAndGet();
+        if (postId != null) {
+            trees.remove(postId);
+        }
+    }
+
+    private static final class Entry {
+
+        final List<CommentThreadDTO> threads;
+        final long expiresAt;
+
+        Entry(List<CommentThreadDTO> threads, long expiresAt) {
+            this.threads = threads;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
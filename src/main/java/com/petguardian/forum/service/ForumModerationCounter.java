@@ -0,0 +1,90 @@
+package com.petguardian.forum.service;
+
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+
+import com.petguardian.common.tx.AfterCommit;
+import com.petguardian.forum.model.ForumCommentReportRepository;
+import com.petguardian.forum.model.ForumPostReportRepository;
+import com.petguardian.forum.model.ModerationQueueCounts;
+
+/**
+ * 討論區檢舉審核佇列筆數快取
+ *
+ * 貼文、留言各以一次彙總查詢算出待處理 / 已處理 / 已駁回筆數，快取 TTL_MILLIS；
+ * 佇列列表分頁時直接以這裡的筆數作為總數，不再另外 count。
+ * 檢舉新增、審核、恢復以及貼文 / 留言被刪除時於交易提交後清除。
+ */
+@Component
+public class ForumModerationCounter {
+
+    static final long TTL_MILLIS = 60_000L;
+
+    private final ForumPostReportRepository postReportRepo;
+    private final ForumCommentReportRepository commentReportRepo;
+
+    private final Slot posts = new Slot();
+    private final Slot comments = new Slot();
+
+    public ForumModerationCounter(ForumPostReportRepository postReportRepo,
+            ForumCommentReportRepository commentReportRepo) {
+        super();
+        this.postReportRepo = postReportRepo;
+        this.commentReportRepo = commentReportRepo;
+    }
+
+    public ModerationQueueCounts getPostCounts() {
+        return posts.get(postReportRepo::countQueues);
+    }
+
+    public ModerationQueueCounts getCommentCounts() {
+        return comments.get(commentReportRepo::countQueues);
+    }
+
+    /**
+     * 交易提交後清除所有筆數
+     */
+    public void evictAfterCommit() {
+        Runnable action = () -> {
+            posts.evict();
+            comments.evict();
+        };
+        AfterCommit.run(action);
+    }
+
+    /**
+     * 單一種類的筆數；載入期間若被清除 (世代號改變)，載入結果不放入快取
+     */
+    private static final class Slot {
+
+        private volatile ModerationQueueCounts counts;
+        private volatile long expiresAt;
+        private volatile long generation;
+
+        ModerationQueueCounts get(Supplier<ModerationQueueCounts> loader) {
+            ModerationQueueCounts current = counts;
+            long now = System.currentTimeMillis();
+            if (current != null && expiresAt > now) {
+                return current;
+            }
+            long loadedGeneration = generation;
+            ModerationQueueCounts loaded = loader.get();
+            if (loaded == null) {
+                loaded = ModerationQueueCounts.EMPTY;
+            }
+            synchronized (this) {
+                if (generation == loadedGeneration) {
+                    counts = loaded;
+                    expiresAt = now + TTL_MILLIS;
+                }
+            }
+            return loaded;
+        }
+
+        synchronized void evict() {
+            generation++;
+            counts = null;
+        }
+    }
+}
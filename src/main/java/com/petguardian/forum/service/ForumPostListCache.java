@@ -0,0 +1,74 @@
+package com.petguardian.forum.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.springframework.data.domain.Page;
+import org.springframework.stereotype.Component;
+
+import com.petguardian.common.tx.AfterCommit;
+import com.petguardian.forum.model.PostListItemDTO;
+
+/**
+ * 討論區貼文列表第一頁快取
+ *
+ * 熱門討論區的第一頁最常被開啟，快取 TTL_MILLIS；貼文新增、編輯、刪除、下架或恢復時於交易提交後清除。
+ * 載入期間若發生清除 (世代號改變)，載入結果不放入快取，避免把舊資料放回去。
+ * 瀏覽次數不在快取內更新，由呼叫端另外加上尚未寫回的增量。
+ */
+@Component
+public class ForumPostListCache {
+
+    static final long TTL_MILLIS = 30_000L;
+
+    private final Map<String, Entry> firstPages = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    public Page<PostListItemDTO> getFirstPage(Integer forumId, int size, Supplier<Page<PostListItemDTO>> loader) {
+        String key = forumId + ":" + size;
+        Entry entry = firstPages.get(key);
+        long now = System.currentTimeMillis();
+        if (entry != null && entry.expiresAt > now) {
+            return entry.page;
+        }
+        long loadedGeneration = generation.get();
+        Page<PostListItemDTO> page = loader.get();
+        if (generation.get() == loadedGeneration) {
+            firstPages.put(key, new Entry(page, now + TTL_MILLIS));
+        }
+        return page;
+    }
+
+    /**
+     * 交易提交後清除討論區的第一頁
+     *
+     * @param forumId null 代表全部清除 (不確定所屬討論區時)
+     */
+    public void evictAfterCommit(Integer forumId) {
+        Runnable action = () -> evict(forumId);
+        AfterCommit.run(action);
+    }
+
+    void evict(Integer forumId) {
+        generation.incrementAndGet();
+        if (forumId == null) {
+            firstPages.clear();
+        } else {
+            String prefix = forumId + ":";
+            firstPages.keySet().removeIf(key -> key.startsWith(prefix));
+        }
+    }
+
+    private static final class Entry {
+
+        final Page<PostListItemDTO> page;
+        final long expiresAt;
+
+        Entry(Page<PostListItemDTO> page, long expiresAt) {
+            this.page = page;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -4,6 +4,7 @@ import java.util.List;
 
 import org.springframework.stereotype.Service;
 
+import com.petguardian.common.blob.ImageBlobRef;
 import com.petguardian.forum.model.ForumPostPicsRepository;
 
 @Service
@@ -20,7 +21,7 @@ public class ForumPostPicsService {
 		return repo.findPicsIdByPostId(postId);
 	}
 	
-	public byte[] getPicByPicId(Integer picId) {
+	public ImageBlobRef getPicByPicId(Integer picId) {
 		return repo.findPicByPicId(picId);
 	}
 
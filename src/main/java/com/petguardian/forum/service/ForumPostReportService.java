@@ -2,15 +2,21 @@ package com.petguardian.forum.service;
 
 import java.util.List;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.petguardian.forum.model.ForumPostPicsRepository;
 import com.petguardian.forum.model.ForumPostReportRepository;
 import com.petguardian.forum.model.ForumPostReportVO;
 import com.petguardian.forum.model.ForumPostRepository;
 import com.petguardian.forum.model.ForumPostVO;
 import com.petguardian.forum.model.HandledPostDTO;
+import com.petguardian.forum.model.ModerationQueueCounts;
 import com.petguardian.forum.model.PostHandledResultDetailDTO;
+import com.petguardian.forum.model.PostModerationDetailDTO;
 import com.petguardian.forum.model.PendingPostDTO;
 import com.petguardian.forum.model.PostReviewDetailDTO;
 import com.petguardian.forum.model.RejectedPostDTO;
@@ -18,13 +24,25 @@ import com.petguardian.forum.model.RejectedPostDTO;
 @Service
 public class ForumPostReportService {
 	
+	public static final int QUEUE_PAGE_SIZE = 20;	// 審核佇列每頁筆數
+
 	private final ForumPostRepository postRepo;
 	private final ForumPostReportRepository repo;
+	private final ForumPostPicsRepository picRepo;
+	private final ForumPostListCache postListCache;
+	private final ForumPostSearchService searchService;
+	private final ForumModerationCounter moderationCounter;
 	
-	public ForumPostReportService(ForumPostRepository postRepo, ForumPostReportRepository repo) {
+	public ForumPostReportService(ForumPostRepository postRepo, ForumPostReportRepository repo,
+			ForumPostPicsRepository picRepo, ForumPostListCache postListCache,
+			ForumPostSearchService searchService, ForumModerationCounter moderationCounter) {
 		super();
 		this.postRepo = postRepo;
 		this.repo = repo;
+		this.picRepo = picRepo;
+		this.postListCache = postListCache;
+		this.searchService = searchService;
+		this.moderationCounter = moderationCounter;
 	}
 
 	@Transactional
@@ -34,11 +52,28 @@ public class ForumPostReportService {
 	
 		forumPostReportVO.setForumPost(forumPostVO);
 		repo.save(forumPostReportVO);
+		moderationCounter.evictAfterCommit();
 	
 	}
 	
-	public List<HandledPostDTO> getAllHandledPosts() {
-		return repo.findAllHandledPosts();
+	//	審核佇列 (分頁)：總筆數取自 ForumModerationCounter，不另外 count
+	public Page<HandledPostDTO> getHandledPostPage(int page) {
+		PageRequest pageable = PageRequest.of(Math.max(page, 0), QUEUE_PAGE_SIZE);
+		return new PageImpl<>(repo.findHandledPostQueue(pageable), pageable, getQueueCounts().getHandled());
+	}
+
+	public Page<PendingPostDTO> getPendingPostPage(int page) {
+		PageRequest pageable = PageRequest.of(Math.max(page, 0), QUEUE_PAGE_SIZE);
+		return new PageImpl<>(repo.findPendingPostQueue(pageable), pageable, getQueueCounts().getPending());
+	}
+
+	public Page<RejectedPostDTO> getRejectedPostPage(int page) {
+		PageRequest pageable = PageRequest.of(Math.max(page, 0), QUEUE_PAGE_SIZE);
+		return new PageImpl<>(repo.findRejectedPostQueue(pageable), pageable, getQueueCounts().getRejected());
+	}
+
+	public ModerationQueueCounts getQueueCounts() {
+		return moderationCounter.getPostCounts();
 	}
 	
 	@Transactional
@@ -57,14 +92,9 @@ public class ForumPostReportService {
 			repo.save(forumPostReportVO);
 		}
 		postRepo.save(forumPostVO);
-	}
-	
-	public List<PendingPostDTO> getAllPendingPosts() {
-		return repo.findAllPendingPosts();
-	}
-	
-	public List<RejectedPostDTO> getAllRejectedPosts() {
-		return repo.findAllRejectedPosts();
+		postListCache.evictAfterCommit(forumIdOf(forumPostVO));
+		searchService.refreshPostAfterCommit(postId);
+		moderationCounter.evictAfterCommit();
 	}
 	
 	public PostReviewDetailDTO getPostReviewDetailToHandle(Integer reportId) {
@@ -74,6 +104,22 @@ public class ForumPostReportService {
 	public PostHandledResultDetailDTO getPostHandledResultDetailToDisplay(Integer reportId) {
 		return repo.postHandledResultDetailToDisplay(reportId);
 	}
+
+	/**
+	 * 審核頁資料：檢舉內容、貼文圖片編號 (以及已處理的結果) 一次組好
+	 *
+	 * @param withResult 是否帶處理結果 (待處理的檢舉沒有)
+	 */
+	@Transactional(readOnly = true)
+	public PostModerationDetailDTO getModerationDetail(Integer reportId, boolean withResult) {
+		PostReviewDetailDTO review = repo.postReviewDetailToHandle(reportId);
+		if (review == null) {
+			throw new RuntimeException("找不到該檢舉，編號：" + reportId);
+		}
+		PostHandledResultDetailDTO handledResult = withResult ? repo.postHandledResultDetailToDisplay(reportId) : null;
+		List<Integer> picsId = picRepo.findPicsIdByPostId(review.getPostId());
+		return new PostModerationDetailDTO(review, handledResult, picsId);
+	}
 	
 	@Transactional
 	public void updateHandleResult(Integer reportId, Integer postId, String handleResult) {
@@ -84,24 +130,65 @@ public class ForumPostReportService {
 		ForumPostReportVO forumPostReportVO = repo.findById(reportId)
 				.orElseThrow(() -> new RuntimeException("找不到該檢舉，編號：" + reportId));
 		
+		takeDown(forumPostVO, forumPostReportVO, handleResult);
+	}
+
+	@Transactional
+	public void dismissPostReport(Integer reportId, String handleResult) {
+
+		ForumPostReportVO forumPostReportVO = repo.findById(reportId)
+				.orElseThrow(() -> new RuntimeException("找不到該檢舉，編號：" + reportId));
+
+		dismiss(forumPostReportVO, handleResult);
+	}
+
+	/**
+	 * 批次審核：勾選的待處理檢舉全部下架貼文或全部駁回，在同一個交易內完成
+	 *
+	 * 已不是待處理的檢舉 (例如別的管理員剛處理過) 會略過
+	 *
+	 * @return 實際處理的檢舉數
+	 */
+	@Transactional
+	public int bulkHandle(List<Integer> reportIds, boolean takeDown, String handleResult) {
+		int handled = 0;
+		for (ForumPostReportVO forumPostReportVO : repo.findAllById(reportIds)) {
+			if (forumPostReportVO.getReportStatus() == null || forumPostReportVO.getReportStatus() != 0) {
+				continue;
+			}
+			if (takeDown) {
+				takeDown(forumPostReportVO.getForumPost(), forumPostReportVO, handleResult);
+			} else {
+				dismiss(forumPostReportVO, handleResult);
+			}
+			handled++;
+		}
+		return handled;
+	}
+
+	private void takeDown(ForumPostVO forumPostVO, ForumPostReportVO forumPostReportVO, String handleResult) {
 		forumPostVO.setPostStatus(0);
 		forumPostReportVO.setReportStatus(1);
 		forumPostReportVO.setHandleResult(handleResult);
 		forumPostReportVO.setForumPost(forumPostVO);
 		
 		repo.save(forumPostReportVO);
+		// 貼文下架，列表快取與搜尋索引一併更新
+		postListCache.evictAfterCommit(forumIdOf(forumPostVO));
+		searchService.refreshPostAfterCommit(forumPostVO.getPostId());
+		moderationCounter.evictAfterCommit();
 	}
 	
-	@Transactional
-	public void dismissPostReport(Integer reportId, String handleResult) {
-		
-		ForumPostReportVO forumPostReportVO = repo.findById(reportId)
-				.orElseThrow(() -> new RuntimeException("找不到該檢舉，編號：" + reportId));
-		
+	private void dismiss(ForumPostReportVO forumPostReportVO, String handleResult) {
 		forumPostReportVO.setReportStatus(2);
 		forumPostReportVO.setHandleResult(handleResult);
 		
 		repo.save(forumPostReportVO);
+		moderationCounter.evictAfterCommit();
+	}
+	
+	private static Integer forumIdOf(ForumPostVO forumPostVO) {
+		return (forumPostVO.getForum() != null) ? forumPostVO.getForum().getForumId() : null;
 	}
 	
 }
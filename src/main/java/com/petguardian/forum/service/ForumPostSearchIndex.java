@@ -0,0 +1,244 @@
+package com.petguardian.forum.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Component;
+
+import com.petguardian.forum.model.ForumPostSearchDoc;
+
+/**
+ * 討論區貼文倒排索引（記憶體）
+ *
+ * 分成兩部分，讀取都不加鎖：
+ * - 主索引 (Segment)：整批建立後不再修改，每個詞對應已排序的貼文編號 int[]，依欄位 (標題 / 內文 / 留言) 分開
+ * - 增量：建立後新增或修改的貼文放在 delta (保留切詞結果)，主索引中的舊版本以 deleted 遮蔽
+ *
+ * 寫入 (單筆更新、整批替換) 以 synchronized 串行化；增量累積到一定數量時由 ForumPostSearchService 重建主索引。
+ */
+@Component
+public class ForumPostSearchIndex {
+
+    // 欄位權重：標題命中最重要，留言最低
+    static final double[] FIELD_WEIGHTS = { 3.0, 1.0, 0.5 };
+
+    private volatile Segment main = Segment.EMPTY;
+    private final Map<Integer, ForumPostSearchDoc> delta = new ConcurrentHashMap<>();
+    private final Set<Integer> deleted = ConcurrentHashMap.newKeySet();
+    private volatile boolean ready;
+
+    /**
+     * 搜尋結果：貼文編號 + 相關度
+     */
+    public record Hit(int postId, double score) {
+    }
+
+    /**
+     * 以新建好的主索引整批取代 (增量一併清空)
+     */
+    public synchronized void replaceAll(Segment segment) {
+        this.main = segment;
+        this.delta.clear();
+        this.deleted.clear();
+        this.ready = true;
+    }
+
+    /**
+     * 新增或更新單一貼文
+     */
+    public synchronized void upsert(ForumPostSearchDoc doc) {
+        delta.put(doc.getPostId(), doc);
+        if (main.contains(doc.getPostId())) {
+            deleted.add(doc.getPostId());
+        }
+    }
+
+    /**
+     * 自索引移除貼文 (下架、刪除)
+     */
+    public synchronized void remove(int postId) {
+        delta.remove(postId);
+        if (main.contains(postId)) {
+            deleted.add(postId);
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int deltaSize() {
+        return delta.size() + deleted.size();
+    }
+
+    public int size() {
+        return main.docIds.length - deleted.size() + delta.size();
+    }
+
+    /**
+     * 找出包含所有查詢詞的貼文並計算相關度 (未排序)
+     *
+     * 相關度 = Σ 查詢詞 idf × 命中欄位權重；idf 以主索引的文件頻率估算，常見詞的影響較小
+     *
+     * @param forumId null 代表不限討論區
+     */
+    public List<Hit> search(Set<String> tokens, Integer forumId) {
+        List<Hit> hits = new ArrayList<>();
+        if (tokens.isEmpty()) {
+            return hits;
+        }
+        Segment segment = this.main;
+        int totalDocs = Math.max(segment.docIds.length + delta.size(), 1);
+
+        // 主索引：各詞 (任一欄位) 的貼文集合取交集
+        Map<String, Double> idf = new HashMap<>();
+        BitSet matched = null;
+        for (String token : tokens) {
+            BitSet bits = new BitSet();
+            for (int field = 0; field < ForumPostSearchDoc.FIELD_COUNT; field++) {
+                int[] ids = segment.postings[field].get(token);
+                if (ids != null) {
+                    for (int id : ids) {
+                        bits.set(id);
+                    }
+                }
+            }
+            idf.put(token, Math.log(1.0 + (double) totalDocs / (bits.cardinality() + 1)));
+            if (matched == null) {
+                matched = bits;
+            } else {
+                matched.and(bits);
+            }
+        }
+
+        for (int id = matched.nextSetBit(0); id >= 0; id = matched.nextSetBit(id + 1)) {
+            if (deleted.contains(id) || delta.containsKey(id)) {
+                continue; // 已有新版本或已移除
+            }
+            int index = Arrays.binarySearch(segment.docIds, id);
+            if (index < 0 || (forumId != null && segment.forumIds[index] != forumId)) {
+                continue;
+            }
+            double score = 0;
+            for (String token : tokens) {
+                for (int field = 0; field < ForumPostSearchDoc.FIELD_COUNT; field++) {
+                    int[] ids = segment.postings[field].get(token);
+                    if (ids != null && Arrays.binarySearch(ids, id) >= 0) {
+                        score += idf.get(token) * FIELD_WEIGHTS[field];
+                    }
+                }
+            }
+            hits.add(new Hit(id, score));
+        }
+
+        // 增量：數量少，逐筆比對
+        for (ForumPostSearchDoc doc : delta.values()) {
+            if (forumId != null && doc.getForumId() != forumId) {
+                continue;
+            }
+            double score = 0;
+            boolean all = true;
+            for (String token : tokens) {
+                if (!doc.contains(token)) {
+                    all = false;
+                    break;
+                }
+                for (int field = 0; field < ForumPostSearchDoc.FIELD_COUNT; field++) {
+                    if (doc.getTokens(field).contains(token)) {
+                        score += idf.get(token) * FIELD_WEIGHTS[field];
+                    }
+                }
+            }
+            if (all) {
+                hits.add(new Hit(doc.getPostId(), score));
+            }
+        }
+        return hits;
+    }
+
+    /**
+     * 主索引 (不可變)
+     */
+    public static final class Segment {
+
+        static final Segment EMPTY = new Builder().build();
+
+        final int[] docIds;   // 已排序
+        final int[] forumIds; // 與 docIds 對應
+        final Map<String, int[]>[] postings;
+
+        private Segment(int[] docIds, int[] forumIds, Map<String, int[]>[] postings) {
+            this.docIds = docIds;
+            this.forumIds = forumIds;
+            this.postings = postings;
+        }
+
+        boolean contains(int postId) {
+            return Arrays.binarySearch(docIds, postId) >= 0;
+        }
+    }
+
+    /**
+     * 建立主索引：文件須依貼文編號由小到大加入，倒排表自然有序，不需排序
+     */
+    public static final class Builder {
+
+        private final IntList docIds = new IntList();
+        private final IntList forumIds = new IntList();
+        @SuppressWarnings("unchecked")
+        private final Map<String, IntList>[] postings = new Map[ForumPostSearchDoc.FIELD_COUNT];
+
+        public Builder() {
+            for (int field = 0; field < postings.length; field++) {
+                postings[field] = new HashMap<>();
+            }
+        }
+
+        public void add(ForumPostSearchDoc doc) {
+            if (docIds.size > 0 && doc.getPostId() <= docIds.values[docIds.size - 1]) {
+                throw new IllegalArgumentException("Posts must be added in ascending postId order");
+            }
+            docIds.add(doc.getPostId());
+            forumIds.add(doc.getForumId());
+            for (int field = 0; field < postings.length; field++) {
+                for (String token : doc.getTokens(field)) {
+                    postings[field].computeIfAbsent(token, key -> new IntList()).add(doc.getPostId());
+                }
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        public Segment build() {
+            Map<String, int[]>[] frozen = new Map[postings.length];
+            for (int field = 0; field < postings.length; field++) {
+                Map<String, int[]> map = new HashMap<>(postings[field].size() * 2);
+                postings[field].forEach((token, ids) -> map.put(token, ids.toArray()));
+                frozen[field] = map;
+            }
+            return new Segment(docIds.toArray(), forumIds.toArray(), frozen);
+        }
+    }
+
+    private static final class IntList {
+
+        int[] values = new int[4];
+        int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
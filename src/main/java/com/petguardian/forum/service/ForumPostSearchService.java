@@ -0,0 +1,274 @@
+package com.petguardian.forum.service;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.util.HtmlUtils;
+
+import com.petguardian.common.tx.AfterCommit;
+import com.petguardian.common.util.CjkBigramTokenizer;
+import com.petguardian.forum.model.ForumPostRepository;
+import com.petguardian.forum.model.ForumPostSearchDoc;
+import com.petguardian.forum.model.PostListItemDTO;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 討論區貼文全文搜尋
+ *
+ * - 啟動後於背景依主鍵分批讀出上架中的貼文與留言，建立 ForumPostSearchIndex；建立完成前搜尋改用原本的 LIKE 查詢
+ * - 貼文新增 / 編輯 / 刪除 / 下架 / 恢復與留言異動時，於交易提交後重新讀取該貼文並更新索引
+ * - 增量累積超過 MAX_DELTA 筆時重建主索引 (每 10 分鐘檢查)；重建期間異動的貼文在替換後重新套用
+ * - 查詢結果依相關度、同分依貼文編號由新到舊排序；只讀取當頁貼文的標題與內文，產生含 <mark> 標示的摘要
+ */
+@Slf4j
+@Service
+public class ForumPostSearchService {
+
+    static final int CHUNK_SIZE = 1000;
+    static final int MAX_DELTA = 5000;
+    static final int SNIPPET_LENGTH = 120;
+    static final int SNIPPET_LEAD = 30; // 摘要從第一個命中處往前保留的字數
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ForumPostRepository postRepo;
+    private final ForumPostSearchIndex index;
+
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    // 重建期間異動的貼文，替換主索引後重新套用
+    private final Set<Integer> touchedDuringRebuild = ConcurrentHashMap.newKeySet();
+
+    public ForumPostSearchService(JdbcTemplate jdbcTemplate, ForumPostRepository postRepo,
+            ForumPostSearchIndex index) {
+        super();
+        this.jdbcTemplate = jdbcTemplate;
+        this.postRepo = postRepo;
+        this.index = index;
+    }
+
+    // ==================== 索引建立 ====================
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        Thread thread = new Thread(this::rebuildIndex, "forum-search-index");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Scheduled(fixedDelay = 600000, initialDelay = 600000) // 每 10 分鐘
+    public void compactIfNeeded() {
+        if (index.deltaSize() > MAX_DELTA) {
+            rebuildIndex();
+        }
+    }
+
+    /**
+     * 依主鍵分批讀取上架中的貼文與其留言，建立新的主索引後一次替換
+     */
+    public void rebuildIndex() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        try {
+            touchedDuringRebuild.clear();
+            ForumPostSearchIndex.Builder builder = new ForumPostSearchIndex.Builder();
+            int lastId = 0;
+            int total = 0;
+            while (true) {
+                List<ForumPostSearchDoc> chunk = loadChunk(lastId);
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                for (ForumPostSearchDoc doc : chunk) {
+                    builder.add(doc);
+                }
+                lastId = chunk.get(chunk.size() - 1).getPostId();
+                total += chunk.size();
+            }
+            index.replaceAll(builder.build());
+
+            List<Integer> touched = new ArrayList<>(touchedDuringRebuild);
+            touchedDuringRebuild.clear();
+            touched.forEach(this::refreshPost);
+            log.info("[ForumSearch] Index built: {} posts in {} ms ({} replayed)", total,
+                    System.currentTimeMillis() - start, touched.size());
+        } catch (RuntimeException e) {
+            log.error("[ForumSearch] Index build failed: {}", e.getMessage());
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    private List<ForumPostSearchDoc> loadChunk(int afterId) {
+        List<Object[]> posts = jdbcTemplate.query(
+                "SELECT post_id, forum_id, post_title, post_content FROM forumpost"
+                        + " WHERE post_status = 1 AND post_id > ? ORDER BY post_id LIMIT ?",
+                (rs, rowNum) -> new Object[] { rs.getInt(1), rs.getInt(2), rs.getString(3), rs.getString(4) },
+                afterId, CHUNK_SIZE);
+        if (posts.isEmpty()) {
+            return List.of();
+        }
+        int fromId = (Integer) posts.get(0)[0];
+        int toId = (Integer) posts.get(posts.size() - 1)[0];
+        Map<Integer, List<String>> comments = new HashMap<>();
+        jdbcTemplate.query(
+                "SELECT post_id, comment_content FROM forumpostcomment"
+                        + " WHERE comment_status = 1 AND post_id BETWEEN ? AND ?",
+                rs -> {
+                    comments.computeIfAbsent(rs.getInt(1), id -> new ArrayList<>()).add(rs.getString(2));
+                }, fromId, toId);
+
+        List<ForumPostSearchDoc> docs = new ArrayList<>(posts.size());
+        for (Object[] row : posts) {
+            int postId = (Integer) row[0];
+            docs.add(new ForumPostSearchDoc(postId, (Integer) row[1], (String) row[2], (String) row[3],
+                    comments.get(postId)));
+        }
+        return docs;
+    }
+
+    // ==================== 增量更新 ====================
+
+    /**
+     * 交易提交後重新讀取貼文 (含留言) 更新索引；已下架或刪除的貼文自索引移除
+     */
+    public void refreshPostAfterCommit(Integer postId) {
+        if (postId == null) {
+            return;
+        }
+        Runnable action = () -> {
+            try {
+                refreshPost(postId);
+            } catch (RuntimeException e) {
+                log.warn("[ForumSearch] Failed to refresh post {}: {}", postId, e.getMessage());
+            }
+        };
+        AfterCommit.run(action);
+    }
+
+    void refreshPost(int postId) {
+        if (rebuilding.get()) {
+            touchedDuringRebuild.add(postId);
+        }
+        List<Object[]> rows = jdbcTemplate.query(
+                "SELECT forum_id, post_title, post_content FROM forumpost WHERE post_id = ? AND post_status = 1",
+                (rs, rowNum) -> new Object[] { rs.getInt(1), rs.getString(2), rs.getString(3) }, postId);
+        if (rows.isEmpty()) {
+            index.remove(postId);
+            return;
+        }
+        List<String> comments = jdbcTemplate.queryForList(
+                "SELECT comment_content FROM forumpostcomment WHERE post_id = ? AND comment_status = 1",
+                String.class, postId);
+        Object[] row = rows.get(0);
+        index.upsert(new ForumPostSearchDoc(postId, (Integer) row[0], (String) row[1], (String) row[2], comments));
+    }
+
+    // ==================== 查詢 ====================
+
+    /**
+     * 搜尋討論區內的貼文 (依相關度排序、分頁)，摘要含命中標示
+     */
+    public Page<PostListItemDTO> search(String keyword, Integer forumId, int page, int size) {
+        PageRequest pageable = PageRequest.of(page, size, Sort.by("postId").descending());
+        if (!index.isReady()) {
+            // 索引尚未建立完成
+            return postRepo.findPostListItemsByKeyword(keyword, forumId, pageable);
+        }
+        Set<String> tokens = CjkBigramTokenizer.tokenizeForQuery(keyword);
+        List<ForumPostSearchIndex.Hit> hits = index.search(tokens, forumId);
+        hits.sort(Comparator.comparingDouble(ForumPostSearchIndex.Hit::score).reversed()
+                .thenComparing(Comparator.comparingInt(ForumPostSearchIndex.Hit::postId).reversed()));
+
+        int from = (int) Math.min((long) page * size, hits.size());
+        int to = Math.min(from + size, hits.size());
+        List<Integer> pageIds = hits.subList(from, to).stream()
+                .map(ForumPostSearchIndex.Hit::postId)
+                .collect(Collectors.toList());
+        return new PageImpl<>(loadItems(pageIds, tokens), pageable, hits.size());
+    }
+
+    private List<PostListItemDTO> loadItems(List<Integer> postIds, Set<String> tokens) {
+        if (postIds.isEmpty()) {
+            return List.of();
+        }
+        Map<Integer, PostListItemDTO> byId = new HashMap<>();
+        for (Object[] row : postRepo.findSearchRowsByPostIds(postIds)) {
+            String content = (String) row[2];
+            PostListItemDTO item = new PostListItemDTO((Integer) row[0], (String) row[1],
+                    preview(content), (Integer) row[3], (Timestamp) row[4]);
+            item.setPostSnippet(snippet(content, tokens));
+            byId.put(item.getPostId(), item);
+        }
+        return postIds.stream().map(byId::get).filter(item -> item != null).collect(Collectors.toList());
+    }
+
+    private static String preview(String content) {
+        if (content == null) {
+            return null;
+        }
+        return content.length() <= PostListItemDTO.PREVIEW_LENGTH ? content
+                : content.substring(0, PostListItemDTO.PREVIEW_LENGTH);
+    }
+
+    /**
+     * 摘要：從第一個命中處附近截取 SNIPPET_LENGTH 字，命中的字以 <mark> 標示，其餘內容先做 HTML 跳脫
+     */
+    static String snippet(String content, Set<String> tokens) {
+        if (content == null || content.isEmpty()) {
+            return "";
+        }
+        String lower = content.toLowerCase(Locale.ROOT);
+        boolean[] marked = new boolean[content.length()];
+        int first = -1;
+        if (lower.length() == content.length()) {
+            for (String token : tokens) {
+                int at = lower.indexOf(token);
+                while (at >= 0) {
+                    Arrays.fill(marked, at, at + token.length(), true);
+                    first = (first < 0) ? at : Math.min(first, at);
+                    at = lower.indexOf(token, at + 1);
+                }
+            }
+        }
+        int start = (first < 0) ? 0 : Math.max(0, first - SNIPPET_LEAD);
+        int end = Math.min(content.length(), start + SNIPPET_LENGTH);
+
+        StringBuilder html = new StringBuilder();
+        if (start > 0) {
+            html.append("…");
+        }
+        int run = start;
+        for (int i = start; i <= end; i++) {
+            if (i == end || (i > run && marked[i] != marked[run])) {
+                String text = HtmlUtils.htmlEscape(content.substring(run, i));
+                html.append(marked[run] ? "<mark>" + text + "</mark>" : text);
+                run = i;
+            }
+        }
+        if (end < content.length()) {
+            html.append("…");
+        }
+        return html.toString();
+    }
+}
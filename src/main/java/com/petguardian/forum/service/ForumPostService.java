@@ -13,35 +13,54 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
+import com.petguardian.common.blob.ImageBlobRef;
+import com.petguardian.common.blob.ImageBlobService;
 import com.petguardian.forum.model.DeletedPostDTO;
 import com.petguardian.forum.model.ForumPostPicsRepository;
 import com.petguardian.forum.model.ForumPostPicsVO;
 import com.petguardian.forum.model.ForumPostRepository;
 import com.petguardian.forum.model.ForumPostVO;
+import com.petguardian.forum.model.PostListItemDTO;
 import com.petguardian.member.model.Member;
 import com.petguardian.member.repository.management.MemberManagementRepository;
 
 @Service
 public class ForumPostService {
 	
+	public static final long MAX_PIC_BYTES = 1 * 1024 * 1024; // 貼文單張圖片大小上限
+	
 	private final ForumPostRepository repo;	
 	private final ForumPostPicsRepository picRepo;
 	private final MemberManagementRepository memRepo;
+	private final ImageBlobService imageBlobService;
+	private final ForumTrendingService trendingService;
+	private final ForumPostListCache postListCache;
+	private final ForumPostSearchService searchService;
+	private final ForumModerationCounter moderationCounter;
 	
 	public ForumPostService(ForumPostRepository repo, ForumPostPicsRepository picRepo,
-			MemberManagementRepository memRepo) {
+			MemberManagementRepository memRepo, ImageBlobService imageBlobService,
+			ForumTrendingService trendingService, ForumPostListCache postListCache,
+			ForumPostSearchService searchService, ForumModerationCounter moderationCounter) {
 		super();
 		this.repo = repo;
 		this.picRepo = picRepo;
 		this.memRepo = memRepo;
+		this.imageBlobService = imageBlobService;
+		this.trendingService = trendingService;
+		this.postListCache = postListCache;
+		this.searchService = searchService;
+		this.moderationCounter = moderationCounter;
 	}
 
 	public void addPost(ForumPostVO forumPostVO) {
 		repo.save(forumPostVO);
+		postListCache.evictAfterCommit(forumIdOf(forumPostVO));
+		searchService.refreshPostAfterCommit(forumPostVO.getPostId());
 	}
 	
 	 			   // 開啟交易，確保文章跟圖片要一起成功commit，或一起失敗rollback，
-	@Transactional // 避免髒資料，有文章沒圖片或有圖片卻沒有所屬的文章。
+	@Transactional(rollbackFor = IOException.class) // 避免髒資料，有文章沒圖片或有圖片卻沒有所屬的文章。
 	public void addPostWithPics(ForumPostVO forumPostVO, MultipartFile[] postPics) throws IOException {
 		// 1. 先儲存主貼文 (這是為了拿到 DB 自動產生的 postId)
 		repo.save(forumPostVO);
@@ -49,15 +68,19 @@ public class ForumPostService {
 			// 每一張圖都要 new 一個新的物件
             ForumPostPicsVO forumPostPicsVO = new ForumPostPicsVO();
             forumPostPicsVO.setForumPost(forumPostVO); // 重點：設定關聯 (外鍵) = 對到哪篇文章
-            byte[] pic = postPic.getBytes();
-            forumPostPicsVO.setPic(pic);
+            // 圖片串流寫入 BlobStore，資料表只存參照
+            forumPostPicsVO.setPicBlob(imageBlobService.store(postPic, MAX_PIC_BYTES));
             // 儲存到 (forumpostpicture) 表格
             picRepo.save(forumPostPicsVO);
 		}
+		postListCache.evictAfterCommit(forumIdOf(forumPostVO));
+		searchService.refreshPostAfterCommit(forumPostVO.getPostId());
 	}
 	
 	public void updatePost(ForumPostVO forumPostVO) {		
 		repo.save(forumPostVO);
+		postListCache.evictAfterCommit(forumIdOf(forumPostVO));
+		searchService.refreshPostAfterCommit(forumPostVO.getPostId());
 	}
 	
 //	@Transactional
@@ -79,10 +102,12 @@ public class ForumPostService {
 //		}
 //	}
 	
-	@Transactional
+	@Transactional(rollbackFor = IOException.class) // 圖片檢查不通過 (InvalidImageException) 時整筆 rollback
 	public void updatePostWithDeletedPicsId(ForumPostVO forumPostVO, MultipartFile[] postPics, List<Integer> deletedPicsId) throws IOException {
 		
 		repo.save(forumPostVO);
+		postListCache.evictAfterCommit(forumIdOf(forumPostVO));
+		searchService.refreshPostAfterCommit(forumPostVO.getPostId());
 		
 		if(deletedPicsId != null && !deletedPicsId.isEmpty()) {
 			deletedPicsId.stream()
@@ -97,8 +122,7 @@ public class ForumPostService {
 				if(!postPic.isEmpty()) {
 					ForumPostPicsVO forumPostPicsVO = new ForumPostPicsVO();
 					forumPostPicsVO.setForumPost(forumPostVO);
-					byte[] pic = postPic.getBytes();
-				    forumPostPicsVO.setPic(pic);
+				    forumPostPicsVO.setPicBlob(imageBlobService.store(postPic, MAX_PIC_BYTES));
 				    picRepo.save(forumPostPicsVO);
 				}
 			}
@@ -111,6 +135,10 @@ public class ForumPostService {
 				.orElseThrow(() -> new RuntimeException("找不到該貼文，編號：" + postId));
 		forumPostVO.setPostStatus(2);
 		repo.save(forumPostVO);
+		postListCache.evictAfterCommit(forumIdOf(forumPostVO));
+		searchService.refreshPostAfterCommit(forumPostVO.getPostId());
+		// 被檢舉的貼文刪除後不再列在待處理佇列
+		moderationCounter.evictAfterCommit();
 	}
 	
 	public ForumPostVO getOnePost(Integer postId) {
@@ -142,8 +170,8 @@ public class ForumPostService {
 		return repo.findAll();
 	}
 	
-	public ForumPostVO getOnePostWithCommentAndMember(Integer postId) {
-		return repo.findOnePostWithCommentAndMember(postId);
+	public ForumPostVO getOnePostWithMember(Integer postId) {
+		return repo.findOnePostWithMember(postId);
 	}
 	
 	public List<ForumPostVO> getAllActiveByForumId(Integer forumId){
@@ -160,6 +188,15 @@ public class ForumPostService {
 		return repo.findByKeyword(keyword, forumId, pageable);
 	}
 	
+	// 列表頁：只查列表欄位；第一頁由 ForumPostListCache 短暫快取
+	public Page<PostListItemDTO> getActivePostListPage(Integer forumId, int page, int size){
+		PageRequest pageable = PageRequest.of(page, size, Sort.by("postId").descending());
+		if (page == 0) {
+			return postListCache.getFirstPage(forumId, size, () -> repo.findPostListItemsByForumId(forumId, pageable));
+		}
+		return repo.findPostListItemsByForumId(forumId, pageable);
+	}
+	
 	public List<DeletedPostDTO> getAllDeletedPosts(){
 		return repo.findAllDeletedPosts();
 	}
@@ -182,6 +219,8 @@ public class ForumPostService {
 		
 		posts.remove(forumPostVO);
 		members.remove(member);
+		
+		// 熱門排行不扣分：原本的收藏在較舊、已衰減的 bucket，扣在目前 bucket 會讓分數變成負的
 	
 	}
 	
@@ -197,12 +236,21 @@ public class ForumPostService {
 		Set<Member> members = forumPostVO.getMembers();
 		Set<ForumPostVO> posts = member.getPostCollections();
 		
-		posts.add(forumPostVO);
+		boolean changed = posts.add(forumPostVO);
 		members.add(member);
+		
+		// 熱門排行：收藏計入貼文與所屬討論區 (交易提交後)
+		if (changed) {
+			trendingService.recordPostActivity(postId, forumIdOf(forumPostVO), ForumTrendingService.COLLECT_WEIGHT);
+		}
+	
+	}
 	
+	private static Integer forumIdOf(ForumPostVO forumPostVO) {
+		return (forumPostVO.getForum() != null) ? forumPostVO.getForum().getForumId() : null;
 	}
 	
-	public byte[] getPostPic(Integer postId) {
+	public ImageBlobRef getPostPicBlob(Integer postId) {
 		return repo.getPicture(postId);
 	}
 	
@@ -6,12 +6,15 @@ import java.util.stream.Collectors;
 
 import org.springframework.stereotype.Service;
 
+import com.petguardian.common.blob.ImageBlobRef;
 import com.petguardian.forum.model.ForumRepository;
 import com.petguardian.forum.model.ForumVO;
 
 @Service
 public class ForumService {
 	
+	public static final long MAX_PIC_BYTES = 1 * 1024 * 1024; // 討論區圖片大小上限
+	
 	private final ForumRepository repository;
 	
 	public ForumService(ForumRepository repository) {
@@ -65,7 +68,7 @@ public class ForumService {
 				.collect(Collectors.toList());
 	}
 	
-	public byte[] getForumPic(Integer forumId){
+	public ImageBlobRef getForumPicBlob(Integer forumId){
 		return repository.getPicture(forumId);
 	}
 	
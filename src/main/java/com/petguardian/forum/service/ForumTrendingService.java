@@ -0,0 +1,256 @@
+package com.petguardian.forum.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.zset.Aggregate;
+import org.springframework.data.redis.connection.zset.Tuple;
+import org.springframework.data.redis.connection.zset.Weights;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.petguardian.common.tx.AfterCommit;
+import com.petguardian.forum.model.ForumPostRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 討論區 / 貼文熱門排行 (依時間衰減)
+ *
+ * - 互動依權重累加到「每小時」的 Redis ZSET (瀏覽 1、收藏 4、留言 5)，bucket 以 epoch 小時編號，保留 WINDOW_HOURS 小時；
+ *   只記正向互動 (取消收藏不扣分)，衰減後分數不會低於從未互動的貼文
+ * - 每 5 分鐘以 ZUNIONSTORE 合併最近 WINDOW_HOURS 個 bucket 到暫存 key，權重 0.5^(經過小時數 / HALF_LIFE_HOURS)，
+ *   舊互動的分數逐漸消失，熱門榜會隨時間更替；只取回分數最高的 MAX_CANDIDATES 筆，不把整份合併結果搬回來
+ * - 合併結果依分數、再依編號排序 (同分時順序固定)，各伺服器讀同一份 bucket，排行一致
+ * - 貼文排行另依所屬討論區分組，只保留上架中的貼文 (候選數已遠多於 TOP_POSTS，下架的貼文由多取的部分補上)；
+ *   結果整份放在記憶體，頁面直接讀取
+ */
+@Slf4j
+@Service
+public class ForumTrendingService {
+
+    static final int WINDOW_HOURS = 48;
+    static final double HALF_LIFE_HOURS = 12.0;
+    static final int TOP_POSTS = 20;   // 全站與各討論區各保留的貼文數
+    static final int TOP_FORUMS = 20;
+    static final int MAX_CANDIDATES = 1000; // 每次刷新最多取回的候選數（也是查詢上架狀態的 IN 上限）
+
+    public static final double VIEW_WEIGHT = 1;
+    public static final double COLLECT_WEIGHT = 4;
+    public static final double COMMENT_WEIGHT = 5;
+
+    private static final String POST_BUCKET_PREFIX = "trend:post:";
+    private static final String FORUM_BUCKET_PREFIX = "trend:forum:";
+    private static final String UNION_KEY_SUFFIX = "union:"; // 合併暫存 key，各伺服器各自一個
+    private static final long UNION_TTL_SECONDS = 60;
+    private static final long HOUR_MILLIS = 3600_000L;
+
+    private final StringRedisTemplate redisTemplate;
+    private final ForumPostRepository postRepo;
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    public ForumTrendingService(StringRedisTemplate redisTemplate, ForumPostRepository postRepo) {
+        super();
+        this.redisTemplate = redisTemplate;
+        this.postRepo = postRepo;
+    }
+
+    public static String currentPostBucket() {
+        return POST_BUCKET_PREFIX + currentHour();
+    }
+
+    public static String currentForumBucket() {
+        return FORUM_BUCKET_PREFIX + currentHour();
+    }
+
+    // bucket 保留到滑出計算範圍為止
+    public static long bucketTtlSeconds() {
+        return (WINDOW_HOURS + 1) * 3600L;
+    }
+
+    /**
+     * 記錄貼文互動 (留言、收藏)；交易中呼叫時於提交後才計分
+     *
+     * @param forumId 貼文所屬討論區，同時計入討論區熱度；不明時傳 null
+     * @param weight  必須為正數，負數或 0 直接忽略
+     */
+    public void recordPostActivity(Integer postId, Integer forumId, double weight) {
+        if (postId == null || weight <= 0) {
+            return;
+        }
+        Runnable action = () -> {
+            try {
+                redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                    byte[] postBucket = bytes(currentPostBucket());
+                    connection.zSetCommands().zIncrBy(postBucket, weight, bytes(String.valueOf(postId)));
+                    connection.keyCommands().expire(postBucket, bucketTtlSeconds());
+                    if (forumId != null) {
+                        byte[] forumBucket = bytes(currentForumBucket());
+                        connection.zSetCommands().zIncrBy(forumBucket, weight, bytes(String.valueOf(forumId)));
+                        connection.keyCommands().expire(forumBucket, bucketTtlSeconds());
+                    }
+                    return null;
+                });
+            } catch (RuntimeException e) {
+                log.debug("[ForumTrending] Activity not recorded: {}", e.getMessage());
+            }
+        };
+        AfterCommit.run(action);
+    }
+
+    /**
+     * 熱門貼文編號
+     *
+     * @param forumId null 代表全站
+     */
+    public List<Integer> getTrendingPostIds(Integer forumId, int topN) {
+        Snapshot current = snapshot;
+        List<Integer> ids = (forumId == null) ? current.globalPosts
+                : current.postsByForum.getOrDefault(forumId, Collections.emptyList());
+        return ids.subList(0, Math.min(topN, ids.size()));
+    }
+
+    // 是否在全站或所屬討論區的熱門貼文中
+    public boolean isTrendingPost(Integer postId) {
+        Snapshot current = snapshot;
+        return postId != null && current.trendingPosts.contains(postId);
+    }
+
+    public List<Integer> getTrendingForumIds(int topN) {
+        List<Integer> ids = snapshot.forums;
+        return ids.subList(0, Math.min(topN, ids.size()));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        refresh();
+    }
+
+    /**
+     * 重新計算排行 (Redis 暫時無法使用時沿用上一份結果)
+     */
+    @Scheduled(fixedDelay = 300000, initialDelay = 300000) // 每 5 分鐘
+    public void refresh() {
+        try {
+            long hour = currentHour();
+            List<Tuple> postScores = decayedUnion(POST_BUCKET_PREFIX, hour);
+            List<Tuple> forumScores = decayedUnion(FORUM_BUCKET_PREFIX, hour);
+
+            Map<Integer, Integer> forumOfPost = activePostForums(postScores);
+            List<Integer> globalPosts = new ArrayList<>();
+            Map<Integer, List<Integer>> postsByForum = new HashMap<>();
+            for (Tuple tuple : postScores) {
+                Integer postId = parseId(tuple);
+                Integer forumId = forumOfPost.get(postId);
+                if (forumId == null) {
+                    continue; // 已下架或刪除
+                }
+                if (globalPosts.size() < TOP_POSTS) {
+                    globalPosts.add(postId);
+                }
+                List<Integer> forumPosts = postsByForum.computeIfAbsent(forumId, id -> new ArrayList<>());
+                if (forumPosts.size() < TOP_POSTS) {
+                    forumPosts.add(postId);
+                }
+            }
+            List<Integer> forums = new ArrayList<>();
+            for (int i = 0; i < forumScores.size() && forums.size() < TOP_FORUMS; i++) {
+                forums.add(parseId(forumScores.get(i)));
+            }
+
+            postsByForum.replaceAll((id, list) -> List.copyOf(list));
+            this.snapshot = new Snapshot(List.copyOf(globalPosts), Map.copyOf(postsByForum), List.copyOf(forums));
+            log.debug("[ForumTrending] Refreshed: {} posts, {} forums scored", postScores.size(), forumScores.size());
+        } catch (RuntimeException e) {
+            log.warn("[ForumTrending] Refresh failed, keeping previous ranking: {}", e.getMessage());
+        }
+    }
+
+    // 合併最近 WINDOW_HOURS 個 bucket，取分數最高的 MAX_CANDIDATES 筆，依衰減後分數由高到低、同分依編號由小到大；
+    // 分數不為正的不列入 (舊版曾記錄取消收藏的負分，bucket 過期前仍可能存在)
+    private List<Tuple> decayedUnion(String prefix, long hour) {
+        byte[][] keys = new byte[WINDOW_HOURS][];
+        double[] weights = new double[WINDOW_HOURS];
+        for (int age = 0; age < WINDOW_HOURS; age++) {
+            keys[age] = bytes(prefix + (hour - age));
+            weights[age] = Math.pow(0.5, age / HALF_LIFE_HOURS);
+        }
+        byte[] unionKey = bytes(prefix + UNION_KEY_SUFFIX + UUID.randomUUID());
+        Set<Tuple> union = redisTemplate.execute((RedisCallback<Set<Tuple>>) connection -> {
+            try {
+                connection.zSetCommands().zUnionStore(unionKey, Aggregate.SUM, Weights.of(weights), keys);
+                connection.keyCommands().expire(unionKey, UNION_TTL_SECONDS); // 刪除前中斷時自動清除
+                return connection.zSetCommands().zRevRangeWithScores(unionKey, 0, MAX_CANDIDATES - 1);
+            } finally {
+                connection.keyCommands().del(unionKey);
+            }
+        });
+        if (union == null || union.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Tuple> sorted = new ArrayList<>(union);
+        sorted.removeIf(tuple -> tuple.getScore() <= 0);
+        sorted.sort(Comparator.comparingDouble(Tuple::getScore).reversed()
+                .thenComparingInt(ForumTrendingService::parseId));
+        return sorted;
+    }
+
+    private Map<Integer, Integer> activePostForums(List<Tuple> postScores) {
+        if (postScores.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        List<Integer> postIds = postScores.stream().map(ForumTrendingService::parseId).toList();
+        Map<Integer, Integer> result = new HashMap<>();
+        for (Object[] row : postRepo.findActivePostForumIds(postIds)) {
+            result.put((Integer) row[0], (Integer) row[1]);
+        }
+        return result;
+    }
+
+    private static long currentHour() {
+        return System.currentTimeMillis() / HOUR_MILLIS;
+    }
+
+    private static Integer parseId(Tuple tuple) {
+        return Integer.valueOf(new String(tuple.getValue(), StandardCharsets.UTF_8));
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 排行結果 (不可變，整份替換)
+     */
+    private static final class Snapshot {
+
+        static final Snapshot EMPTY = new Snapshot(List.of(), Map.of(), List.of());
+
+        final List<Integer> globalPosts;
+        final Map<Integer, List<Integer>> postsByForum;
+        final List<Integer> forums;
+        final Set<Integer> trendingPosts; // 全站與各討論區排行中的所有貼文
+
+        Snapshot(List<Integer> globalPosts, Map<Integer, List<Integer>> postsByForum, List<Integer> forums) {
+            this.globalPosts = globalPosts;
+            this.postsByForum = postsByForum;
+            this.forums = forums;
+            Set<Integer> all = new HashSet<>(globalPosts);
+            postsByForum.values().forEach(all::addAll);
+            this.trendingPosts = Set.copyOf(all);
+        }
+    }
+}
@@ -1,125 +1,100 @@
 package com.petguardian.forum.service;
 
-import java.util.Collections;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
 import java.util.stream.Collectors;
 
-import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Service;
 
-import com.petguardian.forum.model.ForumPostVO;
 import com.petguardian.forum.model.ForumVO;
+import com.petguardian.forum.model.PostListItemDTO;
+import com.petguardian.forum.redis.ForumViewCounter;
 
 @Service
 public class RedisService {
 	
-	private final StringRedisTemplate redisTemplate;
 	private final ForumPostService forumPostService;
 	private final ForumService forumService;
+	private final ForumViewCounter viewCounter;
+	private final ForumTrendingService trendingService;
 
-	public RedisService(StringRedisTemplate redisTemplate, ForumPostService forumPostService,
-			ForumService forumService) {
+	public RedisService(ForumPostService forumPostService, ForumService forumService,
+			ForumViewCounter viewCounter, ForumTrendingService trendingService) {
 		super();
-		this.redisTemplate = redisTemplate;
 		this.forumPostService = forumPostService;
 		this.forumService = forumService;
+		this.viewCounter = viewCounter;
+		this.trendingService = trendingService;
 	}
 
+	// 瀏覽次數先累計在本機，由 ForumViewCounter 每秒合併送到 Redis (增量 + 熱門 bucket)
 	public void incrementPostViewCount(Integer postId) {
-		try {
-			String key = "post:views:" + postId;
-			redisTemplate.opsForValue().increment(key);
-			// 熱門貼文排行榜用
-			redisTemplate.opsForZSet().incrementScore("post:rank:", postId.toString(), 1);
-		}catch(Exception e){
-			System.err.println("Redis 連線失敗，請檢查 Redis 是否已啟動。");
-		}
+		viewCounter.recordPostView(postId);
 	}
 	
 	public void incrementForumViewCount(Integer forumId) {
-		try {
-			String key = "forum:views:" + forumId;
-			redisTemplate.opsForValue().increment(key);
-			redisTemplate.opsForZSet().incrementScore("forum:rank:", forumId.toString(), 1);
-		}catch(Exception e){
-			System.err.println("Redis 連線失敗，請檢查 Redis 是否已啟動。");
-		}
+		viewCounter.recordForumView(forumId);
 	}
 	
+	// 瀏覽次數 = 資料庫已寫回的次數 + 尚未寫回的增量
 	public Integer getPostViewCount(Integer postId) {
-		try {
-		    String key = "post:views:" + postId;
-		    String value = redisTemplate.opsForValue().get(key);	
-		    if (value != null) {
-		        return Integer.valueOf(value);
-		    }
-		}catch(Exception e){
-			System.err.println("Redis 連線失敗，請檢查 Redis 是否已啟動。");
-		}
-		return forumPostService.getOnePost(postId).getPostViews();
+		Integer views = forumPostService.getOnePost(postId).getPostViews();
+		Long pending = viewCounter.getPendingPostViews(List.of(postId)).get(postId);
+		return (views != null ? views : 0) + (pending != null ? pending.intValue() : 0);
 	}
 	
 	public Integer getForumViewCount(Integer forumId) {
-		try {
-			String key = "forum:views:" + forumId;
-			String value = redisTemplate.opsForValue().get(key);
-			if(value != null) {
-				return Integer.valueOf(value);
-			}
-		}catch(Exception e) {
-			System.err.println("Redis 連線失敗，請檢查 Redis 是否已啟動。");
-		}
-		return forumService.getOneForum(forumId).getForumViews();
+		Integer views = forumService.getOneForum(forumId).getForumViews();
+		Long pending = viewCounter.getPendingForumViews(List.of(forumId)).get(forumId);
+		return (views != null ? views : 0) + (pending != null ? pending.intValue() : 0);
 	}
 	
-	public List<Integer> getTopHotPostIds(int topN){
-		try {
-			Set<String> postIds = redisTemplate.opsForZSet().reverseRange("post:rank:", 0, topN - 1);
-			// 防止NullPointerException
-			if(postIds.isEmpty() || postIds == null) {
-				return Collections.emptyList();
-			}
-			return postIds.stream()
-					.map(postId -> {
-						return Integer.valueOf(postId);
-					})
-					.collect(Collectors.toList());
-		}catch(Exception e){
-			System.err.println("Redis 連線失敗，請檢查 Redis 是否已啟動。");
+	// 列表頁 (可能來自快取)：回傳加上增量後的新清單，不修改原物件
+	public List<PostListItemDTO> withPendingPostViews(List<PostListItemDTO> items) {
+		if (items == null || items.isEmpty()) {
+			return items;
 		}
-		return Collections.emptyList();
+		Map<Integer, Long> pending = viewCounter.getPendingPostViews(
+				items.stream().map(PostListItemDTO::getPostId).collect(Collectors.toList()));
+		return items.stream()
+				.map(item -> {
+					Long delta = pending.get(item.getPostId());
+					if (delta == null) {
+						return item;
+					}
+					int base = (item.getPostViews() != null) ? item.getPostViews() : 0;
+					return item.withPostViews(base + delta.intValue());
+				})
+				.collect(Collectors.toList());
 	}
 	
-	public List<Integer> getTopHotForumIds(int topN){
-		try {
-			Set<String> forumIds =  redisTemplate.opsForZSet().reverseRange("forum:rank:", 0, topN - 1);
-			if(forumIds == null || forumIds.isEmpty()) {
-				return Collections.emptyList();
+	public void applyPendingForumViews(List<ForumVO> forums) {
+		if (forums == null || forums.isEmpty()) {
+			return;
+		}
+		Map<Integer, Long> pending = viewCounter.getPendingForumViews(
+				forums.stream().map(ForumVO::getForumId).collect(Collectors.toList()));
+		for (ForumVO forum : forums) {
+			Long delta = pending.get(forum.getForumId());
+			if (delta != null) {
+				int base = (forum.getForumViews() != null) ? forum.getForumViews() : 0;
+				forum.setForumViews(base + delta.intValue());
 			}
-			return forumIds.stream()
-					.map(forumId -> {
-						return Integer.valueOf(forumId);
-					})
-					.collect(Collectors.toList());	
-		}catch(Exception e) {
-			System.err.println("Redis 連線失敗，請檢查 Redis 是否已啟動。");
 		}
-		return Collections.emptyList();
 	}
 	
-	public void setPostViewsToRedis() {
-		List<ForumPostVO> posts = forumPostService.getAllPosts();
-		posts.forEach(post -> {
-			redisTemplate.opsForZSet().add("post:rank:", post.getPostId().toString(), post.getPostViews());
-		});
+	// 熱門排行依時間衰減計算，見 ForumTrendingService
+	public List<Integer> getTopHotPostIds(int topN){
+		return trendingService.getTrendingPostIds(null, topN);
+	}
+	
+	// 單一討論區內的熱門貼文
+	public List<Integer> getTopHotPostIds(Integer forumId, int topN){
+		return trendingService.getTrendingPostIds(forumId, topN);
 	}
 	
-	public void setForumViewsToRedis() {
-		List<ForumVO> forums = forumService.getAll();
-		forums.forEach(forum -> {
-			redisTemplate.opsForZSet().add("forum:rank:", forum.getForumId().toString(), forum.getForumViews());
-		});
+	public List<Integer> getTopHotForumIds(int topN){
+		return trendingService.getTrendingForumIds(topN);
 	}
 	
 }
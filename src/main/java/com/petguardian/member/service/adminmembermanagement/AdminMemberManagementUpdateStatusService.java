@@ -6,6 +6,7 @@ import org.springframework.stereotype.Service;
 import com.petguardian.member.dto.AdminMemberManagementUpdateStatusDTO;
 import com.petguardian.member.model.Member;
 import com.petguardian.member.repository.adminmembermanagement.AdminMemberManagementUpdateStatusRepository;
+import com.petguardian.sitter.service.SitterSearchService;
 
 @Service
 public class AdminMemberManagementUpdateStatusService {
@@ -13,6 +14,9 @@ public class AdminMemberManagementUpdateStatusService {
 	@Autowired
 	private AdminMemberManagementUpdateStatusRepository adminMemberManagementUpdateStatusRepository;
 
+	@Autowired
+	private SitterSearchService sitterSearchService;
+
 	public String updatestatus(AdminMemberManagementUpdateStatusDTO adminMemberManagementUpdateStatusDTO) {
 
 		Integer memId = adminMemberManagementUpdateStatusDTO.getMemId();
@@ -24,10 +28,13 @@ public class AdminMemberManagementUpdateStatusService {
 		if (memStatus == 0) {
 			member.setMemStatus(1);
 			adminMemberManagementUpdateStatusRepository.save(member);
+			// 會員是保母時，保母搜尋與卡片索引一併更新
+			sitterSearchService.refreshSitterOfMemberAfterCommit(memId);
 			return "已啟用";
 		} else {
 			member.setMemStatus(0);
 			adminMemberManagementUpdateStatusRepository.save(member);
+			sitterSearchService.refreshSitterOfMemberAfterCommit(memId);
 			return "已停用";
 		}
 	}
@@ -2,6 +2,7 @@ package com.petguardian.member.service.management;
 
 import com.petguardian.member.model.Member;
 import com.petguardian.member.repository.management.MemberManagementDeactivateRepository;
+import com.petguardian.sitter.service.SitterSearchService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -11,6 +12,9 @@ public class MemberManagementDeactivateService {
     @Autowired
     private MemberManagementDeactivateRepository memberManagementDeactivateRepository;
 
+    @Autowired
+    private SitterSearchService sitterSearchService;
+
     public String deactivate(Integer memId){
 
         Member member = memberManagementDeactivateRepository.findById(memId).orElse(null);
@@ -19,6 +23,9 @@ public class MemberManagementDeactivateService {
 
         memberManagementDeactivateRepository.save(member);
 
+        // 會員是保母時，保母搜尋與卡片索引一併移除
+        sitterSearchService.refreshSitterOfMemberAfterCommit(memId);
+
         return "停用成功";
 
     }
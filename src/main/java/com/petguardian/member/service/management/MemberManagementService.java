@@ -9,6 +9,7 @@ import java.util.UUID;
 import com.petguardian.member.dto.MemberManagementUpdateDTO;
 import com.petguardian.member.model.Member;
 import com.petguardian.member.repository.management.MemberManagementRepository;
+import com.petguardian.sellerreview.service.SellerProfileService;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -20,6 +21,9 @@ public class MemberManagementService {
 	@Autowired
 	private MemberManagementRepository memberManagementRepository;
 
+	@Autowired
+	private SellerProfileService sellerProfileService;
+
 	private static final String REALPATH = "src/main/resources/static/images/member/";
 
 	public Member update(MultipartFile fileImagePath, MemberManagementUpdateDTO memberManagementUpdateDTO,
@@ -63,6 +67,9 @@ public class MemberManagementService {
 
 			member1 = memberManagementRepository.save(member);
 
+			// 賣家頁頂端快取了會員名稱，改名後清除
+			sellerProfileService.evictSellerAfterCommit(memId);
+
 			return member1;
 
 		} catch (IOException e) {
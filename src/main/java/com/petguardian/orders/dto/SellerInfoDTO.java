@@ -19,6 +19,8 @@ public class SellerInfoDTO {
     private Double averageRating;
     private Long reviewCount;
     private List<ReviewDisplayDTO> reviews;
+    private Integer reviewPage;        // 目前評價頁碼（0 起算）
+    private Integer reviewTotalPages;  // 評價總頁數
 
     /**
      * 評價展示 DTO（內部類別）
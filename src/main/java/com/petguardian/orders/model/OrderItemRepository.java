@@ -22,4 +22,12 @@ public interface OrderItemRepository extends JpaRepository<OrderItemVO, Integer>
 
     // 查詢訂單的商品項目數量
     long countByOrderId(Integer orderId);
+
+    // 統計每個商品的銷售數量（排除已取消、退貨的訂單，商品搜尋排序用）
+    @Query("SELECT oi.proId, SUM(oi.quantity) FROM OrderItemVO oi JOIN oi.order o WHERE o.orderStatus IN (0, 1, 2) GROUP BY oi.proId")
+    List<Object[]> sumSoldQuantityGroupByProId();
+
+    // 統計指定商品的銷售數量（排除已取消、退貨的訂單）
+    @Query("SELECT COALESCE(SUM(oi.quantity), 0) FROM OrderItemVO oi JOIN oi.order o WHERE oi.proId = :proId AND o.orderStatus IN (0, 1, 2)")
+    Long sumSoldQuantityByProId(@Param("proId") Integer proId);
 }
@@ -1,15 +1,30 @@
 package com.petguardian.orders.model;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface OrdersRepository extends JpaRepository<OrdersVO, Integer> {
 
+        // 後台訂單查詢共用的 JOIN 與篩選條件（買家、賣家名稱在 SQL 端帶出）
+        String ADMIN_ORDER_JOIN = "FROM OrdersVO o "
+                        + "LEFT JOIN StoreMemberVO b ON o.buyerMemId = b.memId "
+                        + "LEFT JOIN StoreMemberVO s ON o.sellerMemId = s.memId ";
+        String ADMIN_ORDER_FILTER = "WHERE o.orderStatus IN :statuses "
+                        + "AND (:keywordLike IS NULL OR o.orderId = :orderIdKeyword "
+                        + "OR b.memName LIKE :keywordLike OR s.memName LIKE :keywordLike) "
+                        + "AND (:fromTime IS NULL OR o.orderTime >= :fromTime) "
+                        + "AND (:toTime IS NULL OR o.orderTime < :toTime) ";
+        String ADMIN_ORDER_ITEM_QUANTITY = "(SELECT COALESCE(SUM(oi.quantity), 0) FROM OrderItemVO oi WHERE oi.orderId = o.orderId)";
+
         // 查詢買家的所有訂單
         List<OrdersVO> findByBuyerMemIdOrderByOrderTimeDesc(Integer buyerMemId);
 
@@ -70,4 +85,54 @@ public interface OrdersRepository extends JpaRepository<OrdersVO, Integer> {
          */
         @Query("SELECT o FROM OrdersVO o WHERE o.orderStatus = 6 ORDER BY o.orderTime DESC")
         List<OrdersVO> findPaidOutOrders();
+
+        /**
+         * 後台分頁查詢訂單（含買家、賣家名稱與商品件數）
+         * 每列為 [OrdersVO, buyerName, sellerName, itemQuantity]
+         */
+        @Query(value = "SELECT o, b.memName, s.memName, " + ADMIN_ORDER_ITEM_QUANTITY + " "
+                        + ADMIN_ORDER_JOIN + ADMIN_ORDER_FILTER + "ORDER BY o.orderTime DESC, o.orderId DESC",
+                        countQuery = "SELECT COUNT(o) " + ADMIN_ORDER_JOIN + ADMIN_ORDER_FILTER)
+        Page<Object[]> searchAdminOrders(@Param("statuses") Collection<Integer> statuses,
+                        @Param("keywordLike") String keywordLike,
+                        @Param("orderIdKeyword") Integer orderIdKeyword,
+                        @Param("fromTime") LocalDateTime fromTime,
+                        @Param("toTime") LocalDateTime toTime,
+                        Pageable pageable);
+
+        /**
+         * 後台匯出用：以訂單編號遞減的 keyset 分段讀取（不載入實體）
+         * 每列為 [orderId, orderTime, orderStatus, buyerMemId, buyerName, sellerMemId, sellerName, orderTotal, itemQuantity]
+         */
+        @Query("SELECT o.orderId, o.orderTime, o.orderStatus, o.buyerMemId, b.memName, o.sellerMemId, s.memName, o.orderTotal, "
+                        + ADMIN_ORDER_ITEM_QUANTITY + " " + ADMIN_ORDER_JOIN + ADMIN_ORDER_FILTER
+                        + "AND (:beforeOrderId IS NULL OR o.orderId < :beforeOrderId) ORDER BY o.orderId DESC")
+        List<Object[]> findAdminOrderExportChunk(@Param("statuses") Collection<Integer> statuses,
+                        @Param("keywordLike") String keywordLike,
+                        @Param("orderIdKeyword") Integer orderIdKeyword,
+                        @Param("fromTime") LocalDateTime fromTime,
+                        @Param("toTime") LocalDateTime toTime,
+                        @Param("beforeOrderId") Integer beforeOrderId,
+                        Pageable pageable);
+
+        /**
+         * 查詢單一訂單並帶出買家、賣家名稱
+         * 每列為 [OrdersVO, buyerName, sellerName]
+         */
+        @Query("SELECT o, b.memName, s.memName " + ADMIN_ORDER_JOIN + "WHERE o.orderId = :orderId")
+        List<Object[]> findWithMemberNamesById(@Param("orderId") Integer orderId);
+
+        /**
+         * 統計賣家各狀態的訂單筆數與金額（賣家統計對帳用）
+         * 每列為 [orderStatus, count, amount]
+         */
+        @Query("SELECT o.orderStatus, COUNT(o), COALESCE(SUM(o.orderTotal), 0) FROM OrdersVO o "
+                        + "WHERE o.sellerMemId = :sellerMemId GROUP BY o.orderStatus")
+        List<Object[]> summarizeBySellerMemId(@Param("sellerMemId") Integer sellerMemId);
+
+        /**
+         * 查詢所有有訂單的賣家 ID（賣家統計對帳用）
+         */
+        @Query("SELECT DISTINCT o.sellerMemId FROM OrdersVO o")
+        List<Integer> findDistinctSellerMemIds();
 }
@@ -1,5 +1,7 @@
 package com.petguardian.orders.model;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -36,4 +38,23 @@ public interface ReturnOrderRepository extends JpaRepository<ReturnOrderVO, Inte
      * return_status: 0=審核中, 1=退貨通過, 2=退貨失敗
      */
     long countByReturnStatus(Integer returnStatus);
+
+    /**
+     * 後台分頁查詢退貨申請（含訂單、買家與賣家名稱，一次 JOIN 取得）
+     * 每列為 [ReturnOrderVO, OrdersVO, buyerName, sellerName]
+     */
+    @Query(value = "SELECT r, o, b.memName, s.memName FROM ReturnOrderVO r JOIN OrdersVO o ON r.orderId = o.orderId "
+            + "LEFT JOIN StoreMemberVO b ON o.buyerMemId = b.memId LEFT JOIN StoreMemberVO s ON o.sellerMemId = s.memId "
+            + "ORDER BY r.applyTime DESC, r.returnId DESC",
+            countQuery = "SELECT COUNT(r) FROM ReturnOrderVO r")
+    Page<Object[]> findReturnApplicationsWithMembers(Pageable pageable);
+
+    /**
+     * 查詢單一退貨申請並帶出訂單金額、買家與賣家名稱
+     * 每列為 [ReturnOrderVO, orderTotal, buyerName, sellerName]
+     */
+    @Query("SELECT r, o.orderTotal, b.memName, s.memName FROM ReturnOrderVO r JOIN OrdersVO o ON r.orderId = o.orderId "
+            + "LEFT JOIN StoreMemberVO b ON o.buyerMemId = b.memId LEFT JOIN StoreMemberVO s ON o.sellerMemId = s.memId "
+            + "WHERE r.returnId = :returnId")
+    List<Object[]> findWithMemberNamesById(@Param("returnId") Integer returnId);
 }
@@ -10,6 +10,7 @@ import com.petguardian.seller.model.ProductPicRepository;
 import com.petguardian.seller.model.ProductPic;
 import com.petguardian.seller.model.ProductRepository;
 import com.petguardian.seller.model.Product;
+import com.petguardian.seller.service.SellerStatsService;
 import com.petguardian.store.service.StoreService;
 import com.petguardian.wallet.model.Wallet;
 import com.petguardian.wallet.model.WalletRepository;
@@ -43,6 +44,9 @@ public class OrdersServiceImpl implements OrdersService {
     @Autowired
     private WalletRepository walletDAO;
 
+    @Autowired
+    private SellerStatsService sellerStatsService;
+
     // 訂單狀態常數
     public static final Integer STATUS_PAID = 0; // 已付款
     public static final Integer STATUS_SHIPPED = 1; // 已出貨
@@ -136,6 +140,7 @@ public class OrdersServiceImpl implements OrdersService {
         order.setSpecialInstructions(form.getSpecialInstructions());
 
         OrdersVO savedOrder = ordersDAO.save(order);
+        sellerStatsService.onOrderCreated(savedOrder.getSellerMemId(), STATUS_PAID, total);
 
         // 6. 儲存訂單項目
         for (OrderItemDTO item : form.getItems()) {
@@ -200,6 +205,7 @@ public class OrdersServiceImpl implements OrdersService {
 
         // 儲存訂單
         OrdersVO savedOrder = ordersDAO.save(order);
+        sellerStatsService.onOrderCreated(savedOrder.getSellerMemId(), STATUS_PAID, total);
 
         // 儲存訂單項目
         List<OrderItemVO> savedItems = new ArrayList<>();
@@ -368,8 +374,11 @@ public class OrdersServiceImpl implements OrdersService {
         OrdersVO order = ordersDAO.findById(orderId)
                 .orElseThrow(() -> new IllegalArgumentException("訂單不存在: " + orderId));
 
+        Integer oldStatus = order.getOrderStatus();
         order.setOrderStatus(newStatus);
-        return ordersDAO.save(order);
+        OrdersVO savedOrder = ordersDAO.save(order);
+        sellerStatsService.onOrderStatusChanged(order.getSellerMemId(), oldStatus, newStatus, order.getOrderTotal());
+        return savedOrder;
     }
 
     // ==================== 訂單項目基本操作 ====================
@@ -402,8 +411,10 @@ public class OrdersServiceImpl implements OrdersService {
         // 更新訂單總金額
         Integer newTotal = calculateOrderTotal(orderItem.getOrderId());
         OrdersVO order = ordersDAO.findById(orderItem.getOrderId()).get();
+        int amountDelta = newTotal - (order.getOrderTotal() != null ? order.getOrderTotal() : 0);
         order.setOrderTotal(newTotal);
         ordersDAO.save(order);
+        sellerStatsService.onOrderAmountChanged(order.getSellerMemId(), order.getOrderStatus(), amountDelta);
 
         return savedItem;
     }
@@ -444,6 +455,7 @@ public class OrdersServiceImpl implements OrdersService {
         // 更新訂單狀態為已取消
         order.setOrderStatus(STATUS_CANCELED);
         ordersDAO.save(order);
+        sellerStatsService.onOrderStatusChanged(order.getSellerMemId(), STATUS_PAID, STATUS_CANCELED, order.getOrderTotal());
 
         // 還原庫存
         List<OrderItemVO> orderItems = orderItemDAO.findByOrderId(orderId);
@@ -1,27 +1,22 @@
 package com.petguardian.orders.service;
 
 
+import com.petguardian.common.blob.ImageBlobService;
 import com.petguardian.orders.model.*;
+import com.petguardian.seller.service.SellerStatsService;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.util.*;
 
 @Service
 @Transactional
 public class ReturnOrderServiceImpl implements ReturnOrderService {
 
-    @Value("${file.upload.return.path:src/main/resources/static/images/return/}")
-    private String uploadPath;
-
     private static final Set<String> ALLOWED_EXTENSIONS = Set.of("jpg", "jpeg", "png", "gif", "webp");
 
     @Autowired
@@ -36,6 +31,12 @@ public class ReturnOrderServiceImpl implements ReturnOrderService {
     @Autowired
     private OrdersService ordersService;
 
+    @Autowired
+    private SellerStatsService sellerStatsService;
+
+    @Autowired
+    private ImageBlobService imageBlobService;
+
     // 退貨狀態常數
     public static final Integer RETURN_STATUS_PENDING = 0; // 審核中
     public static final Integer RETURN_STATUS_APPROVED = 1; // 退貨通過
@@ -103,24 +104,13 @@ public class ReturnOrderServiceImpl implements ReturnOrderService {
                             throw new IllegalArgumentException("不允許的檔案格式，僅支援: " + ALLOWED_EXTENSIONS);
                         }
 
-                        // 生成安全的檔名
-                        String safeFileName = UUID.randomUUID().toString() + "." + extension;
-
-                        // 建立目標目錄
-                        Path uploadDir = Paths.get(uploadPath).toAbsolutePath().normalize();
-                        Files.createDirectories(uploadDir);
-
-                        // 儲存檔案
-                        Path targetPath = uploadDir.resolve(safeFileName).normalize();
-                        if (!targetPath.startsWith(uploadDir)) {
-                            throw new SecurityException("檢測到路徑遍歷攻擊");
-                        }
-                        image.transferTo(targetPath.toFile());
+                        // 串流存進 BlobStore（背景產生縮圖版本），檔名由內容雜湊決定
+                        String imageUrl = imageBlobService.storeAsUrl(image);
 
                         // 儲存 URL 到資料庫
                         ReturnOrderPicVO pic = new ReturnOrderPicVO();
                         pic.setReturnOrder(savedReturn);
-                        pic.setPicUrl("/images/return/" + safeFileName);
+                        pic.setPicUrl(imageUrl);
                         returnOrderPicDAO.save(pic);
                     } catch (IOException e) {
                         throw new RuntimeException("圖片上傳失敗: " + e.getMessage());
@@ -132,6 +122,7 @@ public class ReturnOrderServiceImpl implements ReturnOrderService {
         // 更新訂單狀態
         order.setOrderStatus(ORDER_STATUS_REFUNDING);
         OrdersVO updatedOrder = ordersDAO.save(order);
+        sellerStatsService.onOrderStatusChanged(order.getSellerMemId(), status, ORDER_STATUS_REFUNDING, order.getOrderTotal());
 
         Map<String, Object> result = new HashMap<>();
         result.put("returnOrder", savedReturn);
@@ -203,14 +194,17 @@ public class ReturnOrderServiceImpl implements ReturnOrderService {
         OrdersVO order = ordersDAO.findById(returnOrder.getOrderId())
                 .orElseThrow(() -> new IllegalArgumentException("訂單不存在"));
 
+        Integer oldOrderStatus = order.getOrderStatus();
         if (newStatus.equals(RETURN_STATUS_APPROVED)) {
             order.setOrderStatus(ORDER_STATUS_REFUNDED); // 退貨完成
             ordersDAO.save(order);
+            sellerStatsService.onOrderStatusChanged(order.getSellerMemId(), oldOrderStatus, ORDER_STATUS_REFUNDED, order.getOrderTotal());
             // 退貨通過，退款到買家錢包
             ordersService.refundToBuyerWallet(returnOrder.getOrderId());
         } else if (newStatus.equals(RETURN_STATUS_REJECTED)) {
             order.setOrderStatus(ORDER_STATUS_COMPLETED); // 恢復已完成
             ordersDAO.save(order);
+            sellerStatsService.onOrderStatusChanged(order.getSellerMemId(), oldOrderStatus, ORDER_STATUS_COMPLETED, order.getOrderTotal());
         }
 
         return updatedReturn;
@@ -13,6 +13,7 @@ import jakarta.servlet.http.HttpSession;
 import com.petguardian.evaluate.model.EvaluateVO;
 import com.petguardian.evaluate.model.EvaluateRepository;
 import com.petguardian.sitter.model.SitterRepository;
+import com.petguardian.evaluate.service.EvaluateService;
 
 import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
@@ -31,6 +32,9 @@ public class PetComplaintController {
     @Autowired
     private SitterRepository sitterRepository;
 
+    @Autowired
+    private EvaluateService evaluateService;
+
     @GetMapping("/review")
     public String showReviewPage(Model model) {
         return "/frontend/review";
@@ -180,8 +184,7 @@ public class PetComplaintController {
                     }
 
                     System.out.println(">>> [DEBUG] 正在隱藏評價...");
-                    review.setIsHidden(1); // 標記為已隱藏
-                    evaluateRepository.save(review);
+                    evaluateService.updateVisibility(review, 1); // 標記為已隱藏
                 }
             } else {
                 // 🔥 舊邏輯：隱藏該訂單的所有評價 (向後兼容)
@@ -202,8 +205,7 @@ public class PetComplaintController {
 
                 if (reviews != null && !reviews.isEmpty()) {
                     for (EvaluateVO review : reviews) {
-                        review.setIsHidden(1);
-                        evaluateRepository.save(review);
+                        evaluateService.updateVisibility(review, 1);
                     }
                 }
             }
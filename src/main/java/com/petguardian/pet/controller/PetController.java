@@ -1,5 +1,6 @@
 package com.petguardian.pet.controller;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -10,10 +11,15 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import com.petguardian.common.blob.ImageBlobRef;
+import com.petguardian.common.blob.ImageResponseWriter;
+import com.petguardian.common.blob.ImageVariant;
+import com.petguardian.common.blob.ImageVariantService;
 import com.petguardian.pet.model.PetVO;
 import com.petguardian.pet.model.PetDTO;
 import com.petguardian.pet.service.PetService;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpSession;
 
@@ -24,21 +30,38 @@ public class PetController {
     @Autowired
     private PetService petService;
 
+    @Autowired
+    private ImageVariantService imageVariantService;
+
+    @Autowired
+    private ImageResponseWriter imageResponseWriter;
+
     @GetMapping("/index")
     public String index() {
         return "/frontend/index";
     }
 
+    /**
+     * 寵物照片；v=thumb / medium 取縮圖版本，尚未產生時先回原圖
+     */
     @GetMapping("/img/{petId}")
-    @ResponseBody
-    public byte[] getImg(@PathVariable Integer petId, HttpServletResponse res) {
+    public void getImg(@PathVariable Integer petId, @RequestParam(value = "v", required = false) String v,
+            HttpServletRequest req, HttpServletResponse res) throws IOException {
         byte[] image = petService.getPetImage(petId);
-        if (image != null && image.length > 0) {
-            res.setContentType("image/jpeg");
-            return image;
+        if (image == null || image.length == 0) {
+            // 沒有圖片時返回空內容
+            return;
+        }
+        ImageVariant variant = ImageVariant.fromParam(v);
+        if (variant != null) {
+            ImageBlobRef ref = imageVariantService.resolve(image, variant);
+            if (imageResponseWriter.writeBlob(ref, ImageResponseWriter.CACHE_REVALIDATE, req, res)) {
+                return;
+            }
         }
-        // 沒有圖片時返回空陣列而不是 null
-        return new byte[0];
+        res.setContentType("image/jpeg");
+        res.setContentLength(image.length);
+        res.getOutputStream().write(image);
     }
 
     @GetMapping("/dashboard")
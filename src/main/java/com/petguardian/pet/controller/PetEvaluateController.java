@@ -235,8 +235,7 @@ public class PetEvaluateController {
         try {
             EvaluateVO eval = evaluateService.getById(evalId);
             if (eval != null) {
-                eval.setIsHidden(1); // 設為已隱藏
-                evaluateService.handleSubmission(eval, null);
+                evaluateService.updateVisibility(eval, 1); // 設為已隱藏
                 return ResponseEntity.ok(java.util.Map.of("success", true));
             }
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(java.util.Map.of("error", "找不到該評價"));
@@ -10,6 +10,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import org.springframework.web.multipart.MultipartFile;
+import com.petguardian.common.blob.ImageVariantService;
 import com.petguardian.pet.model.PetDTO;
 import com.petguardian.pet.model.PetRepository;
 import com.petguardian.pet.model.PetVO;
@@ -22,6 +23,9 @@ public class PetServiceImpl implements PetService { // 🔴 加上 implements
     @Autowired
     private PetRepository repository;
 
+    @Autowired
+    private ImageVariantService imageVariantService;
+
     @Override
     public List<PetDTO> getPetsByMemId(Integer memId) {
         // 呼叫 Repo 剛剛補好的方法
@@ -187,6 +191,7 @@ public class PetServiceImpl implements PetService { // 🔴 加上 implements
             petVO.setPetImage(petImage.getBytes());
         }
         repository.insert(petVO);
+        imageVariantService.submit(petVO.getPetImage());
     }
 
     @Override
@@ -198,6 +203,7 @@ public class PetServiceImpl implements PetService { // 🔴 加上 implements
         // 情況 2：使用者上傳了新圖片
         else if (petImage != null && !petImage.isEmpty()) {
             petVO.setPetImage(petImage.getBytes());
+            imageVariantService.submit(petVO.getPetImage());
         }
         // 情況 3：使用者沒傳新圖，也沒刪除圖 -> 從資料庫撈出舊圖補回，防止變空白
         else {
@@ -212,12 +218,15 @@ public class PetServiceImpl implements PetService { // 🔴 加上 implements
     public void addPetBase64(PetVO petVO) {
         // 直接呼叫你寫好的 jdbcTemplate.update(INSERT, ...)
         repository.insert(petVO);
+        imageVariantService.submit(petVO.getPetImage());
     }
 
     @Override
     public void updatePetBase64(PetVO petVO) {
         // 直接呼叫你寫好的 jdbcTemplate.update(UPDATE, ...)
         repository.update(petVO);
+        // 沿用舊圖時版本早已存在，只會命中快取
+        imageVariantService.submit(petVO.getPetImage());
     }
 
     public PetVO getOnePet(Integer petId) {
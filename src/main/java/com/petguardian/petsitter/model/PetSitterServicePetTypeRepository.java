@@ -3,6 +3,8 @@ package com.petguardian.petsitter.model;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -22,6 +24,19 @@ public interface PetSitterServicePetTypeRepository extends JpaRepository<PetSitt
      */
     List<PetSitterServicePetTypeVO> findBySitterId(Integer sitterId);
 
+    /**
+     * 搜尋索引用：所有保姆可服務的寵物種類 (已去重)
+     * 回傳順序: sitterId, typeId
+     */
+    @Query("SELECT DISTINCT p.sitterId, p.typeId FROM PetSitterServicePetTypeVO p")
+    List<Object[]> findAllSitterPetTypeRows();
+
+    /**
+     * 搜尋索引用：單一保姆可服務的寵物種類 (已去重)
+     */
+    @Query("SELECT DISTINCT p.typeId FROM PetSitterServicePetTypeVO p WHERE p.sitterId = :sitterId")
+    List<Integer> findPetTypeIdsBySitterId(@Param("sitterId") Integer sitterId);
+
     /**
      * 查詢某保姆某服務項目的所有寵物對象配置
      * 
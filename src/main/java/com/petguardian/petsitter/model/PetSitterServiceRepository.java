@@ -45,6 +45,21 @@ public interface PetSitterServiceRepository extends JpaRepository<PetSitterServi
             @Param("sitterId") Integer sitterId,
             @Param("serviceItemId") Integer serviceItemId);
 
+    /**
+     * 搜尋索引用：所有保姆的服務項目與價格 (只取需要的欄位)
+     * 回傳順序: sitterId, serviceItemId, defaultPrice
+     */
+    @Query("SELECT ps.sitter.sitterId, ps.serviceItemId, ps.defaultPrice FROM PetSitterServiceVO ps")
+    List<Object[]> findAllServicePriceRows();
+
+    /**
+     * 搜尋索引用：單一保姆的服務項目與價格
+     * 回傳順序: sitterId, serviceItemId, defaultPrice
+     */
+    @Query("SELECT ps.sitter.sitterId, ps.serviceItemId, ps.defaultPrice FROM PetSitterServiceVO ps " +
+            "WHERE ps.sitter.sitterId = :sitterId")
+    List<Object[]> findServicePriceRowsBySitterId(@Param("sitterId") Integer sitterId);
+
     /**
      * 查詢某保姆的所有服務項目 (優化版，使用 JOIN FETCH 避免 N+1)
      * 
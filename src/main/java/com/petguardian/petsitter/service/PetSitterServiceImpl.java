@@ -12,6 +12,7 @@ import com.petguardian.petsitter.model.PetSitterServiceRepository;
 import com.petguardian.petsitter.model.PetSitterServiceVO;
 import com.petguardian.sitter.model.SitterRepository;
 import com.petguardian.sitter.model.SitterVO;
+import com.petguardian.sitter.service.SitterSearchService;
 
 /**
  * 保姆服務資訊業務邏輯實作
@@ -27,6 +28,9 @@ public class PetSitterServiceImpl implements PetSitterService {
     @Autowired
     private SitterRepository sitterRepository;
 
+    @Autowired
+    private SitterSearchService sitterSearchService;
+
     /**
      * 保姆設定服務項目價格
      * 
@@ -67,8 +71,10 @@ public class PetSitterServiceImpl implements PetSitterService {
             vo.setDefaultPrice(price);
         }
 
-        // 4. 儲存並返回
-        return repository.save(vo);
+        // 4. 儲存並返回（交易提交後更新保姆搜尋索引）
+        PetSitterServiceVO saved = repository.save(vo);
+        sitterSearchService.refreshSitterAfterCommit(sitterId);
+        return saved;
     }
 
     @Override
@@ -132,6 +138,7 @@ public class PetSitterServiceImpl implements PetSitterService {
         }
 
         repository.deleteById(id);
+        sitterSearchService.refreshSitterAfterCommit(sitterId);
     }
 
     @Override
@@ -10,6 +10,7 @@ import org.springframework.transaction.annotation.Transactional;
 import com.petguardian.petsitter.model.PetSitterServicePetTypeRepository;
 import com.petguardian.petsitter.model.PetSitterServicePetTypeVO;
 import com.petguardian.sitter.model.SitterRepository;
+import com.petguardian.sitter.service.SitterSearchService;
 
 import com.petguardian.petsitter.model.PetType;
 import com.petguardian.petsitter.model.PetSize;
@@ -28,6 +29,9 @@ public class PetSitterServicePetTypeServiceImpl implements PetSitterServicePetTy
     @Autowired
     private SitterRepository sitterRepository; // Added SitterRepository
 
+    @Autowired
+    private SitterSearchService sitterSearchService;
+
     /**
      * 新增保姆服務對象(寵物種類+體型)
      * 
@@ -71,8 +75,10 @@ public class PetSitterServicePetTypeServiceImpl implements PetSitterServicePetTy
         vo.setTypeId(typeId);
         vo.setSizeId(sizeId);
 
-        // 4. 儲存並返回
-        return repository.save(vo);
+        // 4. 儲存並返回（交易提交後更新保姆搜尋索引）
+        PetSitterServicePetTypeVO saved = repository.save(vo);
+        sitterSearchService.refreshSitterAfterCommit(sitterId);
+        return saved;
     }
 
     @Override
@@ -164,6 +170,7 @@ public class PetSitterServicePetTypeServiceImpl implements PetSitterServicePetTy
         }
 
         repository.deleteById(servicePetId);
+        sitterSearchService.refreshSitterAfterCommit(existingOpt.get().getSitterId());
     }
 
     @Override
@@ -1,6 +1,8 @@
 package com.petguardian.productfavoritelist.model;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -12,6 +14,10 @@ public interface ProductFavoriteListRepository extends JpaRepository<ProductFavo
     // 根據會員ID查詢收藏列表（依收藏時間降序）
     List<ProductFavoriteListVO> findByMemIdOrderByFavTimeDesc(Integer memId);
 
+    // 只查詢會員收藏的商品ID（收藏集合快取用）
+    @Query("SELECT f.proId FROM ProductFavoriteListVO f WHERE f.memId = :memId")
+    List<Integer> findProIdsByMemId(@Param("memId") Integer memId);
+
     // 根據商品ID查詢收藏該商品的所有會員
     List<ProductFavoriteListVO> findByProIdOrderByFavTimeDesc(Integer proId);
 
@@ -27,6 +33,10 @@ public interface ProductFavoriteListRepository extends JpaRepository<ProductFavo
     // 統計商品被收藏的次數
     Long countByProId(Integer proId);
 
+    // 統計每個商品被收藏的次數（商品搜尋排序用）
+    @Query("SELECT f.proId, COUNT(f) FROM ProductFavoriteListVO f GROUP BY f.proId")
+    List<Object[]> countGroupByProId();
+
     // 刪除收藏
     void deleteByMemIdAndProId(Integer memId, Integer proId);
 }
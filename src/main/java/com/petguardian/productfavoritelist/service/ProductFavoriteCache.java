@@ -0,0 +1,190 @@
+package com.petguardian.productfavoritelist.service;
+
+import com.petguardian.common.tx.AfterCommit;
+import com.petguardian.common.util.SortedIntSet;
+import com.petguardian.productfavoritelist.model.ProductFavoriteListRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.UnaryOperator;
+
+/**
+ * 商品收藏快取
+ *
+ * - 會員收藏集合：會員 ID -> 收藏的商品 ID（SortedIntSet），第一次讀取時只查 pro_id 欄位
+ * - 商品收藏數：商品 ID -> 被收藏次數，啟動後第一次使用時以 GROUP BY 一次載入，之後增量加減
+ *
+ * 收藏異動於交易提交後才寫入快取，交易回滾時快取不受影響。
+ * 會員收藏集合快取 10 分鐘後過期重新載入：多台伺服器時其他台的收藏異動不會通知本機，
+ * 最多延遲一個 TTL 反映（商品收藏數由定期排程以資料庫結果校正）。
+ * 每位會員有一個版本號（依會員 ID 分段共用），收藏異動提交時遞增；
+ * 載入期間版本號改變時，載入結果可能是提交前的舊資料，不放入快取。
+ * 只依賴 Repository，讓商品搜尋等服務也能讀取收藏數而不產生循環依賴。
+ */
+@Slf4j
+@Component
+public class ProductFavoriteCache {
+
+    // 會員收藏集合快取上限，超過時整批清除（下次讀取再重新載入）
+    private static final int MAX_CACHED_MEMBERS = 20000;
+    private static final long FAVORITE_IDS_TTL_MS = 10 * 60 * 1000L;
+
+    @Autowired
+    private ProductFavoriteListRepository favoriteListRepository;
+
+    private final Map<Integer, CachedFavorites> memberFavorites = new ConcurrentHashMap<>();
+
+    // 會員收藏版本號（依會員 ID 分段），與快取寫入都在 memberFavorites.compute 內進行，同一會員互斥
+    private static final int VERSION_STRIPES = 256;
+    private final AtomicLongArray memberVersions = new AtomicLongArray(VERSION_STRIPES);
+
+    private volatile Map<Integer, AtomicLong> productCounts;
+
+    // ==================== 會員收藏集合 ====================
+
+    /**
+     * 取得會員收藏的商品 ID 集合（唯讀）
+     */
+    public SortedIntSet getFavoriteIds(Integer memId) {
+        if (memId == null) {
+            return SortedIntSet.empty();
+        }
+        long now = System.currentTimeMillis();
+        CachedFavorites cached = memberFavorites.get(memId);
+        if (cached != null && cached.expiresAt > now) {
+            return cached.ids;
+        }
+
+        int stripe = stripeOf(memId);
+        long loadedVersion = memberVersions.get(stripe);
+        SortedIntSet loaded = SortedIntSet.of(favoriteListRepository.findProIdsByMemId(memId));
+        if (memberFavorites.size() >= MAX_CACHED_MEMBERS) {
+            memberFavorites.clear();
+        }
+        // 載入期間有收藏異動提交時不放入快取
+        CachedFavorites current = memberFavorites.compute(memId, (k, entry) -> {
+            if (entry != null && entry.expiresAt > now) {
+                return entry;
+            }
+            return memberVersions.get(stripe) == loadedVersion
+                    ? new CachedFavorites(loaded, now + FAVORITE_IDS_TTL_MS)
+                    : null;
+        });
+        return current != null ? current.ids : loaded;
+    }
+
+    /**
+     * 交易提交後寫入一筆收藏（會員集合 + 商品收藏數）
+     */
+    public void onFavoriteAddedAfterCommit(Integer memId, Integer proId) {
+        AfterCommit.run(() -> {
+            updateMember(memId, ids -> ids.with(proId));
+            adjustProductCount(proId, 1);
+        });
+    }
+
+    /**
+     * 交易提交後移除一筆收藏（會員集合 + 商品收藏數）
+     */
+    public void onFavoriteRemovedAfterCommit(Integer memId, Integer proId) {
+        AfterCommit.run(() -> {
+            updateMember(memId, ids -> ids.without(proId));
+            adjustProductCount(proId, -1);
+        });
+    }
+
+    // 遞增版本號並更新已快取的集合（未快取時只遞增版本號，讓進行中的載入不寫入快取）
+    private void updateMember(Integer memId, UnaryOperator<SortedIntSet> change) {
+        if (memId == null) {
+            return;
+        }
+        memberFavorites.compute(memId, (k, entry) -> {
+            memberVersions.incrementAndGet(stripeOf(k));
+            // 保留原本的過期時間，其他伺服器的異動仍會在過期後重新載入
+            return entry != null ? new CachedFavorites(change.apply(entry.ids), entry.expiresAt) : null;
+        });
+    }
+
+    private static int stripeOf(Integer memId) {
+        return Math.floorMod(memId, VERSION_STRIPES);
+    }
+
+    // ==================== 商品收藏數 ====================
+
+    /**
+     * 取得商品被收藏次數
+     */
+    public long getProductFavoriteCount(Integer proId) {
+        if (proId == null) {
+            return 0L;
+        }
+        AtomicLong count = getProductCounts().get(proId);
+        return count != null ? count.get() : 0L;
+    }
+
+    /**
+     * 重新以資料庫結果校正商品收藏數（定期排程呼叫）
+     */
+    public void reloadProductCounts() {
+        Map<Integer, AtomicLong> counts = new ConcurrentHashMap<>();
+        for (Object[] row : favoriteListRepository.countGroupByProId()) {
+            if (row[0] != null && row[1] != null) {
+                counts.put(((Number) row[0]).intValue(), new AtomicLong(((Number) row[1]).longValue()));
+            }
+        }
+        this.productCounts = counts;
+        log.debug("[ProductFavorite] 商品收藏數載入完成，共 {} 筆", counts.size());
+    }
+
+    private Map<Integer, AtomicLong> getProductCounts() {
+        Map<Integer, AtomicLong> counts = productCounts;
+        if (counts == null) {
+            synchronized (this) {
+                if (productCounts == null) {
+                    reloadProductCounts();
+                }
+                counts = productCounts;
+            }
+        }
+        return counts;
+    }
+
+    private void adjustProductCount(Integer proId, long delta) {
+        Map<Integer, AtomicLong> counts = productCounts;
+        if (counts == null) {
+            return; // 尚未載入，之後第一次讀取會直接取得最新值
+        }
+        AtomicLong count = counts.computeIfAbsent(proId, k -> new AtomicLong());
+        if (count.addAndGet(delta) < 0) {
+            count.set(0);
+        }
+    }
+
+    /**
+     * 清除單一會員的收藏集合快取
+     */
+    public void evictMember(Integer memId) {
+        if (memId != null) {
+            memberFavorites.compute(memId, (k, entry) -> {
+                memberVersions.incrementAndGet(stripeOf(k));
+                return null;
+            });
+        }
+    }
+
+    private static final class CachedFavorites {
+        final SortedIntSet ids;
+        final long expiresAt;
+
+        CachedFavorites(SortedIntSet ids, long expiresAt) {
+            this.ids = ids;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
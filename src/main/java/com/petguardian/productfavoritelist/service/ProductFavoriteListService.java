@@ -54,6 +54,7 @@ public interface ProductFavoriteListService {
 
     /**
      * 取得會員收藏的商品 ID 集合（用於商城頁面標示收藏狀態）
+     * 回傳快取中的唯讀集合，呼叫端不可修改
      */
     java.util.Set<Integer> getFavoriteProductIds(Integer memId);
 }
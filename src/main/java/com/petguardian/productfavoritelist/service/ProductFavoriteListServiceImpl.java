@@ -2,10 +2,9 @@ package com.petguardian.productfavoritelist.service;
 
 import com.petguardian.seller.model.ProductRepository;
 import com.petguardian.seller.model.Product;
-import com.petguardian.seller.model.ProductPicRepository;
-import com.petguardian.seller.model.ProductPic;
 import com.petguardian.productfavoritelist.model.ProductFavoriteListRepository;
 import com.petguardian.productfavoritelist.model.ProductFavoriteListVO;
+import com.petguardian.store.service.ImageCacheService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -24,7 +23,10 @@ public class ProductFavoriteListServiceImpl implements ProductFavoriteListServic
     private ProductRepository productDAO;
 
     @Autowired
-    private ProductPicRepository productPicDAO;
+    private ImageCacheService imageCacheService;
+
+    @Autowired
+    private ProductFavoriteCache favoriteCache;
 
     @Override
     public ProductFavoriteListVO addFavorite(Integer memId, Integer proId) {
@@ -45,7 +47,9 @@ public class ProductFavoriteListServiceImpl implements ProductFavoriteListServic
         favorite.setMemId(memId);
         favorite.setProId(proId);
 
-        return favoriteListDAO.save(favorite);
+        ProductFavoriteListVO saved = favoriteListDAO.save(favorite);
+        favoriteCache.onFavoriteAddedAfterCommit(memId, proId);
+        return saved;
     }
 
     @Override
@@ -64,6 +68,7 @@ public class ProductFavoriteListServiceImpl implements ProductFavoriteListServic
 
         // 取消收藏
         favoriteListDAO.deleteByMemIdAndProId(memId, proId);
+        favoriteCache.onFavoriteRemovedAfterCommit(memId, proId);
     }
 
     @Override
@@ -90,7 +95,7 @@ public class ProductFavoriteListServiceImpl implements ProductFavoriteListServic
         if (memId == null || proId == null) {
             throw new IllegalArgumentException("會員ID和商品ID不能為 null");
         }
-        return favoriteListDAO.existsByMemIdAndProId(memId, proId);
+        return favoriteCache.getFavoriteIds(memId).containsInt(proId);
     }
 
     @Override
@@ -108,6 +113,7 @@ public class ProductFavoriteListServiceImpl implements ProductFavoriteListServic
         if (isFavorited) {
             // 已收藏 -> 取消收藏
             favoriteListDAO.deleteByMemIdAndProId(memId, proId);
+            favoriteCache.onFavoriteRemovedAfterCommit(memId, proId);
             result.put("action", "removed");
             result.put("message", "已取消收藏");
             result.put("isFavorited", false);
@@ -117,6 +123,7 @@ public class ProductFavoriteListServiceImpl implements ProductFavoriteListServic
             favorite.setMemId(memId);
             favorite.setProId(proId);
             ProductFavoriteListVO saved = favoriteListDAO.save(favorite);
+            favoriteCache.onFavoriteAddedAfterCommit(memId, proId);
 
             result.put("action", "added");
             result.put("message", "已加入收藏");
@@ -133,7 +140,7 @@ public class ProductFavoriteListServiceImpl implements ProductFavoriteListServic
         if (memId == null) {
             throw new IllegalArgumentException("會員ID不能為 null");
         }
-        return favoriteListDAO.countByMemId(memId);
+        return (long) favoriteCache.getFavoriteIds(memId).size();
     }
 
     @Override
@@ -142,7 +149,7 @@ public class ProductFavoriteListServiceImpl implements ProductFavoriteListServic
         if (proId == null) {
             throw new IllegalArgumentException("商品ID不能為 null");
         }
-        return favoriteListDAO.countByProId(proId);
+        return favoriteCache.getProductFavoriteCount(proId);
     }
 
     @Override
@@ -154,6 +161,17 @@ public class ProductFavoriteListServiceImpl implements ProductFavoriteListServic
 
         List<ProductFavoriteListVO> favorites = favoriteListDAO.findByMemIdOrderByFavTimeDesc(memId);
         List<Map<String, Object>> result = new ArrayList<>();
+        if (favorites.isEmpty()) {
+            return result;
+        }
+
+        // 批次載入商品與圖片（各一次查詢）
+        List<Integer> proIds = favorites.stream()
+                .map(ProductFavoriteListVO::getProId)
+                .collect(Collectors.toList());
+        Map<Integer, Product> productMap = productDAO.findAllById(proIds).stream()
+                .collect(Collectors.toMap(Product::getProId, p -> p));
+        Map<Integer, String> imageMap = imageCacheService.getProductImageUrlMap(new ArrayList<>(productMap.keySet()));
 
         for (ProductFavoriteListVO fav : favorites) {
             Map<String, Object> favData = new HashMap<>();
@@ -161,20 +179,14 @@ public class ProductFavoriteListServiceImpl implements ProductFavoriteListServic
             favData.put("proId", fav.getProId());
             favData.put("favTime", fav.getFavTime());
 
-            // 從 product 表取得商品資訊
-            Product product = productDAO.findById(fav.getProId()).orElse(null);
+            Product product = productMap.get(fav.getProId());
             if (product != null) {
                 favData.put("productTitle", product.getProName());
                 favData.put("productPrice", product.getProPrice());
                 favData.put("stockQuantity", product.getStockQuantity());
 
-                // 取得商品圖片 URL
-                String imageUrl = "/images/default-product.png"; // 預設圖片
-                List<ProductPic> pics = productPicDAO.findByProduct_ProId(product.getProId());
-                if (!pics.isEmpty() && pics.get(0).getProPic() != null && !pics.get(0).getProPic().isEmpty()) {
-                    imageUrl = pics.get(0).getProPic();
-                }
-                favData.put("productImg", imageUrl);
+                // 取得商品圖片 URL（無圖片時為預設圖片）
+                favData.put("productImg", imageMap.getOrDefault(product.getProId(), "/images/default-product.png"));
 
                 // proState: 0=待售, 1=已售出, 2=下架
                 String status;
@@ -207,9 +219,7 @@ public class ProductFavoriteListServiceImpl implements ProductFavoriteListServic
             return Collections.emptySet();
         }
 
-        List<ProductFavoriteListVO> favorites = favoriteListDAO.findByMemIdOrderByFavTimeDesc(memId);
-        return favorites.stream()
-                .map(ProductFavoriteListVO::getProId)
-                .collect(Collectors.toSet());
+        // 回傳快取中的唯讀集合，不需逐次載入收藏資料列
+        return favoriteCache.getFavoriteIds(memId);
     }
 }
@@ -1,14 +1,20 @@
 package com.petguardian.seller.controller;
 
+import com.petguardian.seller.dto.AdminOrderCriteria;
 import com.petguardian.seller.model.ProType;
 import com.petguardian.seller.service.AdminStoreService;
 import com.petguardian.seller.service.ProTypeService;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import java.io.IOException;
+import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -26,33 +32,57 @@ public class AdminStoreController {
     @Autowired
     private ProTypeService proTypeService;
 
+    // 後台列表每頁筆數
+    private static final int ORDER_PAGE_SIZE = 20;
+
+    // 各訂單子分頁對應的訂單狀態
+    private static final List<Integer> PENDING_STATUSES = List.of(0, 1);
+    private static final List<Integer> CLOSED_STATUSES = List.of(2, 3, 6);
+    private static final List<Integer> RETURN_STATUSES = List.of(4, 5);
+    private static final List<Integer> ALL_STATUSES = List.of(0, 1, 2, 3, 4, 5, 6);
+
     /**
      * 二手商城管理頁面
+     * 訂單列表依子分頁分頁顯示，篩選條件（關鍵字、日期區間）套用於所有子分頁
      */
     @GetMapping("/manage")
     public String showStoreManagement(
             @RequestParam(defaultValue = "pending") String orderTab,
+            @RequestParam(defaultValue = "0") Integer page,
+            @RequestParam(defaultValue = "0") Integer refundPage,
+            @RequestParam(required = false) String keyword,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate,
             Model model) {
 
-            // 取得訂單相關資料
-            List<Map<String, Object>> pendingOrders = adminStoreService.getPendingOrders();
-            List<Map<String, Object>> closedOrders = adminStoreService.getClosedOrders();
-            List<Map<String, Object>> returnOrders = adminStoreService.getReturnOrders();
-            List<Map<String, Object>> returnsWithDetails = adminStoreService.getReturnOrdersWithDetails();
-
-            model.addAttribute("pendingOrders", pendingOrders);
-            model.addAttribute("closedOrders", closedOrders);
-            model.addAttribute("returnOrders", returnOrders);
-            model.addAttribute("returnsWithDetails", returnsWithDetails);
+            // 取得訂單相關資料（僅目前子分頁套用頁碼，其餘子分頁顯示第一頁）
+            Page<Map<String, Object>> pendingPage = adminStoreService.searchOrders(
+                    buildCriteria(PENDING_STATUSES, "pending".equals(orderTab) ? page : 0, keyword, fromDate, toDate));
+            Page<Map<String, Object>> closedPage = adminStoreService.searchOrders(
+                    buildCriteria(CLOSED_STATUSES, "closed".equals(orderTab) ? page : 0, keyword, fromDate, toDate));
+            Page<Map<String, Object>> returnPage = adminStoreService.searchOrders(
+                    buildCriteria(RETURN_STATUSES, "return".equals(orderTab) ? page : 0, keyword, fromDate, toDate));
+            Page<Map<String, Object>> returnsPage = adminStoreService.getReturnApplications(refundPage, ORDER_PAGE_SIZE);
+
+            model.addAttribute("pendingOrders", pendingPage.getContent());
+            model.addAttribute("closedOrders", closedPage.getContent());
+            model.addAttribute("returnOrders", returnPage.getContent());
+            model.addAttribute("returnsWithDetails", returnsPage.getContent());
+            model.addAttribute("pendingPage", pendingPage);
+            model.addAttribute("closedPage", closedPage);
+            model.addAttribute("returnPage", returnPage);
+            model.addAttribute("returnsPage", returnsPage);
             model.addAttribute("orderTab", orderTab);
+            model.addAttribute("keyword", keyword);
+            model.addAttribute("fromDate", fromDate);
+            model.addAttribute("toDate", toDate);
 
-            model.addAttribute("pendingCount", pendingOrders.size());
-            model.addAttribute("closedCount", closedOrders.size());
-            model.addAttribute("returnCount", returnOrders.size());
-            model.addAttribute("refundPendingCount",
-                    returnsWithDetails.stream()
-                            .filter(r -> Boolean.TRUE.equals(r.get("isPending")))
-                            .count());
+            // 子分頁數量（快取的整體統計，不受篩選影響）
+            Map<String, Long> counts = adminStoreService.getOrderStatusCounts();
+            model.addAttribute("pendingCount", counts.get("pendingCount"));
+            model.addAttribute("closedCount", counts.get("closedCount"));
+            model.addAttribute("returnCount", counts.get("returnCount"));
+            model.addAttribute("refundPendingCount", counts.get("refundPendingCount"));
 
             // 取得商品類別資料
             List<ProType> proTypes = proTypeService.getAllProTypes();
@@ -69,6 +99,46 @@ public class AdminStoreController {
             return "backend/market";
         }
 
+    /**
+     * 匯出訂單 CSV（依目前子分頁與篩選條件，分段讀取後串流寫出）
+     * GET /admin/store/orders/export?orderTab=&keyword=&fromDate=&toDate=
+     */
+    @GetMapping("/orders/export")
+    public void exportOrders(
+            @RequestParam(defaultValue = "all") String orderTab,
+            @RequestParam(required = false) String keyword,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate,
+            HttpServletResponse response) throws IOException {
+
+        // 檔名只使用比對到的分頁名稱，不直接放入請求參數
+        List<Integer> statuses;
+        String tabName;
+        switch (orderTab) {
+            case "pending": statuses = PENDING_STATUSES; tabName = "pending"; break;
+            case "closed": statuses = CLOSED_STATUSES; tabName = "closed"; break;
+            case "return": statuses = RETURN_STATUSES; tabName = "return"; break;
+            default: statuses = ALL_STATUSES; tabName = "all";
+        }
+
+        response.setContentType("text/csv; charset=UTF-8");
+        response.setHeader("Content-Disposition",
+                "attachment; filename=\"store-orders-" + tabName + "-" + LocalDate.now() + ".csv\"");
+        adminStoreService.exportOrdersCsv(buildCriteria(statuses, 0, keyword, fromDate, toDate), response.getWriter());
+    }
+
+    private AdminOrderCriteria buildCriteria(List<Integer> statuses, int page, String keyword,
+                                             LocalDate fromDate, LocalDate toDate) {
+        AdminOrderCriteria criteria = new AdminOrderCriteria();
+        criteria.setStatuses(statuses);
+        criteria.setPage(page);
+        criteria.setPageSize(ORDER_PAGE_SIZE);
+        criteria.setKeyword(keyword);
+        criteria.setFromDate(fromDate);
+        criteria.setToDate(toDate);
+        return criteria;
+    }
+
     // ==================== 退貨相關 ====================
 
     /**
@@ -1,5 +1,6 @@
 package com.petguardian.seller.controller;
 
+import com.petguardian.common.blob.ImageBlobService;
 import com.petguardian.common.service.AuthStrategyService;
 import com.petguardian.orders.model.OrderItemVO;
 import com.petguardian.orders.model.ReturnOrderPicVO;
@@ -19,9 +20,6 @@ import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
 
@@ -47,8 +45,8 @@ public class SellerController {
     @Autowired
     private ReturnOrderService returnOrderService;
 
-    // 圖片上傳目標資料夾（相對於 static 目錄）
-    private static final String UPLOAD_SUB_PATH = "images/store_image/";
+    @Autowired
+    private ImageBlobService imageBlobService;
 
     private Integer getCurrentMemId(HttpServletRequest request) {
         return authService.getCurrentUserId(request);
@@ -140,34 +138,11 @@ public class SellerController {
     }
 
     /**
-     * 將上傳的圖片檔案存到 src/main/resources/static/images/store_image/ 資料夾
-     * 回傳前端可存取的 URL 短路徑
+     * 將上傳的圖片串流存進 BlobStore（背景產生縮圖版本）
+     * 回傳前端可存取的 URL 短路徑 (/media/images/{blobId})
      */
     private String saveUploadedImage(MultipartFile file) throws IOException {
-        String originalFilename = file.getOriginalFilename();
-        String extension = "";
-        if (originalFilename != null && originalFilename.lastIndexOf(".") > 0) {
-            extension = originalFilename.substring(originalFilename.lastIndexOf("."));
-        }
-
-        // 產生唯一檔名
-        String newFilename = "prod_" + UUID.randomUUID().toString().substring(0, 8) + "_" + System.currentTimeMillis() + extension;
-
-        // 取得 static/images/store_image/ 的實際路徑 (本機開發用)
-        String staticPath = "src/main/resources/static/" + UPLOAD_SUB_PATH;
-        Path uploadDir = Paths.get(staticPath).toAbsolutePath().normalize();
-
-        if (!Files.exists(uploadDir)) {
-            Files.createDirectories(uploadDir);
-        }
-
-        Path targetPath = uploadDir.resolve(newFilename).normalize();
-        file.transferTo(targetPath.toFile());
-
-        System.out.println("圖片已存到: " + targetPath.toString());
-
-        // 回傳相對路徑供前端讀取
-        return "/" + UPLOAD_SUB_PATH + newFilename;
+        return imageBlobService.storeAsUrl(file);
     }
 
     @PostMapping("/product/delete")
@@ -0,0 +1,29 @@
+package com.petguardian.seller.dto;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 後台訂單查詢條件
+ * 用於後台訂單列表分頁與 CSV 匯出
+ */
+@Data
+public class AdminOrderCriteria {
+
+    // 訂單狀態篩選（必填，例如待完成為 0、1）
+    private List<Integer> statuses = new ArrayList<>();
+
+    // 關鍵字（純數字時比對訂單編號，否則比對買家或賣家名稱）
+    private String keyword;
+
+    // 下單日期區間（含起訖日）
+    private LocalDate fromDate;
+    private LocalDate toDate;
+
+    // 分頁參數
+    private int page = 0; // 頁碼（從 0 開始）
+    private int pageSize = 20; // 每頁筆數
+}
@@ -0,0 +1,36 @@
+package com.petguardian.seller.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * 賣家統計 DTO
+ * 由 seller_stats / seller_order_stats 摘要表組成，供營運概況直接讀取
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SellerStatsDTO {
+
+    private Integer sellerMemId;
+
+    // ==================== 訂單統計 ====================
+    private Long totalOrders;               // 訂單總數
+    private Long pendingShipment;           // 待出貨訂單數（狀態 0）
+    private Long paidOutRevenue;            // 已撥款營收（狀態 6 的訂單金額）
+    private Map<Integer, Long> orderCountByStatus; // 訂單狀態 -> 筆數
+
+    // ==================== 評價統計 ====================
+    private Long ratingSum;                 // 總星星數
+    private Long ratingCount;               // 評價數量
+    private Double averageRating;           // 平均評分（四捨五入到小數點後一位）
+
+    // ==================== 商品統計 ====================
+    private Long totalProducts;             // 商品總數
+    private Long activeProducts;            // 上架中商品數
+}
@@ -1,6 +1,7 @@
 package com.petguardian.seller.model;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import java.util.List;
 
@@ -21,4 +22,14 @@ public interface ProductRepository extends JpaRepository<Product, Integer> {
 
     // 查詢特定賣家的上架商品 (給加購區用)
     List<Product> findByMemIdAndProState(Integer memId, Integer proState);
+
+    // 計算賣家商品總數
+    long countByMemId(Integer memId);
+
+    // 計算賣家指定狀態的商品數
+    long countByMemIdAndProState(Integer memId, Integer proState);
+
+    // 查詢所有有商品的賣家 ID（賣家統計對帳用）
+    @Query("SELECT DISTINCT p.memId FROM Product p")
+    List<Integer> findDistinctMemIds();
 }
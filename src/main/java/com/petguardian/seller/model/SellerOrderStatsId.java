@@ -0,0 +1,16 @@
+package com.petguardian.seller.model;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class SellerOrderStatsId implements Serializable {
+
+    private Integer sellerMemId;
+    private Integer orderStatus;
+}
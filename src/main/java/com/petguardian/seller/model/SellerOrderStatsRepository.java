@@ -0,0 +1,32 @@
+package com.petguardian.seller.model;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface SellerOrderStatsRepository extends JpaRepository<SellerOrderStatsVO, SellerOrderStatsId> {
+
+    // 查詢賣家各狀態的訂單統計
+    List<SellerOrderStatsVO> findBySellerMemId(Integer sellerMemId);
+
+    // 增量更新指定狀態的筆數與金額（不存在則新增）
+    @Modifying
+    @Query(value = "INSERT INTO seller_order_stats (seller_mem_id, order_status, order_count, order_amount) "
+            + "VALUES (:sellerMemId, :orderStatus, :countDelta, :amountDelta) "
+            + "ON DUPLICATE KEY UPDATE order_count = order_count + :countDelta, order_amount = order_amount + :amountDelta",
+            nativeQuery = true)
+    int applyOrderDelta(@Param("sellerMemId") Integer sellerMemId,
+                        @Param("orderStatus") Integer orderStatus,
+                        @Param("countDelta") long countDelta,
+                        @Param("amountDelta") long amountDelta);
+
+    // 對帳前清除賣家的訂單統計
+    @Modifying
+    @Query("DELETE FROM SellerOrderStatsVO s WHERE s.sellerMemId = :sellerMemId")
+    int deleteBySellerMemId(@Param("sellerMemId") Integer sellerMemId);
+}
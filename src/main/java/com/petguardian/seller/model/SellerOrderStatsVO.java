@@ -0,0 +1,32 @@
+package com.petguardian.seller.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * 賣家訂單統計（每位賣家、每個訂單狀態一列）
+ *
+ * 訂單狀態轉換時以 INSERT ... ON DUPLICATE KEY UPDATE 增量更新筆數與金額。
+ */
+@Entity
+@Table(name = "seller_order_stats")
+@IdClass(SellerOrderStatsId.class)
+@Getter
+@Setter
+public class SellerOrderStatsVO {
+
+    @Id
+    @Column(name = "seller_mem_id")
+    private Integer sellerMemId;
+
+    @Id
+    @Column(name = "order_status")
+    private Integer orderStatus; // 0:已付款 1:已出貨 2:已完成 3:已取消 4:申請退貨中 5:退貨完成 6:已撥款
+
+    @Column(name = "order_count", nullable = false)
+    private Long orderCount = 0L;
+
+    @Column(name = "order_amount", nullable = false)
+    private Long orderAmount = 0L;
+}
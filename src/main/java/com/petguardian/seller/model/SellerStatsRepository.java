@@ -0,0 +1,46 @@
+package com.petguardian.seller.model;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface SellerStatsRepository extends JpaRepository<SellerStatsVO, Integer> {
+
+    // 對帳時鎖定賣家統計列，與增量更新互斥
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM SellerStatsVO s WHERE s.sellerMemId = :sellerMemId")
+    Optional<SellerStatsVO> findByIdForUpdate(@Param("sellerMemId") Integer sellerMemId);
+
+    // 建立空白統計列（已存在則不動），讓同時對帳的交易不會因主鍵重複而失敗
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO seller_stats (seller_mem_id) VALUES (:sellerMemId)", nativeQuery = true)
+    int insertIfAbsent(@Param("sellerMemId") Integer sellerMemId);
+
+    // 更新時間戳記（同時取得列鎖）；回傳 0 表示該賣家尚未建立統計
+    @Modifying
+    @Query("UPDATE SellerStatsVO s SET s.updatedAt = CURRENT_TIMESTAMP WHERE s.sellerMemId = :sellerMemId")
+    int touch(@Param("sellerMemId") Integer sellerMemId);
+
+    // 評價增量更新
+    @Modifying
+    @Query("UPDATE SellerStatsVO s SET s.ratingSum = s.ratingSum + :sumDelta, s.ratingCount = s.ratingCount + :countDelta, "
+            + "s.updatedAt = CURRENT_TIMESTAMP WHERE s.sellerMemId = :sellerMemId")
+    int applyRatingDelta(@Param("sellerMemId") Integer sellerMemId,
+                         @Param("sumDelta") long sumDelta,
+                         @Param("countDelta") long countDelta);
+
+    // 商品數量更新
+    @Modifying
+    @Query("UPDATE SellerStatsVO s SET s.totalProducts = :totalProducts, s.activeProducts = :activeProducts, "
+            + "s.updatedAt = CURRENT_TIMESTAMP WHERE s.sellerMemId = :sellerMemId")
+    int updateProductCounts(@Param("sellerMemId") Integer sellerMemId,
+                            @Param("totalProducts") long totalProducts,
+                            @Param("activeProducts") long activeProducts);
+}
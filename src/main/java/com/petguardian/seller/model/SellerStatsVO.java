@@ -0,0 +1,42 @@
+package com.petguardian.seller.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * 賣家統計摘要（每位賣家一列）
+ *
+ * 評價與商品數量由寫入路徑增量維護，並由每日對帳重新計算。
+ * 資料表定義見 resources/sql/seller_stats.sql
+ */
+@Entity
+@Table(name = "seller_stats")
+@Getter
+@Setter
+public class SellerStatsVO {
+
+    @Id
+    @Column(name = "seller_mem_id")
+    private Integer sellerMemId;
+
+    @Column(name = "rating_sum", nullable = false)
+    private Long ratingSum = 0L; // 顯示中評價的總星星數
+
+    @Column(name = "rating_count", nullable = false)
+    private Long ratingCount = 0L; // 顯示中評價的數量
+
+    @Column(name = "total_products", nullable = false)
+    private Long totalProducts = 0L;
+
+    @Column(name = "active_products", nullable = false)
+    private Long activeProducts = 0L;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Column(name = "reconciled_at")
+    private LocalDateTime reconciledAt; // 最後一次對帳時間
+}
@@ -1,19 +1,26 @@
 package com.petguardian.seller.service;
 
+import com.petguardian.seller.dto.AdminOrderCriteria;
+import org.springframework.data.domain.Page;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.Writer;
 import java.util.Map;
 
 public interface AdminStoreService {
 
-    List<Map<String, Object>> getPendingOrders();
+    // 分頁查詢訂單（買家、賣家名稱與商品件數於 SQL 端 JOIN 取得）
+    Page<Map<String, Object>> searchOrders(AdminOrderCriteria criteria);
 
-    List<Map<String, Object>> getClosedOrders();
+    // 分頁查詢退貨申請（含訂單、買家與賣家名稱）
+    Page<Map<String, Object>> getReturnApplications(int page, int size);
 
-    List<Map<String, Object>> getReturnOrders();
+    // 各分頁的訂單數量（pendingCount、closedCount、returnCount、refundPendingCount），短暫快取
+    Map<String, Long> getOrderStatusCounts();
 
-    List<Map<String, Object>> getReturnOrdersWithDetails();
+    // 依查詢條件將訂單以 CSV 串流寫出（分段讀取，不一次載入全部資料）
+    void exportOrdersCsv(AdminOrderCriteria criteria, Writer writer) throws IOException;
 
     Map<String, Object> getReturnOrderDetail(Integer returnId);
 
@@ -26,4 +33,4 @@ public interface AdminStoreService {
     @Transactional(readOnly = true)
     Map<String, Object> getOrderDetailForAdmin(Integer orderId);
 
-}
\ No newline at end of file
+}
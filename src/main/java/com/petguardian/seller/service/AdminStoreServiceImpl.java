@@ -1,14 +1,24 @@
 package com.petguardian.seller.service;
 
+import com.petguardian.common.tx.AfterCommit;
+import com.petguardian.common.util.CsvUtils;
 import com.petguardian.orders.model.*;
 import com.petguardian.orders.service.OrdersService;
+import com.petguardian.seller.dto.AdminOrderCriteria;
 import com.petguardian.wallet.model.Wallet;
 import com.petguardian.wallet.model.WalletRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -33,7 +43,7 @@ public class AdminStoreServiceImpl implements AdminStoreService {
     private OrdersService ordersService;
 
     @Autowired
-    private StoreMemberRepository memberRepository;
+    private SellerStatsService sellerStatsService;
 
     private static final Integer STATUS_PAID = 0;
     private static final Integer STATUS_SHIPPED = 1;
@@ -47,82 +57,141 @@ public class AdminStoreServiceImpl implements AdminStoreService {
     private static final Integer RETURN_STATUS_APPROVED = 1;
     private static final Integer RETURN_STATUS_REJECTED = 2;
 
-    // ... getPendingOrders, getClosedOrders, getReturnOrders 保持原樣 (省略以節省空間，請使用上方你提供的版本，這邊只顯示關鍵修改方法) ...
-    // 請保留原有的 getPendingOrders, getClosedOrders, getReturnOrders, getReturnOrdersWithDetails 方法
+    // 各分頁訂單數量快取（後台頁面每次載入都會用到，短暫快取即可）
+    private static final long STATUS_COUNTS_TTL_MS = 30_000L;
+    private volatile Map<String, Long> statusCountsCache;
+    private volatile long statusCountsExpireAt;
+
+    // CSV 匯出每段讀取筆數
+    private static final int EXPORT_CHUNK_SIZE = 1000;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final DateTimeFormatter CSV_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    /**
+     * 由查詢條件整理出的 SQL 參數
+     */
+    private static final class OrderFilter {
+        final List<Integer> statuses;
+        final String keywordLike;
+        final Integer orderIdKeyword;
+        final LocalDateTime fromTime;
+        final LocalDateTime toTime;
+
+        OrderFilter(AdminOrderCriteria criteria) {
+            this.statuses = criteria.getStatuses();
+            String keyword = criteria.getKeyword() != null ? criteria.getKeyword().trim() : "";
+            this.keywordLike = keyword.isEmpty() ? null : "%" + keyword + "%";
+            this.orderIdKeyword = keyword.matches("\\d{1,9}") ? Integer.valueOf(keyword) : null;
+            this.fromTime = criteria.getFromDate() != null ? criteria.getFromDate().atStartOfDay() : null;
+            this.toTime = criteria.getToDate() != null ? criteria.getToDate().plusDays(1).atStartOfDay() : null;
+        }
+    }
 
     @Override
     @Transactional(readOnly = true)
-    public List<Map<String, Object>> getPendingOrders() {
-        List<Map<String, Object>> result = new ArrayList<>();
-        List<OrdersVO> paidOrders = ordersRepository.findByOrderStatusOrderByOrderTimeDesc(STATUS_PAID);
-        List<OrdersVO> shippedOrders = ordersRepository.findByOrderStatusOrderByOrderTimeDesc(STATUS_SHIPPED);
-        List<OrdersVO> allPendingOrders = new ArrayList<>();
-        allPendingOrders.addAll(paidOrders);
-        allPendingOrders.addAll(shippedOrders);
-        for (OrdersVO order : allPendingOrders) {
-            result.add(buildOrderData(order));
+    public Page<Map<String, Object>> searchOrders(AdminOrderCriteria criteria) {
+        if (criteria.getStatuses() == null || criteria.getStatuses().isEmpty()) {
+            return Page.empty();
         }
-        return result;
+        OrderFilter filter = new OrderFilter(criteria);
+        int size = Math.min(Math.max(criteria.getPageSize(), 1), MAX_PAGE_SIZE);
+        PageRequest pageable = PageRequest.of(Math.max(criteria.getPage(), 0), size);
+
+        return ordersRepository.searchAdminOrders(filter.statuses, filter.keywordLike, filter.orderIdKeyword,
+                filter.fromTime, filter.toTime, pageable).map(row -> {
+                    OrdersVO order = (OrdersVO) row[0];
+                    Map<String, Object> orderData = new HashMap<>();
+                    orderData.put("order", order);
+                    orderData.put("buyerName", row[1]);
+                    orderData.put("sellerName", row[2]);
+                    orderData.put("itemQuantity", row[3]);
+                    orderData.put("canPayout", STATUS_COMPLETED.equals(order.getOrderStatus()));
+                    orderData.put("isCanceled", STATUS_CANCELED.equals(order.getOrderStatus()));
+                    orderData.put("isPaidOut", STATUS_PAIDOUT.equals(order.getOrderStatus()));
+                    return orderData;
+                });
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<Map<String, Object>> getClosedOrders() {
-        List<Map<String, Object>> result = new ArrayList<>();
-        List<OrdersVO> completedOrders = ordersRepository.findByOrderStatusOrderByOrderTimeDesc(STATUS_COMPLETED);
-        List<OrdersVO> canceledOrders = ordersRepository.findByOrderStatusOrderByOrderTimeDesc(STATUS_CANCELED);
-        List<OrdersVO> paidOutOrders = ordersRepository.findByOrderStatusOrderByOrderTimeDesc(STATUS_PAIDOUT);
-        List<OrdersVO> allClosedOrders = new ArrayList<>();
-        allClosedOrders.addAll(completedOrders);
-        allClosedOrders.addAll(canceledOrders);
-        allClosedOrders.addAll(paidOutOrders);
-        for (OrdersVO order : allClosedOrders) {
-            Map<String, Object> orderData = buildOrderData(order);
-            orderData.put("canPayout", order.getOrderStatus().equals(STATUS_COMPLETED));
-            orderData.put("isCanceled", order.getOrderStatus().equals(STATUS_CANCELED));
-            orderData.put("isPaidOut", order.getOrderStatus().equals(STATUS_PAIDOUT));
-            result.add(orderData);
-        }
-        return result;
+    public Page<Map<String, Object>> getReturnApplications(int page, int size) {
+        int safeSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        return returnOrderRepository.findReturnApplicationsWithMembers(PageRequest.of(Math.max(page, 0), safeSize))
+                .map(row -> {
+                    ReturnOrderVO returnOrder = (ReturnOrderVO) row[0];
+                    Map<String, Object> returnData = new HashMap<>();
+                    returnData.put("returnOrder", returnOrder);
+                    returnData.put("order", row[1]);
+                    returnData.put("buyerName", row[2]);
+                    returnData.put("sellerName", row[3]);
+                    returnData.put("isPending", RETURN_STATUS_PENDING.equals(returnOrder.getReturnStatus()));
+                    returnData.put("isApproved", RETURN_STATUS_APPROVED.equals(returnOrder.getReturnStatus()));
+                    returnData.put("isRejected", RETURN_STATUS_REJECTED.equals(returnOrder.getReturnStatus()));
+                    return returnData;
+                });
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<Map<String, Object>> getReturnOrders() {
-        List<Map<String, Object>> result = new ArrayList<>();
-        List<OrdersVO> refundingOrders = ordersRepository.findByOrderStatusOrderByOrderTimeDesc(STATUS_REFUNDING);
-        List<OrdersVO> refundedOrders = ordersRepository.findByOrderStatusOrderByOrderTimeDesc(STATUS_REFUNDED);
-        List<OrdersVO> allReturnOrders = new ArrayList<>();
-        allReturnOrders.addAll(refundingOrders);
-        allReturnOrders.addAll(refundedOrders);
-        for (OrdersVO order : allReturnOrders) {
-            result.add(buildOrderData(order));
+    public Map<String, Long> getOrderStatusCounts() {
+        Map<String, Long> cached = statusCountsCache;
+        if (cached != null && System.currentTimeMillis() < statusCountsExpireAt) {
+            return cached;
         }
-        return result;
+
+        // 一次 GROUP BY 取得各狀態數量
+        Map<Integer, Long> countByStatus = new HashMap<>();
+        for (Object[] row : ordersRepository.countByOrderStatus()) {
+            countByStatus.put(((Number) row[0]).intValue(), ((Number) row[1]).longValue());
+        }
+
+        Map<String, Long> counts = new HashMap<>();
+        counts.put("pendingCount", sumCounts(countByStatus, STATUS_PAID, STATUS_SHIPPED));
+        counts.put("closedCount", sumCounts(countByStatus, STATUS_COMPLETED, STATUS_CANCELED, STATUS_PAIDOUT));
+        counts.put("returnCount", sumCounts(countByStatus, STATUS_REFUNDING, STATUS_REFUNDED));
+        counts.put("refundPendingCount", returnOrderRepository.countByReturnStatus(RETURN_STATUS_PENDING));
+
+        Map<String, Long> snapshot = Collections.unmodifiableMap(counts);
+        statusCountsCache = snapshot;
+        statusCountsExpireAt = System.currentTimeMillis() + STATUS_COUNTS_TTL_MS;
+        return snapshot;
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<Map<String, Object>> getReturnOrdersWithDetails() {
-        List<Map<String, Object>> result = new ArrayList<>();
-        List<ReturnOrderVO> allReturnApplications = returnOrderRepository.findAllByOrderByApplyTimeDesc();
-        for (ReturnOrderVO returnOrder : allReturnApplications) {
-            Map<String, Object> returnData = new HashMap<>();
-            returnData.put("returnOrder", returnOrder);
-            ordersRepository.findById(returnOrder.getOrderId())
-                    .ifPresent(order -> {
-                        returnData.put("order", order);
-                        memberRepository.findById(order.getBuyerMemId())
-                                .ifPresent(buyer -> returnData.put("buyerName", buyer.getMemName()));
-                        memberRepository.findById(order.getSellerMemId())
-                                .ifPresent(seller -> returnData.put("sellerName", seller.getMemName()));
-                    });
-            returnData.put("isPending", returnOrder.getReturnStatus().equals(RETURN_STATUS_PENDING));
-            returnData.put("isApproved", returnOrder.getReturnStatus().equals(RETURN_STATUS_APPROVED));
-            returnData.put("isRejected", returnOrder.getReturnStatus().equals(RETURN_STATUS_REJECTED));
-            result.add(returnData);
+    public void exportOrdersCsv(AdminOrderCriteria criteria, Writer writer) throws IOException {
+        // BOM 讓 Excel 正確辨識 UTF-8 中文
+        writer.write('\uFEFF');
+        writer.write("訂單編號,下單時間,訂單狀態,買家編號,買家名稱,賣家編號,賣家名稱,訂單金額,商品件數\n");
+        if (criteria.getStatuses() == null || criteria.getStatuses().isEmpty()) {
+            writer.flush();
+            return;
+        }
+
+        OrderFilter filter = new OrderFilter(criteria);
+        PageRequest chunk = PageRequest.of(0, EXPORT_CHUNK_SIZE);
+        Integer beforeOrderId = null;
+        while (true) {
+            List<Object[]> rows = ordersRepository.findAdminOrderExportChunk(filter.statuses, filter.keywordLike,
+                    filter.orderIdKeyword, filter.fromTime, filter.toTime, beforeOrderId, chunk);
+            for (Object[] row : rows) {
+                LocalDateTime orderTime = (LocalDateTime) row[1];
+                writer.write(row[0] + ","
+                        + (orderTime != null ? orderTime.format(CSV_TIME_FORMAT) : "") + ","
+                        + CsvUtils.escape(getOrderStatusText((Integer) row[2])) + ","
+                        + row[3] + ","
+                        + CsvUtils.escape((String) row[4]) + ","
+                        + row[5] + ","
+                        + CsvUtils.escape((String) row[6]) + ","
+                        + (row[7] != null ? row[7] : 0) + ","
+                        + row[8] + "\n");
+            }
+            writer.flush();
+            if (rows.size() < EXPORT_CHUNK_SIZE) {
+                break;
+            }
+            beforeOrderId = (Integer) rows.get(rows.size() - 1)[0];
         }
-        return result;
     }
 
     @Override
@@ -132,8 +201,13 @@ public class AdminStoreServiceImpl implements AdminStoreService {
         Map<String, Object> result = new HashMap<>();
 
         try {
-            ReturnOrderVO returnOrder = returnOrderRepository.findById(returnId)
-                    .orElseThrow(() -> new RuntimeException("退貨申請不存在"));
+            // 一次 JOIN 取得退貨單、訂單金額與買家、賣家名稱
+            List<Object[]> rows = returnOrderRepository.findWithMemberNamesById(returnId);
+            if (rows.isEmpty()) {
+                throw new RuntimeException("退貨申請不存在");
+            }
+            Object[] row = rows.get(0);
+            ReturnOrderVO returnOrder = (ReturnOrderVO) row[0];
 
             result.put("success", true);
             result.put("returnId", returnOrder.getReturnId());
@@ -143,14 +217,9 @@ public class AdminStoreServiceImpl implements AdminStoreService {
             result.put("applyTime", returnOrder.getApplyTime());
             result.put("returnStatus", returnOrder.getReturnStatus());
 
-            ordersRepository.findById(returnOrder.getOrderId())
-                    .ifPresent(order -> {
-                        result.put("orderTotal", order.getOrderTotal());
-                        memberRepository.findById(order.getBuyerMemId())
-                                .ifPresent(buyer -> result.put("buyerName", buyer.getMemName()));
-                        memberRepository.findById(order.getSellerMemId())
-                                .ifPresent(seller -> result.put("sellerName", seller.getMemName()));
-                    });
+            result.put("orderTotal", row[1]);
+            putIfNotNull(result, "buyerName", row[2]);
+            putIfNotNull(result, "sellerName", row[3]);
 
             // 修正部分：直接讀取 picUrl，不再做 Base64 編碼
             List<ReturnOrderPicVO> pics = returnOrderPicRepository.findByReturnOrder_ReturnId(returnId);
@@ -189,8 +258,10 @@ public class AdminStoreServiceImpl implements AdminStoreService {
 
         OrdersVO order = ordersRepository.findById(returnOrder.getOrderId())
                 .orElseThrow(() -> new RuntimeException("訂單不存在"));
+        Integer oldStatus = order.getOrderStatus();
         order.setOrderStatus(STATUS_REFUNDED);
         ordersRepository.save(order);
+        sellerStatsService.onOrderStatusChanged(order.getSellerMemId(), oldStatus, STATUS_REFUNDED, order.getOrderTotal());
 
         Integer refundAmount = returnOrder.getRefundAmount();
         Wallet buyerWallet = walletRepository.findByMemId(order.getBuyerMemId())
@@ -198,6 +269,7 @@ public class AdminStoreServiceImpl implements AdminStoreService {
 
         buyerWallet.setBalance(buyerWallet.getBalance() + refundAmount);
         walletRepository.save(buyerWallet);
+        evictStatusCountsAfterCommit();
     }
 
     // 拒絕退貨申請，更新訂單狀態並撥款給賣家
@@ -215,8 +287,10 @@ public class AdminStoreServiceImpl implements AdminStoreService {
 
         OrdersVO order = ordersRepository.findById(returnOrder.getOrderId())
                 .orElseThrow(() -> new RuntimeException("訂單不存在"));
+        Integer oldStatus = order.getOrderStatus();
         order.setOrderStatus(STATUS_COMPLETED);
         ordersRepository.save(order);
+        sellerStatsService.onOrderStatusChanged(order.getSellerMemId(), oldStatus, STATUS_COMPLETED, order.getOrderTotal());
 
         Integer payoutAmount = returnOrder.getRefundAmount();
         Wallet sellerWallet = walletRepository.findByMemId(order.getSellerMemId())
@@ -224,6 +298,7 @@ public class AdminStoreServiceImpl implements AdminStoreService {
 
         sellerWallet.setBalance(sellerWallet.getBalance() + payoutAmount);
         walletRepository.save(sellerWallet);
+        evictStatusCountsAfterCommit();
     }
     // 撥款給賣家，更新訂單狀態
     @Override
@@ -244,6 +319,8 @@ public class AdminStoreServiceImpl implements AdminStoreService {
 
         order.setOrderStatus(STATUS_PAIDOUT);
         ordersRepository.save(order);
+        sellerStatsService.onOrderStatusChanged(order.getSellerMemId(), STATUS_COMPLETED, STATUS_PAIDOUT, payoutAmount);
+        evictStatusCountsAfterCommit();
     }
 
     // 取得訂單詳情（包含買家、賣家名稱及訂單項目），給管理員使用
@@ -253,9 +330,12 @@ public class AdminStoreServiceImpl implements AdminStoreService {
         Map<String, Object> result = new HashMap<>();
 
         try {
-            // 查詢訂單基本資料
-            OrdersVO order = ordersRepository.findById(orderId)
-                    .orElseThrow(() -> new RuntimeException("訂單不存在"));
+            // 查詢訂單基本資料（一次 JOIN 帶出買家、賣家名稱）
+            List<Object[]> rows = ordersRepository.findWithMemberNamesById(orderId);
+            if (rows.isEmpty()) {
+                throw new RuntimeException("訂單不存在");
+            }
+            OrdersVO order = (OrdersVO) rows.get(0)[0];
 
             result.put("success", true);
             result.put("orderId", order.getOrderId());
@@ -278,13 +358,9 @@ public class AdminStoreServiceImpl implements AdminStoreService {
             result.put("receiverAddress", order.getReceiverAddress());
             result.put("specialInstructions", order.getSpecialInstructions());
 
-            // 買家名稱
-            memberRepository.findById(order.getBuyerMemId())
-                    .ifPresent(buyer -> result.put("buyerName", buyer.getMemName()));
-
-            // 賣家名稱
-            memberRepository.findById(order.getSellerMemId())
-                    .ifPresent(seller -> result.put("sellerName", seller.getMemName()));
+            // 買家、賣家名稱
+            putIfNotNull(result, "buyerName", rows.get(0)[1]);
+            putIfNotNull(result, "sellerName", rows.get(0)[2]);
 
             // 利用已注入的 ordersService 取得商品明細（不需額外注入其他 Repository）
             try {
@@ -321,20 +397,39 @@ public class AdminStoreServiceImpl implements AdminStoreService {
         return result;
     }
 
-    // 建立訂單資料的輔助方法，包含買家、賣家名稱及訂單項目
-    private Map<String, Object> buildOrderData(OrdersVO order) {
-        Map<String, Object> orderData = new HashMap<>();
-        orderData.put("order", order);
-        memberRepository.findById(order.getBuyerMemId())
-                .ifPresent(buyer -> orderData.put("buyerName", buyer.getMemName()));
-        memberRepository.findById(order.getSellerMemId())
-                .ifPresent(seller -> orderData.put("sellerName", seller.getMemName()));
-        try {
-            Map<String, Object> orderWithItems = ordersService.getOrderWithItems(order.getOrderId());
-            orderData.put("items", orderWithItems.get("orderItems"));
-        } catch (Exception e) {
-            orderData.put("items", new ArrayList<>());
+    // 交易提交後清除訂單數量快取，讓後台頁面立即反映審核與撥款結果
+    private void evictStatusCountsAfterCommit() {
+        statusCountsCache = null;
+        AfterCommit.run(() -> statusCountsCache = null);
+    }
+
+    private static long sumCounts(Map<Integer, Long> countByStatus, Integer... statuses) {
+        long total = 0;
+        for (Integer status : statuses) {
+            total += countByStatus.getOrDefault(status, 0L);
+        }
+        return total;
+    }
+
+    private static void putIfNotNull(Map<String, Object> map, String key, Object value) {
+        if (value != null) {
+            map.put(key, value);
+        }
+    }
+
+    private static String getOrderStatusText(Integer status) {
+        if (status == null) {
+            return "";
+        }
+        switch (status) {
+            case 0: return "已付款";
+            case 1: return "已出貨";
+            case 2: return "已完成";
+            case 3: return "已取消";
+            case 4: return "申請退貨中";
+            case 5: return "退貨完成";
+            case 6: return "已撥款";
+            default: return String.valueOf(status);
         }
-        return orderData;
     }
-}
\ No newline at end of file
+}
@@ -2,6 +2,7 @@ package com.petguardian.seller.service;
 
 import com.petguardian.seller.model.*;
 import com.petguardian.store.service.ImageCacheService;
+import com.petguardian.store.service.ProductSearchService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
@@ -24,6 +25,12 @@ public class ProductServiceImpl implements ProductService {
     @Autowired
     private ImageCacheService imageCacheService;
 
+    @Autowired
+    private ProductSearchService productSearchService;
+
+    @Autowired
+    private SellerStatsService sellerStatsService;
+
     // 預設圖片（當商品沒有圖片時使用）
     private static final String DEFAULT_IMAGE = "/images/default-product.png";
 
@@ -58,15 +65,21 @@ public class ProductServiceImpl implements ProductService {
     @Override
     @Transactional
     public Product saveProduct(Product product) {
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        productSearchService.refreshProductAfterCommit(saved.getProId());
+        sellerStatsService.refreshProductCounts(saved.getMemId());
+        return saved;
     }
 
     @Override
     @Transactional
     public void deleteProduct(Integer proId) {
         if (proId != null) {
+            Integer sellerId = productRepository.findById(proId).map(Product::getMemId).orElse(null);
             productRepository.deleteById(proId);
             imageCacheService.evictCache(proId);
+            productSearchService.removeProductAfterCommit(proId);
+            sellerStatsService.refreshProductCounts(sellerId);
         }
     }
 
@@ -85,6 +98,8 @@ public class ProductServiceImpl implements ProductService {
 
         productRepository.deleteById(proId);
         imageCacheService.evictCache(proId);
+        productSearchService.removeProductAfterCommit(proId);
+        sellerStatsService.refreshProductCounts(sellerId);
         return true;
     }
 
@@ -266,6 +281,10 @@ public class ProductServiceImpl implements ProductService {
             imageCacheService.evictCache(savedProId);
             System.out.println("已清除商品 " + savedProId + " 的圖片快取");
 
+            // 5. 交易提交後更新商城搜尋索引
+            productSearchService.refreshProductAfterCommit(savedProId);
+            sellerStatsService.refreshProductCounts(sellerId);
+
             System.out.println("=== saveProductWithImages 結束 ===");
             return savedProduct;
 
@@ -281,16 +300,18 @@ public class ProductServiceImpl implements ProductService {
     @Override
     @Transactional(readOnly = true)
     public long countSellerProducts(Integer sellerId) {
-        List<Product> products = getSellerProducts(sellerId);
-        return products.size();
+        if (sellerId == null) {
+            return 0;
+        }
+        return productRepository.countByMemId(sellerId);
     }
 
     @Override
     @Transactional(readOnly = true)
     public long countActiveProducts(Integer sellerId) {
-        List<Product> products = getSellerProducts(sellerId);
-        return products.stream()
-                .filter(p -> p.getProState() != null && p.getProState() == 1)
-                .count();
+        if (sellerId == null) {
+            return 0;
+        }
+        return productRepository.countByMemIdAndProState(sellerId, 1);
     }
 }
\ No newline at end of file
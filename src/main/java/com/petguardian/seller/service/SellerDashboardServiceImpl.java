@@ -2,13 +2,12 @@ package com.petguardian.seller.service;
 
 import com.petguardian.member.model.Member;
 import com.petguardian.member.repository.register.MemberRegisterRepository;
-import com.petguardian.orders.model.OrdersRepository;
-import com.petguardian.orders.model.OrdersVO;
 import com.petguardian.orders.model.StoreMemberRepository;
 import com.petguardian.orders.model.StoreMemberVO;
+import com.petguardian.seller.dto.SellerStatsDTO;
 import com.petguardian.sellerreview.model.SellerReviewRepository;
-import com.petguardian.sellerreview.model.SellerReviewVO;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -34,13 +33,7 @@ public class SellerDashboardServiceImpl implements SellerDashboardService {
     private SellerReviewRepository sellerReviewRepository;
 
     @Autowired
-    private OrdersRepository ordersRepository;
-
-    @Autowired
-    private ProductService productService;
-
-    @Autowired
-    private SellerOrderService sellerOrderService;
+    private SellerStatsService sellerStatsService;
 
     // ==================== 賣家資訊 ====================
 
@@ -85,19 +78,10 @@ public class SellerDashboardServiceImpl implements SellerDashboardService {
             return result;
         }
 
-        // 使用 SellerReviewRepository 的查詢方法
-        Double avgRating = sellerReviewRepository.calculateAverageRatingBySellerMemId(memId);
-        Long reviewCount = sellerReviewRepository.countBySellerMemIdAndShowStatus(memId);
-
-        // 處理 null 值
-        if (avgRating == null) avgRating = 0.0;
-        if (reviewCount == null) reviewCount = 0L;
-
-        // 四捨五入到小數點後一位
-        avgRating = Math.round(avgRating * 10.0) / 10.0;
-
-        result.put("averageRating", avgRating);
-        result.put("totalRatingCount", reviewCount.intValue());
+        // 從賣家統計摘要取得（平均評分已四捨五入到小數點後一位）
+        SellerStatsDTO stats = sellerStatsService.getSellerStats(memId);
+        result.put("averageRating", stats.getAverageRating());
+        result.put("totalRatingCount", stats.getRatingCount().intValue());
 
         return result;
     }
@@ -111,38 +95,22 @@ public class SellerDashboardServiceImpl implements SellerDashboardService {
             return result;
         }
 
-        // 使用 Repository 的現有方法查詢賣家評價（showStatus = 0 表示顯示）
-        List<SellerReviewVO> reviews = sellerReviewRepository.findBySellerMemIdAndShowStatus(sellerId, 0);
+        // 一次 JOIN 查出評價與買家名稱（showStatus = 0 表示顯示），避免逐筆查訂單與會員
+        List<Object[]> rows = sellerReviewRepository
+                .findVisibleReviewsWithBuyerBySellerMemId(sellerId, Pageable.unpaged())
+                .getContent();
 
-        if (reviews == null || reviews.isEmpty()) {
-            return result;
-        }
-
-        // 組裝結果
-        for (SellerReviewVO review : reviews) {
+        // 組裝結果（每列為 [reviewId, orderId, rating, reviewContent, reviewTime, buyerMemId, buyerName]）
+        for (Object[] row : rows) {
             Map<String, Object> reviewData = new HashMap<>();
 
-            reviewData.put("orderId", review.getOrderId());
-            reviewData.put("rating", review.getRating());
-            reviewData.put("reviewContent", review.getReviewContent());
-            reviewData.put("reviewTime", review.getReviewTime());
-
-            // 取得訂單和買家名稱
-            Optional<OrdersVO> orderOpt = ordersRepository.findById(review.getOrderId());
-            if (orderOpt.isPresent()) {
-                OrdersVO order = orderOpt.get();
-                Integer buyerMemId = order.getBuyerMemId();
-
-                // 取得買家名稱
-                Optional<StoreMemberVO> buyerOpt = storeMemberRepository.findById(buyerMemId);
-                if (buyerOpt.isPresent() && buyerOpt.get().getMemName() != null) {
-                    reviewData.put("buyerName", buyerOpt.get().getMemName());
-                } else {
-                    reviewData.put("buyerName", "買家 #" + buyerMemId);
-                }
-            } else {
-                reviewData.put("buyerName", "未知買家");
-            }
+            reviewData.put("orderId", row[1]);
+            reviewData.put("rating", row[2]);
+            reviewData.put("reviewContent", row[3]);
+            reviewData.put("reviewTime", row[4]);
+
+            String buyerName = (String) row[6];
+            reviewData.put("buyerName", buyerName != null ? buyerName : "買家 #" + row[5]);
 
             result.add(reviewData);
         }
@@ -160,20 +128,21 @@ public class SellerDashboardServiceImpl implements SellerDashboardService {
         // 賣家基本資訊
         result.put("sellerInfo", getSellerBasicInfo(sellerId));
 
+        // 統計數字一律取自賣家統計摘要，不再載入全部訂單與商品
+        SellerStatsDTO stats = sellerStatsService.getSellerStats(sellerId);
+
         // 商品統計
-        result.put("totalProducts", productService.countSellerProducts(sellerId));
-        result.put("activeProducts", productService.countActiveProducts(sellerId));
+        result.put("totalProducts", stats.getTotalProducts());
+        result.put("activeProducts", stats.getActiveProducts());
 
         // 訂單統計
-        List<OrdersVO> allOrders = sellerOrderService.getSellerOrders(sellerId);
-        result.put("totalOrders", allOrders.size());
-        result.put("pendingShipment", sellerOrderService.countPendingShipment(sellerId));
-        result.put("totalRevenue", sellerOrderService.calculateTotalRevenue(sellerId));
+        result.put("totalOrders", stats.getTotalOrders().intValue());
+        result.put("pendingShipment", stats.getPendingShipment());
+        result.put("totalRevenue", stats.getPaidOutRevenue().intValue());
 
         // 評價統計
-        Map<String, Object> ratingStats = getSellerRatingStats(sellerId);
-        result.put("averageRating", ratingStats.get("averageRating"));
-        result.put("totalRatingCount", ratingStats.get("totalRatingCount"));
+        result.put("averageRating", stats.getAverageRating());
+        result.put("totalRatingCount", stats.getRatingCount().intValue());
 
         // 評價列表
         result.put("allReviews", getSellerReviews(sellerId));
@@ -31,6 +31,9 @@ public class SellerOrderServiceImpl implements SellerOrderService {
     @Autowired
     private ReturnOrderRepository returnOrderRepository;
 
+    @Autowired
+    private SellerStatsService sellerStatsService;
+
     // 訂單狀態常數
     private static final int STATUS_PAID = 0;       // 已付款
     private static final int STATUS_SHIPPED = 1;    // 已出貨
@@ -75,8 +78,11 @@ public class SellerOrderServiceImpl implements SellerOrderService {
     public OrdersVO updateOrderStatus(Integer orderId, Integer newStatus) {
         OrdersVO order = ordersRepository.findById(orderId)
                 .orElseThrow(() -> new RuntimeException("訂單不存在"));
+        Integer oldStatus = order.getOrderStatus();
         order.setOrderStatus(newStatus);
-        return ordersRepository.save(order);
+        OrdersVO savedOrder = ordersRepository.save(order);
+        sellerStatsService.onOrderStatusChanged(order.getSellerMemId(), oldStatus, newStatus, order.getOrderTotal());
+        return savedOrder;
     }
 
     @Override
@@ -102,6 +108,7 @@ public class SellerOrderServiceImpl implements SellerOrderService {
         // 更新為「已出貨」
         order.setOrderStatus(STATUS_SHIPPED);
         ordersRepository.save(order);
+        sellerStatsService.onOrderStatusChanged(sellerId, STATUS_PAID, STATUS_SHIPPED, order.getOrderTotal());
 
         return true;
     }
@@ -146,6 +153,7 @@ public class SellerOrderServiceImpl implements SellerOrderService {
         // 更新訂單狀態為「已取消」
         order.setOrderStatus(STATUS_CANCELED);
         ordersRepository.save(order);
+        sellerStatsService.onOrderStatusChanged(sellerId, STATUS_PAID, STATUS_CANCELED, order.getOrderTotal());
 
         return refundAmount;
     }
@@ -252,22 +260,15 @@ public class SellerOrderServiceImpl implements SellerOrderService {
     @Override
     @Transactional(readOnly = true)
     public long countPendingShipment(Integer sellerId) {
-        List<OrdersVO> orders = getSellerOrders(sellerId);
-        return orders.stream()
-                .filter(o -> o.getOrderStatus() != null && o.getOrderStatus() == STATUS_PAID)
-                .count();
+        return sellerStatsService.getSellerStats(sellerId).getPendingShipment();
     }
 
     // 總營收只計算已撥款(狀態6)的訂單
     @Override
     @Transactional(readOnly = true)
     public int calculateTotalRevenue(Integer sellerId) {
-        // 只計算已撥款(STATUS_PAIDOUT = 6)的訂單總營收
-        List<OrdersVO> orders = getSellerOrders(sellerId);
-        return orders.stream()
-                .filter(o -> o.getOrderStatus() != null && o.getOrderStatus() == STATUS_PAIDOUT)
-                .mapToInt(o -> o.getOrderTotal() != null ? o.getOrderTotal() : 0)
-                .sum();
+        // 只計算已撥款(STATUS_PAIDOUT = 6)的訂單總營收，取自賣家統計摘要
+        return sellerStatsService.getSellerStats(sellerId).getPaidOutRevenue().intValue();
     }
 
     /**
@@ -0,0 +1,36 @@
+package com.petguardian.seller.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+/**
+ * 賣家統計對帳排程
+ * 每日重新計算所有賣家的統計摘要，修正增量更新可能產生的漂移
+ * 每位賣家各自一個交易，單一賣家失敗不影響其他賣家
+ */
+@Slf4j
+@Component
+public class SellerStatsReconcileTask {
+
+    @Autowired
+    private SellerStatsService sellerStatsService;
+
+    @Scheduled(cron = "0 0 4 * * ?") // 每天凌晨 4 點執行
+    public void reconcileAllSellers() {
+        Set<Integer> sellerIds = sellerStatsService.findAllSellerIds();
+        int failed = 0;
+        for (Integer sellerId : sellerIds) {
+            try {
+                sellerStatsService.reconcileSeller(sellerId);
+            } catch (Exception e) {
+                failed++;
+                log.warn("[SellerStats] Reconcile failed for seller {}: {}", sellerId, e.getMessage());
+            }
+        }
+        log.info("[SellerStats] Reconciled {} sellers ({} failed)", sellerIds.size() - failed, failed);
+    }
+}
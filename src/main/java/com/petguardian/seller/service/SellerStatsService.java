@@ -0,0 +1,61 @@
+package com.petguardian.seller.service;
+
+import com.petguardian.seller.dto.SellerStatsDTO;
+
+import java.util.Set;
+
+/**
+ * 賣家統計 Service Interface
+ *
+ * 維護賣家的訂單、營收、評價與商品統計摘要：
+ * - 寫入路徑（訂單狀態轉換、評價新增/隱藏、商品異動）增量更新
+ * - 每日對帳重新計算，修正任何漂移
+ */
+public interface SellerStatsService {
+
+    // ==================== 查詢 ====================
+
+    /**
+     * 取得賣家統計（尚未建立時即時計算，不寫入）
+     */
+    SellerStatsDTO getSellerStats(Integer sellerId);
+
+    // ==================== 增量更新（在呼叫端交易內執行） ====================
+
+    /**
+     * 訂單建立
+     */
+    void onOrderCreated(Integer sellerId, Integer status, Integer orderTotal);
+
+    /**
+     * 訂單狀態轉換
+     */
+    void onOrderStatusChanged(Integer sellerId, Integer oldStatus, Integer newStatus, Integer orderTotal);
+
+    /**
+     * 訂單金額變動（狀態不變）
+     */
+    void onOrderAmountChanged(Integer sellerId, Integer status, int amountDelta);
+
+    /**
+     * 評價顯示狀態變動（新增顯示中的評價也視為由隱藏變為顯示）
+     */
+    void onReviewVisibilityChanged(Integer sellerId, Integer rating, boolean visible);
+
+    /**
+     * 重新計算賣家商品數量
+     */
+    void refreshProductCounts(Integer sellerId);
+
+    // ==================== 對帳 ====================
+
+    /**
+     * 以獨立交易重新計算單一賣家的所有統計
+     */
+    SellerStatsDTO reconcileSeller(Integer sellerId);
+
+    /**
+     * 取得所有需要對帳的賣家 ID（有訂單、商品或既有統計者）
+     */
+    Set<Integer> findAllSellerIds();
+}
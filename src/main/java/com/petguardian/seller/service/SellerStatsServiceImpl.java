@@ -0,0 +1,264 @@
+package com.petguardian.seller.service;
+
+import com.petguardian.common.tx.AfterCommit;
+import com.petguardian.common.tx.TransactionTemplates;
+import com.petguardian.orders.model.OrdersRepository;
+import com.petguardian.seller.dto.SellerStatsDTO;
+import com.petguardian.seller.model.*;
+import com.petguardian.sellerreview.model.SellerReviewRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * 賣家統計 Service 實作
+ *
+ * 增量更新先以 touch() 取得 seller_stats 列鎖，再更新 seller_order_stats，
+ * 與對帳時的 SELECT ... FOR UPDATE 互斥，避免對帳覆蓋掉同時進行的增量。
+ * 尚未建立統計的賣家會略過增量，改在交易提交後以對帳建立；
+ * 讀取時若仍未建立則即時計算回傳，不在讀取路徑寫入。
+ */
+@Slf4j
+@Service
+public class SellerStatsServiceImpl implements SellerStatsService {
+
+    @Autowired
+    private SellerStatsRepository sellerStatsRepository;
+
+    @Autowired
+    private SellerOrderStatsRepository sellerOrderStatsRepository;
+
+    @Autowired
+    private OrdersRepository ordersRepository;
+
+    @Autowired
+    private SellerReviewRepository sellerReviewRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private final TransactionTemplate requiresNewTemplate;
+
+    // 訂單狀態常數
+    private static final int STATUS_PAID = 0;       // 已付款（待出貨）
+    private static final int STATUS_PAIDOUT = 6;    // 已撥款給賣家
+
+    // 上架狀態
+    private static final Integer STATE_ACTIVE = 1;
+
+    public SellerStatsServiceImpl(PlatformTransactionManager transactionManager) {
+        this.requiresNewTemplate = TransactionTemplates.requiresNew(transactionManager);
+    }
+
+    // ==================== 查詢 ====================
+
+    @Override
+    @Transactional(readOnly = true)
+    public SellerStatsDTO getSellerStats(Integer sellerId) {
+        if (sellerId == null) {
+            return emptyStats(null);
+        }
+        Optional<SellerStatsVO> statsOpt = sellerStatsRepository.findById(sellerId);
+        if (statsOpt.isEmpty()) {
+            // 尚未建立統計：即時計算但不寫入，統計列由寫入路徑或每日對帳建立
+            SellerStatsVO stats = new SellerStatsVO();
+            stats.setSellerMemId(sellerId);
+            return toDTO(stats, computeStats(sellerId, stats));
+        }
+        return toDTO(statsOpt.get(), sellerOrderStatsRepository.findBySellerMemId(sellerId));
+    }
+
+    // ==================== 增量更新 ====================
+
+    @Override
+    @Transactional
+    public void onOrderCreated(Integer sellerId, Integer status, Integer orderTotal) {
+        onOrderStatusChanged(sellerId, null, status, orderTotal);
+    }
+
+    @Override
+    @Transactional
+    public void onOrderStatusChanged(Integer sellerId, Integer oldStatus, Integer newStatus, Integer orderTotal) {
+        if (sellerId == null || Objects.equals(oldStatus, newStatus)) {
+            return;
+        }
+        if (sellerStatsRepository.touch(sellerId) == 0) {
+            reconcileAfterCommit(sellerId); // 尚未建立統計，提交後以對帳建立
+            return;
+        }
+        long amount = orderTotal != null ? orderTotal : 0;
+        if (oldStatus != null) {
+            sellerOrderStatsRepository.applyOrderDelta(sellerId, oldStatus, -1, -amount);
+        }
+        if (newStatus != null) {
+            sellerOrderStatsRepository.applyOrderDelta(sellerId, newStatus, 1, amount);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void onOrderAmountChanged(Integer sellerId, Integer status, int amountDelta) {
+        if (sellerId == null || status == null || amountDelta == 0) {
+            return;
+        }
+        if (sellerStatsRepository.touch(sellerId) == 0) {
+            reconcileAfterCommit(sellerId);
+            return;
+        }
+        sellerOrderStatsRepository.applyOrderDelta(sellerId, status, 0, amountDelta);
+    }
+
+    @Override
+    @Transactional
+    public void onReviewVisibilityChanged(Integer sellerId, Integer rating, boolean visible) {
+        if (sellerId == null || rating == null) {
+            return;
+        }
+        int direction = visible ? 1 : -1;
+        if (sellerStatsRepository.applyRatingDelta(sellerId, (long) rating * direction, direction) == 0) {
+            reconcileAfterCommit(sellerId);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void refreshProductCounts(Integer sellerId) {
+        if (sellerId == null) {
+            return;
+        }
+        int updated = sellerStatsRepository.updateProductCounts(sellerId,
+                productRepository.countByMemId(sellerId),
+                productRepository.countByMemIdAndProState(sellerId, STATE_ACTIVE));
+        if (updated == 0) {
+            reconcileAfterCommit(sellerId);
+        }
+    }
+
+    // ==================== 對帳 ====================
+
+    @Override
+    public SellerStatsDTO reconcileSeller(Integer sellerId) {
+        if (sellerId == null) {
+            return emptyStats(null);
+        }
+        return requiresNewTemplate.execute(status -> {
+            // 統計列不存在時先以 INSERT IGNORE 建立，同時對帳的另一個交易不會因主鍵重複而失敗；
+            // 再鎖定統計列，之後的彙總查詢才會看到所有已提交的增量
+            sellerStatsRepository.insertIfAbsent(sellerId);
+            SellerStatsVO stats = sellerStatsRepository.findByIdForUpdate(sellerId)
+                    .orElseThrow(() -> new IllegalStateException("seller_stats row missing: " + sellerId));
+
+            sellerOrderStatsRepository.deleteBySellerMemId(sellerId);
+            List<SellerOrderStatsVO> orderStats = computeStats(sellerId, stats);
+            sellerOrderStatsRepository.saveAll(orderStats);
+
+            LocalDateTime now = LocalDateTime.now();
+            stats.setUpdatedAt(now);
+            stats.setReconciledAt(now);
+            sellerStatsRepository.save(stats);
+
+            return toDTO(stats, orderStats);
+        });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Set<Integer> findAllSellerIds() {
+        Set<Integer> sellerIds = new TreeSet<>();
+        sellerIds.addAll(ordersRepository.findDistinctSellerMemIds());
+        sellerIds.addAll(productRepository.findDistinctMemIds());
+        sellerStatsRepository.findAll().forEach(stats -> sellerIds.add(stats.getSellerMemId()));
+        return sellerIds;
+    }
+
+    // ==================== 輔助方法 ====================
+
+    /**
+     * 由訂單、評價、商品重新彙總：評價與商品數寫入 stats，回傳各訂單狀態統計（皆不儲存）
+     */
+    private List<SellerOrderStatsVO> computeStats(Integer sellerId, SellerStatsVO stats) {
+        // 訂單統計
+        List<SellerOrderStatsVO> orderStats = new ArrayList<>();
+        for (Object[] row : ordersRepository.summarizeBySellerMemId(sellerId)) {
+            SellerOrderStatsVO orderStat = new SellerOrderStatsVO();
+            orderStat.setSellerMemId(sellerId);
+            orderStat.setOrderStatus(((Number) row[0]).intValue());
+            orderStat.setOrderCount(((Number) row[1]).longValue());
+            orderStat.setOrderAmount(((Number) row[2]).longValue());
+            orderStats.add(orderStat);
+        }
+
+        // 評價統計
+        List<Object[]> ratingRows = sellerReviewRepository.sumAndCountVisibleRatingBySellerMemId(sellerId);
+        Object[] rating = ratingRows.isEmpty() ? new Object[] { 0L, 0L } : ratingRows.get(0);
+        stats.setRatingSum(((Number) rating[0]).longValue());
+        stats.setRatingCount(((Number) rating[1]).longValue());
+
+        // 商品統計
+        stats.setTotalProducts(productRepository.countByMemId(sellerId));
+        stats.setActiveProducts(productRepository.countByMemIdAndProState(sellerId, STATE_ACTIVE));
+        return orderStats;
+    }
+
+    // 交易提交後建立統計；失敗時留給每日對帳，不影響呼叫端
+    private void reconcileAfterCommit(Integer sellerId) {
+        AfterCommit.run(() -> {
+            try {
+                reconcileSeller(sellerId);
+            } catch (Exception e) {
+                log.warn("[SellerStats] Backfill failed for seller {}: {}", sellerId, e.getMessage());
+            }
+        });
+    }
+
+    private SellerStatsDTO toDTO(SellerStatsVO stats, List<SellerOrderStatsVO> orderStats) {
+        Map<Integer, Long> countByStatus = new TreeMap<>();
+        long totalOrders = 0;
+        long paidOutRevenue = 0;
+        for (SellerOrderStatsVO orderStat : orderStats) {
+            countByStatus.put(orderStat.getOrderStatus(), orderStat.getOrderCount());
+            totalOrders += orderStat.getOrderCount();
+            if (orderStat.getOrderStatus() == STATUS_PAIDOUT) {
+                paidOutRevenue = orderStat.getOrderAmount();
+            }
+        }
+
+        long ratingCount = stats.getRatingCount() != null ? stats.getRatingCount() : 0L;
+        long ratingSum = stats.getRatingSum() != null ? stats.getRatingSum() : 0L;
+        double averageRating = ratingCount > 0 ? Math.round(ratingSum * 10.0 / ratingCount) / 10.0 : 0.0;
+
+        return SellerStatsDTO.builder()
+                .sellerMemId(stats.getSellerMemId())
+                .totalOrders(totalOrders)
+                .pendingShipment(countByStatus.getOrDefault(STATUS_PAID, 0L))
+                .paidOutRevenue(paidOutRevenue)
+                .orderCountByStatus(countByStatus)
+                .ratingSum(ratingSum)
+                .ratingCount(ratingCount)
+                .averageRating(averageRating)
+                .totalProducts(stats.getTotalProducts())
+                .activeProducts(stats.getActiveProducts())
+                .build();
+    }
+
+    private SellerStatsDTO emptyStats(Integer sellerId) {
+        return SellerStatsDTO.builder()
+                .sellerMemId(sellerId)
+                .totalOrders(0L)
+                .pendingShipment(0L)
+                .paidOutRevenue(0L)
+                .orderCountByStatus(new TreeMap<>())
+                .ratingSum(0L)
+                .ratingCount(0L)
+                .averageRating(0.0)
+                .totalProducts(0L)
+                .activeProducts(0L)
+                .build();
+    }
+}
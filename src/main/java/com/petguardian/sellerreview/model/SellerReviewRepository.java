@@ -1,5 +1,7 @@
 package com.petguardian.sellerreview.model;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -27,6 +29,15 @@ public interface SellerReviewRepository extends JpaRepository<SellerReviewVO, In
     @Query("SELECT sr FROM SellerReviewVO sr JOIN OrdersVO o ON sr.orderId = o.orderId WHERE o.sellerMemId = :sellerMemId AND sr.showStatus = :showStatus ORDER BY sr.reviewTime DESC")
     List<SellerReviewVO> findBySellerMemIdAndShowStatus(@Param("sellerMemId") Integer sellerMemId, @Param("showStatus") Integer showStatus);
 
+    // 分頁查詢賣家顯示中的評價並帶出買家名稱（一次 JOIN，避免逐筆查訂單與會員）
+    // 每列為 [reviewId, orderId, rating, reviewContent, reviewTime, buyerMemId, buyerName]
+    @Query(value = "SELECT sr.reviewId, sr.orderId, sr.rating, sr.reviewContent, sr.reviewTime, o.buyerMemId, m.memName "
+            + "FROM SellerReviewVO sr JOIN OrdersVO o ON sr.orderId = o.orderId LEFT JOIN StoreMemberVO m ON o.buyerMemId = m.memId "
+            + "WHERE o.sellerMemId = :sellerMemId AND sr.showStatus = 0 ORDER BY sr.reviewTime DESC, sr.reviewId DESC",
+            countQuery = "SELECT COUNT(sr) FROM SellerReviewVO sr JOIN OrdersVO o ON sr.orderId = o.orderId "
+            + "WHERE o.sellerMemId = :sellerMemId AND sr.showStatus = 0")
+    Page<Object[]> findVisibleReviewsWithBuyerBySellerMemId(@Param("sellerMemId") Integer sellerMemId, Pageable pageable);
+
     // 根據買家ID查詢評價（透過 JOIN Orders）
     @Query("SELECT sr FROM SellerReviewVO sr JOIN OrdersVO o ON sr.orderId = o.orderId WHERE o.buyerMemId = :buyerMemId ORDER BY sr.reviewTime DESC")
     List<SellerReviewVO> findByBuyerMemId(@Param("buyerMemId") Integer buyerMemId);
@@ -39,6 +50,14 @@ public interface SellerReviewRepository extends JpaRepository<SellerReviewVO, In
     @Query("SELECT COUNT(sr) FROM SellerReviewVO sr JOIN OrdersVO o ON sr.orderId = o.orderId WHERE o.sellerMemId = :sellerMemId AND sr.showStatus = 0")
     Long countBySellerMemIdAndShowStatus(@Param("sellerMemId") Integer sellerMemId);
 
+    // 統計賣家顯示中評價的總星星數與數量（賣家統計對帳用），每列為 [ratingSum, ratingCount]
+    @Query("SELECT COALESCE(SUM(sr.rating), 0), COUNT(sr) FROM SellerReviewVO sr JOIN OrdersVO o ON sr.orderId = o.orderId WHERE o.sellerMemId = :sellerMemId AND sr.showStatus = 0")
+    List<Object[]> sumAndCountVisibleRatingBySellerMemId(@Param("sellerMemId") Integer sellerMemId);
+
+    // 計算每位賣家的平均評分（商品搜尋排序用）
+    @Query("SELECT o.sellerMemId, AVG(sr.rating) FROM SellerReviewVO sr JOIN OrdersVO o ON sr.orderId = o.orderId WHERE sr.showStatus = 0 GROUP BY o.sellerMemId")
+    List<Object[]> calculateAverageRatingGroupBySeller();
+
     // 根據訂單ID列表查詢評價
     List<SellerReviewVO> findByOrderIdIn(List<Integer> orderIds);
 }
\ No newline at end of file
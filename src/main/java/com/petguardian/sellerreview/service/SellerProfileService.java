@@ -0,0 +1,28 @@
+package com.petguardian.sellerreview.service;
+
+import com.petguardian.orders.dto.SellerInfoDTO;
+import org.springframework.data.domain.Page;
+
+/**
+ * 賣家公開資訊 Service（結帳頁賣家卡片）
+ *
+ * 賣家名稱與評分統計依賣家快取，評價新增或顯示狀態變動時失效；
+ * 評價列表以單一 JOIN 查詢分頁取得，並帶出買家名稱。
+ */
+public interface SellerProfileService {
+
+    /**
+     * 取得賣家資訊（含評分統計與指定頁的評價列表）
+     */
+    SellerInfoDTO getSellerProfile(Integer sellerId, int reviewPage, int reviewSize);
+
+    /**
+     * 分頁取得賣家顯示中的評價（含買家名稱）
+     */
+    Page<SellerInfoDTO.ReviewDisplayDTO> getSellerReviews(Integer sellerId, int page, int size);
+
+    /**
+     * 清除賣家名稱與評分統計快取（交易提交後才清除，避免讀到尚未提交的舊值又寫回快取）
+     */
+    void evictSellerAfterCommit(Integer sellerId);
+}
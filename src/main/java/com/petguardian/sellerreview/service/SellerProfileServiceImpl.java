@@ -0,0 +1,132 @@
+package com.petguardian.sellerreview.service;
+
+import com.petguardian.common.tx.AfterCommit;
+import com.petguardian.orders.dto.SellerInfoDTO;
+import com.petguardian.orders.model.StoreMemberRepository;
+import com.petguardian.orders.model.StoreMemberVO;
+import com.petguardian.seller.dto.SellerStatsDTO;
+import com.petguardian.seller.service.SellerStatsService;
+import com.petguardian.sellerreview.model.SellerReviewRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+public class SellerProfileServiceImpl implements SellerProfileService {
+
+    @Autowired
+    private SellerReviewRepository sellerReviewDAO;
+
+    @Autowired
+    private StoreMemberRepository memberDAO;
+
+    @Autowired
+    private SellerStatsService sellerStatsService;
+
+    // 賣家名稱與評分統計快取（sellerId -> 統計），只快取存在的賣家
+    private final Map<Integer, SellerHeader> headerCache = new ConcurrentHashMap<>();
+
+    // 快取有效時間與上限，超過上限時整批清除（下次讀取再重新載入）
+    private static final long HEADER_TTL_MILLIS = 10 * 60 * 1000L;
+    private static final int MAX_CACHED_SELLERS = 5000;
+
+    private static final int MAX_REVIEW_PAGE_SIZE = 50;
+    private static final DateTimeFormatter REVIEW_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    /**
+     * 快取內容（不可變）
+     */
+    private static final class SellerHeader {
+        final String sellerName;
+        final Double averageRating;
+        final Long reviewCount;
+        final long expiresAt;
+
+        SellerHeader(String sellerName, Double averageRating, Long reviewCount, long expiresAt) {
+            this.sellerName = sellerName;
+            this.averageRating = averageRating;
+            this.reviewCount = reviewCount;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public SellerInfoDTO getSellerProfile(Integer sellerId, int reviewPage, int reviewSize) {
+        SellerInfoDTO info = new SellerInfoDTO();
+        info.setSellerId(sellerId);
+
+        // 先從快取讀取，未命中或過期才查資料庫
+        SellerHeader header = headerCache.get(sellerId);
+        if (header == null || header.expiresAt <= System.currentTimeMillis()) {
+            header = loadHeader(sellerId);
+        }
+        info.setSellerName(header.sellerName);
+        info.setAverageRating(header.averageRating);
+        info.setReviewCount(header.reviewCount);
+
+        Page<SellerInfoDTO.ReviewDisplayDTO> reviews = getSellerReviews(sellerId, reviewPage, reviewSize);
+        info.setReviews(reviews.getContent());
+        info.setReviewPage(reviews.getNumber());
+        info.setReviewTotalPages(reviews.getTotalPages());
+        return info;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<SellerInfoDTO.ReviewDisplayDTO> getSellerReviews(Integer sellerId, int page, int size) {
+        int safePage = Math.max(page, 0);
+        int safeSize = Math.min(Math.max(size, 1), MAX_REVIEW_PAGE_SIZE);
+
+        return sellerReviewDAO.findVisibleReviewsWithBuyerBySellerMemId(sellerId, PageRequest.of(safePage, safeSize))
+                .map(row -> {
+                    SellerInfoDTO.ReviewDisplayDTO dto = new SellerInfoDTO.ReviewDisplayDTO();
+                    dto.setReviewId((Integer) row[0]);
+                    dto.setOrderId((Integer) row[1]);
+                    dto.setRating((Integer) row[2]);
+                    dto.setReviewContent((String) row[3]);
+                    LocalDateTime reviewTime = (LocalDateTime) row[4];
+                    dto.setReviewTime(reviewTime != null ? reviewTime.format(REVIEW_TIME_FORMAT) : "");
+                    String buyerName = (String) row[6];
+                    dto.setBuyerName(buyerName != null ? buyerName : "匿名買家");
+                    return dto;
+                });
+    }
+
+    @Override
+    public void evictSellerAfterCommit(Integer sellerId) {
+        if (sellerId == null) {
+            return;
+        }
+        headerCache.remove(sellerId);
+        AfterCommit.run(() -> headerCache.remove(sellerId));
+    }
+
+    private SellerHeader loadHeader(Integer sellerId) {
+        StoreMemberVO seller = sellerId != null ? memberDAO.findById(sellerId).orElse(null) : null;
+        String sellerName = seller != null ? seller.getMemName() : null;
+        if (sellerName == null) {
+            sellerName = "賣家 #" + sellerId;
+        }
+
+        SellerStatsDTO stats = sellerStatsService.getSellerStats(sellerId);
+        SellerHeader header = new SellerHeader(sellerName, stats.getAverageRating(), stats.getRatingCount(),
+                System.currentTimeMillis() + HEADER_TTL_MILLIS);
+
+        // 網址帶入不存在的賣家 ID 不進快取
+        if (seller != null) {
+            if (headerCache.size() >= MAX_CACHED_SELLERS) {
+                headerCache.clear();
+            }
+            headerCache.put(sellerId, header);
+        }
+        return header;
+    }
+}
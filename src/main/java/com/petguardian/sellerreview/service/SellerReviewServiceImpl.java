@@ -2,6 +2,7 @@ package com.petguardian.sellerreview.service;
 
 import com.petguardian.orders.model.OrdersVO;
 import com.petguardian.orders.model.OrdersRepository;
+import com.petguardian.seller.service.SellerStatsService;
 import com.petguardian.sellerreview.model.SellerReviewRepository;
 import com.petguardian.sellerreview.model.SellerReviewVO;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -23,6 +24,12 @@ public class SellerReviewServiceImpl implements SellerReviewService {
     @Autowired
     private OrdersRepository ordersDAO;
 
+    @Autowired
+    private SellerStatsService sellerStatsService;
+
+    @Autowired
+    private SellerProfileService sellerProfileService;
+
     // 顯示狀態常數
     public static final Integer SHOW_STATUS_VISIBLE = 0;    // 顯示
     public static final Integer SHOW_STATUS_HIDDEN = 1;     // 不顯示
@@ -60,7 +67,10 @@ public class SellerReviewServiceImpl implements SellerReviewService {
         review.setReviewContent(reviewContent);
         review.setShowStatus(SHOW_STATUS_VISIBLE);
 
-        return sellerReviewDAO.save(review);
+        SellerReviewVO savedReview = sellerReviewDAO.save(review);
+        sellerStatsService.onReviewVisibilityChanged(order.getSellerMemId(), rating, true);
+        sellerProfileService.evictSellerAfterCommit(order.getSellerMemId());
+        return savedReview;
     }
 
     @Override
@@ -117,8 +127,19 @@ public class SellerReviewServiceImpl implements SellerReviewService {
         SellerReviewVO review = sellerReviewDAO.findById(reviewId)
                 .orElseThrow(() -> new IllegalArgumentException("評價不存在: " + reviewId));
 
+        Integer oldShowStatus = review.getShowStatus();
         review.setShowStatus(showStatus);
-        return sellerReviewDAO.save(review);
+        SellerReviewVO savedReview = sellerReviewDAO.save(review);
+
+        // 顯示狀態有變動才更新賣家評價統計（檢舉成立隱藏評價也經由此處）
+        if (!showStatus.equals(oldShowStatus)) {
+            ordersDAO.findById(review.getOrderId()).ifPresent(order -> {
+                sellerStatsService.onReviewVisibilityChanged(order.getSellerMemId(), review.getRating(),
+                        SHOW_STATUS_VISIBLE.equals(showStatus));
+                sellerProfileService.evictSellerAfterCommit(order.getSellerMemId());
+            });
+        }
+        return savedReview;
     }
 
     @Override
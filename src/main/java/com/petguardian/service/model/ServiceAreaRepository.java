@@ -54,6 +54,23 @@ public interface ServiceAreaRepository extends JpaRepository<ServiceAreaVO, Serv
          * @param areaId   地區編號
          * @return boolean true:服務, false:不服務
          */
+        /**
+         * 搜尋索引用：所有保姆的服務地區
+         * 回傳順序: sitterId, areaId, cityName, district
+         */
+        @Query("SELECT sa.sitter.sitterId, a.areaId, a.cityName, a.district " +
+                        "FROM ServiceAreaVO sa JOIN sa.area a")
+        List<Object[]> findAllSitterAreaRows();
+
+        /**
+         * 搜尋索引用：單一保姆的服務地區
+         * 回傳順序: sitterId, areaId, cityName, district
+         */
+        @Query("SELECT sa.sitter.sitterId, a.areaId, a.cityName, a.district " +
+                        "FROM ServiceAreaVO sa JOIN sa.area a " +
+                        "WHERE sa.sitter.sitterId = :sitterId")
+        List<Object[]> findAreaRowsBySitterId(@Param("sitterId") Integer sitterId);
+
         boolean existsBySitter_SitterIdAndArea_AreaId(Integer sitterId, Integer areaId);
 
         /**
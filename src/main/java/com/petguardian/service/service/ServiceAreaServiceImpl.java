@@ -14,6 +14,7 @@ import com.petguardian.service.model.ServiceAreaRepository;
 import com.petguardian.service.model.ServiceAreaVO;
 import com.petguardian.sitter.model.SitterRepository;
 import com.petguardian.sitter.model.SitterVO;
+import com.petguardian.sitter.service.SitterSearchService;
 
 /**
  * 保姆服務地區業務邏輯實作
@@ -32,6 +33,9 @@ public class ServiceAreaServiceImpl implements ServiceAreaService {
     @Autowired
     private AreaRepository areaRepository;
 
+    @Autowired
+    private SitterSearchService sitterSearchService;
+
     /**
      * 保姆新增服務地區
      * 
@@ -67,7 +71,9 @@ public class ServiceAreaServiceImpl implements ServiceAreaService {
         vo.setSitter(sitter);
         vo.setArea(area);
 
-        return repository.save(vo);
+        ServiceAreaVO saved = repository.save(vo);
+        sitterSearchService.refreshSitterAfterCommit(sitterId);
+        return saved;
     }
 
     @Override
@@ -97,6 +103,7 @@ public class ServiceAreaServiceImpl implements ServiceAreaService {
 
         ServiceAreaId id = new ServiceAreaId(sitterId, areaId);
         repository.deleteById(id);
+        sitterSearchService.refreshSitterAfterCommit(sitterId);
     }
 
     @Override
@@ -16,7 +16,7 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
-import com.petguardian.booking.model.BookingScheduleVO;
+import com.petguardian.booking.model.ScheduleMonthDTO;
 import com.petguardian.booking.model.BookingOrderVO;
 import com.petguardian.booking.model.BookingOrderVO;
 // import com.petguardian.sitter.model.SitterVO; // [Refactor] 不再直接引用 Entity
@@ -107,19 +107,20 @@ public class SitterDashboardController {
     /**
      * API: 獲取保母特定月份的排程狀態
      * URL: /sitter/api/schedule?year=2026&month=1
+     * 回傳: { year, month, bookedBits: [...], blockedBits: [...] }，陣列第 d 個元素為當月第 d+1 天的時段位元
      */
     @GetMapping("/api/schedule")
     @ResponseBody
-    public List<BookingScheduleVO> getSchedule(
+    public ResponseEntity<ScheduleMonthDTO> getSchedule(
             HttpServletRequest request,
             @RequestParam int year,
             @RequestParam int month) {
 
         Integer memId = authStrategyService.getCurrentUserId(request);
         if (memId == null)
-            return List.of();
+            return ResponseEntity.status(401).build();
 
-        return sitterService.getScheduleByMember(memId, year, month);
+        return ResponseEntity.ok(sitterService.getScheduleByMember(memId, year, month));
     }
 
     /**
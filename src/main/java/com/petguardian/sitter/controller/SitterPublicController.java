@@ -21,7 +21,6 @@ import com.petguardian.area.model.AreaVO;
 import com.petguardian.area.service.AreaService;
 import com.petguardian.booking.model.BookingOrderVO;
 import com.petguardian.common.service.AuthStrategyService;
-import com.petguardian.evaluate.service.EvaluateService;
 import com.petguardian.pet.model.PetRepository;
 import com.petguardian.pet.model.PetVO;
 import com.petguardian.petsitter.model.PetSitterServicePetTypeVO;
@@ -75,9 +74,6 @@ public class SitterPublicController {
     @Autowired
     private PetRepository petRepository;
 
-    @Autowired
-    private EvaluateService evaluateService;
-
     @Autowired
     private WalletRepository walletRepository;
 
@@ -132,18 +128,12 @@ public class SitterPublicController {
                 results = sitterSearchService.searchSitters(criteria);
             }
 
-            // 🔥 注入平均星數
-            for (SitterSearchDTO dto : results) {
-                Double avgRating = evaluateService.getAverageRatingBySitterId(dto.getSitterId());
-                if (avgRating != null) {
-                    System.out.println("DEBUG_SEARCH_API: Sitter=" + dto.getSitterId() + ", Rating=" + avgRating);
-                    dto.setAverageRating(avgRating);
-                } else {
-                    System.out.println("DEBUG_SEARCH_API: Sitter=" + dto.getSitterId() + " has NULL rating");
-                }
-            }
+            // 平均星數已由搜尋索引一併提供
 
             return ResponseEntity.ok(results);
+        } catch (IllegalArgumentException e) {
+            // 可預約時段查詢條件錯誤
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             e.printStackTrace();
             return ResponseEntity.internalServerError().build();
@@ -162,16 +152,7 @@ public class SitterPublicController {
         try {
             List<SitterSearchDTO> results = sitterSearchService.getAllActiveSitters();
 
-            // 🔥 注入平均星數
-            for (SitterSearchDTO dto : results) {
-                Double avgRating = evaluateService.getAverageRatingBySitterId(dto.getSitterId());
-                if (avgRating != null) {
-                    System.out.println("DEBUG_SEARCH_ALL: Sitter=" + dto.getSitterId() + ", Rating=" + avgRating);
-                    dto.setAverageRating(avgRating);
-                } else {
-                    System.out.println("DEBUG_SEARCH_ALL: Sitter=" + dto.getSitterId() + " has NULL rating");
-                }
-            }
+            // 平均星數已由搜尋索引一併提供
 
             return ResponseEntity.ok(results);
         } catch (Exception e) {
@@ -1,14 +1,19 @@
 package com.petguardian.sitter.controller;
 
+import java.time.LocalDate;
 import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 
+import com.petguardian.booking.model.ScheduleRebuildReport;
 import com.petguardian.sitter.service.SitterScheduleSyncService;
 
 @Controller
@@ -21,17 +26,39 @@ public class SitterScheduleSyncController {
     /**
      * 資料修復工具：同步所有訂單至排程表
      * URL: /sitter/api/sync-schedule
+     * 可選參數：sitterId、from、to (yyyy-MM-dd)，只重建指定保母或日期區間
      * 用途：解決舊訂單在行事曆上未顯示為「橘色」的問題，並清除已取消訂單的佔用
      */
     @GetMapping("/api/sync-schedule")
     @ResponseBody
-    public ResponseEntity<?> syncSchedule() {
+    public ResponseEntity<?> syncSchedule(
+            @RequestParam(required = false) Integer sitterId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
         try {
-            Map<String, Object> result = syncService.syncSchedule();
+            Map<String, Object> result = syncService.syncSchedule(sitterId, from, to);
             return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("message", e.getMessage()));
         } catch (Exception e) {
             e.printStackTrace();
             return ResponseEntity.internalServerError().body(Map.of("message", "同步失敗: " + e.getMessage()));
         }
     }
+
+    /**
+     * 同步進度查詢
+     * URL: /sitter/api/sync-schedule/progress
+     */
+    @GetMapping("/api/sync-schedule/progress")
+    @ResponseBody
+    public ResponseEntity<?> syncProgress() {
+        ScheduleRebuildReport report = syncService.getSyncProgress();
+        if (report == null) {
+            return ResponseEntity.ok(Map.of("message", "尚未執行同步"));
+        }
+        return ResponseEntity.ok(report);
+    }
 }
@@ -51,6 +51,15 @@ public interface SitterRepository extends JpaRepository<SitterVO, Integer> {
         */
        List<SitterVO> findBySitterStatus(Byte sitterStatus);
 
+       /**
+        * 直接從資料庫讀取保姆狀態（純量查詢，不受持久化內容中尚未同步的實體影響）
+        * 
+        * @param sitterId 保姆編號
+        * @return Byte 保姆狀態 (0:啟用, 1:停用)，不存在則為 null
+        */
+       @Query("SELECT s.sitterStatus FROM SitterVO s WHERE s.sitterId = :sitterId")
+       Byte findStatusById(@Param("sitterId") Integer sitterId);
+
        @Modifying
        @Query("UPDATE SitterVO s SET s.serviceTime = :serviceTime WHERE s.sitterId = :sitterId")
        void updateServiceTime(Integer sitterId, String serviceTime);
@@ -104,6 +113,18 @@ public interface SitterRepository extends JpaRepository<SitterVO, Integer> {
     	       "AND m.memStatus = 1")
        List<Object[]> findSitterBasicInfo();
 
+       /**
+        * 單一保母的列表欄位（保母停用或會員停權時查無資料）
+        * 回傳順序: id, name, add, star, count, memId
+        */
+       @Query("SELECT s.sitterId, s.sitterName, s.sitterAdd, s.sitterStarCount, s.sitterRatingCount, s.memId " +
+    	       "FROM SitterVO s, SitterMemberVO m " +
+    	       "WHERE s.memId = m.memId " +
+    	       "AND s.sitterId = :sitterId " +
+    	       "AND s.sitterStatus = 0 " +
+    	       "AND m.memStatus = 1")
+       List<Object[]> findSitterBasicInfoById(@Param("sitterId") Integer sitterId);
+
        /**
         * [分頁優化] 查詢所有啟用保母且「會員帳號狀態正常」的保母 (暫不抓取關聯以利 Page 運作)
         */
@@ -121,4 +142,25 @@ public interface SitterRepository extends JpaRepository<SitterVO, Integer> {
                      "LEFT JOIN FETCH sa.area " +
                      "WHERE s.sitterId IN :ids")
        List<SitterVO> findAllWithAreasByIds(@Param("ids") List<Integer> ids);
+
+       /**
+        * 評價統計同步：與 sitter_rating_stats 同一交易更新保母的總評價數與總星星數
+        */
+       @Modifying
+       @Query("UPDATE SitterVO s SET s.sitterStarCount = COALESCE(s.sitterStarCount, 0) + :sumDelta, " +
+                     "s.sitterRatingCount = COALESCE(s.sitterRatingCount, 0) + :countDelta " +
+                     "WHERE s.sitterId = :sitterId")
+       int applyRatingDelta(@Param("sitterId") Integer sitterId,
+                     @Param("sumDelta") int sumDelta,
+                     @Param("countDelta") int countDelta);
+
+       /**
+        * 評價統計對帳：覆寫保母的總評價數與總星星數
+        */
+       @Modifying
+       @Query("UPDATE SitterVO s SET s.sitterStarCount = :starCount, s.sitterRatingCount = :ratingCount " +
+                     "WHERE s.sitterId = :sitterId")
+       int updateRatingTotals(@Param("sitterId") Integer sitterId,
+                     @Param("starCount") int starCount,
+                     @Param("ratingCount") int ratingCount);
 }
@@ -1,5 +1,6 @@
 package com.petguardian.sitter.model;
 
+import java.time.LocalDate;
 import java.util.List;
 
 /**
@@ -32,6 +33,12 @@ public class SitterSearchCriteria {
     private String cityName; // 縣市名稱（例如："台北市"）
     private String district; // 區域名稱（例如："大安區"），可為 null
 
+    // 可預約時段篩選：日期區間內每一天的 [startHour, endHour) 皆無預約
+    private LocalDate startDate; // 開始日期（有值才篩選）
+    private LocalDate endDate; // 結束日期，可為 null（視為與開始日期同一天）
+    private Integer startHour; // 開始小時（0-23），可為 null（視為 0）
+    private Integer endHour; // 結束小時（1-24，不含），可為 null（視為 24）
+
     // 建構子
     public SitterSearchCriteria() {
         // 設定預設值
@@ -121,6 +128,43 @@ public class SitterSearchCriteria {
         this.district = district;
     }
 
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(LocalDate startDate) {
+        this.startDate = startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(LocalDate endDate) {
+        this.endDate = endDate;
+    }
+
+    public Integer getStartHour() {
+        return startHour;
+    }
+
+    public void setStartHour(Integer startHour) {
+        this.startHour = startHour;
+    }
+
+    public Integer getEndHour() {
+        return endHour;
+    }
+
+    public void setEndHour(Integer endHour) {
+        this.endHour = endHour;
+    }
+
+    // 輔助方法：檢查是否有可預約時段篩選
+    public boolean hasAvailabilityFilter() {
+        return startDate != null;
+    }
+
     // 輔助方法：檢查是否有任何篩選條件
     public boolean hasFilters() {
         return (areaIds != null && !areaIds.isEmpty()) ||
@@ -129,6 +173,7 @@ public class SitterSearchCriteria {
                 minPrice != null ||
                 maxPrice != null ||
                 (cityName != null && !cityName.trim().isEmpty()) ||
-                (district != null && !district.trim().isEmpty());
+                (district != null && !district.trim().isEmpty()) ||
+                hasAvailabilityFilter();
     }
 }
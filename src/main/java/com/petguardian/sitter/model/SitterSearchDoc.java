@@ -0,0 +1,148 @@
+package com.petguardian.sitter.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.petguardian.petsitter.model.PetType;
+import com.petguardian.petsitter.model.ServiceType;
+
+/**
+ * 保姆搜尋索引文件
+ *
+ * 每位啟用中保姆一份，建立索引時一次組好搜尋與列表顯示需要的資料：
+ * 服務地區、服務項目與寵物類型（以位元遮罩表示）、價格區間與平均評分。
+ * 建立後不再修改，異動時以新文件整份取代。
+ */
+public class SitterSearchDoc {
+
+    private final Integer sitterId;
+    private final String sitterName;
+    private final String sitterAdd;
+    private final Integer ratingCount;
+    private final Integer starCount;
+
+    // 服務地區（三個列表索引一一對應）
+    private final List<Integer> areaIds;
+    private final List<String> cityNames;
+    private final List<String> districts;
+
+    // 位元遮罩：第 n 位代表服務項目 / 寵物類型 ID = n
+    private final int serviceMask;
+    private final int petTypeMask;
+
+    // 服務價格區間（無服務時皆為 0）
+    private final int minPrice;
+    private final int maxPrice;
+
+    // 會員評價平均星數（四捨五入至小數一位，無評價為 null）
+    private final Double averageRating;
+
+    public SitterSearchDoc(SitterVO sitter, List<Integer> areaIds, List<String> cityNames, List<String> districts,
+            int serviceMask, int petTypeMask, int minPrice, int maxPrice, Double averageRating) {
+        this.sitterId = sitter.getSitterId();
+        this.sitterName = sitter.getSitterName();
+        this.sitterAdd = sitter.getSitterAdd();
+        this.ratingCount = sitter.getSitterRatingCount();
+        this.starCount = sitter.getSitterStarCount();
+        this.areaIds = Collections.unmodifiableList(new ArrayList<>(areaIds));
+        this.cityNames = Collections.unmodifiableList(new ArrayList<>(cityNames));
+        this.districts = Collections.unmodifiableList(new ArrayList<>(districts));
+        this.serviceMask = serviceMask;
+        this.petTypeMask = petTypeMask;
+        this.minPrice = minPrice;
+        this.maxPrice = maxPrice;
+        this.averageRating = averageRating;
+    }
+
+    /**
+     * 轉換為搜尋結果 DTO
+     */
+    public SitterSearchDTO toSearchDTO() {
+        SitterSearchDTO dto = new SitterSearchDTO();
+        dto.setSitterId(sitterId);
+        dto.setSitterName(sitterName);
+        dto.setSitterAdd(sitterAdd);
+        dto.setRatingCount(ratingCount);
+        dto.setStarCount(starCount);
+        dto.setAverageRating(averageRating);
+
+        List<String> serviceNames = new ArrayList<>();
+        for (ServiceType type : ServiceType.values()) {
+            if ((serviceMask & (1 << type.getId())) != 0) {
+                serviceNames.add(type.getLabel());
+            }
+        }
+        dto.setServiceNames(serviceNames);
+
+        List<String> petTypes = new ArrayList<>();
+        for (PetType type : PetType.values()) {
+            if ((petTypeMask & (1 << type.getId())) != 0) {
+                petTypes.add(type.getLabel());
+            }
+        }
+        dto.setPetTypes(petTypes);
+
+        List<String> areas = new ArrayList<>();
+        for (int i = 0; i < areaIds.size(); i++) {
+            areas.add(cityNames.get(i) + districts.get(i));
+        }
+        dto.setServiceAreas(areas);
+
+        dto.setMinPrice(minPrice);
+        dto.setMaxPrice(maxPrice);
+        return dto;
+    }
+
+    public Integer getSitterId() {
+        return sitterId;
+    }
+
+    public String getSitterName() {
+        return sitterName;
+    }
+
+    public String getSitterAdd() {
+        return sitterAdd;
+    }
+
+    public Integer getRatingCount() {
+        return ratingCount;
+    }
+
+    public Integer getStarCount() {
+        return starCount;
+    }
+
+    public List<Integer> getAreaIds() {
+        return areaIds;
+    }
+
+    public List<String> getCityNames() {
+        return cityNames;
+    }
+
+    public List<String> getDistricts() {
+        return districts;
+    }
+
+    public int getServiceMask() {
+        return serviceMask;
+    }
+
+    public int getPetTypeMask() {
+        return petTypeMask;
+    }
+
+    public int getMinPrice() {
+        return minPrice;
+    }
+
+    public int getMaxPrice() {
+        return maxPrice;
+    }
+
+    public Double getAverageRating() {
+        return averageRating;
+    }
+}
@@ -1,10 +1,9 @@
 package com.petguardian.sitter.service;
 
 import java.time.LocalDate;
-import java.util.List;
 import java.util.Map;
 
-import com.petguardian.booking.model.BookingScheduleVO;
+import com.petguardian.booking.model.ScheduleMonthDTO;
 import com.petguardian.sitter.model.SitterVO;
 
 public interface SitterScheduleService {
@@ -24,9 +23,9 @@ public interface SitterScheduleService {
      * @param memId 會員編號
      * @param year  年份
      * @param month 月份
-     * @return List<BookingScheduleVO> 該月行程
+     * @return ScheduleMonthDTO 該月行程（每天一組時段位元）
      */
-    List<BookingScheduleVO> getScheduleByMember(Integer memId, int year, int month);
+    ScheduleMonthDTO getScheduleByMember(Integer memId, int year, int month);
 
     /**
      * 更新會員(保姆)的單日行程
@@ -1,7 +1,6 @@
 package com.petguardian.sitter.service;
 
 import java.time.LocalDate;
-import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -9,8 +8,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import com.petguardian.booking.model.BookingScheduleRepository;
-import com.petguardian.booking.model.BookingScheduleVO;
+import com.petguardian.booking.model.ScheduleMonthDTO;
+import com.petguardian.booking.service.BookingScheduleInternalService;
+import com.petguardian.booking.service.ScheduleService;
 import com.petguardian.sitter.model.SitterRepository;
 import com.petguardian.sitter.model.SitterVO;
 
@@ -22,7 +22,7 @@ public class SitterScheduleServiceImpl implements SitterScheduleService {
     private SitterRepository repository;
 
     @Autowired
-    private BookingScheduleRepository bookingScheduleRepository;
+    private BookingScheduleInternalService scheduleInternalService;
 
     /**
      * 更新保姆服務時間（營業時間設定）
@@ -58,18 +58,12 @@ public class SitterScheduleServiceImpl implements SitterScheduleService {
     // ========== 排程相關功能 (透過會員 ID) ==========
 
     @Override
-    public List<BookingScheduleVO> getScheduleByMember(Integer memId, int year, int month) {
+    public ScheduleMonthDTO getScheduleByMember(Integer memId, int year, int month) {
         SitterVO sitter = repository.findByMemId(memId);
         if (sitter == null) {
             throw new IllegalArgumentException("會員尚未成為保姆");
         }
-        Integer sitterId = sitter.getSitterId();
-
-        // [Optimized] 使用資料庫直接查詢該月份資料
-        LocalDate startDate = LocalDate.of(year, month, 1);
-        LocalDate endDate = startDate.withDayOfMonth(startDate.lengthOfMonth());
-
-        return bookingScheduleRepository.findBySitterIdAndScheduleDateBetween(sitterId, startDate, endDate);
+        return scheduleInternalService.getMonthSchedule(sitter.getSitterId(), year, month);
     }
 
     @Override
@@ -79,23 +73,8 @@ public class SitterScheduleServiceImpl implements SitterScheduleService {
         if (sitter == null) {
             throw new IllegalArgumentException("會員尚未成為保姆");
         }
-        Integer sitterId = sitter.getSitterId();
-
-        // 檢查該日期是否已有資料 (使用 Repository 現有方法)
-        Optional<BookingScheduleVO> existingOpt = bookingScheduleRepository.findBySitterIdAndScheduleDate(sitterId,
-                date);
-
-        BookingScheduleVO schedule;
-        if (existingOpt.isPresent()) {
-            schedule = existingOpt.get();
-            schedule.setBookingStatus(status);
-        } else {
-            schedule = new BookingScheduleVO();
-            schedule.setSitterId(sitterId);
-            schedule.setScheduleDate(date);
-            schedule.setBookingStatus(status);
-        }
-        bookingScheduleRepository.save(schedule);
+        // 前端只能切換 0(空閒) / 1(休息)，'2' 的預約時段由訂單流程維護，這裡不覆寫
+        scheduleInternalService.updateBlockedHours(sitter.getSitterId(), date, ScheduleService.bitsOf(status, '1'));
     }
 
     /**
@@ -1,7 +1,10 @@
 package com.petguardian.sitter.service;
 
+import java.time.LocalDate;
 import java.util.Map;
 
+import com.petguardian.booking.model.ScheduleRebuildReport;
+
 public interface SitterScheduleSyncService {
 
     /**
@@ -9,7 +12,22 @@ public interface SitterScheduleSyncService {
      * 處理狀態 0, 1, 2, 5 為 Booked
      * 處理狀態 3, 4 為 Free
      * 
-     * @return 包含同步結果的 Map (message, processedOrders, totalOrders)
+     * @return 包含同步結果的 Map (message, processedOrders, totalOrders, report)
      */
     Map<String, Object> syncSchedule();
+
+    /**
+     * 只重建指定保母或日期區間的排程
+     * 
+     * @param sitterId 保母編號 (null 為全部保母)
+     * @param fromDate 起始日期 (含，null 為不限)
+     * @param toDate   結束日期 (含，null 為不限)
+     * @return 包含同步結果的 Map (message, processedOrders, totalOrders, report)
+     */
+    Map<String, Object> syncSchedule(Integer sitterId, LocalDate fromDate, LocalDate toDate);
+
+    /**
+     * 目前（或最近一次）同步的進度，尚未執行過則為 null
+     */
+    ScheduleRebuildReport getSyncProgress();
 }
@@ -1,75 +1,47 @@
 package com.petguardian.sitter.service;
 
-import java.util.List;
+import java.time.LocalDate;
 import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
-import com.petguardian.booking.model.BookingOrderRepository;
-import com.petguardian.booking.model.BookingOrderVO;
-import com.petguardian.booking.service.BookingScheduleInternalService;
+import com.petguardian.booking.model.ScheduleRebuildReport;
+import com.petguardian.booking.service.ScheduleProjectionRebuilder;
 
+/**
+ * 排程同步
+ * 實際重建由 ScheduleProjectionRebuilder 分批讀取、平行合併，只寫入有差異的保母日。
+ * 本類別不開交易（重建期間不長時間鎖住排程表）。
+ */
 @Service
-@Transactional
 public class SitterScheduleSyncServiceImpl implements SitterScheduleSyncService {
 
     @Autowired
-    private BookingOrderRepository orderRepository;
-
-    @Autowired
-    private BookingScheduleInternalService scheduleInternalService;
+    private ScheduleProjectionRebuilder projectionRebuilder;
 
     @Override
     public Map<String, Object> syncSchedule() {
-        try {
-            // 1. 查詢所有訂單
-            List<BookingOrderVO> allOrders = orderRepository.findAll();
-
-            int count = 0;
-
-            // 2. 遍歷每一筆訂單
-            // 擴充支援狀態：0, 1, 2, 3, 4, 5
-            for (BookingOrderVO order : allOrders) {
-                Integer status = order.getOrderStatus();
-
-                // 檢查是否為要處理的狀態 (0, 1, 2, 3, 4, 5)
-                if (status != null && (status >= 0 && status <= 5)) {
-
-                    char statusChar = '2'; // 預設為已預約 (Booked)
-
-                    // 狀態判斷邏輯
-                    // 0:待確認, 1:進行中, 2:已完成, 5:已完成(或相關狀態) -> 視為佔用 (Booked)
-                    // 3:已取消, 4:退貨/退款 -> 視為釋放 (Free)
-                    if (status == 3 || status == 4) {
-                        statusChar = '0'; // 釋放時段
-                    }
-
-                    // 執行更新
-                    scheduleInternalService.updateSitterSchedule(order, statusChar);
-
-                    // 處理緩衝時間 (Logic: Booked 也要鎖緩衝, Free 也要釋放緩衝)
-                    BookingOrderVO bufferOrder = new BookingOrderVO();
-                    bufferOrder.setSitterId(order.getSitterId());
-                    bufferOrder.setBookingOrderId(order.getBookingOrderId());
-                    bufferOrder.setStartTime(order.getEndTime());
-                    bufferOrder.setEndTime(order.getEndTime().plusHours(1));
+        return syncSchedule(null, null, null);
+    }
 
-                    scheduleInternalService.updateSitterSchedule(bufferOrder, statusChar);
+    @Override
+    public Map<String, Object> syncSchedule(Integer sitterId, LocalDate fromDate, LocalDate toDate) {
+        if (fromDate != null && toDate != null && fromDate.isAfter(toDate)) {
+            throw new IllegalArgumentException("起始日期不可晚於結束日期");
+        }
 
-                    count++;
-                }
-            }
+        ScheduleRebuildReport report = projectionRebuilder.rebuild(sitterId, fromDate, toDate);
 
-            return Map.of(
-                    "message", "同步完成",
-                    "processedOrders", count,
-                    "totalOrders", allOrders.size());
+        return Map.of(
+                "message", "同步完成",
+                "processedOrders", report.getActiveOrders() + report.getReleasedOrders(),
+                "totalOrders", report.getScannedOrders(),
+                "report", report);
+    }
 
-        } catch (Exception e) {
-            e.printStackTrace();
-            throw new RuntimeException("同步失敗: " + e.getMessage());
-        }
+    @Override
+    public ScheduleRebuildReport getSyncProgress() {
+        return projectionRebuilder.getLastReport();
     }
 }
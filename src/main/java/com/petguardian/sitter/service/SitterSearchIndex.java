@@ -0,0 +1,405 @@
+package com.petguardian.sitter.service;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+
+import org.springframework.stereotype.Component;
+
+import com.petguardian.sitter.model.SitterSearchDoc;
+
+/**
+ * 保姆搜尋索引（記憶體）
+ *
+ * 每位保姆配置一個位置編號 (slot)，地區、縣市、行政區、服務項目、寵物類型各自維護一個 BitSet，
+ * 篩選時以位元 OR / AND 求出候選集合，再依預先排好的順序 (價格、評分) 依序輸出。
+ *
+ * 分成兩部分，讀取都不加鎖：
+ * - 主索引 (Segment)：整批建立後不再修改，含 BitSet 與預先排序的順序
+ * - 增量：建立後新增或修改的保姆放在 delta (slot 接在主索引之後)，主索引中的舊版本以 deleted 遮蔽
+ *
+ * 單筆寫入只複製遮蔽位元與少量的增量文件，不重新排序主索引；增量超過 MAX_DELTA 時才合併重建。
+ * 寫入以 synchronized 串行化，每次寫入後以新的 Snapshot 一次替換。
+ */
+@Component
+public class SitterSearchIndex {
+
+    // 增量文件上限，超過時合併成新的主索引
+    static final int MAX_DELTA = 256;
+
+    private volatile Snapshot snapshot = new Snapshot(Segment.build(new ArrayList<>()), new BitSet(),
+            new LinkedHashMap<>());
+
+    /**
+     * 取得目前的索引快照（同一次查詢應只使用同一個快照）
+     */
+    public Snapshot snapshot() {
+        return snapshot;
+    }
+
+    /**
+     * 以新的文件集合整批取代索引
+     */
+    public synchronized void replaceAll(Collection<SitterSearchDoc> docs) {
+        this.snapshot = new Snapshot(Segment.build(docs), new BitSet(), new LinkedHashMap<>());
+    }
+
+    /**
+     * 新增或更新單一保姆
+     */
+    public synchronized void upsert(SitterSearchDoc doc) {
+        Snapshot current = snapshot;
+        BitSet deleted = current.maskMain(doc.getSitterId());
+        Map<Integer, SitterSearchDoc> delta = new LinkedHashMap<>(current.deltaById);
+        delta.put(doc.getSitterId(), doc);
+        this.snapshot = compactIfNeeded(current.segment, deleted, delta);
+    }
+
+    /**
+     * 自索引移除保姆
+     */
+    public synchronized void remove(Integer sitterId) {
+        Snapshot current = snapshot;
+        if (sitterId == null || current.get(sitterId) == null) {
+            return;
+        }
+        BitSet deleted = current.maskMain(sitterId);
+        Map<Integer, SitterSearchDoc> delta = new LinkedHashMap<>(current.deltaById);
+        delta.remove(sitterId);
+        this.snapshot = compactIfNeeded(current.segment, deleted, delta);
+    }
+
+    public int size() {
+        return snapshot.size();
+    }
+
+    private static Snapshot compactIfNeeded(Segment segment, BitSet deleted, Map<Integer, SitterSearchDoc> delta) {
+        if (delta.size() + deleted.cardinality() <= MAX_DELTA) {
+            return new Snapshot(segment, deleted, delta);
+        }
+        List<SitterSearchDoc> live = new ArrayList<>(segment.docs.length + delta.size());
+        for (int slot = 0; slot < segment.docs.length; slot++) {
+            if (!deleted.get(slot)) {
+                live.add(segment.docs[slot]);
+            }
+        }
+        live.addAll(delta.values());
+        return new Snapshot(Segment.build(live), new BitSet(), new LinkedHashMap<>());
+    }
+
+    /**
+     * 索引快照（不可變）：主索引 + 遮蔽位元 + 增量文件
+     *
+     * slot 0 ~ 主索引筆數-1 為主索引文件，之後依序為增量文件
+     */
+    public static final class Snapshot {
+
+        private final Segment segment;
+        private final BitSet deleted;
+        private final Map<Integer, SitterSearchDoc> deltaById;
+        private final SitterSearchDoc[] delta;
+
+        // 增量文件依各排序方式排好的 slot（數量少，建立快照時排序）
+        private final int[] deltaDefaultOrder;
+        private final int[] deltaPriceAscOrder;
+        private final int[] deltaPriceDescOrder;
+        private final int[] deltaRatingDescOrder;
+
+        private Snapshot(Segment segment, BitSet deleted, Map<Integer, SitterSearchDoc> deltaById) {
+            this.segment = segment;
+            this.deleted = deleted;
+            this.deltaById = deltaById;
+            this.delta = deltaById.values().toArray(new SitterSearchDoc[0]);
+            this.deltaDefaultOrder = sortedDeltaSlots(Segment.DEFAULT_ORDER);
+            this.deltaPriceAscOrder = sortedDeltaSlots(Segment.PRICE_ASC);
+            this.deltaPriceDescOrder = sortedDeltaSlots(Segment.PRICE_DESC);
+            this.deltaRatingDescOrder = sortedDeltaSlots(Segment.RATING_DESC);
+        }
+
+        public int size() {
+            return segment.docs.length - deleted.cardinality() + delta.length;
+        }
+
+        public SitterSearchDoc get(Integer sitterId) {
+            SitterSearchDoc doc = deltaById.get(sitterId);
+            if (doc != null) {
+                return doc;
+            }
+            Integer slot = segment.slotBySitterId.get(sitterId);
+            return (slot != null && !deleted.get(slot)) ? segment.docs[slot] : null;
+        }
+
+        public SitterSearchDoc doc(int slot) {
+            int base = segment.docs.length;
+            return slot < base ? segment.docs[slot] : delta[slot - base];
+        }
+
+        /**
+         * 所有保姆（新的 BitSet，可自由修改）
+         */
+        public BitSet all() {
+            BitSet result = new BitSet(segment.docs.length + delta.length);
+            result.set(0, segment.docs.length + delta.length);
+            result.andNot(deleted);
+            return result;
+        }
+
+        /**
+         * 服務任一指定地區的保姆
+         */
+        public BitSet anyArea(Collection<Integer> areaIds) {
+            return withDelta(Segment.union(segment.byArea, areaIds),
+                    doc -> doc.getAreaIds().stream().anyMatch(areaIds::contains));
+        }
+
+        /**
+         * 服務指定縣市（任一行政區）的保姆
+         */
+        public BitSet city(String cityName) {
+            return withDelta(Segment.copyOf(segment.byCity.get(cityName)),
+                    doc -> doc.getCityNames().contains(cityName));
+        }
+
+        /**
+         * 服務指定縣市行政區的保姆
+         */
+        public BitSet district(String cityName, String district) {
+            return withDelta(Segment.copyOf(segment.byDistrict.get(Segment.districtKey(cityName, district))), doc -> {
+                for (int i = 0; i < doc.getAreaIds().size(); i++) {
+                    if (cityName.equals(doc.getCityNames().get(i)) && district.equals(doc.getDistricts().get(i))) {
+                        return true;
+                    }
+                }
+                return false;
+            });
+        }
+
+        /**
+         * 提供任一指定服務項目的保姆
+         */
+        public BitSet anyService(Collection<Integer> serviceItemIds) {
+            int mask = Segment.maskOf(serviceItemIds);
+            return withDelta(Segment.union(segment.byService, serviceItemIds),
+                    doc -> (doc.getServiceMask() & mask) != 0);
+        }
+
+        /**
+         * 可服務任一指定寵物類型的保姆
+         */
+        public BitSet anyPetType(Collection<Integer> petTypeIds) {
+            int mask = Segment.maskOf(petTypeIds);
+            return withDelta(Segment.union(segment.byPetType, petTypeIds),
+                    doc -> (doc.getPetTypeMask() & mask) != 0);
+        }
+
+        /**
+         * 依排序方式輸出候選集合中的保姆（主索引與增量依同一比較方式合併）
+         *
+         * @param matches 候選 slot 集合
+         * @param sortBy  price_asc / price_desc / rating_desc，null 為評價數排序
+         */
+        public List<SitterSearchDoc> collect(BitSet matches, String sortBy) {
+            int[] mainOrder;
+            int[] deltaOrder;
+            Comparator<SitterSearchDoc> comparator;
+            if (sortBy == null) {
+                mainOrder = segment.defaultOrder;
+                deltaOrder = deltaDefaultOrder;
+                comparator = Segment.DEFAULT_ORDER;
+            } else {
+                switch (sortBy) {
+                    case "price_asc":
+                        mainOrder = segment.priceAscOrder;
+                        deltaOrder = deltaPriceAscOrder;
+                        comparator = Segment.PRICE_ASC;
+                        break;
+                    case "price_desc":
+                        mainOrder = segment.priceDescOrder;
+                        deltaOrder = deltaPriceDescOrder;
+                        comparator = Segment.PRICE_DESC;
+                        break;
+                    case "rating_desc":
+                    default:
+                        mainOrder = segment.ratingDescOrder;
+                        deltaOrder = deltaRatingDescOrder;
+                        comparator = Segment.RATING_DESC;
+                        break;
+                }
+            }
+
+            List<SitterSearchDoc> result = new ArrayList<>(matches.cardinality());
+            int i = 0;
+            int j = 0;
+            SitterSearchDoc pendingDelta = null;
+            while (true) {
+                while (i < mainOrder.length && (!matches.get(mainOrder[i]) || deleted.get(mainOrder[i]))) {
+                    i++;
+                }
+                while (pendingDelta == null && j < deltaOrder.length) {
+                    int slot = deltaOrder[j++];
+                    if (matches.get(slot)) {
+                        pendingDelta = doc(slot);
+                    }
+                }
+                if (i >= mainOrder.length && pendingDelta == null) {
+                    break;
+                }
+                if (pendingDelta == null
+                        || (i < mainOrder.length && comparator.compare(segment.docs[mainOrder[i]], pendingDelta) <= 0)) {
+                    result.add(segment.docs[mainOrder[i++]]);
+                } else {
+                    result.add(pendingDelta);
+                    pendingDelta = null;
+                }
+            }
+            return result;
+        }
+
+        // 主索引中該保姆的舊版本加上遮蔽（回傳新的遮蔽位元，原快照不變）
+        BitSet maskMain(Integer sitterId) {
+            BitSet copy = (BitSet) deleted.clone();
+            Integer slot = segment.slotBySitterId.get(sitterId);
+            if (slot != null) {
+                copy.set(slot);
+            }
+            return copy;
+        }
+
+        // 主索引結果扣除遮蔽，再逐筆比對增量文件
+        private BitSet withDelta(BitSet mainMatches, Predicate<SitterSearchDoc> filter) {
+            mainMatches.andNot(deleted);
+            int base = segment.docs.length;
+            for (int i = 0; i < delta.length; i++) {
+                if (filter.test(delta[i])) {
+                    mainMatches.set(base + i);
+                }
+            }
+            return mainMatches;
+        }
+
+        private int[] sortedDeltaSlots(Comparator<SitterSearchDoc> comparator) {
+            int base = segment.docs.length;
+            return IntStream.range(0, delta.length)
+                    .boxed()
+                    .sorted((a, b) -> comparator.compare(delta[a], delta[b]))
+                    .mapToInt(i -> base + i)
+                    .toArray();
+        }
+    }
+
+    /**
+     * 主索引（不可變）
+     */
+    static final class Segment {
+
+        // 排序方式
+        static final Comparator<SitterSearchDoc> DEFAULT_ORDER = Comparator.comparing( // 評價數多 → 少（與原本資料庫排序一致）
+                SitterSearchDoc::getRatingCount, Comparator.nullsLast(Comparator.reverseOrder()));
+        static final Comparator<SitterSearchDoc> PRICE_ASC = // 最低價 低 → 高
+                Comparator.comparingInt(SitterSearchDoc::getMinPrice);
+        static final Comparator<SitterSearchDoc> PRICE_DESC = // 最高價 高 → 低
+                Comparator.comparingInt(SitterSearchDoc::getMaxPrice).reversed();
+        static final Comparator<SitterSearchDoc> RATING_DESC = Comparator.comparing( // 平均星數 高 → 低（無評價排最後）
+                SitterSearchDoc::getAverageRating, Comparator.nullsLast(Comparator.reverseOrder()))
+                .thenComparing(DEFAULT_ORDER);
+
+        private final SitterSearchDoc[] docs;
+        private final Map<Integer, Integer> slotBySitterId = new HashMap<>();
+
+        private final Map<Integer, BitSet> byArea = new HashMap<>();
+        private final Map<String, BitSet> byCity = new HashMap<>();
+        private final Map<String, BitSet> byDistrict = new HashMap<>();
+        private final Map<Integer, BitSet> byService = new HashMap<>();
+        private final Map<Integer, BitSet> byPetType = new HashMap<>();
+
+        // 預先排序的 slot 順序
+        private final int[] defaultOrder;
+        private final int[] priceAscOrder;
+        private final int[] priceDescOrder;
+        private final int[] ratingDescOrder;
+
+        private Segment(SitterSearchDoc[] docs) {
+            this.docs = docs;
+            for (int slot = 0; slot < docs.length; slot++) {
+                SitterSearchDoc doc = docs[slot];
+                slotBySitterId.put(doc.getSitterId(), slot);
+
+                for (int i = 0; i < doc.getAreaIds().size(); i++) {
+                    String city = doc.getCityNames().get(i);
+                    mark(byArea, doc.getAreaIds().get(i), slot);
+                    mark(byCity, city, slot);
+                    mark(byDistrict, districtKey(city, doc.getDistricts().get(i)), slot);
+                }
+                markBits(byService, doc.getServiceMask(), slot);
+                markBits(byPetType, doc.getPetTypeMask(), slot);
+            }
+
+            this.defaultOrder = sortedSlots(DEFAULT_ORDER);
+            this.priceAscOrder = sortedSlots(PRICE_ASC);
+            this.priceDescOrder = sortedSlots(PRICE_DESC);
+            this.ratingDescOrder = sortedSlots(RATING_DESC);
+        }
+
+        static Segment build(Collection<SitterSearchDoc> docs) {
+            return new Segment(docs.toArray(new SitterSearchDoc[0]));
+        }
+
+        private int[] sortedSlots(Comparator<SitterSearchDoc> comparator) {
+            return IntStream.range(0, docs.length)
+                    .boxed()
+                    .sorted((a, b) -> comparator.compare(docs[a], docs[b]))
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+        }
+
+        private static <K> void mark(Map<K, BitSet> target, K key, int slot) {
+            if (key != null) {
+                target.computeIfAbsent(key, k -> new BitSet()).set(slot);
+            }
+        }
+
+        private static void markBits(Map<Integer, BitSet> target, int mask, int slot) {
+            for (int id = 0; id < Integer.SIZE; id++) {
+                if ((mask & (1 << id)) != 0) {
+                    mark(target, id, slot);
+                }
+            }
+        }
+
+        private static int maskOf(Collection<Integer> ids) {
+            int mask = 0;
+            for (Integer id : ids) {
+                if (id != null && id >= 0 && id < Integer.SIZE) {
+                    mask |= 1 << id;
+                }
+            }
+            return mask;
+        }
+
+        private static <K> BitSet union(Map<K, BitSet> source, Collection<K> keys) {
+            BitSet result = new BitSet();
+            for (K key : keys) {
+                BitSet bits = source.get(key);
+                if (bits != null) {
+                    result.or(bits);
+                }
+            }
+            return result;
+        }
+
+        private static BitSet copyOf(BitSet bits) {
+            return bits != null ? (BitSet) bits.clone() : new BitSet();
+        }
+
+        private static String districtKey(String cityName, String district) {
+            return cityName + "|" + district;
+        }
+    }
+}
@@ -8,7 +8,7 @@ public interface SitterSearchService {
 
     /**
      * 根據條件搜尋保姆
-     * 
+     *
      * @param criteria 搜尋條件
      * @return List<SitterSearchDTO> 符合條件的保姆列表
      */
@@ -16,8 +16,34 @@ public interface SitterSearchService {
 
     /**
      * 取得所有啟用中的保姆（用於無篩選條件時）
-     * 
+     *
      * @return List<SitterSearchDTO> 所有啟用中的保姆列表
      */
     List<SitterSearchDTO> getAllActiveSitters();
+
+    /**
+     * 重新從資料庫載入單一保姆並更新搜尋索引（停用或不存在則移除）
+     *
+     * @param sitterId 保姆編號
+     */
+    void refreshSitter(Integer sitterId);
+
+    /**
+     * 交易提交後才更新搜尋索引，避免交易回滾後索引與資料庫不一致
+     *
+     * @param sitterId 保姆編號
+     */
+    void refreshSitterAfterCommit(Integer sitterId);
+
+    /**
+     * 會員狀態異動（停權 / 啟用）後，若該會員是保姆則於交易提交後更新索引
+     *
+     * @param memId 會員編號
+     */
+    void refreshSitterOfMemberAfterCommit(Integer memId);
+
+    /**
+     * 重建整個保姆搜尋索引
+     */
+    void rebuildIndex();
 }
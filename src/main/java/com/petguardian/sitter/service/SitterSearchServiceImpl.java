@@ -1,37 +1,66 @@
 package com.petguardian.sitter.service;
 
+import java.time.LocalDate;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
 import java.util.List;
-
-import com.petguardian.petsitter.model.ServiceType;
-import com.petguardian.petsitter.model.PetType;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
-import com.petguardian.area.model.AreaRepository;
-import com.petguardian.area.model.AreaVO;
+import com.petguardian.booking.service.SitterCardIndex;
+import com.petguardian.booking.service.SitterOccupancyIndex;
+import com.petguardian.common.tx.AfterCommit;
+import com.petguardian.evaluate.model.EvaluateRepository;
+import com.petguardian.evaluate.service.SitterRatingService;
 import com.petguardian.petsitter.model.PetSitterServicePetTypeRepository;
-import com.petguardian.petsitter.model.PetSitterServicePetTypeVO;
 import com.petguardian.petsitter.model.PetSitterServiceRepository;
-import com.petguardian.petsitter.model.PetSitterServiceVO;
-import com.petguardian.service.model.ServiceAreaVO;
+import com.petguardian.service.model.ServiceAreaRepository;
 import com.petguardian.sitter.model.SitterRepository;
 import com.petguardian.sitter.model.SitterSearchCriteria;
 import com.petguardian.sitter.model.SitterSearchDTO;
+import com.petguardian.sitter.model.SitterSearchDoc;
 import com.petguardian.sitter.model.SitterVO;
 
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 保姆搜尋實作
+ *
+ * 以記憶體中的 SitterSearchIndex 回答搜尋：
+ * - 地區、服務項目、寵物類型：BitSet 聯集 / 交集
+ * - 價格區間：在候選集合上比對各保姆預先算好的最低 / 最高價
+ * - 可預約時段：以 SitterOccupancyIndex 各日的佔用位元比對，排除查詢時段內已有預約的保姆
+ * - 排序：price_asc / price_desc / rating_desc 皆使用索引預先排好的順序
+ *
+ * 啟動時以幾個整表查詢建立索引；保姆、服務項目、寵物類型、服務地區、評價異動時
+ * 由各 Service 在交易提交後呼叫 refreshSitterAfterCommit 增量更新，另每 30 分鐘整批重建一次作為校正。
+ */
+@Slf4j
 @Service
-@Transactional(readOnly = true)
 public class SitterSearchServiceImpl implements SitterSearchService {
 
+    private static final Byte STATUS_ACTIVE = 0;
+
+    // 可預約時段篩選最多查詢的天數
+    private static final int MAX_AVAILABILITY_DAYS = 31;
+
+    @Autowired
+    private SitterSearchIndex searchIndex;
+
     @Autowired
     private SitterRepository repository;
 
     @Autowired
-    private AreaRepository areaRepository;
+    private ServiceAreaRepository serviceAreaRepository;
 
     @Autowired
     private PetSitterServiceRepository petSitterServiceRepository;
@@ -39,277 +68,292 @@ public class SitterSearchServiceImpl implements SitterSearchService {
     @Autowired
     private PetSitterServicePetTypeRepository petSitterServicePetTypeRepository;
 
+    @Autowired
+    private EvaluateRepository evaluateRepository;
+
+    @Autowired
+    private SitterRatingService sitterRatingService;
+
+    @Autowired
+    private SitterOccupancyIndex occupancyIndex;
+
+    @Autowired
+    private SitterCardIndex sitterCardIndex;
+
     /**
      * 根據條件搜尋保姆
-     * 
+     *
      * @param criteria 搜尋條件（地區、服務項目、寵物類型、價格範圍、排序方式）
      * @return List<SitterSearchDTO> 符合條件的保姆列表
      */
     @Override
     public List<SitterSearchDTO> searchSitters(SitterSearchCriteria criteria) {
-        // 1. 根據地區篩選取得保姆列表
-        List<SitterVO> sitters;
+        SitterSearchIndex.Snapshot snapshot = searchIndex.snapshot();
 
-        // 處理地區篩選邏輯（使用縣市和區域名稱）
+        // 1. 地區篩選（縣市 / 縣市+區域，否則使用 areaIds）
+        BitSet matches;
         if (criteria.getCityName() != null && !criteria.getCityName().isEmpty()) {
-            List<Integer> areaIds = new ArrayList<>();
-
-            // 情況 1: 只選擇縣市（沒有選擇區域）
             if (criteria.getDistrict() == null || criteria.getDistrict().isEmpty()) {
-                // 查詢該縣市的所有區域
-                List<AreaVO> areas = areaRepository.findByCityName(criteria.getCityName());
-                for (AreaVO area : areas) {
-                    areaIds.add(area.getAreaId());
-                }
-            }
-            // 情況 2: 選擇縣市 + 區域
-            else {
-                // 查詢該縣市+區域對應的單一 area_id
-                AreaVO area = areaRepository.findByCityNameAndDistrict(
-                        criteria.getCityName(),
-                        criteria.getDistrict());
-                if (area != null) {
-                    areaIds.add(area.getAreaId());
-                }
-            }
-
-            // 如果找到對應的 area_id，進行搜尋
-            if (!areaIds.isEmpty()) {
-                sitters = repository.findByServiceAreas(areaIds, (byte) 0);
+                matches = snapshot.city(criteria.getCityName());
             } else {
-                // 找不到對應地區，返回空列表
-                return new ArrayList<>();
+                matches = snapshot.district(criteria.getCityName(), criteria.getDistrict());
             }
-        }
-        // 原有邏輯：使用 areaIds 直接篩選（保留向後相容）
-        else if (criteria.getAreaIds() != null && !criteria.getAreaIds().isEmpty()) {
-            sitters = repository.findByServiceAreas(criteria.getAreaIds(), (byte) 0);
-        }
-        // 無地區篩選，取得所有啟用保姆
-        else {
-            sitters = repository.findBySitterStatusOrderBySitterRatingCountDesc((byte) 0);
+        } else if (criteria.getAreaIds() != null && !criteria.getAreaIds().isEmpty()) {
+            matches = snapshot.anyArea(criteria.getAreaIds());
+        } else {
+            matches = snapshot.all();
         }
 
-        // 2. 將 SitterVO 轉換為 SitterSearchDTO，並進行進一步篩選
-        List<SitterSearchDTO> results = new ArrayList<>();
-
-        for (SitterVO sitter : sitters) {
-            SitterSearchDTO dto = convertToSearchDTO(sitter);
+        // 2. 服務項目篩選（符合任一項即可）
+        if (criteria.getServiceItemIds() != null && !criteria.getServiceItemIds().isEmpty()) {
+            matches.and(snapshot.anyService(criteria.getServiceItemIds()));
+        }
 
-            // 3. 根據服務項目篩選
-            if (criteria.getServiceItemIds() != null && !criteria.getServiceItemIds().isEmpty()) {
-                boolean hasMatchingService = dto.getServiceNames() != null &&
-                        dto.getServiceNames().stream()
-                                .anyMatch(serviceName -> criteria.getServiceItemIds()
-                                        .contains(getServiceIdByName(serviceName)));
-                if (!hasMatchingService) {
-                    continue; // 不符合，跳過
-                }
-            }
+        // 3. 寵物類型篩選（符合任一類型即可）
+        if (criteria.getPetTypeIds() != null && !criteria.getPetTypeIds().isEmpty()) {
+            matches.and(snapshot.anyPetType(criteria.getPetTypeIds()));
+        }
 
-            // 4. 根據寵物類型篩選
-            if (criteria.getPetTypeIds() != null && !criteria.getPetTypeIds().isEmpty()) {
-                boolean hasMatchingPetType = dto.getPetTypes() != null &&
-                        dto.getPetTypes().stream()
-                                .anyMatch(petType -> criteria.getPetTypeIds().contains(getPetTypeIdByName(petType)));
-                if (!hasMatchingPetType) {
-                    continue; // 不符合，跳過
+        // 4. 價格範圍篩選：最低價不低於下限、最高價不高於上限
+        if (criteria.getMinPrice() != null || criteria.getMaxPrice() != null) {
+            for (int slot = matches.nextSetBit(0); slot >= 0; slot = matches.nextSetBit(slot + 1)) {
+                SitterSearchDoc doc = snapshot.doc(slot);
+                if ((criteria.getMinPrice() != null && doc.getMinPrice() < criteria.getMinPrice())
+                        || (criteria.getMaxPrice() != null && doc.getMaxPrice() > criteria.getMaxPrice())) {
+                    matches.clear(slot);
                 }
             }
+        }
 
-            // 5. 根據價格範圍篩選
-            if (criteria.getMinPrice() != null && dto.getMinPrice() != null) {
-                if (dto.getMinPrice() < criteria.getMinPrice()) {
-                    continue; // 最低價低於篩選條件，跳過
+        // 5. 可預約時段篩選：日期區間內每一天的查詢時段皆無佔用
+        if (criteria.hasAvailabilityFilter() && !matches.isEmpty()) {
+            Set<Integer> busy = occupancyIndex.findBusySitters(availabilityDates(criteria), availabilityMask(criteria));
+            for (int slot = matches.nextSetBit(0); slot >= 0; slot = matches.nextSetBit(slot + 1)) {
+                if (busy.contains(snapshot.doc(slot).getSitterId())) {
+                    matches.clear(slot);
                 }
             }
-            if (criteria.getMaxPrice() != null && dto.getMaxPrice() != null) {
-                if (dto.getMaxPrice() > criteria.getMaxPrice()) {
-                    continue; // 最高價高於篩選條件，跳過
-                }
-            }
-
-            results.add(dto);
         }
 
-        // 6. 排序
-        sortResults(results, criteria.getSortBy());
-
-        return results;
+        // 6. 依預先排序的順序輸出
+        return toDTOs(snapshot.collect(matches, criteria.getSortBy()));
     }
 
     /**
      * 取得所有啟用中的保姆（用於無篩選條件時）
-     * 
-     * @return List<SitterSearchDTO> 所有啟用中的保姆列表
+     *
+     * @return List<SitterSearchDTO> 所有啟用中的保姆列表（依評價數排序）
      */
     @Override
     public List<SitterSearchDTO> getAllActiveSitters() {
-        List<SitterVO> sitters = repository.findBySitterStatusOrderBySitterRatingCountDesc((byte) 0);
-        List<SitterSearchDTO> results = new ArrayList<>();
+        SitterSearchIndex.Snapshot snapshot = searchIndex.snapshot();
+        return toDTOs(snapshot.collect(snapshot.all(), null));
+    }
 
-        for (SitterVO sitter : sitters) {
-            results.add(convertToSearchDTO(sitter));
+    // ========== 索引建立與更新 ==========
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            rebuildIndex();
+        } catch (Exception e) {
+            log.error("[SitterSearch] 建立保姆索引失敗: {}", e.getMessage());
         }
+    }
 
-        return results;
+    @Scheduled(fixedDelay = 1800000, initialDelay = 1800000) // 每 30 分鐘
+    public void scheduledRebuild() {
+        try {
+            rebuildIndex();
+        } catch (Exception e) {
+            log.warn("[SitterSearch] 定期重建保姆索引失敗，沿用舊索引: {}", e.getMessage());
+        }
     }
 
-    // ========== 私有輔助方法 ==========
+    @Override
+    public void rebuildIndex() {
+        long start = System.currentTimeMillis();
 
-    /**
-     * 將 SitterVO 轉換為 SitterSearchDTO
-     */
-    private SitterSearchDTO convertToSearchDTO(SitterVO sitter) {
-        SitterSearchDTO dto = new SitterSearchDTO();
-
-        // 保姆基本資訊
-        dto.setSitterId(sitter.getSitterId());
-        dto.setSitterName(sitter.getSitterName());
-        dto.setSitterAdd(sitter.getSitterAdd());
-
-        // 評價資訊
-        dto.setRatingCount(sitter.getSitterRatingCount());
-        dto.setStarCount(sitter.getSitterStarCount());
-
-        // 計算平均評分
-        // 計算平均評分 (Deprecated: 舊邏輯不再使用，改由 Controller 注入 EvaluateService 真實數據)
-        dto.setAverageRating(null); // Explicitly set to null to avoid confusion
-        /*
-         * if (sitter.getSitterRatingCount() != null && sitter.getSitterRatingCount() >
-         * 0) {
-         * double avgRating = (double) sitter.getSitterStarCount() /
-         * sitter.getSitterRatingCount();
-         * dto.setAverageRating(avgRating);
-         * } else {
-         * dto.setAverageRating(0.0);
-         * }
-         */
-
-        // [Modified] 查詢服務項目與價格
-        List<String> serviceNames = new ArrayList<>();
-        Integer minPrice = Integer.MAX_VALUE;
-        Integer maxPrice = 0;
-
-        List<PetSitterServiceVO> services = petSitterServiceRepository.findBySitter_SitterId(sitter.getSitterId());
-        for (PetSitterServiceVO svc : services) {
-            // 轉換 ID 為名稱 (Hardcoded Mapping, V18 Schema 相容)
-            String name = getServiceNameById(svc.getServiceItemId());
-            if (name != null) {
-                serviceNames.add(name);
-            }
-            if (svc.getDefaultPrice() != null) {
-                if (svc.getDefaultPrice() < minPrice)
-                    minPrice = svc.getDefaultPrice();
-                if (svc.getDefaultPrice() > maxPrice)
-                    maxPrice = svc.getDefaultPrice();
+        // 整表查詢後依保姆分組（共 5 次查詢，與保姆人數無關）
+        Map<Integer, List<Object[]>> areaRows = groupBySitter(serviceAreaRepository.findAllSitterAreaRows());
+        Map<Integer, List<Object[]>> serviceRows = groupBySitter(petSitterServiceRepository.findAllServicePriceRows());
+
+        Map<Integer, List<Integer>> petTypeIds = new HashMap<>();
+        for (Object[] row : petSitterServicePetTypeRepository.findAllSitterPetTypeRows()) {
+            if (row[0] != null && row[1] != null) {
+                petTypeIds.computeIfAbsent((Integer) row[0], k -> new ArrayList<>()).add((Integer) row[1]);
             }
         }
 
-        dto.setServiceNames(serviceNames);
-        dto.setMinPrice(minPrice == Integer.MAX_VALUE ? 0 : minPrice);
-        dto.setMaxPrice(maxPrice);
-
-        // [Modified] 查詢寵物類型
-        List<String> petTypes = new ArrayList<>();
-        List<PetSitterServicePetTypeVO> types = petSitterServicePetTypeRepository.findBySitterId(sitter.getSitterId());
-        for (PetSitterServicePetTypeVO type : types) {
-            String typeName = getPetTypeNameById(type.getTypeId());
-            if (typeName != null && !petTypes.contains(typeName)) {
-                petTypes.add(typeName);
+        Map<Integer, Double> ratings = new HashMap<>();
+        for (Object[] row : evaluateRepository.getAverageRatingGroupBySitter()) {
+            if (row[0] != null && row[1] != null) {
+                ratings.put((Integer) row[0], roundRating(((Number) row[1]).doubleValue()));
             }
         }
-        dto.setPetTypes(petTypes);
-
-        // 填入服務地區
-        if (sitter.getServiceAreas() != null && !sitter.getServiceAreas().isEmpty()) {
-            java.util.List<String> areas = new ArrayList<>();
-            for (ServiceAreaVO sa : sitter.getServiceAreas()) {
-                if (sa.getArea() != null) {
-                    areas.add(sa.getArea().getCityName() + sa.getArea().getDistrict());
-                }
-            }
-            dto.setServiceAreas(areas);
-        } else {
-            dto.setServiceAreas(new ArrayList<>());
+
+        List<SitterSearchDoc> docs = new ArrayList<>();
+        for (SitterVO sitter : repository.findBySitterStatus(STATUS_ACTIVE)) {
+            Integer sitterId = sitter.getSitterId();
+            docs.add(buildDoc(sitter,
+                    areaRows.getOrDefault(sitterId, List.of()),
+                    serviceRows.getOrDefault(sitterId, List.of()),
+                    petTypeIds.getOrDefault(sitterId, List.of()),
+                    ratings.get(sitterId)));
+        }
+        searchIndex.replaceAll(docs);
+
+        log.info("[SitterSearch] 保姆索引建立完成，共 {} 筆，耗時 {} ms",
+                docs.size(), System.currentTimeMillis() - start);
+    }
+
+    @Override
+    public void refreshSitter(Integer sitterId) {
+        if (sitterId == null) {
+            return;
+        }
+        // 狀態以純量查詢取得：新建保姆的實體上 sitterStatus 由資料庫預設值產生，實體欄位仍為 null
+        Optional<SitterVO> sitterOpt = repository.findById(sitterId);
+        if (sitterOpt.isEmpty() || !STATUS_ACTIVE.equals(repository.findStatusById(sitterId))) {
+            searchIndex.remove(sitterId);
+            return;
         }
 
-        return dto;
+        searchIndex.upsert(buildDoc(sitterOpt.get(),
+                serviceAreaRepository.findAreaRowsBySitterId(sitterId),
+                petSitterServiceRepository.findServicePriceRowsBySitterId(sitterId),
+                petSitterServicePetTypeRepository.findPetTypeIdsBySitterId(sitterId),
+                sitterRatingService.getRating(sitterId).getAverageRating()));
+    }
+
+    @Override
+    public void refreshSitterAfterCommit(Integer sitterId) {
+        if (sitterId == null) {
+            return;
+        }
+        AfterCommit.run(() -> safeRefresh(sitterId));
+    }
+
+    @Override
+    public void refreshSitterOfMemberAfterCommit(Integer memId) {
+        if (memId == null) {
+            return;
+        }
+        SitterVO sitter = repository.findByMemId(memId);
+        if (sitter != null) {
+            refreshSitterAfterCommit(sitter.getSitterId());
+        }
     }
 
+    // ========== 私有輔助方法 ==========
+
     /**
-     * 根據排序條件排序結果
+     * 可預約篩選的日期列表（結束日期未填則只查開始日期）
+     *
+     * @throws IllegalArgumentException 若日期區間不合理或超過查詢上限
      */
-    private void sortResults(List<SitterSearchDTO> results, String sortBy) {
-        if (sortBy == null) {
-            return;
+    private List<LocalDate> availabilityDates(SitterSearchCriteria criteria) {
+        LocalDate start = criteria.getStartDate();
+        LocalDate end = criteria.getEndDate() != null ? criteria.getEndDate() : start;
+        if (end.isBefore(start)) {
+            throw new IllegalArgumentException("結束日期不可早於開始日期");
+        }
+        if (start.plusDays(MAX_AVAILABILITY_DAYS - 1).isBefore(end)) {
+            throw new IllegalArgumentException("可預約查詢區間最多 " + MAX_AVAILABILITY_DAYS + " 天");
+        }
+        return start.datesUntil(end.plusDays(1)).collect(Collectors.toList());
+    }
 
+    /**
+     * 可預約篩選的時段位元（[startHour, endHour)，與 BookingScheduleInternalService.calculateBits 相同）
+     *
+     * @throws IllegalArgumentException 若時段不合理
+     */
+    private int availabilityMask(SitterSearchCriteria criteria) {
+        int startHour = criteria.getStartHour() != null ? criteria.getStartHour() : 0;
+        int endHour = criteria.getEndHour() != null ? criteria.getEndHour() : 24;
+        if (startHour < 0 || endHour > 24 || endHour <= startHour) {
+            throw new IllegalArgumentException("查詢時段錯誤");
         }
+        int mask = 0;
+        for (int hour = startHour; hour < endHour; hour++) {
+            mask |= 1 << hour;
+        }
+        return mask;
+    }
 
-        switch (sortBy) {
-            case "price_asc":
-                results.sort((a, b) -> {
-                    if (a.getMinPrice() == null)
-                        return 1;
-                    if (b.getMinPrice() == null)
-                        return -1;
-                    return a.getMinPrice().compareTo(b.getMinPrice());
-                });
-
-                break;
-            case "price_desc":
-                results.sort((a, b) -> {
-                    if (a.getMaxPrice() == null)
-                        return 1;
-                    if (b.getMaxPrice() == null)
-                        return -1;
-                    return b.getMaxPrice().compareTo(a.getMaxPrice());
-                });
-                break;
-            case "rating_desc":
-            default:
-                results.sort((a, b) -> {
-                    if (a.getAverageRating() == null)
-                        return 1;
-                    if (b.getAverageRating() == null)
-                        return -1;
-                    return b.getAverageRating().compareTo(a.getAverageRating());
-                });
-                break;
+    private void safeRefresh(Integer sitterId) {
+        try {
+            refreshSitter(sitterId);
+        } catch (Exception e) {
+            // 索引更新失敗不影響主要業務，定期重建時會校正
+            log.warn("[SitterSearch] 更新保姆索引失敗 sitterId={}: {}", sitterId, e.getMessage());
+        }
+        try {
+            // 預約搜尋頁的保母卡片索引一併更新
+            sitterCardIndex.refresh(sitterId);
+        } catch (Exception e) {
+            log.warn("[SitterSearch] 更新保姆卡片索引失敗 sitterId={}: {}", sitterId, e.getMessage());
         }
     }
 
-    // [New] Hardcoded Helper Methods (To Replace Missing Tables)
+    /**
+     * 組出單一保姆的索引文件
+     *
+     * @param areaRows    [sitterId, areaId, cityName, district]
+     * @param serviceRows [sitterId, serviceItemId, defaultPrice]
+     */
+    private SitterSearchDoc buildDoc(SitterVO sitter, List<Object[]> areaRows, List<Object[]> serviceRows,
+            List<Integer> petTypeIds, Double averageRating) {
+        List<Integer> areaIds = new ArrayList<>();
+        List<String> cityNames = new ArrayList<>();
+        List<String> districts = new ArrayList<>();
+        for (Object[] row : areaRows) {
+            areaIds.add((Integer) row[1]);
+            cityNames.add((String) row[2]);
+            districts.add((String) row[3]);
+        }
+
+        int serviceMask = 0;
+        int minPrice = Integer.MAX_VALUE;
+        int maxPrice = 0;
+        for (Object[] row : serviceRows) {
+            Integer serviceItemId = (Integer) row[1];
+            Integer price = (Integer) row[2];
+            if (serviceItemId != null && serviceItemId >= 0 && serviceItemId < Integer.SIZE) {
+                serviceMask |= 1 << serviceItemId;
+            }
+            if (price != null) {
+                minPrice = Math.min(minPrice, price);
+                maxPrice = Math.max(maxPrice, price);
+            }
+        }
 
-    // [Refactored] Use Enums instead of Hardcoded Helpers
+        int petTypeMask = 0;
+        for (Integer typeId : petTypeIds) {
+            if (typeId != null && typeId >= 0 && typeId < Integer.SIZE) {
+                petTypeMask |= 1 << typeId;
+            }
+        }
 
-    private Integer getServiceIdByName(String serviceName) {
-        if (serviceName == null)
-            return null;
-        return Arrays.stream(ServiceType.values())
-                .filter(s -> s.getLabel().equals(serviceName))
-                .findFirst()
-                .map(ServiceType::getId)
-                .orElse(null);
+        return new SitterSearchDoc(sitter, areaIds, cityNames, districts, serviceMask, petTypeMask,
+                minPrice == Integer.MAX_VALUE ? 0 : minPrice, maxPrice, averageRating);
     }
 
-    private String getServiceNameById(Integer id) {
-        ServiceType type = ServiceType.fromId(id);
-        return (type != null) ? type.getLabel() : null;
+    private Map<Integer, List<Object[]>> groupBySitter(List<Object[]> rows) {
+        return rows.stream()
+                .filter(row -> row[0] != null)
+                .collect(Collectors.groupingBy(row -> (Integer) row[0]));
     }
 
-    private Integer getPetTypeIdByName(String petTypeName) {
-        if (petTypeName == null)
-            return null;
-        return Arrays.stream(PetType.values())
-                .filter(t -> t.getLabel().equals(petTypeName))
-                .findFirst()
-                .map(PetType::getId)
-                .orElse(null);
+    // 與 SitterRatingService 相同：四捨五入至小數一位
+    private Double roundRating(double avg) {
+        return Math.round(avg * 10.0) / 10.0;
     }
 
-    private String getPetTypeNameById(Integer id) {
-        PetType type = PetType.fromId(id);
-        return (type != null) ? type.getLabel() : null;
+    private List<SitterSearchDTO> toDTOs(List<SitterSearchDoc> docs) {
+        return docs.stream()
+                .map(SitterSearchDoc::toSearchDTO)
+                .collect(Collectors.toList());
     }
 }
@@ -6,7 +6,7 @@ import com.petguardian.sitter.model.SitterMemberVO;
 import com.petguardian.sitter.model.SitterSearchCriteria;
 import com.petguardian.sitter.model.SitterSearchDTO;
 import com.petguardian.sitter.model.SitterDashboardDTO;
-import com.petguardian.booking.model.BookingScheduleVO;
+import com.petguardian.booking.model.ScheduleMonthDTO;
 import com.petguardian.booking.model.BookingOrderVO;
 import java.time.LocalDate;
 
@@ -89,9 +89,9 @@ public interface SitterService {
      * @param memId 會員編號
      * @param year  年份
      * @param month 月份
-     * @return List<BookingScheduleVO> 該月行程
+     * @return ScheduleMonthDTO 該月行程（每天一組時段位元）
      */
-    List<BookingScheduleVO> getScheduleByMember(Integer memId, int year, int month);
+    ScheduleMonthDTO getScheduleByMember(Integer memId, int year, int month);
 
     /**
      * 更新會員(保姆)的單日行程
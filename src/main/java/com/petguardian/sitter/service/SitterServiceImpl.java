@@ -15,7 +15,7 @@ import com.petguardian.sitter.model.SitterSearchCriteria;
 import com.petguardian.sitter.model.SitterSearchDTO;
 import com.petguardian.sitter.model.SitterMemberRepository;
 import com.petguardian.sitter.model.SitterMemberVO;
-import com.petguardian.booking.model.BookingScheduleVO;
+import com.petguardian.booking.model.ScheduleMonthDTO;
 // import com.petguardian.booking.model.BookingScheduleRepository; // [Refactor] Unused
 import com.petguardian.booking.model.BookingOrderRepository;
 import com.petguardian.booking.model.BookingOrderVO;
@@ -100,7 +100,9 @@ public class SitterServiceImpl implements SitterService {
         vo.setSitterAdd(sitterAdd);
         // sitterCreatedAt, sitterStatus, serviceTime, sitterRatingCount,
         // sitterStarCount 由資料庫預設值處理
-        return repository.save(vo);
+        SitterVO saved = repository.save(vo);
+        searchService.refreshSitterAfterCommit(saved.getSitterId());
+        return saved;
     }
 
     /**
@@ -163,7 +165,9 @@ public class SitterServiceImpl implements SitterService {
         }
         SitterVO vo = optional.get();
         vo.setSitterStatus(status);
-        return repository.save(vo);
+        SitterVO saved = repository.save(vo);
+        searchService.refreshSitterAfterCommit(sitterId);
+        return saved;
     }
 
     /**
@@ -185,7 +189,9 @@ public class SitterServiceImpl implements SitterService {
         SitterVO vo = optional.get();
         vo.setSitterName(sitterName);
         vo.setSitterAdd(sitterAdd);
-        return repository.save(vo);
+        SitterVO saved = repository.save(vo);
+        searchService.refreshSitterAfterCommit(sitterId);
+        return saved;
     }
 
     /**
@@ -206,7 +212,7 @@ public class SitterServiceImpl implements SitterService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<BookingScheduleVO> getScheduleByMember(Integer memId, int year, int month) {
+    public ScheduleMonthDTO getScheduleByMember(Integer memId, int year, int month) {
         return scheduleService.getScheduleByMember(memId, year, month);
     }
 
@@ -0,0 +1,79 @@
+package com.petguardian.store.controller;
+
+import com.petguardian.common.service.AuthStrategyService;
+import com.petguardian.productfavoritelist.service.ProductFavoriteListService;
+import com.petguardian.store.model.ProductSearchCriteria;
+import com.petguardian.store.model.ProductSearchResult;
+import com.petguardian.store.service.ProductSearchService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 商品搜尋 API 控制器
+ * 提供前端即時搜尋（Fetch）使用的 JSON 端點
+ */
+@RestController
+@RequestMapping("/api/products")
+public class ProductSearchApiController {
+
+    @Autowired
+    private ProductSearchService productSearchService;
+
+    @Autowired
+    private ProductFavoriteListService favoriteService;
+
+    @Autowired
+    private AuthStrategyService authService;
+
+    /**
+     * 搜尋上架商品
+     * GET /api/products?keyword=&proTypeId=&sellerId=&priceBand=&sort=&page=&size=
+     */
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> searchProducts(
+            @RequestParam(required = false) String keyword,
+            @RequestParam(required = false) Integer proTypeId,
+            @RequestParam(required = false) Integer sellerId,
+            @RequestParam(required = false) String priceBand,
+            @RequestParam(defaultValue = "relevance") String sort,
+            @RequestParam(defaultValue = "0") Integer page,
+            @RequestParam(defaultValue = "24") Integer size,
+            HttpServletRequest request) {
+
+        ProductSearchCriteria criteria = new ProductSearchCriteria();
+        criteria.setKeyword(keyword);
+        criteria.setProTypeId(proTypeId);
+        criteria.setSellerId(sellerId);
+        criteria.setPriceBand(priceBand);
+        criteria.setSortBy(sort);
+        criteria.setPage(page);
+        criteria.setPageSize(size);
+        ProductSearchResult searchResult = productSearchService.search(criteria);
+
+        Integer memId = authService.getCurrentUserId(request);
+        Set<Integer> favoriteIds = (memId != null)
+                ? favoriteService.getFavoriteProductIds(memId)
+                : Collections.emptySet();
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("products", productSearchService.toDisplayDTOs(searchResult.getHits(), favoriteIds));
+        response.put("totalHits", searchResult.getTotalHits());
+        response.put("page", searchResult.getPage());
+        response.put("pageSize", searchResult.getPageSize());
+        response.put("totalPages", searchResult.getTotalPages());
+        response.put("proTypeFacets", searchResult.getProTypeFacets());
+        response.put("sellerFacets", searchResult.getSellerFacets());
+        response.put("priceBandFacets", searchResult.getPriceBandFacets());
+        return ResponseEntity.ok(response);
+    }
+}
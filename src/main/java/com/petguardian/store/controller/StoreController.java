@@ -8,10 +8,13 @@ import com.petguardian.orders.service.OrdersService;
 import com.petguardian.seller.model.ProductPicRepository;
 import com.petguardian.seller.model.ProductPic;
 import com.petguardian.seller.model.Product;
+import com.petguardian.store.model.ProductSearchCriteria;
+import com.petguardian.store.model.ProductSearchResult;
+import com.petguardian.store.service.ProductSearchService;
 import com.petguardian.store.service.StoreService;
 import com.petguardian.productfavoritelist.service.ProductFavoriteListService;
 import com.petguardian.orders.service.ReturnOrderService;
-import com.petguardian.sellerreview.model.SellerReviewVO;
+import com.petguardian.sellerreview.service.SellerProfileService;
 import com.petguardian.sellerreview.service.SellerReviewService;
 import com.petguardian.wallet.model.WalletRepository;
 import com.petguardian.seller.model.ProType;
@@ -25,7 +28,6 @@ import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
-import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -54,6 +56,9 @@ public class StoreController {
     @Autowired
     private SellerReviewService reviewService;
 
+    @Autowired
+    private SellerProfileService sellerProfileService;
+
     @Autowired
     private ReturnOrderService returnOrderService;
 
@@ -75,6 +80,12 @@ public class StoreController {
     @Autowired
     private ImageCacheService imageCacheService;
 
+    @Autowired
+    private ProductSearchService productSearchService;
+
+    // 結帳頁賣家評價每頁筆數
+    private static final int REVIEW_PAGE_SIZE = 10;
+
     // ==================== 輔助方法 ====================
 
     /**
@@ -136,96 +147,37 @@ public class StoreController {
         return dto;
     }
 
-    /**
-     * 取得賣家資訊 DTO（含評分統計與評價列表）
-     */
-    private SellerInfoDTO getSellerInfoDTO(Integer sellerId) {
-        SellerInfoDTO info = new SellerInfoDTO();
-        info.setSellerId(sellerId);
-
-        // 取得賣家名稱
-        memberDAO.findById(sellerId).ifPresent(member -> info.setSellerName(member.getMemName()));
-        if (info.getSellerName() == null) {
-            info.setSellerName("賣家 #" + sellerId);
-        }
-
-        // 取得評分統計
-        Map<String, Object> stats = reviewService.getSellerRatingStats(sellerId);
-        info.setAverageRating((Double) stats.get("averageRating"));
-        info.setReviewCount((Long) stats.get("reviewCount"));
-
-        // 取得評價列表並轉換為 DTO
-        @SuppressWarnings("unchecked")
-        List<SellerReviewVO> reviews = (List<SellerReviewVO>) stats.get("reviews");
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
-
-        List<SellerInfoDTO.ReviewDisplayDTO> reviewDTOs = reviews.stream().map(review -> {
-            SellerInfoDTO.ReviewDisplayDTO dto = new SellerInfoDTO.ReviewDisplayDTO();
-            dto.setReviewId(review.getReviewId());
-            dto.setOrderId(review.getOrderId());
-            dto.setRating(review.getRating());
-            dto.setReviewContent(review.getReviewContent());
-            dto.setReviewTime(review.getReviewTime() != null
-                    ? review.getReviewTime().format(formatter)
-                    : "");
-
-            // 取得買家名稱
-            try {
-                Map<String, Object> orderData = ordersService.getOrderWithItems(review.getOrderId());
-                OrdersVO order = (OrdersVO) orderData.get("order");
-                if (order != null) {
-                    memberDAO.findById(order.getBuyerMemId())
-                            .ifPresent(buyer -> dto.setBuyerName(buyer.getMemName()));
-                }
-            } catch (Exception e) {
-                // 忽略錯誤
-            }
-            if (dto.getBuyerName() == null) {
-                dto.setBuyerName("匿名買家");
-            }
-            return dto;
-        }).collect(Collectors.toList());
-
-        info.setReviews(reviewDTOs);
-        return info;
-    }
-
     // ==================== 商城頁面 ====================
 
     /**
-     * 商城首頁
+     * 商城首頁（含關鍵字搜尋、分類 / 價格區間篩選與分頁）
      * GET /store
      */
     @GetMapping("/store")
     public String storePage(@RequestParam(required = false) Integer categoryId,
+            @RequestParam(required = false) String keyword,
+            @RequestParam(required = false) String priceBand,
+            @RequestParam(defaultValue = "relevance") String sort,
+            @RequestParam(defaultValue = "0") Integer page,
             Model model, HttpSession session, HttpServletRequest request) {
         Integer memId = authService.getCurrentUserId(request);
 
-        // 取得所有上架商品
-        List<Product> products = productService.getAllActiveProducts();
-
-        // 如果有指定分類，進行篩選
-        if (categoryId != null) {
-            products = products.stream()
-                    .filter(p -> p.getProType() != null && categoryId.equals(p.getProType().getProTypeId()))
-                    .collect(Collectors.toList());
-        }
+        // 從商品搜尋索引取得當頁上架商品
+        ProductSearchCriteria criteria = new ProductSearchCriteria();
+        criteria.setKeyword(keyword);
+        criteria.setProTypeId(categoryId);
+        criteria.setPriceBand(priceBand);
+        criteria.setSortBy(sort);
+        criteria.setPage(page);
+        ProductSearchResult searchResult = productSearchService.search(criteria);
 
         // 取得使用者收藏的商品 ID 集合 (若未登入則為空集合)
         Set<Integer> favoriteIds = (memId != null)
                 ? favoriteService.getFavoriteProductIds(memId)
                 : Collections.emptySet();
 
-        // 批次載入所有商品圖片（單次查詢）
-        List<Integer> proIds = products.stream()
-                .map(Product::getProId)
-                .collect(Collectors.toList());
-        Map<Integer, String> imageMap = imageCacheService.getProductImageUrlMap(proIds);
-
-        // 轉換為 ProductDisplayDTO（使用預載的圖片 Map）
-        List<ProductDisplayDTO> productDTOs = products.stream()
-                .map(p -> toProductDisplayDTO(p, favoriteIds, imageMap))
-                .collect(Collectors.toList());
+        // 轉換為 ProductDisplayDTO（批次載入圖片）
+        List<ProductDisplayDTO> productDTOs = productSearchService.toDisplayDTOs(searchResult.getHits(), favoriteIds);
 
         // 取得所有商品分類
         List<ProType> categories = proTypeRepository.findAll();
@@ -234,6 +186,10 @@ public class StoreController {
         model.addAttribute("memId", memId);
         model.addAttribute("categories", categories);
         model.addAttribute("selectedCategoryId", categoryId);
+        model.addAttribute("keyword", keyword);
+        model.addAttribute("selectedPriceBand", priceBand);
+        model.addAttribute("sort", sort);
+        model.addAttribute("searchResult", searchResult);
 
         return "frontend/orders/store";
     }
@@ -285,7 +241,8 @@ public class StoreController {
      * GET /store/checkout
      */
     @GetMapping("/store/checkout")
-    public String checkoutPage(Model model, HttpSession session, HttpServletRequest request) {
+    public String checkoutPage(@RequestParam(defaultValue = "0") Integer reviewPage,
+            Model model, HttpSession session, HttpServletRequest request) {
         Integer memId = authService.getCurrentUserId(request);
         if (memId == null) {
             return "redirect:/front/loginpage";
@@ -350,8 +307,8 @@ public class StoreController {
                 .sum();
         checkout.setOrderTotal(orderTotal);
 
-        // 4. 賣家資訊（含評分統計與評價列表）
-        SellerInfoDTO sellerInfo = getSellerInfoDTO(sellerId);
+        // 4. 賣家資訊（含評分統計與分頁評價列表）
+        SellerInfoDTO sellerInfo = sellerProfileService.getSellerProfile(sellerId, reviewPage, REVIEW_PAGE_SIZE);
         checkout.setSellerInfo(sellerInfo);
 
         // 5. 同店加購商品
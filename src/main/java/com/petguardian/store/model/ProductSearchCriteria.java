@@ -0,0 +1,30 @@
+package com.petguardian.store.model;
+
+import lombok.Data;
+
+/**
+ * 商品搜尋條件
+ * 用於接收商城搜尋列與篩選欄的參數
+ */
+@Data
+public class ProductSearchCriteria {
+
+    // 關鍵字（比對商品名稱與描述）
+    private String keyword;
+
+    // 分類篩選
+    private Integer proTypeId;
+
+    // 賣家篩選
+    private Integer sellerId;
+
+    // 價格區間篩選（例如 "200-499"，見 ProductSearchDoc.priceBandOf）
+    private String priceBand;
+
+    // 排序選項（relevance, popular, price_asc, price_desc, newest）
+    private String sortBy = "relevance";
+
+    // 分頁參數
+    private int page = 0; // 頁碼（從 0 開始）
+    private int pageSize = 24; // 每頁筆數
+}
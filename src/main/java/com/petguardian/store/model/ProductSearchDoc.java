@@ -0,0 +1,75 @@
+package com.petguardian.store.model;
+
+import com.petguardian.common.util.CjkBigramTokenizer;
+import com.petguardian.seller.model.Product;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * 商品搜尋索引文件
+ *
+ * 保存商城列表需要的欄位與切詞結果，
+ * 讓搜尋與列表顯示都不需要再回資料庫查詢商品。
+ */
+@Getter
+public class ProductSearchDoc {
+
+    // 價格區間上限（不含），最後一個區間為 2000 以上
+    public static final int[] PRICE_BAND_BOUNDS = { 200, 500, 1000, 2000 };
+
+    private final Integer proId;
+    private final Integer sellerId;
+    private final Integer proTypeId;
+    private final String proTypeName;
+    private final String proName;
+    private final String proDescription;
+    private final Integer proPrice;
+    private final Integer stockQuantity;
+    private final LocalDateTime launchedTime;
+    private final String priceBand;
+
+    // 商品名稱與描述的切詞結果（名稱命中權重較高）
+    private final Set<String> nameTokens;
+    private final Set<String> descriptionTokens;
+
+    public ProductSearchDoc(Product product) {
+        this.proId = product.getProId();
+        this.sellerId = product.getMemId();
+        this.proTypeId = product.getProType() != null ? product.getProType().getProTypeId() : null;
+        this.proTypeName = product.getProType() != null ? product.getProType().getProTypeName() : null;
+        this.proName = product.getProName();
+        this.proDescription = product.getProDescription();
+        this.proPrice = product.getProPrice() != null ? product.getProPrice() : 0;
+        this.stockQuantity = product.getStockQuantity() != null ? product.getStockQuantity() : 0;
+        this.launchedTime = product.getLaunchedTime();
+        this.priceBand = priceBandOf(this.proPrice);
+        this.nameTokens = new HashSet<>(CjkBigramTokenizer.tokenizeForIndex(product.getProName()));
+        this.descriptionTokens = new HashSet<>(CjkBigramTokenizer.tokenizeForIndex(product.getProDescription()));
+    }
+
+    /**
+     * 所有索引詞（名稱 + 描述）
+     */
+    public Set<String> allTokens() {
+        Set<String> tokens = new HashSet<>(nameTokens);
+        tokens.addAll(descriptionTokens);
+        return tokens;
+    }
+
+    /**
+     * 取得價格所屬區間，例如 "0-199"、"200-499"、"2000-"
+     */
+    public static String priceBandOf(int price) {
+        int lower = 0;
+        for (int upper : PRICE_BAND_BOUNDS) {
+            if (price < upper) {
+                return lower + "-" + (upper - 1);
+            }
+            lower = upper;
+        }
+        return lower + "-";
+    }
+}
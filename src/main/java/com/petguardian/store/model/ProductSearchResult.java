@@ -0,0 +1,42 @@
+package com.petguardian.store.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 商品搜尋結果
+ *
+ * 各 facet 的計數不套用該維度本身的篩選條件，
+ * 所以選了某個分類後，仍能看到其他分類各有幾筆。
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSearchResult {
+
+    // 當頁商品
+    private List<ProductSearchDoc> hits;
+
+    // 符合條件的總筆數
+    private long totalHits;
+
+    private int page;
+    private int pageSize;
+
+    // 分類 ID -> 筆數
+    private Map<Integer, Long> proTypeFacets;
+
+    // 賣家 ID -> 筆數
+    private Map<Integer, Long> sellerFacets;
+
+    // 價格區間 -> 筆數
+    private Map<String, Long> priceBandFacets;
+
+    public int getTotalPages() {
+        return pageSize <= 0 ? 0 : (int) ((totalHits + pageSize - 1) / pageSize);
+    }
+}
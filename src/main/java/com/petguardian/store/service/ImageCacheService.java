@@ -1,5 +1,6 @@
 package com.petguardian.store.service;
 
+import com.petguardian.common.blob.ImageVariant;
 import com.petguardian.seller.model.ProductPic;
 import com.petguardian.seller.model.ProductPicRepository;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -100,6 +101,7 @@ public class ImageCacheService {
 
     /**
      * 批次取得多個商品的圖片 URL（單次查詢）
+     * 用於商品列表 / 卡片，存在 BlobStore 的圖片回傳縮圖網址
      * @param proIds 商品 ID 列表
      * @return Map<商品ID, 圖片URL>
      */
@@ -137,7 +139,7 @@ public class ImageCacheService {
 
         // 從快取取得所有結果
         for (Integer proId : proIds) {
-            result.put(proId, imageCache.getOrDefault(proId, PLACEHOLDER_IMAGE));
+            result.put(proId, ImageVariant.THUMB.urlOf(imageCache.getOrDefault(proId, PLACEHOLDER_IMAGE)));
         }
 
         return result;
@@ -0,0 +1,97 @@
+package com.petguardian.store.service;
+
+import com.petguardian.store.model.ProductSearchDoc;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 商品倒排索引（記憶體）
+ *
+ * 詞 -> 商品 ID 集合。讀取不加鎖，寫入（單筆更新、整批重建）以 synchronized 串行化；
+ * 整批重建時先建好新的結構再一次替換，查詢不會看到建一半的索引。
+ */
+@Component
+public class ProductSearchIndex {
+
+    private static final class IndexState {
+        final Map<Integer, ProductSearchDoc> docs = new ConcurrentHashMap<>();
+        final Map<String, Set<Integer>> postings = new ConcurrentHashMap<>();
+    }
+
+    private volatile IndexState state = new IndexState();
+
+    /**
+     * 以新的文件集合整批取代索引
+     */
+    public synchronized void replaceAll(Collection<ProductSearchDoc> docs) {
+        IndexState rebuilt = new IndexState();
+        for (ProductSearchDoc doc : docs) {
+            addTo(rebuilt, doc);
+        }
+        this.state = rebuilt;
+    }
+
+    /**
+     * 新增或更新單一商品
+     */
+    public synchronized void upsert(ProductSearchDoc doc) {
+        IndexState current = this.state;
+        removeFrom(current, doc.getProId());
+        addTo(current, doc);
+    }
+
+    /**
+     * 自索引移除商品
+     */
+    public synchronized void remove(Integer proId) {
+        removeFrom(this.state, proId);
+    }
+
+    public ProductSearchDoc get(Integer proId) {
+        return state.docs.get(proId);
+    }
+
+    public Collection<ProductSearchDoc> allDocs() {
+        return Collections.unmodifiableCollection(state.docs.values());
+    }
+
+    /**
+     * 取得含有指定詞的商品 ID 集合（唯讀）
+     */
+    public Set<Integer> lookup(String token) {
+        Set<Integer> ids = state.postings.get(token);
+        return ids != null ? Collections.unmodifiableSet(ids) : Collections.emptySet();
+    }
+
+    public int size() {
+        return state.docs.size();
+    }
+
+    private static void addTo(IndexState target, ProductSearchDoc doc) {
+        target.docs.put(doc.getProId(), doc);
+        for (String token : doc.allTokens()) {
+            target.postings.computeIfAbsent(token, key -> ConcurrentHashMap.newKeySet()).add(doc.getProId());
+        }
+    }
+
+    private static void removeFrom(IndexState target, Integer proId) {
+        ProductSearchDoc old = target.docs.remove(proId);
+        if (old == null) {
+            return;
+        }
+        for (String token : old.allTokens()) {
+            Set<Integer> ids = target.postings.get(token);
+            if (ids != null) {
+                ids.remove(proId);
+                if (ids.isEmpty()) {
+                    target.postings.remove(token);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.petguardian.store.service;
+
+import com.petguardian.orders.dto.ProductDisplayDTO;
+import com.petguardian.store.model.ProductSearchCriteria;
+import com.petguardian.store.model.ProductSearchDoc;
+import com.petguardian.store.model.ProductSearchResult;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 商城商品搜尋 Service
+ * 以記憶體倒排索引回答關鍵字、分類、賣家、價格區間查詢
+ */
+public interface ProductSearchService {
+
+    // 依條件搜尋上架商品（含 facet 計數與分頁）
+    ProductSearchResult search(ProductSearchCriteria criteria);
+
+    // 將搜尋結果轉為商城顯示用 DTO（批次載入圖片）
+    List<ProductDisplayDTO> toDisplayDTOs(List<ProductSearchDoc> docs, Set<Integer> favoriteIds);
+
+    // 重新從資料庫載入單一商品並更新索引（下架或不存在則移除）
+    void refreshProduct(Integer proId);
+
+    // 交易提交後才更新索引，避免交易回滾後索引與資料庫不一致
+    void refreshProductAfterCommit(Integer proId);
+
+    // 自索引移除商品
+    void removeProduct(Integer proId);
+
+    // 交易提交後才自索引移除商品
+    void removeProductAfterCommit(Integer proId);
+
+    // 重建整個索引與排序訊號
+    void rebuildIndex();
+
+    // 重新載入排序訊號（收藏數、銷量、賣家評分）
+    void refreshRankingSignals();
+}
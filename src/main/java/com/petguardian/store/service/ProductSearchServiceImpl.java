@@ -0,0 +1,383 @@
+package com.petguardian.store.service;
+
+import com.petguardian.common.tx.AfterCommit;
+import com.petguardian.common.util.CjkBigramTokenizer;
+import com.petguardian.orders.dto.ProductDisplayDTO;
+import com.petguardian.orders.model.OrderItemRepository;
+import com.petguardian.productfavoritelist.service.ProductFavoriteCache;
+import com.petguardian.seller.model.Product;
+import com.petguardian.seller.model.ProductRepository;
+import com.petguardian.sellerreview.model.SellerReviewRepository;
+import com.petguardian.store.model.ProductSearchCriteria;
+import com.petguardian.store.model.ProductSearchDoc;
+import com.petguardian.store.model.ProductSearchResult;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * 商城商品搜尋實作
+ *
+ * - 文字比對：CJK bigram 倒排索引，所有查詢詞皆需命中 (AND)
+ * - 篩選：分類、賣家、價格區間，並同時計算各維度 facet
+ * - 排序：文字相關度 + 熱門度（收藏數、銷量、賣家評分）
+ *
+ * 排序訊號每 10 分鐘整批重新載入；商品新增、編輯、刪除、庫存變動則即時更新索引。
+ * 重建期間異動的商品記錄下來，替換索引後重新套用，不會被重建前載入的舊資料蓋掉。
+ * 熱門度每筆命中商品只計算一次；分頁只需前 (頁數 + 1) × 每頁筆數 名，命中數遠多於此時以 heap 取前幾名，不排序整份結果。
+ */
+@Slf4j
+@Service
+public class ProductSearchServiceImpl implements ProductSearchService {
+
+    private static final Integer STATE_ACTIVE = 1;
+    private static final int MAX_PAGE_SIZE = 100;
+
+    // 文字相關度權重：名稱命中 > 描述命中，且整體高於熱門度
+    private static final double NAME_HIT_WEIGHT = 3.0;
+    private static final double DESCRIPTION_HIT_WEIGHT = 1.0;
+    private static final double TEXT_SCORE_WEIGHT = 10.0;
+
+    // 熱門度權重
+    private static final double FAVORITE_WEIGHT = 2.0;
+    private static final double SALES_WEIGHT = 3.0;
+    private static final double SELLER_RATING_WEIGHT = 1.0;
+
+    @Autowired
+    private ProductSearchIndex searchIndex;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductFavoriteCache favoriteCache;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private SellerReviewRepository sellerReviewRepository;
+
+    @Autowired
+    private ImageCacheService imageCacheService;
+
+    // 排序訊號：商品 ID -> 銷量，賣家 ID -> 平均評分（收藏數由 ProductFavoriteCache 增量維護）
+    private volatile Map<Integer, Long> soldQuantities = new ConcurrentHashMap<>();
+    private volatile Map<Integer, Double> sellerRatings = new ConcurrentHashMap<>();
+
+    private record ScoredDoc(ProductSearchDoc doc, double score, double popularity) {
+    }
+
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    // 重建期間異動的商品，替換索引後重新套用
+    private final Set<Integer> touchedDuringRebuild = ConcurrentHashMap.newKeySet();
+
+    // ==================== 索引建立 ====================
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            rebuildIndex();
+        } catch (Exception e) {
+            log.error("[ProductSearch] 建立商品索引失敗: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void rebuildIndex() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        try {
+            touchedDuringRebuild.clear();
+            List<ProductSearchDoc> docs = productRepository.findByProState(STATE_ACTIVE).stream()
+                    .map(ProductSearchDoc::new)
+                    .collect(Collectors.toList());
+            searchIndex.replaceAll(docs);
+
+            List<Integer> touched = new ArrayList<>(touchedDuringRebuild);
+            touchedDuringRebuild.clear();
+            touched.forEach(proId -> safeRun(() -> refreshProduct(proId)));
+            refreshRankingSignals();
+            log.info("[ProductSearch] 商品索引建立完成，共 {} 筆（重新套用 {} 筆），耗時 {} ms",
+                    docs.size(), touched.size(), System.currentTimeMillis() - start);
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    @Override
+    @Scheduled(fixedDelay = 600000, initialDelay = 600000) // 每 10 分鐘
+    public void refreshRankingSignals() {
+        try {
+            favoriteCache.reloadProductCounts();
+            this.soldQuantities = toLongMap(orderItemRepository.sumSoldQuantityGroupByProId());
+
+            Map<Integer, Double> ratings = new ConcurrentHashMap<>();
+            for (Object[] row : sellerReviewRepository.calculateAverageRatingGroupBySeller()) {
+                if (row[0] != null && row[1] != null) {
+                    ratings.put(((Number) row[0]).intValue(), ((Number) row[1]).doubleValue());
+                }
+            }
+            this.sellerRatings = ratings;
+        } catch (Exception e) {
+            log.warn("[ProductSearch] 排序訊號載入失敗，沿用舊資料: {}", e.getMessage());
+        }
+    }
+
+    private Map<Integer, Long> toLongMap(List<Object[]> rows) {
+        Map<Integer, Long> result = new ConcurrentHashMap<>();
+        for (Object[] row : rows) {
+            if (row[0] != null && row[1] != null) {
+                result.put(((Number) row[0]).intValue(), ((Number) row[1]).longValue());
+            }
+        }
+        return result;
+    }
+
+    // ==================== 增量更新 ====================
+
+    @Override
+    public void refreshProduct(Integer proId) {
+        if (proId == null) {
+            return;
+        }
+        if (rebuilding.get()) {
+            touchedDuringRebuild.add(proId);
+        }
+        Optional<Product> productOpt = productRepository.findById(proId);
+        if (productOpt.isEmpty() || !STATE_ACTIVE.equals(productOpt.get().getProState())) {
+            removeProduct(proId);
+            return;
+        }
+        searchIndex.upsert(new ProductSearchDoc(productOpt.get()));
+        soldQuantities.put(proId, orderItemRepository.sumSoldQuantityByProId(proId));
+    }
+
+    @Override
+    public void refreshProductAfterCommit(Integer proId) {
+        runAfterCommit(() -> refreshProduct(proId));
+    }
+
+    @Override
+    public void removeProduct(Integer proId) {
+        if (proId == null) {
+            return;
+        }
+        if (rebuilding.get()) {
+            touchedDuringRebuild.add(proId);
+        }
+        searchIndex.remove(proId);
+        soldQuantities.remove(proId);
+    }
+
+    @Override
+    public void removeProductAfterCommit(Integer proId) {
+        runAfterCommit(() -> removeProduct(proId));
+    }
+
+    /**
+     * 有交易時在提交後執行，否則立即執行；索引更新失敗不影響主要業務流程
+     */
+    private void runAfterCommit(Runnable action) {
+        AfterCommit.run(() -> safeRun(action));
+    }
+
+    private void safeRun(Runnable action) {
+        try {
+            action.run();
+        } catch (Exception e) {
+            log.warn("[ProductSearch] 索引更新失敗: {}", e.getMessage());
+        }
+    }
+
+    // ==================== 查詢 ====================
+
+    @Override
+    public ProductSearchResult search(ProductSearchCriteria criteria) {
+        int pageSize = Math.min(Math.max(criteria.getPageSize(), 1), MAX_PAGE_SIZE);
+        int page = Math.max(criteria.getPage(), 0);
+
+        Set<String> queryTokens = CjkBigramTokenizer.tokenizeForQuery(criteria.getKeyword());
+        Collection<ProductSearchDoc> candidates = queryTokens.isEmpty()
+                ? searchIndex.allDocs()
+                : matchAllTokens(queryTokens);
+
+        Map<Integer, Long> proTypeFacets = new HashMap<>();
+        Map<Integer, Long> sellerFacets = new HashMap<>();
+        Map<String, Long> priceBandFacets = new TreeMap<>(Comparator.comparingInt(ProductSearchServiceImpl::bandLowerBound));
+        List<ScoredDoc> matched = new ArrayList<>();
+
+        // 單次掃描：某維度的 facet 只套用「其他維度」的篩選
+        for (ProductSearchDoc doc : candidates) {
+            boolean typeOk = criteria.getProTypeId() == null || criteria.getProTypeId().equals(doc.getProTypeId());
+            boolean sellerOk = criteria.getSellerId() == null || criteria.getSellerId().equals(doc.getSellerId());
+            boolean bandOk = criteria.getPriceBand() == null || criteria.getPriceBand().isEmpty()
+                    || criteria.getPriceBand().equals(doc.getPriceBand());
+
+            if (sellerOk && bandOk && doc.getProTypeId() != null) {
+                proTypeFacets.merge(doc.getProTypeId(), 1L, Long::sum);
+            }
+            if (typeOk && bandOk) {
+                sellerFacets.merge(doc.getSellerId(), 1L, Long::sum);
+            }
+            if (typeOk && sellerOk) {
+                priceBandFacets.merge(doc.getPriceBand(), 1L, Long::sum);
+            }
+            if (typeOk && sellerOk && bandOk) {
+                double popularity = popularity(doc);
+                double textScore = queryTokens.isEmpty() ? 0 : textScore(doc, queryTokens);
+                matched.add(new ScoredDoc(doc, textScore * TEXT_SCORE_WEIGHT + popularity, popularity));
+            }
+        }
+
+        int from = (int) Math.min((long) page * pageSize, matched.size());
+        int to = Math.min(from + pageSize, matched.size());
+        List<ScoredDoc> ranked = firstSorted(matched, comparatorFor(criteria.getSortBy()), to);
+        List<ProductSearchDoc> hits = ranked.subList(from, to).stream()
+                .map(ScoredDoc::doc)
+                .collect(Collectors.toList());
+
+        return new ProductSearchResult(hits, matched.size(), page, pageSize,
+                proTypeFacets, sellerFacets, priceBandFacets);
+    }
+
+    /**
+     * 取所有查詢詞倒排列表的交集，從最短的列表開始比對
+     */
+    private List<ProductSearchDoc> matchAllTokens(Set<String> queryTokens) {
+        List<Set<Integer>> postingLists = queryTokens.stream()
+                .map(searchIndex::lookup)
+                .sorted(Comparator.comparingInt(Set::size))
+                .collect(Collectors.toList());
+
+        List<ProductSearchDoc> result = new ArrayList<>();
+        if (postingLists.get(0).isEmpty()) {
+            return result;
+        }
+
+        outer:
+        for (Integer proId : postingLists.get(0)) {
+            for (int index = 1; index < postingLists.size(); index++) {
+                if (!postingLists.get(index).contains(proId)) {
+                    continue outer;
+                }
+            }
+            ProductSearchDoc doc = searchIndex.get(proId);
+            if (doc != null) {
+                result.add(doc);
+            }
+        }
+        return result;
+    }
+
+    private double textScore(ProductSearchDoc doc, Set<String> queryTokens) {
+        double score = 0;
+        for (String token : queryTokens) {
+            if (doc.getNameTokens().contains(token)) {
+                score += NAME_HIT_WEIGHT;
+            }
+            if (doc.getDescriptionTokens().contains(token)) {
+                score += DESCRIPTION_HIT_WEIGHT;
+            }
+        }
+        return score;
+    }
+
+    private double popularity(ProductSearchDoc doc) {
+        long favorites = favoriteCache.getProductFavoriteCount(doc.getProId());
+        long sold = soldQuantities.getOrDefault(doc.getProId(), 0L);
+        double rating = sellerRatings.getOrDefault(doc.getSellerId(), 0.0);
+        return Math.log1p(favorites) * FAVORITE_WEIGHT
+                + Math.log1p(sold) * SALES_WEIGHT
+                + rating * SELLER_RATING_WEIGHT;
+    }
+
+    private Comparator<ScoredDoc> comparatorFor(String sortBy) {
+        // 同分時以商品 ID 降序（新商品在前），確保分頁結果穩定
+        Comparator<ScoredDoc> tieBreaker = Comparator.comparing((ScoredDoc scored) -> scored.doc().getProId(),
+                Comparator.reverseOrder());
+
+        if (sortBy == null) {
+            sortBy = "relevance";
+        }
+        switch (sortBy) {
+            case "price_asc":
+                return Comparator.comparing((ScoredDoc scored) -> scored.doc().getProPrice()).thenComparing(tieBreaker);
+            case "price_desc":
+                return Comparator.comparing((ScoredDoc scored) -> scored.doc().getProPrice(), Comparator.reverseOrder())
+                        .thenComparing(tieBreaker);
+            case "newest":
+                return Comparator.comparing((ScoredDoc scored) -> scored.doc().getLaunchedTime(),
+                        Comparator.nullsLast(Comparator.<LocalDateTime>reverseOrder())).thenComparing(tieBreaker);
+            case "popular":
+                return Comparator.comparingDouble(ScoredDoc::popularity).reversed()
+                        .thenComparing(tieBreaker);
+            default:
+                return Comparator.comparingDouble(ScoredDoc::score).reversed().thenComparing(tieBreaker);
+        }
+    }
+
+    /**
+     * 依排序取前 limit 筆（已排序）；只需要一小部分時以 heap 挑選，不排序整份結果
+     */
+    private static List<ScoredDoc> firstSorted(List<ScoredDoc> matched, Comparator<ScoredDoc> order, int limit) {
+        if (limit <= 0) {
+            return Collections.emptyList();
+        }
+        if (limit >= matched.size() / 2) {
+            matched.sort(order);
+            return matched.subList(0, limit);
+        }
+        // heap 頂端是目前前 limit 名中排最後的一筆
+        PriorityQueue<ScoredDoc> heap = new PriorityQueue<>(limit + 1, order.reversed());
+        for (ScoredDoc scored : matched) {
+            if (heap.size() < limit) {
+                heap.add(scored);
+            } else if (order.compare(scored, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(scored);
+            }
+        }
+        List<ScoredDoc> top = new ArrayList<>(heap);
+        top.sort(order);
+        return top;
+    }
+
+    private static int bandLowerBound(String priceBand) {
+        return Integer.parseInt(priceBand.substring(0, priceBand.indexOf('-')));
+    }
+
+    // ==================== 顯示轉換 ====================
+
+    @Override
+    public List<ProductDisplayDTO> toDisplayDTOs(List<ProductSearchDoc> docs, Set<Integer> favoriteIds) {
+        List<Integer> proIds = docs.stream().map(ProductSearchDoc::getProId).collect(Collectors.toList());
+        Map<Integer, String> imageMap = imageCacheService.getProductImageUrlMap(proIds);
+
+        return docs.stream().map(doc -> {
+            ProductDisplayDTO dto = new ProductDisplayDTO();
+            dto.setProId(doc.getProId());
+            dto.setSellerId(doc.getSellerId());
+            dto.setProName(doc.getProName());
+            dto.setProPrice(doc.getProPrice());
+            dto.setStockQuantity(doc.getStockQuantity());
+            dto.setProDescription(doc.getProDescription());
+            dto.setImageBase64(imageMap.get(doc.getProId()));
+            dto.setFavorited(favoriteIds != null && favoriteIds.contains(doc.getProId()));
+            dto.setProTypeId(doc.getProTypeId());
+            dto.setProTypeName(doc.getProTypeName());
+            return dto;
+        }).collect(Collectors.toList());
+    }
+}
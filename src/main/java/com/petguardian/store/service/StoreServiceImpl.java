@@ -2,6 +2,7 @@ package com.petguardian.store.service;
 
 import com.petguardian.seller.model.Product;
 import com.petguardian.seller.model.ProductRepository;
+import com.petguardian.seller.service.SellerStatsService;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -17,6 +18,12 @@ public class StoreServiceImpl implements StoreService {
     @Autowired
     private ProductRepository productDAO;
 
+    @Autowired
+    private ProductSearchService productSearchService;
+
+    @Autowired
+    private SellerStatsService sellerStatsService;
+
     // 上架狀態常數 (0:下架, 1:上架)
     public static final Integer STATE_ACTIVE = 1;
     public static final Integer STATE_INACTIVE = 0;
@@ -26,7 +33,10 @@ public class StoreServiceImpl implements StoreService {
         if (product.getProState() == null) {
             product.setProState(STATE_ACTIVE); // 預設上架
         }
-        return productDAO.save(product);
+        Product saved = productDAO.save(product);
+        productSearchService.refreshProductAfterCommit(saved.getProId());
+        sellerStatsService.refreshProductCounts(saved.getMemId());
+        return saved;
     }
 
     @Override
@@ -77,11 +87,17 @@ public class StoreServiceImpl implements StoreService {
         product.setStockQuantity(newStock);
 
         // 庫存歸零自動下架
-        if (newStock == 0) {
+        boolean stateChanged = false;
+        if (newStock == 0 && !STATE_INACTIVE.equals(product.getProState())) {
             product.setProState(STATE_INACTIVE);
+            stateChanged = true;
         }
 
         productDAO.save(product);
+        productSearchService.refreshProductAfterCommit(proId);
+        if (stateChanged) {
+            sellerStatsService.refreshProductCounts(product.getMemId());
+        }
     }
 
     @Override
@@ -102,11 +118,17 @@ public class StoreServiceImpl implements StoreService {
         product.setStockQuantity(newStock);
 
         // 如果商品原本因庫存歸零而下架，還原庫存後自動上架
+        boolean stateChanged = false;
         if (product.getProState() != null && product.getProState().equals(STATE_INACTIVE) && newStock > 0) {
             product.setProState(STATE_ACTIVE);
+            stateChanged = true;
         }
 
         productDAO.save(product);
+        productSearchService.refreshProductAfterCommit(proId);
+        if (stateChanged) {
+            sellerStatsService.refreshProductCounts(product.getMemId());
+        }
     }
 
     @Override
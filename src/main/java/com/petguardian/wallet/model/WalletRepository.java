@@ -1,6 +1,9 @@
 package com.petguardian.wallet.model;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.Optional;
 
@@ -9,4 +12,9 @@ public interface WalletRepository extends JpaRepository<Wallet, Integer> {
 
     // 根據會員 ID 查詢錢包
     Optional<Wallet> findByMemId(Integer memId);
+
+    // 直接在資料庫加減餘額（批次退款 / 撥款使用），回傳 0 代表會員沒有錢包
+    @Modifying
+    @Query("UPDATE Wallet w SET w.balance = w.balance + :amount WHERE w.memId = :memId")
+    int addBalance(@Param("memId") Integer memId, @Param("amount") int amount);
 }
@@ -0,0 +1,5 @@
+-- 後台預約管理（AdminBookingQueryService 使用）
+
+-- 留存條件：狀態 + 最後更新時間；退款佇列與開始時間排序：狀態 + 開始時間
+CREATE INDEX idx_booking_order_status_updated ON booking_order (order_status, updated_at);
+CREATE INDEX idx_booking_order_status_start   ON booking_order (order_status, start_time);
@@ -0,0 +1,24 @@
+-- 訂單批次作業（BookingBatchJobRunner / BookingLifecycleJobs 使用）
+
+-- 執行紀錄兼檢查點
+CREATE TABLE IF NOT EXISTS booking_job_run (
+    run_id          BIGINT       NOT NULL AUTO_INCREMENT,
+    job_name        VARCHAR(50)  NOT NULL,
+    status          VARCHAR(20)  NOT NULL,
+    cutoff_time     DATETIME     NOT NULL,
+    last_order_id   INT          NOT NULL DEFAULT 0,
+    processed_count INT          NOT NULL DEFAULT 0,
+    failed_count    INT          NOT NULL DEFAULT 0,
+    chunk_count     INT          NOT NULL DEFAULT 0,
+    started_at      DATETIME     NOT NULL,
+    finished_at     DATETIME     NULL,
+    duration_ms     BIGINT       NULL,
+    error_message   VARCHAR(500) NULL,
+    PRIMARY KEY (run_id),
+    INDEX idx_booking_job_run_name (job_name, run_id)
+);
+
+-- 狀態 + 時間的範圍查詢
+CREATE INDEX idx_booking_order_status_cancel  ON booking_order (order_status, cancel_time);
+CREATE INDEX idx_booking_order_status_created ON booking_order (order_status, created_at);
+CREATE INDEX idx_booking_order_status_end     ON booking_order (order_status, end_time);
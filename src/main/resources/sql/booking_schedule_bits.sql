@@ -0,0 +1,58 @@
+-- 保母排程改以位元欄位儲存（BookingScheduleRepository 使用）
+-- booked_bits  : 已預約時段 (原 booking_status 的 '2')
+-- blocked_bits : 不開放時段 (原 booking_status 的 '1' 及其他非 '0' 字元)
+-- 第 n 位代表第 n 點鐘，依序執行以下步驟
+
+-- 1. 新增位元欄位
+ALTER TABLE booking_schedule
+    ADD COLUMN booked_bits  INT NOT NULL DEFAULT 0,
+    ADD COLUMN blocked_bits INT NOT NULL DEFAULT 0;
+
+-- 2. 由 24 字元狀態字串轉換既有資料
+UPDATE booking_schedule s
+JOIN (
+    SELECT b.schedule_id,
+           SUM(CASE WHEN SUBSTRING(b.booking_status, h.hour_no + 1, 1) = '2'
+                    THEN 1 << h.hour_no ELSE 0 END) AS booked,
+           SUM(CASE WHEN SUBSTRING(b.booking_status, h.hour_no + 1, 1) NOT IN ('0', '2', '')
+                    THEN 1 << h.hour_no ELSE 0 END) AS blocked
+    FROM booking_schedule b
+    CROSS JOIN (
+        SELECT 0 AS hour_no UNION ALL SELECT 1 UNION ALL SELECT 2 UNION ALL SELECT 3
+        UNION ALL SELECT 4 UNION ALL SELECT 5 UNION ALL SELECT 6 UNION ALL SELECT 7
+        UNION ALL SELECT 8 UNION ALL SELECT 9 UNION ALL SELECT 10 UNION ALL SELECT 11
+        UNION ALL SELECT 12 UNION ALL SELECT 13 UNION ALL SELECT 14 UNION ALL SELECT 15
+        UNION ALL SELECT 16 UNION ALL SELECT 17 UNION ALL SELECT 18 UNION ALL SELECT 19
+        UNION ALL SELECT 20 UNION ALL SELECT 21 UNION ALL SELECT 22 UNION ALL SELECT 23
+    ) h
+    GROUP BY b.schedule_id
+) x ON x.schedule_id = s.schedule_id
+SET s.booked_bits = x.booked,
+    s.blocked_bits = x.blocked;
+
+-- 3. 合併同一保母同一天的重複資料（保留最小的 schedule_id，位元取聯集）
+UPDATE booking_schedule s
+JOIN (
+    SELECT sitter_id, schedule_date, MIN(schedule_id) AS keep_id,
+           BIT_OR(booked_bits) AS booked, BIT_OR(blocked_bits) AS blocked
+    FROM booking_schedule
+    GROUP BY sitter_id, schedule_date
+    HAVING COUNT(*) > 1
+) d ON d.keep_id = s.schedule_id
+SET s.booked_bits = d.booked,
+    s.blocked_bits = d.blocked & ~d.booked;
+
+DELETE s FROM booking_schedule s
+JOIN booking_schedule k
+  ON k.sitter_id = s.sitter_id
+ AND k.schedule_date = s.schedule_date
+ AND k.schedule_id < s.schedule_id;
+
+-- 4. 每位保母每天只有一筆（條件式佔用與 upsert 依賴此唯一鍵）
+ALTER TABLE booking_schedule
+    ADD UNIQUE KEY uk_booking_schedule_sitter_date (sitter_id, schedule_date),
+    ADD INDEX idx_booking_schedule_date (schedule_date);
+
+-- 5. 舊字串欄位不再寫入，先改為可為 NULL 保留備查；確認無誤後再移除
+ALTER TABLE booking_schedule MODIFY COLUMN booking_status VARCHAR(24) NULL DEFAULT NULL;
+-- ALTER TABLE booking_schedule DROP COLUMN booking_status;
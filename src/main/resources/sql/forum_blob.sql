@@ -0,0 +1,39 @@
+-- 討論區圖片改存 BlobStore（ImageBlobRef），資料表只保存 blob id 與圖片資訊
+-- 舊的 longblob 欄位由 ForumBlobMigration 分批複製到 BlobStore 後保留不動 (forum.blob.migration.enabled=true)；
+-- 確認搬移結果後，再以 forum.blob.migration.clear-legacy=true 清空已驗證的舊欄位，之後可再另行 DROP
+ALTER TABLE forum
+    ADD COLUMN forum_pic_blob_id      CHAR(64)    NULL,
+    ADD COLUMN forum_pic_width        INT         NULL,
+    ADD COLUMN forum_pic_height       INT         NULL,
+    ADD COLUMN forum_pic_size         BIGINT      NULL,
+    ADD COLUMN forum_pic_content_type VARCHAR(50) NULL;
+
+ALTER TABLE forumpost
+    ADD COLUMN post_pic_blob_id      CHAR(64)    NULL,
+    ADD COLUMN post_pic_width        INT         NULL,
+    ADD COLUMN post_pic_height       INT         NULL,
+    ADD COLUMN post_pic_size         BIGINT      NULL,
+    ADD COLUMN post_pic_content_type VARCHAR(50) NULL;
+
+ALTER TABLE forumpostpicture
+    ADD COLUMN pic_blob_id      CHAR(64)    NULL,
+    ADD COLUMN pic_width        INT         NULL,
+    ADD COLUMN pic_height       INT         NULL,
+    ADD COLUMN pic_size         BIGINT      NULL,
+    ADD COLUMN pic_content_type VARCHAR(50) NULL;
+
+ALTER TABLE forumpostcomment
+    ADD COLUMN comment_pic_blob_id      CHAR(64)    NULL,
+    ADD COLUMN comment_pic_width        INT         NULL,
+    ADD COLUMN comment_pic_height       INT         NULL,
+    ADD COLUMN comment_pic_size         BIGINT      NULL,
+    ADD COLUMN comment_pic_content_type VARCHAR(50) NULL;
+
+-- 搬移紀錄：已搬移的資料列與當時寫入的 blob id，清除舊欄位前以此驗證 BlobStore 中的檔案
+CREATE TABLE IF NOT EXISTS forum_blob_migrated (
+    table_name   VARCHAR(30) NOT NULL,
+    row_id       INT         NOT NULL,
+    blob_id      CHAR(64)    NOT NULL,
+    migrated_at  DATETIME    NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (table_name, row_id)
+);
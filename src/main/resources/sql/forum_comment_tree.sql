@@ -0,0 +1,2 @@
+-- 貼文頁留言串：依貼文 + 狀態取出全部留言、依 comment_id 排序，以索引完成不需回表排序
+CREATE INDEX idx_forumpostcomment_post_status_id ON forumpostcomment (post_id, comment_status, comment_id);
@@ -0,0 +1,6 @@
+-- 後台檢舉審核佇列：依狀態分頁 (待處理依 report_time、已處理 / 已駁回依 handle_time 排序) 與各狀態筆數彙總
+CREATE INDEX idx_forumpostreport_status_time ON forumpostreport (report_status, report_time, report_id);
+CREATE INDEX idx_forumpostreport_status_handle ON forumpostreport (report_status, handle_time, report_id);
+
+CREATE INDEX idx_forumcommentreport_status_time ON forumcommentreport (report_status, report_time, report_id);
+CREATE INDEX idx_forumcommentreport_status_handle ON forumcommentreport (report_status, handle_time, report_id);
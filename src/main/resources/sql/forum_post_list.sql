@@ -0,0 +1,2 @@
+-- 討論區貼文列表：依討論區 + 狀態篩選、依 post_id 由新到舊分頁 (含 count)，以索引完成不需排序整個討論區
+CREATE INDEX idx_forumpost_forum_status_id ON forumpost (forum_id, post_status, post_id);
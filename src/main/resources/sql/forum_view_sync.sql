@@ -0,0 +1,6 @@
+-- 瀏覽次數增量寫回紀錄：ForumViewCounter 每批寫回時在同一交易登記批次編號 (UUID)，重試時同一批不會重複累加
+-- 一週前的紀錄由排程清除
+CREATE TABLE IF NOT EXISTS forum_view_sync_batch (
+    batch_id    CHAR(36) NOT NULL PRIMARY KEY,
+    applied_at  DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
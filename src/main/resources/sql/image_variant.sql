@@ -0,0 +1,13 @@
+-- 圖片縮圖版本對應表：來源 blob id + 版本 (thumb / medium) -> 版本 blob id
+-- 由 ImageVariantService 在背景產生後寫入；來源圖本身比版本尺寸小或無法解碼時，版本直接指向原圖
+CREATE TABLE IF NOT EXISTS image_variant (
+    source_blob_id   CHAR(64)    NOT NULL,
+    variant          VARCHAR(10) NOT NULL,
+    variant_blob_id  CHAR(64)    NOT NULL,
+    width            INT         NULL,
+    height           INT         NULL,
+    size             BIGINT      NULL,
+    content_type     VARCHAR(50) NULL,
+    created_at       DATETIME    NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (source_blob_id, variant)
+);
@@ -0,0 +1,23 @@
+-- 賣家統計摘要（SellerStatsService 使用）
+CREATE TABLE IF NOT EXISTS seller_stats (
+    seller_mem_id   INT         NOT NULL,
+    rating_sum      BIGINT      NOT NULL DEFAULT 0,
+    rating_count    BIGINT      NOT NULL DEFAULT 0,
+    total_products  BIGINT      NOT NULL DEFAULT 0,
+    active_products BIGINT      NOT NULL DEFAULT 0,
+    updated_at      DATETIME    NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    reconciled_at   DATETIME    NULL,
+    PRIMARY KEY (seller_mem_id)
+);
+
+-- 賣家各訂單狀態的筆數與金額
+CREATE TABLE IF NOT EXISTS seller_order_stats (
+    seller_mem_id INT    NOT NULL,
+    order_status  INT    NOT NULL,
+    order_count   BIGINT NOT NULL DEFAULT 0,
+    order_amount  BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (seller_mem_id, order_status)
+);
+
+-- 對帳與賣家查詢使用
+CREATE INDEX idx_orders_seller_status ON orders (seller_mem_id, order_status);
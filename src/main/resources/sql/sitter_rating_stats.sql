@@ -0,0 +1,18 @@
+-- 保母評價統計摘要（SitterRatingService 使用）
+-- 只統計會員評保母 (role_type = 1) 且顯示中 (is_hidden 為 NULL 或 0) 的評價
+CREATE TABLE IF NOT EXISTS sitter_rating_stats (
+    sitter_id     INT         NOT NULL,
+    rating_sum    BIGINT      NOT NULL DEFAULT 0,
+    rating_count  BIGINT      NOT NULL DEFAULT 0,
+    star_1_count  BIGINT      NOT NULL DEFAULT 0,
+    star_2_count  BIGINT      NOT NULL DEFAULT 0,
+    star_3_count  BIGINT      NOT NULL DEFAULT 0,
+    star_4_count  BIGINT      NOT NULL DEFAULT 0,
+    star_5_count  BIGINT      NOT NULL DEFAULT 0,
+    updated_at    DATETIME    NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    reconciled_at DATETIME    NULL,
+    PRIMARY KEY (sitter_id)
+);
+
+-- 對帳時依保母彙總評價
+CREATE INDEX idx_evaluate_receiver_role ON evaluate (receiver_id, role_type);
@@ -34,6 +34,19 @@ function switchOrderTab(tabName) {
     }
 }
 
+// 退貨申請換頁後停留在退貨審核分頁
+document.addEventListener('DOMContentLoaded', function () {
+    if (window.location.hash === '#panel-refunds') {
+        document.querySelectorAll('.tab-btn').forEach(btn => btn.classList.remove('active'));
+        document.querySelectorAll('.panel').forEach(panel => panel.classList.remove('active'));
+        const refundTabBtn = document.querySelector('.tab-btn[onclick="switchTab(\'refunds\')"]');
+        if (refundTabBtn) {
+            refundTabBtn.classList.add('active');
+        }
+        document.getElementById('panel-refunds').classList.add('active');
+    }
+});
+
 // ==========================================
 // 2. 類別 Modal 相關 (Category)
 // ==========================================
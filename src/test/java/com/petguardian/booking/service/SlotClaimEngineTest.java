@@ -0,0 +1,205 @@
+package com.petguardian.booking.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * SlotClaimEngine 並行測試
+ *
+ * 使用「先讀、再檢查、再寫入」且刻意讓出 CPU 的記憶體排程，模擬沒有任何保護時會發生的競態，
+ * 驗證大量同時送出的衝突預約在分段鎖保護下每個時段只有一筆成功。
+ */
+class SlotClaimEngineTest {
+
+    private static final int THREADS = 64;
+
+    private ExecutorService pool;
+    private RacyScheduleStore store;
+    private SlotClaimEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        pool = Executors.newFixedThreadPool(THREADS);
+        store = new RacyScheduleStore();
+        engine = new SlotClaimEngine(store, 16);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        pool.shutdownNow();
+        pool.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void sameSlotHasExactlyOneWinner() throws Exception {
+        LocalDate date = LocalDate.of(2026, 3, 1);
+        int main = ScheduleService.hourMask(10, 12);
+        int withBuffer = ScheduleService.hourMask(10, 13);
+
+        List<Callable<Boolean>> requests = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            int orderId = i;
+            requests.add(() -> engine.claim(7, date, main, withBuffer, orderId));
+        }
+
+        List<Boolean> results = runConcurrently(requests);
+
+        assertEquals(1, results.stream().filter(Boolean::booleanValue).count());
+        assertEquals(withBuffer, store.bits(7, date));
+    }
+
+    @Test
+    void eachDisjointSlotHasExactlyOneWinner() throws Exception {
+        LocalDate[] dates = { LocalDate.of(2026, 3, 1), LocalDate.of(2026, 3, 2) };
+        int sitters = 3;
+        int slotsPerDay = 12; // 每兩小時一個時段
+        int attemptsPerSlot = 25;
+
+        Map<String, AtomicInteger> winners = new ConcurrentHashMap<>();
+        List<Callable<Boolean>> requests = new ArrayList<>();
+        for (int sitterId = 1; sitterId <= sitters; sitterId++) {
+            for (LocalDate date : dates) {
+                for (int slot = 0; slot < slotsPerDay; slot++) {
+                    int mask = ScheduleService.hourMask(slot * 2, slot * 2 + 2);
+                    String key = sitterId + "|" + date + "|" + slot;
+                    winners.put(key, new AtomicInteger());
+                    Integer sitter = sitterId;
+                    for (int attempt = 0; attempt < attemptsPerSlot; attempt++) {
+                        requests.add(() -> {
+                            boolean won = engine.claim(sitter, date, mask, mask, null);
+                            if (won) {
+                                winners.get(key).incrementAndGet();
+                            }
+                            return won;
+                        });
+                    }
+                }
+            }
+        }
+
+        List<Boolean> results = runConcurrently(requests);
+
+        assertEquals(sitters * dates.length * slotsPerDay, results.stream().filter(Boolean::booleanValue).count());
+        winners.forEach((key, count) -> assertEquals(1, count.get(), "時段 " + key));
+        for (int sitterId = 1; sitterId <= sitters; sitterId++) {
+            for (LocalDate date : dates) {
+                assertEquals(ScheduleService.FULL_DAY_MASK, store.bits(sitterId, date));
+            }
+        }
+    }
+
+    @Test
+    void overlappingRequestsNeverDoubleBookAnHour() throws Exception {
+        LocalDate date = LocalDate.of(2026, 3, 1);
+        Random random = new Random(42);
+
+        List<Integer> masks = new ArrayList<>();
+        List<Callable<Boolean>> requests = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            int start = random.nextInt(23);
+            int end = start + 1 + random.nextInt(Math.min(4, 24 - start));
+            int mask = ScheduleService.hourMask(start, end);
+            masks.add(mask);
+            requests.add(() -> engine.claim(9, date, mask, mask, null));
+        }
+
+        List<Boolean> results = runConcurrently(requests);
+
+        int union = 0;
+        for (int i = 0; i < results.size(); i++) {
+            if (results.get(i)) {
+                assertEquals(0, union & masks.get(i), "同一小時被兩筆預約佔用");
+                union |= masks.get(i);
+            }
+        }
+        assertEquals(union, store.bits(9, date));
+    }
+
+    @Test
+    void lockIsHeldUntilTransactionCompletes() {
+        LocalDate date = LocalDate.of(2026, 3, 1);
+        ReentrantLock lock = engine.stripeFor(5, date);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            assertTrue(engine.claim(5, date, 1, 1, 1));
+            assertTrue(lock.isHeldByCurrentThread());
+
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+            }
+            assertFalse(lock.isLocked());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // 佔用失敗時立即釋放
+        assertFalse(engine.claim(5, date, 1, 1, 2));
+        assertFalse(lock.isLocked());
+    }
+
+    private List<Boolean> runConcurrently(List<Callable<Boolean>> requests) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> futures = new ArrayList<>();
+        for (Callable<Boolean> request : requests) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                return request.call();
+            }));
+        }
+        start.countDown();
+
+        List<Boolean> results = new ArrayList<>();
+        for (Future<Boolean> future : futures) {
+            results.add(future.get(30, TimeUnit.SECONDS));
+        }
+        return results;
+    }
+
+    /**
+     * 沒有任何同步機制的記憶體排程：讀取、檢查、寫入分成三步，中間讓出 CPU 放大競態
+     */
+    private static class RacyScheduleStore implements SlotClaimEngine.SlotStore {
+
+        private final Map<String, Integer> booked = new ConcurrentHashMap<>();
+
+        @Override
+        public boolean claim(Integer sitterId, LocalDate date, int checkMask, int claimMask, Integer orderId) {
+            String key = sitterId + "|" + date;
+            int current = booked.getOrDefault(key, 0);
+            Thread.yield();
+            if ((current & checkMask) != 0) {
+                return false;
+            }
+            Thread.yield();
+            booked.put(key, current | claimMask);
+            return true;
+        }
+
+        int bits(Integer sitterId, LocalDate date) {
+            return booked.getOrDefault(sitterId + "|" + date, 0);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.petguardian.forum.service;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+
+import com.petguardian.common.util.CjkBigramTokenizer;
+import com.petguardian.forum.model.ForumPostSearchDoc;
+
+/**
+ * 貼文搜尋離線效能比較：倒排索引 (ForumPostSearchIndex) vs. LIKE '%關鍵字%' 全表掃描
+ *
+ * 以固定亂數種子產生合成貼文 (預設 1,000,000 篇)，建立與正式環境相同的主索引，
+ * 再以逐篇比對標題與內容 (等同 LIKE '%關鍵字%' 無法使用 B-tree 索引時的全表掃描) 作為對照，
+ * 各關鍵字先暖機再量測多次，輸出中位數與平均耗時。
+ *
+ * 不連資料庫、不啟動 Spring，也不是單元測試 (Surefire 不會執行)，以 IDE 或 java 直接執行 main：
+ *   參數：[貼文數] [每個關鍵字量測次數]，1,000,000 篇建議 -Xmx4g
+ */
+public class ForumPostSearchBenchmark {
+
+    private static final long SEED = 20240601L;
+    private static final int FORUMS = 20;
+    private static final int WARMUP_ROUNDS = 3;
+
+    // 合成內容用的詞彙；前段為常見詞，後段出現頻率較低
+    private static final String[] WORDS = {
+            "狗狗", "貓咪", "散步", "飼料", "洗澡", "疫苗", "獸醫", "零食", "玩具", "美容",
+            "結紮", "驅蟲", "掉毛", "訓練", "外出", "寄宿", "保母", "到府", "餵食", "陪玩",
+            "柴犬", "柯基", "布偶貓", "英短", "倉鼠", "兔子", "鸚鵡", "烏龜", "刺蝟", "蜜袋鼯",
+            "皮膚病", "腸胃炎", "牙結石", "關節", "過敏", "結膜炎", "心絲蟲", "腎臟", "老犬", "幼貓",
+    };
+
+    // 查詢：常見詞、較少見的詞、兩個詞、不存在的詞
+    private static final String[] KEYWORDS = { "狗狗", "蜜袋鼯", "柴犬 散步", "長頸鹿" };
+
+    public static void main(String[] args) {
+        int posts = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+
+        Random random = new Random(SEED);
+        String[] titles = new String[posts];
+        String[] contents = new String[posts];
+        int[] forumIds = new int[posts];
+
+        long start = System.nanoTime();
+        ForumPostSearchIndex.Builder builder = new ForumPostSearchIndex.Builder();
+        for (int i = 0; i < posts; i++) {
+            titles[i] = sentence(random, 3);
+            contents[i] = sentence(random, 30);
+            forumIds[i] = 1 + random.nextInt(FORUMS);
+            builder.add(new ForumPostSearchDoc(i + 1, forumIds[i], titles[i], contents[i], List.of()));
+        }
+        ForumPostSearchIndex index = new ForumPostSearchIndex();
+        index.replaceAll(builder.build());
+        System.out.printf(Locale.ROOT, "%,d posts generated and indexed in %,d ms%n", posts,
+                (System.nanoTime() - start) / 1_000_000);
+
+        System.out.printf(Locale.ROOT, "%-12s %10s %10s %14s %14s %14s %14s%n", "keyword", "index hits",
+                "like hits", "index median", "index avg", "like median", "like avg");
+        for (String keyword : KEYWORDS) {
+            Set<String> tokens = CjkBigramTokenizer.tokenizeForQuery(keyword);
+            String term = keyword.trim();
+
+            long[] indexMicros = new long[rounds];
+            long[] likeMicros = new long[rounds];
+            int indexHits = 0;
+            int likeHits = 0;
+            for (int round = -WARMUP_ROUNDS; round < rounds; round++) {
+                long t0 = System.nanoTime();
+                indexHits = index.search(tokens, null).size();
+                long t1 = System.nanoTime();
+                likeHits = likeScan(titles, contents, term);
+                long t2 = System.nanoTime();
+                if (round >= 0) {
+                    indexMicros[round] = (t1 - t0) / 1000;
+                    likeMicros[round] = (t2 - t1) / 1000;
+                }
+            }
+            System.out.printf(Locale.ROOT, "%-12s %,10d %,10d %,12d us %,12d us %,12d us %,12d us%n", keyword,
+                    indexHits, likeHits, median(indexMicros), average(indexMicros), median(likeMicros),
+                    average(likeMicros));
+        }
+    }
+
+    // 整個關鍵字出現在標題或內容中 (同 findPostListItemsByKeyword 的 LIKE 條件；多個詞時 LIKE 視為一整串)
+    private static int likeScan(String[] titles, String[] contents, String term) {
+        int hits = 0;
+        for (int i = 0; i < titles.length; i++) {
+            if (titles[i].contains(term) || contents[i].contains(term)) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+
+    // 詞彙依 Zipf 分布抽樣：排在前面的詞出現得多
+    private static String sentence(Random random, int words) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            double u = random.nextDouble();
+            int rank = (int) Math.min(WORDS.length - 1, Math.floor(Math.pow(WORDS.length, u)) - 1);
+            sb.append(WORDS[rank]);
+            sb.append(random.nextInt(4) == 0 ? "，" : "");
+        }
+        return sb.toString();
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    private static long average(long[] values) {
+        long sum = 0;
+        for (long value : values) {
+            sum += value;
+        }
+        return values.length == 0 ? 0 : sum / values.length;
+    }
+}